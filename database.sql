@@ -175,8 +175,11 @@ CREATE TABLE `question` (
   KEY `idx_is_answered` (`is_answered`),
   KEY `idx_create_time` (`create_time`),
   KEY `idx_course_teacher` (`course_id`, `teacher_id`),
-  FULLTEXT KEY `ft_title_content` (`question_title`, `question_content`) COMMENT '全文索引'
+  FULLTEXT KEY `ft_title_content` (`question_title`, `question_content`) WITH PARSER ngram COMMENT '全文索引(ngram分词,支持中文)'
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='问题表';
+-- 已有数据库升级（问题搜索使用 ngram 全文索引）：
+-- ALTER TABLE `question` DROP INDEX `ft_title_content`;
+-- ALTER TABLE `question` ADD FULLTEXT KEY `ft_title_content` (`question_title`, `question_content`) WITH PARSER ngram;
 
 -- -----------------------------------------------------
 -- 2.7 回答表 (answer)
@@ -287,6 +290,59 @@ CREATE TABLE `operation_log` (
   KEY `idx_create_time` (`create_time`)
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='操作日志表';
 
+-- -----------------------------------------------------
+-- 2.13 广播通知表 (broadcast_notification)
+-- 面向全体用户的系统公告只存一条，查询通知列表时与个人通知合并（广播通知以负数ID返回）
+-- 用户只能看到注册之后发布的广播通知
+-- -----------------------------------------------------
+CREATE TABLE `broadcast_notification` (
+  `broadcast_id` BIGINT NOT NULL AUTO_INCREMENT COMMENT '广播通知ID,主键',
+  `notification_type` VARCHAR(50) NOT NULL COMMENT '通知类型: SYSTEM-系统公告',
+  `title` VARCHAR(200) NOT NULL COMMENT '通知标题',
+  `content` TEXT NOT NULL COMMENT '通知内容',
+  `related_id` BIGINT DEFAULT NULL COMMENT '关联ID',
+  `related_type` VARCHAR(50) DEFAULT NULL COMMENT '关联类型',
+  `create_time` DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP COMMENT '创建时间',
+  PRIMARY KEY (`broadcast_id`),
+  KEY `idx_create_time` (`create_time`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='广播通知表';
+
+-- -----------------------------------------------------
+-- 2.14 广播通知用户回执表 (broadcast_receipt)
+-- 记录用户对已读水位之后的单条广播通知的已读、删除操作
+-- -----------------------------------------------------
+CREATE TABLE `broadcast_receipt` (
+  `user_id` BIGINT NOT NULL COMMENT '用户ID',
+  `broadcast_id` BIGINT NOT NULL COMMENT '广播通知ID',
+  `is_read` TINYINT NOT NULL DEFAULT 0 COMMENT '是否已读: 0-未读, 1-已读',
+  `is_dismissed` TINYINT NOT NULL DEFAULT 0 COMMENT '是否已删除(不再显示): 0-否, 1-是',
+  `read_time` DATETIME DEFAULT NULL COMMENT '阅读时间',
+  PRIMARY KEY (`user_id`, `broadcast_id`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='广播通知用户回执表';
+
+-- -----------------------------------------------------
+-- 2.15 广播通知已读水位表 (broadcast_read_state)
+-- 全部标记已读时只更新水位，不为每条广播写回执
+-- -----------------------------------------------------
+CREATE TABLE `broadcast_read_state` (
+  `user_id` BIGINT NOT NULL COMMENT '用户ID,主键',
+  `read_watermark` BIGINT NOT NULL DEFAULT 0 COMMENT '已读水位: 广播ID不大于该值的广播通知均视为已读',
+  `update_time` DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT '更新时间',
+  PRIMARY KEY (`user_id`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='广播通知已读水位表';
+
+-- -----------------------------------------------------
+-- 2.16 通知事件发件箱表 (notification_outbox)
+-- 提问、回答等业务事件与业务数据在同一事务中写入，提交后由后台任务批量生成通知并推送，处理完即删除
+-- -----------------------------------------------------
+CREATE TABLE `notification_outbox` (
+  `outbox_id` BIGINT NOT NULL AUTO_INCREMENT COMMENT '事件ID,主键',
+  `event_type` VARCHAR(50) NOT NULL COMMENT '事件类型: QUESTION_SUBMITTED-学生提问, QUESTION_ANSWERED-教师回答',
+  `payload` TEXT NOT NULL COMMENT '事件内容(JSON)',
+  `create_time` DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP COMMENT '创建时间',
+  PRIMARY KEY (`outbox_id`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='通知事件发件箱表';
+
 -- =====================================================
 -- 3. 初始化系统管理员账号
 -- =====================================================
@@ -7,6 +7,7 @@ import java.lang.annotation.Target;
 
 /**
  * 权限注解 - 标记需要特定角色才能访问的方法
+ * 启动时由 RouteAuthorizationTable 编译为角色位掩码，请求时在 JwtInterceptor 中校验
  * 使用示例:
  * @RequireRole({"ADMIN", "TEACHER"})  // 管理员或教师可访问
  * @RequireRole("STUDENT")             // 仅学生可访问
@@ -0,0 +1,183 @@
+package com.boda.springboot.cache;
+
+import com.boda.springboot.mapper.QuestionMapper;
+import com.boda.springboot.mapper.ResourceMapper;
+import com.boda.springboot.vo.QuestionVO;
+import com.boda.springboot.vo.ResourceVO;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 浏览/下载次数写回缓冲
+ * 问题浏览、资源浏览、资源下载不再每次同步执行单行 UPDATE（考试前热门资源的行锁热点），
+ * 而是先在内存中累加，定时按表合并成批量 UPDATE 写库；应用正常关闭时写完剩余增量。
+ * 读接口在数据库值上叠加尚未写库的增量，计数不会显得滞后。
+ *
+ * 写库失败的增量放回缓冲，下次重试；进程异常退出时最多丢失一个刷新周期内的计数
+ */
+@Slf4j
+@Component
+public class AccessCountBuffer {
+
+    @Autowired
+    private QuestionMapper questionMapper;
+
+    @Autowired
+    private ResourceMapper resourceMapper;
+
+    @Autowired
+    private QuestionDetailCache questionDetailCache;
+
+    @Value("${access-count.batch-size:500}")
+    private int batchSize = 500;
+
+    private final CounterBuffer questionViews = new CounterBuffer();
+
+    private final CounterBuffer resourceViews = new CounterBuffer();
+
+    private final CounterBuffer resourceDownloads = new CounterBuffer();
+
+    public void onQuestionViewed(Long questionId) {
+        questionViews.increment(questionId);
+    }
+
+    public void onResourceViewed(Long resourceId) {
+        resourceViews.increment(resourceId);
+    }
+
+    public void onResourceDownloaded(Long resourceId) {
+        resourceDownloads.increment(resourceId);
+    }
+
+    /**
+     * 问题浏览次数（数据库值 + 未写库增量）
+     */
+    public Integer questionViewCount(Long questionId, Integer stored) {
+        return plus(stored, questionViews.pending(questionId));
+    }
+
+    /**
+     * 在问题列表上叠加未写库的浏览次数
+     */
+    public void applyToQuestions(List<QuestionVO> questions) {
+        for (QuestionVO question : questions) {
+            question.setViewCount(questionViewCount(question.getQuestionId(), question.getViewCount()));
+        }
+    }
+
+    /**
+     * 在资源上叠加未写库的浏览和下载次数
+     */
+    public void applyToResource(ResourceVO resource) {
+        resource.setViewCount(plus(resource.getViewCount(), resourceViews.pending(resource.getResourceId())));
+        resource.setDownloadCount(plus(resource.getDownloadCount(), resourceDownloads.pending(resource.getResourceId())));
+    }
+
+    public void applyToResources(List<ResourceVO> resources) {
+        resources.forEach(this::applyToResource);
+    }
+
+    /**
+     * 定时写库
+     */
+    @Scheduled(fixedDelayString = "${access-count.flush-interval-millis:5000}")
+    public synchronized void flush() {
+        flushQuestions();
+        flushResources();
+    }
+
+    /**
+     * 应用关闭时写完剩余增量
+     */
+    @PreDestroy
+    public void drainOnShutdown() {
+        flush();
+        int remaining = questionViews.size() + resourceViews.size() + resourceDownloads.size();
+        if (remaining > 0) {
+            log.warn("关闭时仍有计数增量未能写库 - 条目数: {}", remaining);
+        }
+    }
+
+    private void flushQuestions() {
+        Map<Long, Long> views = questionViews.drain();
+        if (views.isEmpty()) {
+            return;
+        }
+        for (List<Long> ids : chunks(views.keySet())) {
+            Map<Long, Long> batch = subMap(views, ids);
+            try {
+                questionMapper.batchIncreaseViewCount(batch);
+                questionDetailCache.onViewCountsFlushed(batch);
+            } catch (Exception e) {
+                batch.forEach(questionViews::add);
+                log.warn("写入问题浏览次数失败，稍后重试 - 条目数: {}, 原因: {}", batch.size(), e.getMessage());
+            }
+        }
+        log.debug("问题浏览次数已写库 - 条目数: {}", views.size());
+    }
+
+    private void flushResources() {
+        Map<Long, Long> views = resourceViews.drain();
+        Map<Long, Long> downloads = resourceDownloads.drain();
+        if (views.isEmpty() && downloads.isEmpty()) {
+            return;
+        }
+        Set<Long> resourceIds = new LinkedHashSet<>(views.keySet());
+        resourceIds.addAll(downloads.keySet());
+        for (List<Long> ids : chunks(resourceIds)) {
+            Map<Long, Long> viewBatch = subMap(views, ids);
+            Map<Long, Long> downloadBatch = subMap(downloads, ids);
+            try {
+                resourceMapper.batchIncrementCounts(ids, viewBatch, downloadBatch);
+            } catch (Exception e) {
+                viewBatch.forEach(resourceViews::add);
+                downloadBatch.forEach(resourceDownloads::add);
+                log.warn("写入资源浏览/下载次数失败，稍后重试 - 条目数: {}, 原因: {}", ids.size(), e.getMessage());
+            }
+        }
+        log.debug("资源浏览/下载次数已写库 - 条目数: {}", resourceIds.size());
+    }
+
+    private List<List<Long>> chunks(Set<Long> ids) {
+        List<List<Long>> chunks = new ArrayList<>();
+        List<Long> current = new ArrayList<>();
+        for (Long id : ids) {
+            current.add(id);
+            if (current.size() >= batchSize) {
+                chunks.add(current);
+                current = new ArrayList<>();
+            }
+        }
+        if (!current.isEmpty()) {
+            chunks.add(current);
+        }
+        return chunks;
+    }
+
+    private static Map<Long, Long> subMap(Map<Long, Long> source, List<Long> ids) {
+        Map<Long, Long> result = new HashMap<>();
+        for (Long id : ids) {
+            Long delta = source.get(id);
+            if (delta != null) {
+                result.put(id, delta);
+            }
+        }
+        return result;
+    }
+
+    private static Integer plus(Integer stored, long pending) {
+        long base = stored != null ? stored : 0L;
+        return (int) Math.min(Integer.MAX_VALUE, base + pending);
+    }
+}
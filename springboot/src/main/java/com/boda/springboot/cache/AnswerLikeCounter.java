@@ -0,0 +1,112 @@
+package com.boda.springboot.cache;
+
+import com.boda.springboot.mapper.AnswerMapper;
+import com.boda.springboot.vo.AnswerVO;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * 回答点赞数写回与对账
+ * 点赞/取消点赞只写 answer_like（唯一键保证幂等），点赞数增量先在内存中累加，定时批量写回 answer.like_count；
+ * 读接口叠加尚未写库的增量。
+ *
+ * 对账任务找出 like_count 与 answer_like 实际行数不一致的回答并按实际行数重算，
+ * 修正历史漂移（如旧版本重复取消点赞造成的少计）和进程异常退出丢失的增量；
+ * 仍有未写库增量的回答跳过，留到下一轮
+ */
+@Slf4j
+@Component
+public class AnswerLikeCounter {
+
+    @Autowired
+    private AnswerMapper answerMapper;
+
+    @Autowired
+    private QuestionDetailCache questionDetailCache;
+
+    @Value("${answer-like.reconcile-batch-size:500}")
+    private int reconcileBatchSize = 500;
+
+    private final CounterBuffer likes = new CounterBuffer();
+
+    /**
+     * 点赞成功（插入了点赞记录）
+     */
+    public void onLiked(Long answerId) {
+        likes.increment(answerId);
+    }
+
+    /**
+     * 取消点赞成功（删除了点赞记录）
+     */
+    public void onUnliked(Long answerId) {
+        likes.add(answerId, -1);
+    }
+
+    /**
+     * 在回答列表上叠加未写库的点赞数增量
+     */
+    public void applyToAnswers(List<AnswerVO> answers) {
+        for (AnswerVO answer : answers) {
+            long pending = likes.pending(answer.getAnswerId());
+            if (pending != 0) {
+                long base = answer.getLikeCount() != null ? answer.getLikeCount() : 0L;
+                answer.setLikeCount((int) Math.max(0L, base + pending));
+            }
+        }
+    }
+
+    /**
+     * 定时批量写回点赞数
+     */
+    @Scheduled(fixedDelayString = "${answer-like.flush-interval-millis:2000}")
+    public synchronized void flush() {
+        Map<Long, Long> deltas = likes.drain();
+        if (deltas.isEmpty()) {
+            return;
+        }
+        try {
+            answerMapper.batchAddLikeCount(deltas);
+            questionDetailCache.onLikeCountsFlushed(deltas);
+            log.debug("点赞数已写库 - 回答数: {}", deltas.size());
+        } catch (Exception e) {
+            deltas.forEach(likes::add);
+            log.warn("写入点赞数失败，稍后重试 - 回答数: {}, 原因: {}", deltas.size(), e.getMessage());
+        }
+    }
+
+    /**
+     * 定时对账：按 answer_like 重新计算发生漂移的回答点赞数
+     */
+    @Scheduled(initialDelayString = "${answer-like.reconcile-interval-millis:3600000}",
+            fixedDelayString = "${answer-like.reconcile-interval-millis:3600000}")
+    public synchronized void reconcile() {
+        flush();
+        List<Long> drifted = answerMapper.selectDriftedLikeCountIds(reconcileBatchSize);
+        List<Long> answerIds = drifted.stream()
+                .filter(answerId -> likes.pending(answerId) == 0)
+                .collect(Collectors.toList());
+        if (answerIds.isEmpty()) {
+            return;
+        }
+        answerMapper.recountLikeCount(answerIds);
+        questionDetailCache.evictAnswers(answerIds);
+        log.info("点赞数对账完成 - 修正回答数: {}", answerIds.size());
+    }
+
+    /**
+     * 应用关闭时写完剩余增量
+     */
+    @PreDestroy
+    public void drainOnShutdown() {
+        flush();
+    }
+}
@@ -0,0 +1,14 @@
+package com.boda.springboot.cache;
+
+import com.boda.springboot.vo.CacheMetricsVO;
+
+/**
+ * 提供监控数据的进程内缓存，统一在 /admin/statistics/caches 展示
+ */
+public interface CacheMetricsProvider {
+
+    /**
+     * 获取缓存监控数据
+     */
+    CacheMetricsVO getMetrics();
+}
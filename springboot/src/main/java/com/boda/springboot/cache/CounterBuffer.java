@@ -0,0 +1,75 @@
+package com.boda.springboot.cache;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 按ID累加的计数增量缓冲（写回用）
+ * 每个ID一个 LongAdder，热点ID的并发累加分散到多个槽位，不会在同一个锁或CAS上竞争；
+ * 由定时任务 drain 出增量后批量写库。
+ *
+ * drain 时把本轮为 0 的条目移出，避免长期不活跃的ID占用内存；移出与并发累加之间的竞态由
+ * add 和 drain 双方在移出后再检查一次来兜底，增量不会丢失
+ */
+public class CounterBuffer {
+
+    private final ConcurrentHashMap<Long, LongAdder> deltas = new ConcurrentHashMap<>();
+
+    /**
+     * 累加增量
+     */
+    public void add(Long id, long delta) {
+        if (id == null || delta == 0) {
+            return;
+        }
+        LongAdder adder = deltas.computeIfAbsent(id, k -> new LongAdder());
+        adder.add(delta);
+        if (deltas.get(id) != adder) {
+            // 累加期间该条目被 drain 移出，把落在旧条目上的增量迁回
+            migrate(id, adder);
+        }
+    }
+
+    public void increment(Long id) {
+        add(id, 1);
+    }
+
+    /**
+     * 尚未写库的增量
+     */
+    public long pending(Long id) {
+        LongAdder adder = id != null ? deltas.get(id) : null;
+        return adder != null ? adder.sum() : 0L;
+    }
+
+    /**
+     * 取出全部非零增量并清零
+     */
+    public Map<Long, Long> drain() {
+        Map<Long, Long> drained = new HashMap<>();
+        for (Map.Entry<Long, LongAdder> entry : deltas.entrySet()) {
+            Long id = entry.getKey();
+            LongAdder adder = entry.getValue();
+            long delta = adder.sumThenReset();
+            if (delta != 0) {
+                drained.put(id, delta);
+            } else if (deltas.remove(id, adder)) {
+                migrate(id, adder);
+            }
+        }
+        return drained;
+    }
+
+    public int size() {
+        return deltas.size();
+    }
+
+    private void migrate(Long id, LongAdder detached) {
+        long late = detached.sumThenReset();
+        if (late != 0) {
+            deltas.computeIfAbsent(id, k -> new LongAdder()).add(late);
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package com.boda.springboot.cache;
+
+import cn.hutool.cache.CacheUtil;
+import cn.hutool.cache.impl.LRUCache;
+import com.boda.springboot.entity.Course;
+import com.boda.springboot.mapper.CourseMapper;
+import com.boda.springboot.vo.CacheMetricsVO;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Optional;
+
+/**
+ * 课程读穿透缓存
+ * 课程信息在学期内几乎不变，按课程ID和课程编号缓存（包括"不存在"的结果），
+ * 容量和过期时间有上限；课程的新增、修改、删除通过 CourseServiceImpl 使缓存失效。
+ * 返回的是副本，调用方修改（如填充邀请码）不会影响缓存内容
+ */
+@Slf4j
+@Component
+public class CourseCache implements CacheMetricsProvider {
+
+    @Autowired
+    private CourseMapper courseMapper;
+
+    private final int capacity;
+
+    private final long ttlMillis;
+
+    /**
+     * 课程ID -> 课程（空表示课程不存在或已删除）
+     */
+    private final LRUCache<Long, Optional<Course>> byId;
+
+    /**
+     * 课程编号 -> 课程ID（空表示编号未被使用）
+     */
+    private final LRUCache<String, Optional<Long>> idByCode;
+
+    public CourseCache(@Value("${course-cache.capacity:2000}") int capacity,
+                       @Value("${course-cache.ttl-millis:600000}") long ttlMillis) {
+        this.capacity = capacity;
+        this.ttlMillis = ttlMillis;
+        this.byId = CacheUtil.newLRUCache(capacity, ttlMillis);
+        this.idByCode = CacheUtil.newLRUCache(capacity, ttlMillis);
+    }
+
+    /**
+     * 根据课程ID查询课程（未删除）
+     * @return 课程副本，不存在时返回 null
+     */
+    public Course getById(Long courseId) {
+        if (courseId == null) {
+            return null;
+        }
+        return byId.get(courseId, () -> Optional.ofNullable(courseMapper.selectById(courseId)))
+                .map(CourseCache::copy)
+                .orElse(null);
+    }
+
+    /**
+     * 根据课程编号查询课程（未删除）
+     * @return 课程副本，不存在时返回 null
+     */
+    public Course getByCourseCode(String courseCode) {
+        if (courseCode == null) {
+            return null;
+        }
+        Optional<Long> courseId = idByCode.get(courseCode, () -> {
+            Course course = courseMapper.selectByCourseCode(courseCode);
+            if (course == null) {
+                return Optional.empty();
+            }
+            byId.put(course.getCourseId(), Optional.of(course));
+            return Optional.of(course.getCourseId());
+        });
+        return courseId.map(this::getById).orElse(null);
+    }
+
+    /**
+     * 使课程缓存失效；在事务中调用时，提交后会再清除一次，避免提交前被并发读回旧数据
+     * @param courseId 课程ID（可为空）
+     * @param courseCodes 涉及的课程编号（修改编号时新旧编号都要传）
+     */
+    public void invalidate(Long courseId, String... courseCodes) {
+        evict(courseId, courseCodes);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    evict(courseId, courseCodes);
+                }
+            });
+        }
+    }
+
+    @Override
+    public CacheMetricsVO getMetrics() {
+        return CacheMetricsVO.of("course", byId.size(), capacity, ttlMillis,
+                byId.getHitCount() + idByCode.getHitCount(), byId.getMissCount() + idByCode.getMissCount());
+    }
+
+    private void evict(Long courseId, String... courseCodes) {
+        if (courseId != null) {
+            byId.remove(courseId);
+        }
+        for (String courseCode : courseCodes) {
+            if (courseCode != null) {
+                idByCode.remove(courseCode);
+            }
+        }
+        log.debug("课程缓存失效 - 课程ID: {}", courseId);
+    }
+
+    private static Course copy(Course course) {
+        return new Course(course.getCourseId(), course.getCourseName(), course.getCourseCode(),
+                course.getDescription(), course.getCollege(), course.getCoverImage(), course.getInviteCode(),
+                course.getStatus(), course.getCreateTime(), course.getUpdateTime(), course.getIsDeleted(),
+                course.getTeacherName());
+    }
+}
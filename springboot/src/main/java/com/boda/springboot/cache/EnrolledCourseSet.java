@@ -0,0 +1,79 @@
+package com.boda.springboot.cache;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * 学生已加入课程ID集合（不可变）
+ * 用有序 long[] 存储，判断是否包含用二分查找，比 List&lt;Long&gt;/Set&lt;Long&gt; 省去装箱对象；
+ * 一个学生的课程数很少，增删时复制数组即可
+ */
+public final class EnrolledCourseSet {
+
+    public static final EnrolledCourseSet EMPTY = new EnrolledCourseSet(new long[0]);
+
+    private final long[] courseIds;
+
+    private EnrolledCourseSet(long[] sortedCourseIds) {
+        this.courseIds = sortedCourseIds;
+    }
+
+    public static EnrolledCourseSet of(Collection<Long> courseIds) {
+        if (courseIds == null || courseIds.isEmpty()) {
+            return EMPTY;
+        }
+        long[] ids = courseIds.stream().filter(id -> id != null).mapToLong(Long::longValue).sorted().distinct().toArray();
+        return new EnrolledCourseSet(ids);
+    }
+
+    public boolean contains(long courseId) {
+        return Arrays.binarySearch(courseIds, courseId) >= 0;
+    }
+
+    public int size() {
+        return courseIds.length;
+    }
+
+    /**
+     * 返回加入指定课程后的新集合
+     */
+    public EnrolledCourseSet with(long courseId) {
+        int index = Arrays.binarySearch(courseIds, courseId);
+        if (index >= 0) {
+            return this;
+        }
+        int insertAt = -index - 1;
+        long[] ids = new long[courseIds.length + 1];
+        System.arraycopy(courseIds, 0, ids, 0, insertAt);
+        ids[insertAt] = courseId;
+        System.arraycopy(courseIds, insertAt, ids, insertAt + 1, courseIds.length - insertAt);
+        return new EnrolledCourseSet(ids);
+    }
+
+    /**
+     * 返回移除指定课程后的新集合
+     */
+    public EnrolledCourseSet without(long courseId) {
+        int index = Arrays.binarySearch(courseIds, courseId);
+        if (index < 0) {
+            return this;
+        }
+        long[] ids = new long[courseIds.length - 1];
+        System.arraycopy(courseIds, 0, ids, 0, index);
+        System.arraycopy(courseIds, index + 1, ids, index, courseIds.length - index - 1);
+        return new EnrolledCourseSet(ids);
+    }
+
+    /**
+     * 转为课程ID列表（用于 SQL IN 条件）
+     */
+    public List<Long> toList() {
+        List<Long> list = new ArrayList<>(courseIds.length);
+        for (long courseId : courseIds) {
+            list.add(courseId);
+        }
+        return list;
+    }
+}
@@ -0,0 +1,166 @@
+package com.boda.springboot.cache;
+
+import cn.hutool.cache.CacheUtil;
+import cn.hutool.cache.impl.CacheObj;
+import cn.hutool.cache.impl.LRUCache;
+import com.boda.springboot.mapper.StudentCourseMapper;
+import com.boda.springboot.utils.TransactionHooks;
+import com.boda.springboot.vo.CacheMetricsVO;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 学生选课集合缓存（学生ID -> 已加入课程ID集合）
+ * 资源可见性判断（是否加入课程）和"我的课程"过滤条件都从这里取，不再每次请求查询 student_course；
+ * 加入课程、管理员分配课程、删除课程时在事务提交后同步更新缓存。
+ *
+ * 加载与更新的并发：按学生登记正在进行的加载，加载期间该学生有选课变更则本次结果不放入缓存，
+ * 避免把变更前查到的旧集合写回缓存；删除课程影响所有学生，推进代数使进行中的加载全部作废
+ */
+@Slf4j
+@Component
+public class EnrollmentCache implements CacheMetricsProvider {
+
+    @Autowired
+    private StudentCourseMapper studentCourseMapper;
+
+    private final int capacity;
+
+    private final long ttlMillis;
+
+    private final LRUCache<Long, EnrolledCourseSet> enrollments;
+
+    /**
+     * 删除课程代数
+     */
+    private long generation;
+
+    /**
+     * 正在从数据库加载的学生（学生ID -> 本次加载），由 this 保护
+     */
+    private final Map<Long, Load> loading = new HashMap<>();
+
+    public EnrollmentCache(@Value("${enrollment-cache.capacity:50000}") int capacity,
+                           @Value("${enrollment-cache.ttl-millis:1800000}") long ttlMillis) {
+        this.capacity = capacity;
+        this.ttlMillis = ttlMillis;
+        this.enrollments = CacheUtil.newLRUCache(capacity, ttlMillis);
+    }
+
+    /**
+     * 学生是否已加入课程
+     */
+    public boolean isEnrolled(Long studentId, Long courseId) {
+        if (studentId == null || courseId == null) {
+            return false;
+        }
+        return getCourses(studentId).contains(courseId);
+    }
+
+    /**
+     * 学生已加入的课程ID列表
+     */
+    public List<Long> getCourseIds(Long studentId) {
+        return getCourses(studentId).toList();
+    }
+
+    /**
+     * 学生已加入的课程集合
+     */
+    public EnrolledCourseSet getCourses(Long studentId) {
+        if (studentId == null) {
+            return EnrolledCourseSet.EMPTY;
+        }
+        EnrolledCourseSet courses = enrollments.get(studentId);
+        if (courses != null) {
+            return courses;
+        }
+        Load load = new Load();
+        long loadGeneration;
+        synchronized (this) {
+            loadGeneration = generation;
+            loading.put(studentId, load);
+        }
+        try {
+            courses = EnrolledCourseSet.of(studentCourseMapper.selectCourseIdsByStudentId(studentId));
+        } catch (RuntimeException e) {
+            synchronized (this) {
+                loading.remove(studentId, load);
+            }
+            throw e;
+        }
+        synchronized (this) {
+            // 同一学生的并发加载只保留最后登记的一次
+            if (loading.remove(studentId, load) && !load.stale && generation == loadGeneration) {
+                enrollments.put(studentId, courses);
+            }
+        }
+        return courses;
+    }
+
+    /**
+     * 学生加入课程（事务提交后生效）
+     */
+    public void onEnrolled(Long studentId, Long courseId) {
+        TransactionHooks.afterCommit(() -> update(studentId, courseId, true));
+    }
+
+    /**
+     * 学生退出课程（事务提交后生效）
+     */
+    public void onRemoved(Long studentId, Long courseId) {
+        TransactionHooks.afterCommit(() -> update(studentId, courseId, false));
+    }
+
+    /**
+     * 课程的全部选课关系被删除（事务提交后生效），从所有已缓存的集合中移除该课程
+     */
+    public void onCourseRemoved(Long courseId) {
+        TransactionHooks.afterCommit(() -> {
+            synchronized (this) {
+                generation++;
+                // cacheObjIterator 在缓存锁内复制条目，直接遍历 keySet 会与其他线程的读写冲突
+                Iterator<CacheObj<Long, EnrolledCourseSet>> iterator = enrollments.cacheObjIterator();
+                while (iterator.hasNext()) {
+                    CacheObj<Long, EnrolledCourseSet> entry = iterator.next();
+                    if (entry.getValue().contains(courseId)) {
+                        enrollments.put(entry.getKey(), entry.getValue().without(courseId));
+                    }
+                }
+            }
+            log.debug("选课缓存移除课程 - 课程ID: {}", courseId);
+        });
+    }
+
+    @Override
+    public CacheMetricsVO getMetrics() {
+        return CacheMetricsVO.of("enrollment", enrollments.size(), capacity, ttlMillis,
+                enrollments.getHitCount(), enrollments.getMissCount());
+    }
+
+    private synchronized void update(Long studentId, Long courseId, boolean enrolled) {
+        Load load = loading.get(studentId);
+        if (load != null) {
+            load.stale = true;
+        }
+        EnrolledCourseSet courses = enrollments.get(studentId, false);
+        if (courses != null) {
+            enrollments.put(studentId, enrolled ? courses.with(courseId) : courses.without(courseId));
+        }
+    }
+
+    /**
+     * 一次进行中的加载，stale 表示加载期间该学生的选课有变化
+     */
+    private static final class Load {
+
+        private boolean stale;
+    }
+}
@@ -0,0 +1,157 @@
+package com.boda.springboot.cache;
+
+import cn.hutool.cache.CacheUtil;
+import cn.hutool.cache.impl.LRUCache;
+import com.boda.springboot.common.CountStrategy;
+import com.boda.springboot.common.PageEndpoint;
+import com.boda.springboot.common.PageResult;
+import com.boda.springboot.mapper.TableStatsMapper;
+import com.boda.springboot.properties.PageCountProperties;
+import com.boda.springboot.vo.CacheMetricsVO;
+import com.github.pagehelper.Page;
+import com.github.pagehelper.PageHelper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * 页码分页执行器，按接口配置的 CountStrategy 决定如何得到总数
+ * PageHelper 默认每页都先执行一次 COUNT，列表查询的数据库开销翻倍；
+ * 这里按接口选择：每次精确统计、按筛选条件缓存总数、用表统计信息估算，或不统计只返回 hasNext。
+ * 取到的当前页不满一页时，总数可以由偏移量直接算出，会顺带修正缓存/估算的总数
+ */
+@Slf4j
+@Component
+public class PageCounter implements CacheMetricsProvider {
+
+    @Autowired
+    private TableStatsMapper tableStatsMapper;
+
+    private final PageCountProperties properties;
+
+    /**
+     * 接口 + 筛选条件 -> 总数
+     */
+    private final LRUCache<String, Long> totals;
+
+    public PageCounter(PageCountProperties properties) {
+        this.properties = properties;
+        this.totals = CacheUtil.newLRUCache(properties.getCacheCapacity(), properties.getCacheTtlMillis());
+    }
+
+    /**
+     * 接口当前使用的统计策略
+     */
+    public CountStrategy strategyOf(PageEndpoint endpoint) {
+        CountStrategy strategy = properties.getStrategies().get(endpoint.getKey());
+        return strategy != null ? strategy : properties.getDefaultStrategy();
+    }
+
+    /**
+     * 执行分页查询
+     * @param endpoint 分页接口
+     * @param query 查询（必须直接执行分页的 Mapper 查询，PageHelper 只拦截其中的第一条 SQL）
+     * @param filters 影响总数的全部筛选条件（包括当前用户ID），作为总数缓存的键
+     */
+    public <T> PageResult<T> page(PageEndpoint endpoint, Integer pageNum, Integer pageSize,
+                               Supplier<List<T>> query, Object... filters) {
+        int num = pageNum != null && pageNum > 0 ? pageNum : 1;
+        int size = pageSize != null && pageSize > 0 ? pageSize : 10;
+        CountStrategy strategy = strategyOf(endpoint);
+        try {
+            switch (strategy) {
+                case NONE:
+                    return pageWithoutCount(num, size, query);
+                case CACHED:
+                case ESTIMATED:
+                    return pageWithStoredTotal(endpoint, strategy, num, size, query, filters);
+                default:
+                    return pageExact(num, size, query);
+            }
+        } finally {
+            // 查询未执行（提前返回或抛异常）时不把分页参数遗留给线程上的下一条 SQL
+            PageHelper.clearPage();
+        }
+    }
+
+    private <T> PageResult<T> pageExact(int pageNum, int pageSize, Supplier<List<T>> query) {
+        PageHelper.startPage(pageNum, pageSize);
+        List<T> rows = query.get();
+        long total = rows instanceof Page ? ((Page<T>) rows).getTotal() : rows.size();
+        return withStrategy(new PageResult<>(total, rows), CountStrategy.EXACT);
+    }
+
+    private <T> PageResult<T> pageWithoutCount(int pageNum, int pageSize, Supplier<List<T>> query) {
+        PageHelper.offsetPage((pageNum - 1) * pageSize, pageSize + 1, false);
+        List<T> rows = query.get();
+        boolean hasNext = rows.size() > pageSize;
+        PageResult<T> result = new PageResult<>(-1L, hasNext ? new ArrayList<>(rows.subList(0, pageSize)) : rows);
+        result.setHasNext(hasNext);
+        return withStrategy(result, CountStrategy.NONE);
+    }
+
+    private <T> PageResult<T> pageWithStoredTotal(PageEndpoint endpoint, CountStrategy strategy, int pageNum, int pageSize,
+                                                  Supplier<List<T>> query, Object[] filters) {
+        boolean estimate = strategy == CountStrategy.ESTIMATED && endpoint.getTable() != null && isUnfiltered(filters);
+        String key = endpoint.getKey() + ":" + (estimate ? "*" : Arrays.deepToString(filters));
+        Long total = totals.get(key, false);
+        if (total == null && estimate) {
+            total = estimateRows(endpoint);
+        }
+        if (total == null) {
+            // 未缓存：本次执行 COUNT，结果缓存供后续翻页使用
+            PageResult<T> result = pageExact(pageNum, pageSize, query);
+            totals.put(key, result.getTotal());
+            return withStrategy(result, CountStrategy.CACHED);
+        }
+
+        PageHelper.startPage(pageNum, pageSize, false);
+        List<T> rows = query.get();
+        long offset = (long) (pageNum - 1) * pageSize;
+        long corrected = total;
+        if (rows.size() < pageSize && (!rows.isEmpty() || pageNum == 1)) {
+            // 最后一页：总数可精确得出
+            corrected = offset + rows.size();
+        } else if (total < offset + rows.size()) {
+            corrected = offset + rows.size();
+        }
+        if (corrected != total) {
+            totals.put(key, corrected);
+        }
+        return withStrategy(new PageResult<>(corrected, rows), estimate ? CountStrategy.ESTIMATED : CountStrategy.CACHED);
+    }
+
+    private Long estimateRows(PageEndpoint endpoint) {
+        try {
+            return tableStatsMapper.selectEstimatedRows(endpoint.getTable());
+        } catch (Exception e) {
+            log.warn("查询表统计信息失败 - 表: {}, 原因: {}", endpoint.getTable(), e.getMessage());
+            return null;
+        }
+    }
+
+    private static boolean isUnfiltered(Object[] filters) {
+        for (Object filter : filters) {
+            if (filter != null && !(filter instanceof CharSequence && ((CharSequence) filter).isEmpty())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static <T> PageResult<T> withStrategy(PageResult<T> result, CountStrategy strategy) {
+        result.setCountStrategy(strategy);
+        return result;
+    }
+
+    @Override
+    public CacheMetricsVO getMetrics() {
+        return CacheMetricsVO.of("pageCount", totals.size(), properties.getCacheCapacity(),
+                properties.getCacheTtlMillis(), totals.getHitCount(), totals.getMissCount());
+    }
+}
@@ -0,0 +1,308 @@
+package com.boda.springboot.cache;
+
+import com.boda.springboot.common.PageCursor;
+import com.boda.springboot.entity.Question;
+import com.boda.springboot.mapper.QuestionMapper;
+import com.boda.springboot.utils.TransactionHooks;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * 教师待回答问题队列（内存）
+ * 按教师、教师 + 课程分别维护未回答问题的有序集合（提问时间升序，与 selectPendingQuestions 一致），
+ * 待回答数量直接取集合大小，列表只需按当前页的问题ID回表，不再每次扫描并联表 question。
+ *
+ * 启动时从数据库加载；提问、重新打开（回答被删光）后在事务提交后按ID重新加载，回答、删除问题后直接出队；
+ * 另有定时全量重建修正绕过服务层的变更，重建期间变更的问题在新队列替换后重放。
+ * 加载完成前 isReady 为 false，调用方回退到 SQL 查询
+ */
+@Slf4j
+@Component
+public class PendingQuestionQueue {
+
+    private static final Comparator<Entry> ORDER = Comparator
+            .comparing(Entry::createTime, Comparator.nullsLast(Comparator.naturalOrder()))
+            .thenComparing(Entry::questionId);
+
+    @Autowired
+    private QuestionMapper questionMapper;
+
+    @Value("${pending-question-queue.enabled:true}")
+    private boolean enabled;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private QueueData data = new QueueData();
+
+    private volatile boolean ready;
+
+    /**
+     * 正在全量重建时记录期间变更的问题ID，新队列替换后重放
+     */
+    private volatile Set<Long> changedDuringRebuild;
+
+    public boolean isReady() {
+        return enabled && ready;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOnStartup() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            rebuild();
+        } catch (Exception e) {
+            // 数据库暂不可用时不影响启动，待回答列表回退到 SQL，等待下次重建
+            log.warn("启动时加载待回答问题队列失败: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 从数据库全量重建
+     */
+    @Scheduled(initialDelayString = "${pending-question-queue.rebuild-interval-millis:3600000}",
+            fixedDelayString = "${pending-question-queue.rebuild-interval-millis:3600000}")
+    public synchronized void rebuild() {
+        if (!enabled) {
+            return;
+        }
+        Set<Long> changed = ConcurrentHashMap.newKeySet();
+        changedDuringRebuild = changed;
+        int size;
+        try {
+            QueueData fresh = new QueueData();
+            questionMapper.selectPendingQueueEntries().forEach(question -> fresh.add(entryOf(question)));
+            lock.writeLock().lock();
+            try {
+                data = fresh;
+                ready = true;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            size = fresh.entries.size();
+        } finally {
+            changedDuringRebuild = null;
+        }
+        changed.forEach(this::refresh);
+        log.info("待回答问题队列已加载 - 问题数: {}", size);
+    }
+
+    /**
+     * 新提问或问题重新变为未回答（事务提交后按ID重新加载）
+     */
+    public void onQuestionOpened(Long questionId) {
+        TransactionHooks.afterCommit(() -> refresh(questionId));
+    }
+
+    /**
+     * 问题已回答或已删除（事务提交后出队）
+     */
+    public void onQuestionClosed(Long questionId) {
+        TransactionHooks.afterCommit(() -> remove(questionId));
+    }
+
+    /**
+     * 按数据库当前状态刷新单个问题
+     */
+    public void refresh(Long questionId) {
+        if (!enabled || questionId == null) {
+            return;
+        }
+        markChanged(questionId);
+        Question question;
+        try {
+            question = questionMapper.selectById(questionId);
+        } catch (Exception e) {
+            log.warn("刷新待回答问题队列失败 - 问题ID: {}, 原因: {}", questionId, e.getMessage());
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            data.remove(questionId);
+            if (question != null && isPending(question)) {
+                data.add(entryOf(question));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long questionId) {
+        if (!enabled || questionId == null) {
+            return;
+        }
+        markChanged(questionId);
+        lock.writeLock().lock();
+        try {
+            data.remove(questionId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * 待回答数量
+     * @param courseId 课程ID（为 null 表示该教师的全部课程）
+     */
+    public int pendingCount(Long teacherId, Long courseId) {
+        lock.readLock().lock();
+        try {
+            NavigableSet<Entry> queue = data.queueOf(teacherId, courseId);
+            return queue != null ? queue.size() : 0;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 按页码取问题ID（提问时间升序）
+     */
+    public List<Long> pageIds(Long teacherId, Long courseId, int offset, int limit) {
+        lock.readLock().lock();
+        try {
+            return take(data.queueOf(teacherId, courseId), offset, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 按游标取问题ID：排在 (cursor.time, cursor.id) 之后的问题
+     */
+    public List<Long> idsAfter(Long teacherId, Long courseId, PageCursor cursor, int limit) {
+        lock.readLock().lock();
+        try {
+            NavigableSet<Entry> queue = data.queueOf(teacherId, courseId);
+            if (queue != null && cursor != null) {
+                queue = queue.tailSet(new Entry(cursor.getId(), teacherId, courseId, cursor.getTime()), false);
+            }
+            return take(queue, 0, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return data.entries.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void markChanged(Long questionId) {
+        Set<Long> changed = changedDuringRebuild;
+        if (changed != null) {
+            changed.add(questionId);
+        }
+    }
+
+    private static List<Long> take(NavigableSet<Entry> queue, int offset, int limit) {
+        List<Long> ids = new ArrayList<>();
+        if (queue == null) {
+            return ids;
+        }
+        Iterator<Entry> iterator = queue.iterator();
+        for (int i = 0; i < offset && iterator.hasNext(); i++) {
+            iterator.next();
+        }
+        while (ids.size() < limit && iterator.hasNext()) {
+            ids.add(iterator.next().questionId());
+        }
+        return ids;
+    }
+
+    /**
+     * 与 selectPendingQuestions 的条件一致（selectById 已排除逻辑删除的问题）
+     */
+    private static boolean isPending(Question question) {
+        return question.getTeacherId() != null
+                && Integer.valueOf(0).equals(question.getIsAnswered())
+                && Integer.valueOf(1).equals(question.getStatus());
+    }
+
+    private static Entry entryOf(Question question) {
+        return new Entry(question.getQuestionId(), question.getTeacherId(), question.getCourseId(), question.getCreateTime());
+    }
+
+    private record Entry(Long questionId, Long teacherId, Long courseId, LocalDateTime createTime) {
+    }
+
+    /**
+     * 队列数据，由外层读写锁保护
+     */
+    private static class QueueData {
+
+        private final Map<Long, Entry> entries = new HashMap<>();
+
+        private final Map<Long, NavigableSet<Entry>> byTeacher = new HashMap<>();
+
+        private final Map<Long, Map<Long, NavigableSet<Entry>>> byTeacherCourse = new HashMap<>();
+
+        NavigableSet<Entry> queueOf(Long teacherId, Long courseId) {
+            if (courseId == null) {
+                return byTeacher.get(teacherId);
+            }
+            Map<Long, NavigableSet<Entry>> courses = byTeacherCourse.get(teacherId);
+            return courses != null ? courses.get(courseId) : null;
+        }
+
+        void add(Entry entry) {
+            if (entry.questionId() == null || entry.teacherId() == null) {
+                return;
+            }
+            entries.put(entry.questionId(), entry);
+            byTeacher.computeIfAbsent(entry.teacherId(), k -> new TreeSet<>(ORDER)).add(entry);
+            byTeacherCourse.computeIfAbsent(entry.teacherId(), k -> new HashMap<>())
+                    .computeIfAbsent(entry.courseId(), k -> new TreeSet<>(ORDER)).add(entry);
+        }
+
+        void remove(Long questionId) {
+            Entry entry = entries.remove(questionId);
+            if (entry == null) {
+                return;
+            }
+            NavigableSet<Entry> all = byTeacher.get(entry.teacherId());
+            if (all != null) {
+                all.remove(entry);
+                if (all.isEmpty()) {
+                    byTeacher.remove(entry.teacherId());
+                }
+            }
+            Map<Long, NavigableSet<Entry>> courses = byTeacherCourse.get(entry.teacherId());
+            if (courses != null) {
+                NavigableSet<Entry> course = courses.get(entry.courseId());
+                if (course != null) {
+                    course.remove(entry);
+                    if (course.isEmpty()) {
+                        courses.remove(entry.courseId());
+                    }
+                }
+                if (courses.isEmpty()) {
+                    byTeacherCourse.remove(entry.teacherId());
+                }
+            }
+        }
+    }
+}
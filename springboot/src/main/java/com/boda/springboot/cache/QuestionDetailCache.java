@@ -0,0 +1,208 @@
+package com.boda.springboot.cache;
+
+import cn.hutool.cache.CacheUtil;
+import cn.hutool.cache.impl.CacheObj;
+import cn.hutool.cache.impl.LRUCache;
+import com.boda.springboot.mapper.AnswerMapper;
+import com.boda.springboot.mapper.QuestionMapper;
+import com.boda.springboot.vo.AnswerVO;
+import com.boda.springboot.vo.CacheMetricsVO;
+import com.boda.springboot.vo.QuestionDetailVO;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.BeanUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.BiConsumer;
+
+/**
+ * 问题详情共享缓存（问题ID -> 问题详情 + 全部回答）
+ * 缓存内容与查看者无关（不含 is_liked），同一问题被多人查看只加载一次；
+ * 每个用户的点赞标记由 QuestionServiceImpl 用 selectLikedAnswerIds 单独查询后叠加。
+ *
+ * 问题或回答的修改、删除、新增回答时使缓存失效；浏览次数和点赞数写回数据库后，
+ * 由 AccessCountBuffer、AnswerLikeCounter 把已写库的增量同步到缓存，缓存值始终等于数据库值。
+ * 返回的是副本，调用方叠加未写库的增量不会影响缓存内容
+ */
+@Slf4j
+@Component
+public class QuestionDetailCache implements CacheMetricsProvider {
+
+    @Autowired
+    private QuestionMapper questionMapper;
+
+    @Autowired
+    private AnswerMapper answerMapper;
+
+    private final int capacity;
+
+    private final long ttlMillis;
+
+    /**
+     * 问题ID -> 问题详情（空表示问题不存在或已删除）
+     */
+    private final LRUCache<Long, Optional<QuestionDetailVO>> details;
+
+    /**
+     * 修改代数：加载期间发生过失效或计数同步的，加载结果不放入缓存
+     */
+    private long generation;
+
+    public QuestionDetailCache(@Value("${question-detail-cache.capacity:2000}") int capacity,
+                               @Value("${question-detail-cache.ttl-millis:300000}") long ttlMillis) {
+        this.capacity = capacity;
+        this.ttlMillis = ttlMillis;
+        this.details = CacheUtil.newLRUCache(capacity, ttlMillis);
+    }
+
+    /**
+     * 查询问题详情（含回答，is_liked 未填充）
+     * @return 详情副本，问题不存在时返回 null
+     */
+    public QuestionDetailVO get(Long questionId) {
+        if (questionId == null) {
+            return null;
+        }
+        Optional<QuestionDetailVO> detail = details.get(questionId);
+        if (detail == null) {
+            long loadGeneration;
+            synchronized (this) {
+                loadGeneration = generation;
+            }
+            detail = Optional.ofNullable(load(questionId));
+            synchronized (this) {
+                if (generation == loadGeneration) {
+                    details.put(questionId, detail);
+                }
+            }
+        }
+        return detail.map(QuestionDetailCache::copy).orElse(null);
+    }
+
+    /**
+     * 使问题详情缓存失效；在事务中调用时，提交后会再清除一次
+     */
+    public void invalidate(Long questionId) {
+        evict(questionId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    evict(questionId);
+                }
+            });
+        }
+    }
+
+    /**
+     * 浏览次数增量已写库，同步到缓存
+     */
+    public synchronized void onViewCountsFlushed(Map<Long, Long> views) {
+        generation++;
+        views.forEach((questionId, delta) -> {
+            Optional<QuestionDetailVO> cached = details.get(questionId, false);
+            if (cached != null && cached.isPresent()) {
+                QuestionDetailVO detail = copy(cached.get());
+                detail.setViewCount(plus(detail.getViewCount(), delta));
+                details.put(questionId, Optional.of(detail));
+            }
+        });
+    }
+
+    /**
+     * 点赞数增量已写库，同步到缓存
+     */
+    public synchronized void onLikeCountsFlushed(Map<Long, Long> likes) {
+        generation++;
+        forEachContaining(likes.keySet(), (questionId, detail) -> {
+            QuestionDetailVO updated = copy(detail);
+            for (AnswerVO answer : updated.getAnswers()) {
+                Long delta = likes.get(answer.getAnswerId());
+                if (delta != null) {
+                    answer.setLikeCount((int) Math.max(0L, plus(answer.getLikeCount(), delta)));
+                }
+            }
+            details.put(questionId, Optional.of(updated));
+        });
+    }
+
+    /**
+     * 点赞数被重算，移除包含这些回答的缓存
+     */
+    public synchronized void evictAnswers(Collection<Long> answerIds) {
+        generation++;
+        forEachContaining(answerIds, (questionId, detail) -> details.remove(questionId));
+    }
+
+    @Override
+    public CacheMetricsVO getMetrics() {
+        return CacheMetricsVO.of("question-detail", details.size(), capacity, ttlMillis,
+                details.getHitCount(), details.getMissCount());
+    }
+
+    private QuestionDetailVO load(Long questionId) {
+        QuestionDetailVO detail = questionMapper.selectDetailById(questionId);
+        if (detail != null) {
+            detail.setAnswers(answerMapper.selectByQuestionId(questionId, null));
+        }
+        return detail;
+    }
+
+    private synchronized void evict(Long questionId) {
+        generation++;
+        if (questionId != null) {
+            details.remove(questionId);
+        }
+        log.debug("问题详情缓存失效 - 问题ID: {}", questionId);
+    }
+
+    /**
+     * 遍历包含指定回答的已缓存详情
+     * cacheObjIterator 在缓存锁内复制条目；keySet() 的复制不加锁，会与其他线程的读写冲突
+     */
+    private void forEachContaining(Collection<Long> answerIds,
+                                   BiConsumer<Long, QuestionDetailVO> action) {
+        Iterator<CacheObj<Long, Optional<QuestionDetailVO>>> iterator = details.cacheObjIterator();
+        while (iterator.hasNext()) {
+            CacheObj<Long, Optional<QuestionDetailVO>> entry = iterator.next();
+            Optional<QuestionDetailVO> cached = entry.getValue();
+            if (cached == null || cached.isEmpty() || cached.get().getAnswers() == null) {
+                continue;
+            }
+            boolean contains = cached.get().getAnswers().stream()
+                    .anyMatch(answer -> answerIds.contains(answer.getAnswerId()));
+            if (contains) {
+                action.accept(entry.getKey(), cached.get());
+            }
+        }
+    }
+
+    private static int plus(Integer stored, long delta) {
+        long base = stored != null ? stored : 0L;
+        return (int) Math.min(Integer.MAX_VALUE, base + delta);
+    }
+
+    private static QuestionDetailVO copy(QuestionDetailVO detail) {
+        QuestionDetailVO copy = new QuestionDetailVO();
+        BeanUtils.copyProperties(detail, copy);
+        if (detail.getAnswers() != null) {
+            List<AnswerVO> answers = new ArrayList<>(detail.getAnswers().size());
+            for (AnswerVO answer : detail.getAnswers()) {
+                AnswerVO answerCopy = new AnswerVO();
+                BeanUtils.copyProperties(answer, answerCopy);
+                answers.add(answerCopy);
+            }
+            copy.setAnswers(answers);
+        }
+        return copy;
+    }
+}
@@ -0,0 +1,387 @@
+package com.boda.springboot.cache;
+
+import com.boda.springboot.common.Constant;
+import com.boda.springboot.entity.Resource;
+import com.boda.springboot.mapper.ResourceMapper;
+import com.boda.springboot.utils.TransactionHooks;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * 资源搜索内存倒排索引
+ * 只索引已上架（status = 1）且未删除的资源：标题、标签、描述按中文二字词 + 空白切词（字母数字词含前缀）建倒排表，
+ * 课程、可见性、文件类型各维护一个位图（以资源ID为下标），过滤条件与 selectPageList 一致；
+ * 超出 int 范围的资源ID无法放入位图，这些资源在过滤时直接比较字段。
+ * 搜索时所有查询词都须命中，按 TF-IDF 得分排序（标题权重最高），返回资源ID，不扫描 resource 表。
+ *
+ * 启动时从数据库全量构建，上传、修改、删除、恢复、置顶后在事务提交后按ID重新加载单条资源；
+ * 另有低频定时全量重建，修正绕过服务层的数据变更；重建期间发生的单条变更在新索引替换后重放。
+ * 构建完成前 isReady 为 false，调用方回退到 SQL 搜索
+ */
+@Slf4j
+@Component
+public class ResourceSearchIndex {
+
+    private static final int TITLE_WEIGHT = 3;
+
+    private static final int TAGS_WEIGHT = 2;
+
+    private static final int DESCRIPTION_WEIGHT = 1;
+
+    @Autowired
+    private ResourceMapper resourceMapper;
+
+    @Value("${resource-search.index-enabled:true}")
+    private boolean enabled;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private IndexData data = new IndexData();
+
+    private volatile boolean ready;
+
+    /**
+     * 正在全量重建时记录期间变更的资源ID，新索引替换后重放
+     */
+    private volatile Set<Long> changedDuringRebuild;
+
+    public boolean isReady() {
+        return enabled && ready;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildOnStartup() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            rebuild();
+        } catch (Exception e) {
+            // 数据库暂不可用时不影响启动，搜索回退到 SQL，等待下次重建
+            log.warn("启动时构建资源搜索索引失败: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 从数据库全量重建索引
+     */
+    @Scheduled(initialDelayString = "${resource-search.rebuild-interval-millis:86400000}",
+            fixedDelayString = "${resource-search.rebuild-interval-millis:86400000}")
+    public synchronized void rebuild() {
+        if (!enabled) {
+            return;
+        }
+        Set<Long> changed = ConcurrentHashMap.newKeySet();
+        changedDuringRebuild = changed;
+        int size;
+        try {
+            IndexData fresh = new IndexData();
+            resourceMapper.selectSearchDocuments().forEach(fresh::add);
+            lock.writeLock().lock();
+            try {
+                data = fresh;
+                ready = true;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            size = fresh.documents.size();
+        } finally {
+            changedDuringRebuild = null;
+        }
+        changed.forEach(this::refresh);
+        log.info("资源搜索索引已构建 - 资源数: {}", size);
+    }
+
+    /**
+     * 资源新增或变更（事务提交后按ID重新加载）
+     */
+    public void onResourceChanged(Long resourceId) {
+        TransactionHooks.afterCommit(() -> refresh(resourceId));
+    }
+
+    /**
+     * 按数据库当前状态刷新单条资源：已删除或未上架的从索引移除
+     */
+    public void refresh(Long resourceId) {
+        if (!enabled || resourceId == null) {
+            return;
+        }
+        Set<Long> changed = changedDuringRebuild;
+        if (changed != null) {
+            changed.add(resourceId);
+        }
+        Resource resource;
+        try {
+            resource = resourceMapper.selectById(resourceId);
+        } catch (Exception e) {
+            log.warn("刷新资源搜索索引失败 - 资源ID: {}, 原因: {}", resourceId, e.getMessage());
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            data.remove(resourceId);
+            if (resource != null && Integer.valueOf(1).equals(resource.getStatus())) {
+                data.add(resource);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * 搜索资源
+     * @param keyword 关键词
+     * @param courseId 课程ID（-1 表示无课程归属的资源）
+     * @param enrolledCourseIds 学生已加入的课程（为 null 表示不按选课过滤）
+     * @param visibility 可见性
+     * @param fileType 文件类型
+     * @return 按相关度排序的资源ID
+     */
+    public List<Long> search(String keyword, Long courseId, List<Long> enrolledCourseIds,
+                             String visibility, String fileType) {
+        List<String> tokens = SearchTokenizer.queryTokens(keyword);
+        if (tokens.isEmpty()) {
+            return new ArrayList<>();
+        }
+        Filter filter = new Filter(courseId, enrolledCourseIds == null ? null : new HashSet<>(enrolledCourseIds),
+                visibility == null || visibility.isEmpty() ? null : visibility,
+                fileType == null || fileType.isEmpty() ? null : fileType);
+        lock.readLock().lock();
+        try {
+            return data.search(tokens, filter, data.filter(filter));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return data.documents.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 单条资源的索引内容
+     */
+    private record Document(long resourceId, Long courseId, String visibility, String fileType,
+                            int isTop, LocalDateTime createTime, Map<String, Integer> tokens) {
+    }
+
+    /**
+     * 搜索过滤条件，为 null 的条件不过滤
+     */
+    private record Filter(Long courseId, Set<Long> enrolledCourseIds, String visibility, String fileType) {
+
+        /**
+         * 直接按字段判断（用于无法放入位图的资源ID），与位图过滤结果一致
+         */
+        boolean matches(Document document) {
+            if (courseId != null) {
+                if (courseId == -1 ? document.courseId() != null : !courseId.equals(document.courseId())) {
+                    return false;
+                }
+            } else if (enrolledCourseIds != null) {
+                boolean visible = enrolledCourseIds.isEmpty()
+                        ? document.courseId() == null && Constant.RESOURCE_PUBLIC.equals(document.visibility())
+                        : document.courseId() == null || enrolledCourseIds.contains(document.courseId());
+                if (!visible) {
+                    return false;
+                }
+            }
+            return (visibility == null || visibility.equals(document.visibility()))
+                    && (fileType == null || fileType.equals(document.fileType()));
+        }
+    }
+
+    /**
+     * 索引数据（倒排表 + 过滤位图），由外层读写锁保护
+     */
+    private static class IndexData {
+
+        private final Map<Long, Document> documents = new HashMap<>();
+
+        private final Map<String, Map<Long, Integer>> postings = new HashMap<>();
+
+        private final Map<Long, BitSet> byCourse = new HashMap<>();
+
+        private final BitSet noCourse = new BitSet();
+
+        private final Map<String, BitSet> byVisibility = new HashMap<>();
+
+        private final Map<String, BitSet> byFileType = new HashMap<>();
+
+        List<Long> search(List<String> tokens, Filter filter, BitSet allowed) {
+            List<Map<Long, Integer>> lists = new ArrayList<>(tokens.size());
+            for (String token : tokens) {
+                Map<Long, Integer> list = postings.get(token);
+                if (list == null) {
+                    return new ArrayList<>();
+                }
+                lists.add(list);
+            }
+            // 从最短的倒排表开始求交集
+            lists.sort(Comparator.comparingInt(Map::size));
+
+            Map<Long, Double> scores = new HashMap<>();
+            candidates:
+            for (Long resourceId : lists.get(0).keySet()) {
+                if (allowed != null && !(fitsBitmap(resourceId)
+                        ? allowed.get(resourceId.intValue())
+                        : filter.matches(documents.get(resourceId)))) {
+                    continue;
+                }
+                double score = 0;
+                for (Map<Long, Integer> list : lists) {
+                    Integer weight = list.get(resourceId);
+                    if (weight == null) {
+                        continue candidates;
+                    }
+                    score += weight * Math.log(1 + (double) documents.size() / list.size());
+                }
+                scores.put(resourceId, score);
+            }
+
+            List<Long> result = new ArrayList<>(scores.keySet());
+            result.sort(Comparator.<Long>comparingDouble(scores::get).reversed()
+                    .thenComparing(id -> documents.get(id).isTop(), Comparator.reverseOrder())
+                    .thenComparing(id -> documents.get(id).createTime(), Comparator.nullsLast(Comparator.reverseOrder()))
+                    .thenComparing(Comparator.reverseOrder()));
+            return result;
+        }
+
+        /**
+         * 过滤位图，与 selectPageList 的课程/选课/可见性/文件类型条件一致；无过滤条件时返回 null
+         */
+        BitSet filter(Filter filter) {
+            Long courseId = filter.courseId();
+            Set<Long> enrolledCourseIds = filter.enrolledCourseIds();
+            String visibility = filter.visibility();
+            String fileType = filter.fileType();
+            BitSet allowed = null;
+            if (courseId != null) {
+                allowed = copy(courseId == -1 ? noCourse : byCourse.get(courseId));
+            } else if (enrolledCourseIds != null) {
+                allowed = copy(noCourse);
+                if (enrolledCourseIds.isEmpty()) {
+                    allowed.and(orEmpty(byVisibility.get(Constant.RESOURCE_PUBLIC)));
+                } else {
+                    for (Long enrolledCourseId : enrolledCourseIds) {
+                        allowed.or(orEmpty(byCourse.get(enrolledCourseId)));
+                    }
+                }
+            }
+            if (visibility != null) {
+                allowed = and(allowed, byVisibility.get(visibility));
+            }
+            if (fileType != null) {
+                allowed = and(allowed, byFileType.get(fileType));
+            }
+            return allowed;
+        }
+
+        void add(Resource resource) {
+            Long resourceId = resource.getResourceId();
+            if (resourceId == null) {
+                return;
+            }
+            Map<String, Integer> tokens = new HashMap<>();
+            SearchTokenizer.addDocumentTokens(resource.getResourceTitle(), TITLE_WEIGHT, tokens);
+            SearchTokenizer.addDocumentTokens(resource.getTags(), TAGS_WEIGHT, tokens);
+            SearchTokenizer.addDocumentTokens(resource.getDescription(), DESCRIPTION_WEIGHT, tokens);
+            Document document = new Document(resourceId, resource.getCourseId(), resource.getVisibility(),
+                    resource.getFileType(), resource.getIsTop() != null ? resource.getIsTop() : 0,
+                    resource.getCreateTime(), tokens);
+            documents.put(resourceId, document);
+            tokens.forEach((token, weight) -> postings.computeIfAbsent(token, k -> new HashMap<>()).put(resourceId, weight));
+            if (!fitsBitmap(resourceId)) {
+                return;
+            }
+            int bit = resourceId.intValue();
+            if (document.courseId() == null) {
+                noCourse.set(bit);
+            } else {
+                byCourse.computeIfAbsent(document.courseId(), k -> new BitSet()).set(bit);
+            }
+            if (document.visibility() != null) {
+                byVisibility.computeIfAbsent(document.visibility(), k -> new BitSet()).set(bit);
+            }
+            if (document.fileType() != null) {
+                byFileType.computeIfAbsent(document.fileType(), k -> new BitSet()).set(bit);
+            }
+        }
+
+        void remove(Long resourceId) {
+            Document document = documents.remove(resourceId);
+            if (document == null) {
+                return;
+            }
+            for (String token : document.tokens().keySet()) {
+                Map<Long, Integer> list = postings.get(token);
+                if (list != null) {
+                    list.remove(resourceId);
+                    if (list.isEmpty()) {
+                        postings.remove(token);
+                    }
+                }
+            }
+            if (!fitsBitmap(resourceId)) {
+                return;
+            }
+            int bit = resourceId.intValue();
+            if (document.courseId() == null) {
+                noCourse.clear(bit);
+            } else {
+                clear(byCourse.get(document.courseId()), bit);
+            }
+            clear(byVisibility.get(document.visibility()), bit);
+            clear(byFileType.get(document.fileType()), bit);
+        }
+
+        private static boolean fitsBitmap(Long resourceId) {
+            return resourceId >= 0 && resourceId <= Integer.MAX_VALUE;
+        }
+
+        private static void clear(BitSet bits, int bit) {
+            if (bits != null) {
+                bits.clear(bit);
+            }
+        }
+
+        private static BitSet and(BitSet allowed, BitSet bits) {
+            if (allowed == null) {
+                return copy(bits);
+            }
+            allowed.and(orEmpty(bits));
+            return allowed;
+        }
+
+        private static BitSet copy(BitSet bits) {
+            return bits != null ? (BitSet) bits.clone() : new BitSet();
+        }
+
+        private static BitSet orEmpty(BitSet bits) {
+            return bits != null ? bits : new BitSet();
+        }
+    }
+}
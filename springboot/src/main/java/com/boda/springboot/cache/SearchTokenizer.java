@@ -0,0 +1,133 @@
+package com.boda.springboot.cache;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 资源搜索分词
+ * 中文（CJK）连续文本切成单字和相邻二字（bigram），其他文本按空白和标点切词并转小写。
+ * 建索引时单字和二字都写入，字母数字词除整词外还写入长度不小于 2 的前缀（"spring" 可以命中 "springboot"）；
+ * 查询时长度不小于 2 的中文片段只用二字词（更有区分度），单字查询才用单字。
+ * 不含中文且带有符号的关键词（如 "C++"、"C#"）索引无法准确匹配，由调用方回退到 SQL LIKE（见 isIndexable）
+ */
+public final class SearchTokenizer {
+
+    /**
+     * 字母数字词写入索引的最长前缀，更长的查询词截断到该长度后按前缀匹配
+     */
+    static final int MAX_PREFIX_LENGTH = 20;
+
+    private SearchTokenizer() {
+    }
+
+    /**
+     * 文档分词，累加到 token -> 权重
+     * @param weight 字段权重（标题高于标签高于描述）
+     */
+    public static void addDocumentTokens(String text, int weight, Map<String, Integer> target) {
+        if (text == null || text.isEmpty()) {
+            return;
+        }
+        for (String run : runs(text)) {
+            if (isCjk(run.codePointAt(0))) {
+                int[] chars = run.codePoints().toArray();
+                for (int i = 0; i < chars.length; i++) {
+                    target.merge(new String(chars, i, 1), weight, Integer::sum);
+                    if (i + 1 < chars.length) {
+                        target.merge(new String(chars, i, 2), weight, Integer::sum);
+                    }
+                }
+            } else {
+                int[] chars = run.codePoints().toArray();
+                target.merge(run, weight, Integer::sum);
+                for (int length = 2; length < chars.length && length <= MAX_PREFIX_LENGTH; length++) {
+                    target.merge(new String(chars, 0, length), weight, Integer::sum);
+                }
+            }
+        }
+    }
+
+    /**
+     * 查询分词（去重）
+     */
+    public static List<String> queryTokens(String keyword) {
+        Set<String> tokens = new LinkedHashSet<>();
+        if (keyword != null) {
+            for (String run : runs(keyword)) {
+                int[] chars = run.codePoints().toArray();
+                if (isCjk(chars[0]) && chars.length > 1) {
+                    for (int i = 0; i + 1 < chars.length; i++) {
+                        tokens.add(new String(chars, i, 2));
+                    }
+                } else if (!isCjk(chars[0]) && chars.length > MAX_PREFIX_LENGTH) {
+                    tokens.add(new String(chars, 0, MAX_PREFIX_LENGTH));
+                } else {
+                    tokens.add(run);
+                }
+            }
+        }
+        return new ArrayList<>(tokens);
+    }
+
+    /**
+     * 关键词能否由索引搜索
+     * 分词会丢弃标点符号，不含中文且带有符号的关键词（如 "C++" 会变成 "c"）应回退到 SQL LIKE 精确匹配
+     */
+    public static boolean isIndexable(String keyword) {
+        if (keyword == null) {
+            return false;
+        }
+        boolean symbol = false;
+        for (int i = 0; i < keyword.length(); ) {
+            int cp = keyword.codePointAt(i);
+            i += Character.charCount(cp);
+            if (isCjk(cp)) {
+                return true;
+            }
+            if (!Character.isLetterOrDigit(cp) && !Character.isWhitespace(cp)) {
+                symbol = true;
+            }
+        }
+        return !symbol;
+    }
+
+    /**
+     * 切分为连续的中文片段或词（字母数字）片段，空白和标点作为分隔
+     */
+    private static List<String> runs(String text) {
+        List<String> runs = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        Boolean currentCjk = null;
+        for (int i = 0; i < text.length(); ) {
+            int cp = text.codePointAt(i);
+            i += Character.charCount(cp);
+            boolean cjk = isCjk(cp);
+            if (!cjk && !Character.isLetterOrDigit(cp)) {
+                flush(current, runs);
+                currentCjk = null;
+                continue;
+            }
+            if (currentCjk != null && currentCjk != cjk) {
+                flush(current, runs);
+            }
+            current.appendCodePoint(Character.toLowerCase(cp));
+            currentCjk = cjk;
+        }
+        flush(current, runs);
+        return runs;
+    }
+
+    private static void flush(StringBuilder current, List<String> runs) {
+        if (current.length() > 0) {
+            runs.add(current.toString());
+            current.setLength(0);
+        }
+    }
+
+    private static boolean isCjk(int codePoint) {
+        return Character.UnicodeScript.of(codePoint) == Character.UnicodeScript.HAN;
+    }
+}
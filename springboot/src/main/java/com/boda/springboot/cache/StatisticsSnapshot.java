@@ -0,0 +1,181 @@
+package com.boda.springboot.cache;
+
+import com.boda.springboot.common.Constant;
+import com.boda.springboot.mapper.AnswerMapper;
+import com.boda.springboot.mapper.CourseMapper;
+import com.boda.springboot.mapper.QuestionMapper;
+import com.boda.springboot.mapper.ResourceMapper;
+import com.boda.springboot.mapper.UserMapper;
+import com.boda.springboot.utils.TransactionHooks;
+import com.boda.springboot.vo.StatisticsOverviewVO;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 系统概览统计快照
+ * 启动时从数据库加载各项总数，之后由用户、课程、资源、问题、回答的新增/删除事件（事务提交后）增量维护，
+ * 概览接口直接读内存；定时与数据库对账修正漂移。
+ *
+ * 无法确定增量的变更（如管理员修改学生的删除标记）只标记用户数待对账，由短周期任务尽快重算
+ */
+@Slf4j
+@Component
+public class StatisticsSnapshot {
+
+    @Autowired
+    private UserMapper userMapper;
+    @Autowired
+    private CourseMapper courseMapper;
+    @Autowired
+    private ResourceMapper resourceMapper;
+    @Autowired
+    private QuestionMapper questionMapper;
+    @Autowired
+    private AnswerMapper answerMapper;
+
+    private final AtomicLong students = new AtomicLong();
+    private final AtomicLong teachers = new AtomicLong();
+    private final AtomicLong courses = new AtomicLong();
+    private final AtomicLong resources = new AtomicLong();
+    private final AtomicLong questions = new AtomicLong();
+    private final AtomicLong answers = new AtomicLong();
+
+    /**
+     * 是否已成功从数据库加载过
+     */
+    private volatile boolean loaded;
+
+    /**
+     * 用户数待重算
+     */
+    private final AtomicBoolean usersDirty = new AtomicBoolean();
+
+    /**
+     * 获取概览（内存读取）；启动时数据库不可用导致尚未加载时，先同步加载一次
+     */
+    public StatisticsOverviewVO getOverview() {
+        if (!loaded) {
+            reconcile();
+        }
+        StatisticsOverviewVO overview = new StatisticsOverviewVO();
+        overview.setTotalStudents(students.get());
+        overview.setTotalTeachers(teachers.get());
+        overview.setTotalUsers(overview.getTotalStudents() + overview.getTotalTeachers());
+        overview.setTotalCourses(courses.get());
+        overview.setTotalResources(resources.get());
+        overview.setTotalQuestions(questions.get());
+        overview.setTotalAnswers(answers.get());
+        return overview;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOnStartup() {
+        try {
+            reconcile();
+        } catch (Exception e) {
+            // 数据库暂不可用时不影响启动，首次查询概览或下次对账时再加载
+            log.warn("启动时加载统计数据失败: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 与数据库对账：重新统计各项总数覆盖内存值
+     * 对账期间提交的增量可能被覆盖，误差在下次对账时修正
+     */
+    @Scheduled(initialDelayString = "${statistics.reconcile-interval-millis:600000}",
+            fixedDelayString = "${statistics.reconcile-interval-millis:600000}")
+    public synchronized void reconcile() {
+        usersDirty.set(false);
+        students.set(toLong(userMapper.countStudents()));
+        teachers.set(toLong(userMapper.countTeachers()));
+        courses.set(toLong(courseMapper.countCourses()));
+        resources.set(toLong(resourceMapper.countResources()));
+        questions.set(toLong(questionMapper.countQuestions()));
+        answers.set(toLong(answerMapper.countAnswers()));
+        loaded = true;
+        log.debug("统计数据已对账 - 学生: {}, 教师: {}, 课程: {}, 资源: {}, 问题: {}, 回答: {}",
+                students.get(), teachers.get(), courses.get(), resources.get(), questions.get(), answers.get());
+    }
+
+    /**
+     * 用户数被标记为待重算时，只重新统计学生和教师数
+     */
+    @Scheduled(fixedDelayString = "${statistics.dirty-check-millis:5000}")
+    public void reconcileDirtyUsers() {
+        if (!usersDirty.compareAndSet(true, false)) {
+            return;
+        }
+        try {
+            students.set(toLong(userMapper.countStudents()));
+            teachers.set(toLong(userMapper.countTeachers()));
+        } catch (Exception e) {
+            usersDirty.set(true);
+            log.warn("重新统计用户数失败: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 新增用户
+     */
+    public void onUsersCreated(String role, long count) {
+        if (Constant.ROLE_STUDENT.equals(role)) {
+            add(students, count);
+        } else if (Constant.ROLE_TEACHER.equals(role)) {
+            add(teachers, count);
+        }
+    }
+
+    /**
+     * 用户删除标记等发生了无法确定增量的变更
+     */
+    public void markUsersChanged() {
+        TransactionHooks.afterCommit(() -> usersDirty.set(true));
+    }
+
+    public void onCourseCreated() {
+        add(courses, 1);
+    }
+
+    public void onCourseDeleted() {
+        add(courses, -1);
+    }
+
+    public void onResourceCreated() {
+        add(resources, 1);
+    }
+
+    public void onResourceDeleted() {
+        add(resources, -1);
+    }
+
+    public void onQuestionCreated() {
+        add(questions, 1);
+    }
+
+    public void onQuestionDeleted() {
+        add(questions, -1);
+    }
+
+    public void onAnswerCreated() {
+        add(answers, 1);
+    }
+
+    public void onAnswerDeleted() {
+        add(answers, -1);
+    }
+
+    private static void add(AtomicLong counter, long delta) {
+        TransactionHooks.afterCommit(() -> counter.addAndGet(delta));
+    }
+
+    private static long toLong(Integer count) {
+        return count != null ? count : 0L;
+    }
+}
@@ -0,0 +1,313 @@
+package com.boda.springboot.cache;
+
+import cn.hutool.cache.CacheUtil;
+import cn.hutool.cache.impl.LRUCache;
+import com.boda.springboot.mapper.NotificationMapper;
+import com.boda.springboot.utils.TransactionHooks;
+import com.boda.springboot.vo.CacheMetricsVO;
+import com.boda.springboot.vo.UnreadCountVO;
+import com.boda.springboot.websocket.NotificationWebSocket;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 用户未读通知计数（用户ID -> 未读数量）
+ * 首次查询时从数据库加载，之后由新建通知、标记已读在事务提交后增减，不再每次 COUNT notification；
+ * 空闲超过 idle-millis 未访问的用户被淘汰，定时按已缓存用户批量重新统计，修正绕过服务层的变更。
+ * 数量变化时通过 NotificationWebSocket 推送给在线用户（type = unreadCount），客户端可以不再轮询。
+ * 多实例部署（notification-bus.backend = tcp）时，其他实例上的新建、已读不会更新本实例的计数，
+ * 因此不缓存，每次查询数据库，数量变化时总是推送（用户可能连在其他实例上）。
+ *
+ * 加载与更新的并发：按用户登记正在进行的加载，加载期间该用户有增减则本次结果不放入缓存，
+ * 其他用户的增减不影响（批量通知时未缓存用户的加载不会互相作废）；
+ * 重新统计期间有变更的用户本轮不覆盖，留到下一轮。
+ * 广播通知影响所有用户：收到广播时推进代数，进行中的加载全部作废；推送任务只给该代数之前加载的计数加一，
+ * 之后加载的计数已包含这条广播
+ */
+@Slf4j
+@Component
+public class UnreadCounter implements CacheMetricsProvider {
+
+    private static final int RECONCILE_BATCH_SIZE = 500;
+
+    @Autowired
+    private NotificationMapper notificationMapper;
+
+    @Value("${unread-counter.push-enabled:true}")
+    private boolean pushEnabled;
+
+    @Value("${notification-bus.backend:memory}")
+    private String busBackend = "memory";
+
+    private final int capacity;
+
+    private final long idleMillis;
+
+    private final LRUCache<Long, Counter> counters;
+
+    /**
+     * 广播代数（收到广播时推进）
+     */
+    private long generation;
+
+    /**
+     * 正在从数据库加载的用户（用户ID -> 本次加载），由 this 保护
+     */
+    private final Map<Long, Load> loading = new HashMap<>();
+
+    /**
+     * 本轮重新统计开始后有变更的用户
+     */
+    private final Set<Long> touched = ConcurrentHashMap.newKeySet();
+
+    public UnreadCounter(@Value("${unread-counter.capacity:50000}") int capacity,
+                         @Value("${unread-counter.idle-millis:1800000}") long idleMillis) {
+        this.capacity = capacity;
+        this.idleMillis = idleMillis;
+        this.counters = CacheUtil.newLRUCache(capacity, idleMillis);
+    }
+
+    /**
+     * 用户未读数量（访问会刷新空闲时间）
+     */
+    public int get(Long userId) {
+        if (userId == null) {
+            return 0;
+        }
+        Counter counter = counters.get(userId);
+        if (counter != null) {
+            return counter.get();
+        }
+        Load load = new Load();
+        long loadGeneration;
+        synchronized (this) {
+            loadGeneration = generation;
+            loading.put(userId, load);
+        }
+        Integer count;
+        try {
+            count = notificationMapper.countUnread(userId);
+        } catch (RuntimeException e) {
+            synchronized (this) {
+                loading.remove(userId, load);
+            }
+            throw e;
+        }
+        int unread = count != null ? count : 0;
+        synchronized (this) {
+            // 同一用户的并发加载只保留最后登记的一次
+            boolean current = loading.remove(userId, load);
+            if (current && !load.stale && generation == loadGeneration && isCacheEnabled()) {
+                counters.put(userId, new Counter(unread, loadGeneration));
+            }
+        }
+        return unread;
+    }
+
+    /**
+     * 新建通知（事务提交后生效）
+     */
+    public void onCreated(Long userId) {
+        TransactionHooks.afterCommit(() -> apply(userId, 1));
+    }
+
+    /**
+     * 批量新建通知，每个用户一条（事务提交后生效）
+     */
+    public void onCreated(Collection<Long> userIds) {
+        TransactionHooks.afterCommit(() -> userIds.forEach(userId -> apply(userId, 1)));
+    }
+
+    /**
+     * 收到广播通知（广播已提交）：推进广播代数，正在进行的加载不再放入缓存
+     * @return 收到广播时的代数，交给 onBroadcast
+     */
+    public synchronized long broadcastReceived() {
+        return ++generation;
+    }
+
+    /**
+     * 广播通知计入未读数量（事务提交后生效）：收到广播前加载的已缓存用户加一，不逐个推送，由广播推送任务调用 pushLocally
+     * 收到广播后才加载的计数已经包含这条广播，不再加一
+     * @param receivedGeneration broadcastReceived 返回的代数
+     */
+    public void onBroadcast(long receivedGeneration) {
+        TransactionHooks.afterCommit(() -> {
+            List<Long> userIds = cachedUserIds();
+            synchronized (this) {
+                for (Long userId : userIds) {
+                    Counter counter = counters.get(userId, false);
+                    if (counter != null && counter.loadGeneration < receivedGeneration) {
+                        touched.add(userId);
+                        counter.incrementAndGet();
+                    }
+                }
+            }
+        });
+    }
+
+    /**
+     * 只向本实例上的连接推送用户当前的未读数量（各实例投递广播通知时使用）
+     */
+    public void pushLocally(Long userId) {
+        if (!pushEnabled || userId == null) {
+            return;
+        }
+        try {
+            NotificationWebSocket.sendLocally(userId, unreadCountMessage(get(userId)));
+        } catch (Exception e) {
+            log.debug("推送未读数量失败 - 用户ID: {}", userId, e);
+        }
+    }
+
+    /**
+     * 通知被标记为已读（事务提交后生效）
+     * @param count 实际由未读变为已读的条数
+     */
+    public void onRead(Long userId, int count) {
+        if (count > 0) {
+            TransactionHooks.afterCommit(() -> apply(userId, -count));
+        }
+    }
+
+    /**
+     * 重新统计所有已缓存用户的未读数量
+     */
+    @Scheduled(initialDelayString = "${unread-counter.reconcile-interval-millis:600000}",
+            fixedDelayString = "${unread-counter.reconcile-interval-millis:600000}")
+    public void reconcile() {
+        touched.clear();
+        List<Long> userIds = cachedUserIds();
+        int corrected = 0;
+        for (int from = 0; from < userIds.size(); from += RECONCILE_BATCH_SIZE) {
+            List<Long> batch = userIds.subList(from, Math.min(from + RECONCILE_BATCH_SIZE, userIds.size()));
+            long batchGeneration;
+            synchronized (this) {
+                batchGeneration = generation;
+            }
+            Map<Long, Integer> counts = new HashMap<>();
+            try {
+                for (UnreadCountVO row : notificationMapper.countUnreadByUserIds(batch)) {
+                    counts.put(row.getUserId(), row.getUnreadCount());
+                }
+            } catch (Exception e) {
+                log.warn("重新统计未读通知数量失败: {}", e.getMessage());
+                return;
+            }
+            for (Long userId : batch) {
+                int actual = counts.getOrDefault(userId, 0);
+                synchronized (this) {
+                    Counter counter = counters.get(userId, false);
+                    if (counter == null || touched.contains(userId) || counter.get() == actual) {
+                        continue;
+                    }
+                    counter.set(actual);
+                    counter.loadGeneration = batchGeneration;
+                }
+                corrected++;
+                push(userId, actual);
+            }
+        }
+        if (corrected > 0) {
+            log.info("未读通知数量已修正 - 用户数: {}", corrected);
+        }
+    }
+
+    @Override
+    public CacheMetricsVO getMetrics() {
+        return CacheMetricsVO.of("unreadCount", counters.size(), capacity, idleMillis,
+                counters.getHitCount(), counters.getMissCount());
+    }
+
+    private void apply(Long userId, int delta) {
+        if (userId == null) {
+            return;
+        }
+        Integer unread = null;
+        synchronized (this) {
+            touched.add(userId);
+            Load load = loading.get(userId);
+            if (load != null) {
+                load.stale = true;
+            }
+            Counter counter = counters.get(userId, false);
+            if (counter != null) {
+                unread = counter.updateAndGet(value -> Math.max(0, value + delta));
+            }
+        }
+        // 用户可能连在其他实例上：已缓存的用户总是推送，未缓存的只在连在本实例上时加载一次；
+        // 多实例不缓存时无法判断用户连在哪个实例，总是查询后推送
+        if (pushEnabled && (unread != null || !isCacheEnabled() || NotificationWebSocket.isUserOnline(userId))) {
+            push(userId, unread != null ? unread : get(userId));
+        }
+    }
+
+    /**
+     * 多实例部署时各实例看不到彼此的增减，不缓存计数
+     */
+    private boolean isCacheEnabled() {
+        return !"tcp".equalsIgnoreCase(busBackend);
+    }
+
+    /**
+     * 已缓存的用户ID
+     * cacheObjIterator 在缓存锁内复制条目；keySet() 的复制不加锁，会与其他线程的读写冲突
+     */
+    private List<Long> cachedUserIds() {
+        List<Long> userIds = new ArrayList<>(counters.size());
+        counters.cacheObjIterator().forEachRemaining(entry -> userIds.add(entry.getKey()));
+        return userIds;
+    }
+
+    private void push(Long userId, int unread) {
+        if (!pushEnabled) {
+            return;
+        }
+        try {
+            NotificationWebSocket.sendNotification(userId, unreadCountMessage(unread));
+        } catch (Exception e) {
+            log.debug("推送未读数量失败 - 用户ID: {}", userId, e);
+        }
+    }
+
+    /**
+     * 未读数量及其从数据库加载（或重新统计）时的修改代数
+     */
+    private static final class Counter extends AtomicInteger {
+
+        private long loadGeneration;
+
+        Counter(int unread, long loadGeneration) {
+            super(unread);
+            this.loadGeneration = loadGeneration;
+        }
+    }
+
+    /**
+     * 一次进行中的加载，stale 表示加载期间该用户的数量有变化
+     */
+    private static final class Load {
+
+        private boolean stale;
+    }
+
+    private static Map<String, Object> unreadCountMessage(int unread) {
+        Map<String, Object> message = new HashMap<>();
+        message.put("type", "unreadCount");
+        message.put("count", unread);
+        message.put("timestamp", System.currentTimeMillis());
+        return message;
+    }
+}
@@ -0,0 +1,37 @@
+package com.boda.springboot.cache;
+
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * 用户展示信息（不可变），只包含通知、问答等场景展示用户所需的字段，不含密码等敏感信息
+ */
+@Getter
+@ToString
+public final class UserProfile {
+
+    private final Long userId;
+
+    private final String username;
+
+    private final String realName;
+
+    private final String avatarUrl;
+
+    private final String role;
+
+    public UserProfile(Long userId, String username, String realName, String avatarUrl, String role) {
+        this.userId = userId;
+        this.username = username;
+        this.realName = realName;
+        this.avatarUrl = avatarUrl;
+        this.role = role;
+    }
+
+    /**
+     * 展示名称：优先使用真实姓名，否则使用用户名
+     */
+    public String getDisplayName() {
+        return realName != null && !realName.trim().isEmpty() ? realName : username;
+    }
+}
@@ -0,0 +1,99 @@
+package com.boda.springboot.cache;
+
+import cn.hutool.cache.CacheUtil;
+import cn.hutool.cache.impl.LRUCache;
+import com.boda.springboot.entity.User;
+import com.boda.springboot.mapper.UserMapper;
+import com.boda.springboot.vo.CacheMetricsVO;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 用户展示信息缓存（用户ID -> 姓名/用户名/头像/角色）
+ * 未命中的用户通过一次 IN 查询批量加载，只查展示字段；
+ * 用户资料修改（个人信息、管理员修改学生/教师）时失效
+ */
+@Component
+public class UserProfileCache implements CacheMetricsProvider {
+
+    @Autowired
+    private UserMapper userMapper;
+
+    private final int capacity;
+
+    private final long ttlMillis;
+
+    private final LRUCache<Long, UserProfile> profiles;
+
+    public UserProfileCache(@Value("${user-profile-cache.capacity:20000}") int capacity,
+                            @Value("${user-profile-cache.ttl-millis:1800000}") long ttlMillis) {
+        this.capacity = capacity;
+        this.ttlMillis = ttlMillis;
+        this.profiles = CacheUtil.newLRUCache(capacity, ttlMillis);
+    }
+
+    /**
+     * 查询单个用户的展示信息
+     * @return 用户不存在或已删除时返回 null
+     */
+    public UserProfile get(Long userId) {
+        if (userId == null) {
+            return null;
+        }
+        return getAll(Collections.singletonList(userId)).get(userId);
+    }
+
+    /**
+     * 批量查询用户展示信息，未命中的部分一次查询加载
+     * @return 用户ID -> 展示信息（不存在的用户不在结果中）
+     */
+    public Map<Long, UserProfile> getAll(Collection<Long> userIds) {
+        Map<Long, UserProfile> result = new HashMap<>();
+        Set<Long> missing = new LinkedHashSet<>();
+        for (Long userId : userIds) {
+            if (userId == null) {
+                continue;
+            }
+            UserProfile profile = profiles.get(userId);
+            if (profile != null) {
+                result.put(userId, profile);
+            } else {
+                missing.add(userId);
+            }
+        }
+        if (!missing.isEmpty()) {
+            for (User user : userMapper.selectProfilesByIds(new ArrayList<>(missing))) {
+                UserProfile profile = new UserProfile(user.getUserId(), user.getUsername(),
+                        user.getRealName(), user.getAvatarUrl(), user.getRole());
+                profiles.put(user.getUserId(), profile);
+                result.put(user.getUserId(), profile);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 用户资料变更后使缓存失效
+     */
+    public void invalidate(Long userId) {
+        if (userId != null) {
+            profiles.remove(userId);
+        }
+    }
+
+    @Override
+    public CacheMetricsVO getMetrics() {
+        return CacheMetricsVO.of("userProfile", profiles.size(), capacity, ttlMillis,
+                profiles.getHitCount(), profiles.getMissCount());
+    }
+}
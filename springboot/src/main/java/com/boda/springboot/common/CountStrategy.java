@@ -0,0 +1,27 @@
+package com.boda.springboot.common;
+
+/**
+ * 分页总数统计策略
+ */
+public enum CountStrategy {
+
+    /**
+     * 每次执行 COUNT 查询，返回精确总数
+     */
+    EXACT,
+
+    /**
+     * 按（接口 + 筛选条件）缓存 COUNT 结果一段时间，缓存期内翻页不再执行 COUNT
+     */
+    CACHED,
+
+    /**
+     * 无筛选条件时使用表统计信息（information_schema.TABLES.TABLE_ROWS）估算总数，有筛选条件时按 CACHED 处理
+     */
+    ESTIMATED,
+
+    /**
+     * 不统计总数（total 为 -1），多查一条判断是否有下一页（hasNext）
+     */
+    NONE
+}
@@ -0,0 +1,144 @@
+package com.boda.springboot.common;
+
+import com.boda.springboot.exception.ServiceException;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * 游标分页位置（排序键 + 主键）
+ * 游标模式下按 (排序键, 主键) 做定位条件代替 OFFSET，并且不执行 COUNT 查询，深分页和无限滚动不会越翻越慢。
+ * 对外只暴露 encode 后的不透明字符串，客户端原样回传即可；
+ * 解析时按接口的排序方式（{@link Order}）校验排序键，其他接口或其他排序方式的游标直接返回 400，不会查出空页
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PageCursor {
+
+    /**
+     * 置顶标记（资源默认排序的第一排序键）
+     */
+    private Integer top;
+
+    /**
+     * 计数类排序键（下载次数、浏览次数）；资源索引搜索按相关度分页时为下一页的偏移量
+     */
+    private Long count;
+
+    /**
+     * 时间排序键（创建时间）
+     */
+    private LocalDateTime time;
+
+    /**
+     * 主键（排序键相同时的决胜字段）
+     */
+    private Long id;
+
+    /**
+     * 游标对应的排序方式，决定游标中必须有哪些排序键
+     */
+    public enum Order {
+        /**
+         * 时间 + 主键（创建时间、收藏时间倒序）
+         */
+        TIME(false, false, true, true),
+        /**
+         * 置顶 + 时间 + 主键（资源默认排序）
+         */
+        TOP_TIME(true, false, true, true),
+        /**
+         * 计数 + 主键（下载次数、浏览次数倒序）
+         */
+        COUNT(false, true, false, true),
+        /**
+         * 只有偏移量（资源索引按相关度分页）
+         */
+        OFFSET(false, true, false, false);
+
+        private final boolean top;
+        private final boolean count;
+        private final boolean time;
+        private final boolean id;
+
+        Order(boolean top, boolean count, boolean time, boolean id) {
+            this.top = top;
+            this.count = count;
+            this.time = time;
+            this.id = id;
+        }
+
+        private boolean matches(PageCursor cursor) {
+            return (cursor.top != null) == top
+                    && (cursor.count != null) == count
+                    && (cursor.time != null) == time
+                    && (cursor.id != null) == id;
+        }
+    }
+
+    public static PageCursor ofTime(LocalDateTime time, Long id) {
+        return new PageCursor(null, null, time, id);
+    }
+
+    /**
+     * 编码为不透明字符串
+     */
+    public String encode() {
+        String raw = str(top) + "|" + str(count) + "|" + str(time) + "|" + str(id);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * 解析客户端回传的游标；空字符串表示第一页，返回 null
+     * @param order 当前查询的排序方式，游标中的排序键与之不符时抛出 400
+     */
+    public static PageCursor decode(String cursor, Order order) {
+        PageCursor pageCursor = parse(cursor);
+        if (pageCursor != null && !order.matches(pageCursor)) {
+            throw new ServiceException("400", "分页游标与当前查询不匹配，请从第一页重新查询");
+        }
+        return pageCursor;
+    }
+
+    private static PageCursor parse(String cursor) {
+        if (cursor == null || cursor.isEmpty()) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\|", -1);
+            PageCursor pageCursor = new PageCursor();
+            pageCursor.setTop(parts[0].isEmpty() ? null : Integer.valueOf(parts[0]));
+            pageCursor.setCount(parts[1].isEmpty() ? null : Long.valueOf(parts[1]));
+            pageCursor.setTime(parts[2].isEmpty() ? null : LocalDateTime.parse(parts[2]));
+            pageCursor.setId(parts[3].isEmpty() ? null : Long.valueOf(parts[3]));
+            return pageCursor;
+        } catch (RuntimeException e) {
+            throw new ServiceException("400", "无效的分页游标");
+        }
+    }
+
+    /**
+     * 把多查询一条的结果封装为游标分页结果
+     * @param rows 按 pageSize + 1 查询到的数据
+     * @param pageSize 每页数量
+     * @param cursorOf 由一行数据生成游标
+     */
+    public static <T> PageResult<T> toPageResult(List<T> rows, int pageSize, Function<T, PageCursor> cursorOf) {
+        boolean hasNext = rows.size() > pageSize;
+        List<T> records = hasNext ? rows.subList(0, pageSize) : rows;
+        String nextCursor = hasNext ? cursorOf.apply(records.get(records.size() - 1)).encode() : null;
+        return PageResult.ofCursor(records, nextCursor, hasNext);
+    }
+
+    private static String str(Object value) {
+        return value == null ? "" : value.toString();
+    }
+}
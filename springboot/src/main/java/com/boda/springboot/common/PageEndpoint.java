@@ -0,0 +1,37 @@
+package com.boda.springboot.common;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * 分页接口，用于按接口配置总数统计策略（page-count.strategies.&lt;key&gt;）
+ */
+@Getter
+@AllArgsConstructor
+public enum PageEndpoint {
+
+    QUESTION_LIST("question-list", "question"),
+    QUESTION_MINE("question-mine", "question"),
+    QUESTION_PENDING("question-pending", "question"),
+    ANSWER_MINE("answer-mine", "answer"),
+    RESOURCE_LIST("resource-list", "resource"),
+    RESOURCE_UPLOADS("resource-uploads", "resource"),
+    RESOURCE_COLLECTIONS("resource-collections", "resource_collection"),
+    RESOURCE_RECYCLE_BIN("resource-recycle-bin", null),
+    NOTIFICATION_LIST("notification-list", "notification"),
+    COURSE_LIST("course-list", "course"),
+    COURSE_MINE("course-mine", "teacher_course"),
+    ADMIN_STUDENT_LIST("admin-student-list", null),
+    ADMIN_TEACHER_LIST("admin-teacher-list", null);
+
+    /**
+     * 配置项中的接口名
+     */
+    private final String key;
+
+    /**
+     * 估算总数使用的主表
+     * 列表只是主表的一部分行（如回收站、按角色筛选的用户）时为 null，不能使用 ESTIMATED，按 CACHED 处理
+     */
+    private final String table;
+}
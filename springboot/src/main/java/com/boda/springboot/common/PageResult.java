@@ -1,7 +1,7 @@
 package com.boda.springboot.common;
 
 
-import lombok.AllArgsConstructor;
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import java.io.Serializable;
@@ -9,14 +9,37 @@ import java.util.List;
 
 /**
  * 封装分页查询结果
+ * 页码模式返回总记录数（countStrategy 说明总数的来源，NONE 时 total 为 -1，只返回 hasNext）；
+ * 游标模式不统计总数（total 为 -1），返回下一页游标
  */
 @Data
-@AllArgsConstructor
 @NoArgsConstructor
-public class PageResult implements Serializable {
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class PageResult<T> implements Serializable {
 
     private long total; //总记录数
 
-    private List records; //当前页数据集合
+    private List<T> records; //当前页数据集合
 
+    private String nextCursor; //下一页游标（仅游标模式，没有下一页时为空）
+
+    private Boolean hasNext; //是否有下一页（游标模式或不统计总数时）
+
+    private CountStrategy countStrategy; //总数统计策略
+
+    public PageResult(long total, List<T> records) {
+        this.total = total;
+        this.records = records;
+    }
+
+    /**
+     * 游标模式分页结果
+     */
+    public static <T> PageResult<T> ofCursor(List<T> records, String nextCursor, boolean hasNext) {
+        PageResult<T> result = new PageResult<>(-1L, records);
+        result.setNextCursor(nextCursor);
+        result.setHasNext(hasNext);
+        result.setCountStrategy(CountStrategy.NONE);
+        return result;
+    }
 }
@@ -1,12 +0,0 @@
-package com.boda.springboot.config;
-
-import org.springframework.context.annotation.Configuration;
-import org.springframework.context.annotation.EnableAspectJAutoProxy;
-
-/**
- * AOP 配置 - 启用切面
- */
-@Configuration
-@EnableAspectJAutoProxy
-public class AopConfig {
-}
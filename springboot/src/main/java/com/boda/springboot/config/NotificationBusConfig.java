@@ -0,0 +1,40 @@
+package com.boda.springboot.config;
+
+import com.boda.springboot.properties.NotificationBusProperties;
+import com.boda.springboot.websocket.InProcessNotificationBus;
+import com.boda.springboot.websocket.NotificationBus;
+import com.boda.springboot.websocket.NotificationBusBroker;
+import com.boda.springboot.websocket.TcpNotificationBus;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.io.IOException;
+
+/**
+ * 通知消息总线配置
+ * 通过 notification-bus.backend 选择实现，多实例部署时使用 tcp 并由其中一个实例开启内嵌中转服务
+ */
+@Slf4j
+@Configuration
+public class NotificationBusConfig {
+
+    @Bean(destroyMethod = "close")
+    @ConditionalOnProperty(prefix = "notification-bus", name = "embedded-broker", havingValue = "true")
+    public NotificationBusBroker notificationBusBroker(NotificationBusProperties properties) throws IOException {
+        return new NotificationBusBroker(properties.getBrokerBindAddress(), properties.getBrokerPort(),
+                properties.getSharedSecret(), properties.getBrokerPeerQueueCapacity());
+    }
+
+    @Bean(destroyMethod = "close")
+    public NotificationBus notificationBus(NotificationBusProperties properties) {
+        if ("tcp".equalsIgnoreCase(properties.getBackend())) {
+            log.info("通知总线使用 TCP 中转 - 地址: {}:{}", properties.getBrokerHost(), properties.getBrokerPort());
+            TcpNotificationBus bus = new TcpNotificationBus(properties);
+            bus.start();
+            return bus;
+        }
+        return new InProcessNotificationBus();
+    }
+}
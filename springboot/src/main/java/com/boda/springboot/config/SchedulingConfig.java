@@ -0,0 +1,12 @@
+package com.boda.springboot.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * 定时任务配置 - 启用 @Scheduled
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
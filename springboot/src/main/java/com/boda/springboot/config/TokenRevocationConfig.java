@@ -0,0 +1,35 @@
+package com.boda.springboot.config;
+
+import com.boda.springboot.properties.TokenRevocationProperties;
+import com.boda.springboot.security.InMemoryTokenRevocationStore;
+import com.boda.springboot.security.SharedFileTokenRevocationStore;
+import com.boda.springboot.security.TokenRevocationStore;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Token 作废记录存储配置
+ * 通过 jwt.revocation.backend 选择存储方式
+ */
+@Slf4j
+@Configuration
+public class TokenRevocationConfig {
+
+    @Bean
+    public TokenRevocationStore tokenRevocationStore(TokenRevocationProperties properties) {
+        if ("shared".equalsIgnoreCase(properties.getBackend())) {
+            log.info("Token 作废记录使用共享文件存储 - 文件: {}", properties.getSharedFile());
+            return new SharedFileTokenRevocationStore(
+                    properties.getMaxEntries(),
+                    properties.getTickMillis(),
+                    properties.getWheelSize(),
+                    properties.getSharedFile(),
+                    properties.getCompactThresholdBytes());
+        }
+        return new InMemoryTokenRevocationStore(
+                properties.getMaxEntries(),
+                properties.getTickMillis(),
+                properties.getWheelSize());
+    }
+}
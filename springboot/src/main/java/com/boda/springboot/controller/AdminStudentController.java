@@ -7,9 +7,12 @@ import com.boda.springboot.common.Result;
 import com.boda.springboot.dto.StudentPageQueryDTO;
 import com.boda.springboot.entity.User;
 import com.boda.springboot.service.AdminStudentService;
+import com.boda.springboot.service.StudentImportService;
+import com.boda.springboot.vo.StudentImportTaskVO;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
 
 import java.util.List;
 import java.util.Map;
@@ -21,6 +24,8 @@ public class AdminStudentController {
 
     @Autowired
     private AdminStudentService adminStudentService;
+    @Autowired
+    private StudentImportService studentImportService;
 
     /**
      * 新增学生
@@ -137,4 +142,29 @@ public class AdminStudentController {
         return Result.success("学生密码重置成功！");
     }
 
+    /**
+     * 批量导入学生（CSV/XLS/XLSX，首行为表头：用户名、姓名、学号、邮箱、手机号、学院、课程ID）
+     * 对应API：POST /api/v1/admin/students/import  (multipart: file, courseIds 可选)
+     * 导入在后台执行，返回任务ID，通过进度接口查询结果
+     */
+    @PostMapping("/import")
+    @RequireRole(Constant.ROLE_ADMIN)
+    public Result<StudentImportTaskVO> importStudents(
+            @RequestParam("file") MultipartFile file,
+            @RequestParam(value = "courseIds", required = false) List<Long> courseIds
+    ) {
+        log.info("批量导入学生，文件：{}，课程：{}", file.getOriginalFilename(), courseIds);
+        return Result.success(studentImportService.submit(file, courseIds));
+    }
+
+    /**
+     * 查询批量导入进度
+     * 对应API：GET /api/v1/admin/students/import/{taskId}
+     */
+    @GetMapping("/import/{taskId}")
+    @RequireRole(Constant.ROLE_ADMIN)
+    public Result<StudentImportTaskVO> getImportTask(@PathVariable String taskId) {
+        return Result.success(studentImportService.getTask(taskId));
+    }
+
 }
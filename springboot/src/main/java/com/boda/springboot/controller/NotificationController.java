@@ -92,6 +92,22 @@ public class NotificationController {
         return Result.success("所有通知已标记为已读");
     }
 
+    /**
+     * 删除通知（广播通知只对当前用户隐藏）
+     * DELETE /notifications/1
+     *
+     * 权限：所有登录用户
+     */
+    @DeleteMapping("/{notificationId}")
+    public Result<Void> deleteNotification(@PathVariable Long notificationId, HttpServletRequest request) {
+        log.info("接收到删除通知请求 - 通知ID: {}", notificationId);
+
+        Long userId = (Long) request.getAttribute("userId");
+        notificationService.deleteNotification(notificationId, userId);
+
+        return Result.success("通知已删除");
+    }
+
     /**
      * 创建系统通知（仅管理员）
      * POST /notifications/system
@@ -103,6 +119,8 @@ public class NotificationController {
      *   "title": "系统通知标题",
      *   "content": "系统通知内容"
      * }
+     *
+     * 向全体用户发送时只保存一条广播通知，查询时与个人通知合并
      */
     @PostMapping("/system")
     @RequireRole(Constant.ROLE_ADMIN)
@@ -126,5 +144,6 @@ public class NotificationController {
 
         return Result.success("系统通知创建成功");
     }
+
 }
 
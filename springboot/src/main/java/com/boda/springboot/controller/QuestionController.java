@@ -137,6 +137,7 @@ public class QuestionController {
     /**
      * 我的提问列表（学生）
      * GET /questions/my-questions?pageNum=1&pageSize=10&isAnswered=1
+     * 游标分页：GET /questions/my-questions?pageSize=10&cursor=（之后传返回的 nextCursor）
      */
     @GetMapping("/my-questions")
     @RequireRole(Constant.ROLE_STUDENT)
@@ -144,12 +145,13 @@ public class QuestionController {
             @RequestParam(defaultValue = "1") Integer pageNum,
             @RequestParam(defaultValue = "10") Integer pageSize,
             @RequestParam(required = false) Integer isAnswered,
+            @RequestParam(required = false) String cursor,
             HttpServletRequest request) {
 
         log.info("接收到查询我的提问列表请求 - 页码: {}, 每页数量: {}", pageNum, pageSize);
 
         Long studentId = (Long) request.getAttribute("userId");
-        PageResult pageResult = questionService.getMyQuestions(pageNum, pageSize, isAnswered, studentId);
+        PageResult pageResult = questionService.getMyQuestions(pageNum, pageSize, isAnswered, studentId, cursor);
 
         return Result.success(pageResult);
     }
@@ -157,6 +159,7 @@ public class QuestionController {
     /**
      * 待回答问题列表（教师）
      * GET /questions/pending?pageNum=1&pageSize=10&courseId=1
+     * 游标分页：GET /questions/pending?pageSize=10&cursor=（之后传返回的 nextCursor）
      */
     @GetMapping("/pending")
     @RequireRole(Constant.ROLE_TEACHER)
@@ -164,16 +167,31 @@ public class QuestionController {
             @RequestParam(defaultValue = "1") Integer pageNum,
             @RequestParam(defaultValue = "10") Integer pageSize,
             @RequestParam(required = false) Long courseId,
+            @RequestParam(required = false) String cursor,
             HttpServletRequest request) {
 
         log.info("接收到查询待回答问题列表请求 - 页码: {}, 每页数量: {}", pageNum, pageSize);
 
         Long teacherId = (Long) request.getAttribute("userId");
-        PageResult pageResult = questionService.getPendingQuestions(pageNum, pageSize, courseId, teacherId);
+        PageResult pageResult = questionService.getPendingQuestions(pageNum, pageSize, courseId, teacherId, cursor);
 
         return Result.success(pageResult);
     }
 
+    /**
+     * 待回答问题数量（教师）
+     * GET /questions/pending/count?courseId=1
+     */
+    @GetMapping("/pending/count")
+    @RequireRole(Constant.ROLE_TEACHER)
+    public Result<Integer> getPendingCount(
+            @RequestParam(required = false) Long courseId,
+            HttpServletRequest request) {
+
+        Long teacherId = (Long) request.getAttribute("userId");
+        return Result.success(questionService.getPendingCount(courseId, teacherId));
+    }
+
     /**
      * 回答问题（教师）
      * POST /questions/1/answers
@@ -231,6 +231,7 @@ public class ResourceController {
     /**
      * 我的收藏列表
      * GET /resources/collections?pageNum=1&pageSize=10
+     * 游标分页：GET /resources/collections?pageSize=10&cursor=（之后传返回的 nextCursor）
      *
      * 权限：所有登录用户
      */
@@ -238,12 +239,13 @@ public class ResourceController {
     public Result<PageResult> getMyCollections(
             @RequestParam(defaultValue = "1") Integer pageNum,
             @RequestParam(defaultValue = "10") Integer pageSize,
+            @RequestParam(required = false) String cursor,
             HttpServletRequest request) {
 
         log.info("接收到查询我的收藏列表请求 - 页码: {}, 每页数量: {}", pageNum, pageSize);
 
         Long studentId = (Long) request.getAttribute("userId");
-        PageResult pageResult = resourceService.getMyCollections(pageNum, pageSize, studentId);
+        PageResult pageResult = resourceService.getMyCollections(pageNum, pageSize, studentId, cursor);
 
         return Result.success(pageResult);
     }
@@ -251,6 +253,7 @@ public class ResourceController {
     /**
      * 我上传的资源
      * GET /resources/my-uploads?pageNum=1&pageSize=10
+     * 游标分页：GET /resources/my-uploads?pageSize=10&cursor=（之后传返回的 nextCursor）
      */
     @GetMapping("/my-uploads")
     public Result<PageResult> getMyUploads(
@@ -258,12 +261,13 @@ public class ResourceController {
             @RequestParam(defaultValue = "10") Integer pageSize,
             @RequestParam(required = false) String resourceTitle,
             @RequestParam(required = false) Long courseId,
+            @RequestParam(required = false) String cursor,
             HttpServletRequest request) {
 
         log.info("接收到查询我上传的资源请求 - 页码: {}, 每页数量: {}, 标题: {}, 课程ID: {}", pageNum, pageSize, resourceTitle, courseId);
 
         Long uploaderId = (Long) request.getAttribute("userId");
-        PageResult pageResult = resourceService.getMyUploads(pageNum, pageSize, uploaderId, resourceTitle, courseId);
+        PageResult pageResult = resourceService.getMyUploads(pageNum, pageSize, uploaderId, resourceTitle, courseId, cursor);
 
         return Result.success(pageResult);
     }
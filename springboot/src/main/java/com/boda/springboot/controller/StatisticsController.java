@@ -1,12 +1,18 @@
 package com.boda.springboot.controller;
 
 import com.boda.springboot.annotation.RequireRole;
+import com.boda.springboot.cache.CacheMetricsProvider;
 import com.boda.springboot.common.Constant;
 import com.boda.springboot.common.Result;
+import com.boda.springboot.security.PasswordHasher;
 import com.boda.springboot.service.StatisticsService;
+import com.boda.springboot.vo.CacheMetricsVO;
 import com.boda.springboot.vo.HotCourseVO;
 import com.boda.springboot.vo.HotResourceVO;
+import com.boda.springboot.vo.PasswordHashingMetricsVO;
 import com.boda.springboot.vo.StatisticsOverviewVO;
+import com.boda.springboot.vo.WebSocketSessionMetricsVO;
+import com.boda.springboot.websocket.NotificationWebSocket;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -25,6 +31,12 @@ public class StatisticsController {
     @Autowired
     private StatisticsService statisticsService;
 
+    @Autowired
+    private PasswordHasher passwordHasher;
+
+    @Autowired
+    private java.util.List<CacheMetricsProvider> caches;
+
     /**
      * 获取系统概览统计数据
      * 对应API：GET /api/v1/admin/statistics/overview
@@ -62,5 +74,34 @@ public class StatisticsController {
         log.info("获取热门资源，limit={}", limit);
         return Result.success(statisticsService.getHotResources(limit));
     }
-}
 
+    /**
+     * 获取密码哈希线程池监控数据（队列深度、哈希耗时、拒绝次数）
+     * GET /admin/statistics/password-hashing
+     */
+    @GetMapping("/password-hashing")
+    @RequireRole(Constant.ROLE_ADMIN)
+    public Result<PasswordHashingMetricsVO> getPasswordHashingMetrics() {
+        return Result.success(passwordHasher.getMetrics());
+    }
+
+    /**
+     * 获取进程内缓存命中情况
+     * GET /admin/statistics/caches
+     */
+    @GetMapping("/caches")
+    @RequireRole(Constant.ROLE_ADMIN)
+    public Result<java.util.List<CacheMetricsVO>> getCacheMetrics() {
+        return Result.success(caches.stream().map(CacheMetricsProvider::getMetrics).toList());
+    }
+
+    /**
+     * 获取 WebSocket 连接发送队列监控数据（队列深度、合并/丢弃次数、发送延迟）
+     * GET /admin/statistics/websocket-sessions
+     */
+    @GetMapping("/websocket-sessions")
+    @RequireRole(Constant.ROLE_ADMIN)
+    public Result<java.util.List<WebSocketSessionMetricsVO>> getWebSocketSessionMetrics() {
+        return Result.success(NotificationWebSocket.getSessionMetrics());
+    }
+}
@@ -22,6 +22,11 @@ public class QuestionPageQueryDTO implements Serializable {
      */
     private Integer pageSize = 10;
 
+    /**
+     * 分页游标（可选）：传入时使用游标分页，不统计总数；第一页传空字符串，之后传上一页返回的 nextCursor
+     */
+    private String cursor;
+
     /**
      * 课程ID（筛选条件）
      */
@@ -1,5 +1,6 @@
 package com.boda.springboot.dto;
 
+import com.boda.springboot.common.PageCursor;
 import lombok.Data;
 
 import java.io.Serializable;
@@ -23,6 +24,11 @@ public class ResourcePageQueryDTO implements Serializable {
      */
     private Integer pageSize = 10;
 
+    /**
+     * 分页游标（可选）：传入时使用游标分页，不统计总数；第一页传空字符串，之后传上一页返回的 nextCursor
+     */
+    private String cursor;
+
     /**
      * 课程ID（筛选条件）
      */
@@ -57,5 +63,20 @@ public class ResourcePageQueryDTO implements Serializable {
      * 学生已加入的课程ID列表（用于权限过滤）
      */
     private List<Long> enrolledCourseIds;
+
+    /**
+     * 搜索索引命中的资源ID（由服务层设置，非空时代替关键词 LIKE 条件）
+     */
+    private List<Long> resourceIds;
+
+    /**
+     * 游标模式的定位条件（由服务层根据 cursor 设置）
+     */
+    private PageCursor seek;
+
+    /**
+     * 游标模式的查询条数（由服务层设置）
+     */
+    private Integer limit;
 }
 
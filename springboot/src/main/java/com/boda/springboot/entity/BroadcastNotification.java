@@ -0,0 +1,57 @@
+package com.boda.springboot.entity;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+/**
+ * 广播通知实体类
+ * 面向全体用户的通知只存一条，查询时与个人通知合并
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BroadcastNotification implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * 广播通知ID,主键
+     */
+    private Long broadcastId;
+
+    /**
+     * 通知类型: SYSTEM-系统公告
+     */
+    private String notificationType;
+
+    /**
+     * 通知标题
+     */
+    private String title;
+
+    /**
+     * 通知内容
+     */
+    private String content;
+
+    /**
+     * 关联ID
+     */
+    private Long relatedId;
+
+    /**
+     * 关联类型
+     */
+    private String relatedType;
+
+    /**
+     * 创建时间
+     */
+    @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss", timezone = "GMT+8")
+    private LocalDateTime createTime;
+}
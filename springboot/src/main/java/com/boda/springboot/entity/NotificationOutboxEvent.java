@@ -0,0 +1,40 @@
+package com.boda.springboot.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+/**
+ * 通知事件发件箱实体类
+ * 业务事件与业务数据在同一事务中写入，提交后由后台任务生成通知并推送
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class NotificationOutboxEvent implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * 事件ID,主键
+     */
+    private Long outboxId;
+
+    /**
+     * 事件类型: QUESTION_SUBMITTED-学生提问, QUESTION_ANSWERED-教师回答
+     */
+    private String eventType;
+
+    /**
+     * 事件内容(JSON)
+     */
+    private String payload;
+
+    /**
+     * 创建时间
+     */
+    private LocalDateTime createTime;
+}
@@ -1,6 +1,9 @@
 package com.boda.springboot.interceptor;
 
+import com.boda.springboot.exception.PermissionException;
 import com.boda.springboot.exception.ServiceException;
+import com.boda.springboot.security.RouteAuthorizationTable;
+import com.boda.springboot.utils.JwtPrincipal;
 import com.boda.springboot.utils.JwtUtil;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
@@ -8,10 +11,11 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.lang.NonNull;
 import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
 import org.springframework.web.servlet.HandlerInterceptor;
 
 /**
- * JWT 拦截器 - 验证请求中的 Token
+ * JWT 拦截器 - 验证请求中的 Token，并按接口权限表校验角色
  */
 @Slf4j
 @Component
@@ -20,6 +24,9 @@ public class JwtInterceptor implements HandlerInterceptor {
     @Autowired
     private JwtUtil jwtUtil;
 
+    @Autowired
+    private RouteAuthorizationTable routeAuthorizationTable;
+
     @Override
     public boolean preHandle(@NonNull HttpServletRequest request, @NonNull HttpServletResponse response, @NonNull Object handler) {
         // OPTIONS 请求直接放行(CORS 预检请求)
@@ -39,30 +46,34 @@ public class JwtInterceptor implements HandlerInterceptor {
         // 提取 Token (去掉前缀 "Bearer ")
         String token = authHeader.substring(7);
 
-        // 验证 Token
+        // 验证 Token（一次解析得到全部用户信息，重复 Token 命中缓存）
+        JwtPrincipal principal;
         try {
-            if (!jwtUtil.validateToken(token)) {
-                log.info("Token 无效或已过期，拒绝访问: {}", request.getRequestURI());
-                throw new ServiceException("401", "Token无效或已过期，请重新登录");
-            }
-
-            // 将用户信息存入请求属性,供后续使用
-            Long userId = jwtUtil.getUserIdFromToken(token);
-            String username = jwtUtil.getUsernameFromToken(token);
-            String role = jwtUtil.getRoleFromToken(token);
-
-            request.setAttribute("userId", userId);
-            request.setAttribute("username", username);
-            request.setAttribute("role", role);
-
-            log.debug("Token 验证成功 - 用户: {}, 角色: {}", username, role);
-            return true;
-        } catch (ServiceException se) {
-            // 继续抛出业务异常给全局异常处理器
-            throw se;
+            principal = jwtUtil.parseToken(token);
         } catch (Exception e) {
             log.error("Token 解析失败, token={}", token, e);
             throw new ServiceException("401", "Token解析失败，请重新登录");
         }
+        if (principal == null) {
+            log.info("Token 无效或已过期，拒绝访问: {}", request.getRequestURI());
+            throw new ServiceException("401", "Token无效或已过期，请重新登录");
+        }
+
+        // 校验角色权限（@RequireRole 已在启动时编译为位掩码）
+        if (handler instanceof HandlerMethod handlerMethod) {
+            int requiredMask = routeAuthorizationTable.requiredMask(handlerMethod);
+            if (!RouteAuthorizationTable.isAllowed(principal.getRoleMask(), requiredMask)) {
+                log.info("无访问权限 - 用户: {}, 角色: {}, 接口: {}", principal.getUsername(), principal.getRole(), request.getRequestURI());
+                throw new PermissionException("无访问权限");
+            }
+        }
+
+        // 将用户信息存入请求属性,供后续使用
+        request.setAttribute("userId", principal.getUserId());
+        request.setAttribute("username", principal.getUsername());
+        request.setAttribute("role", principal.getRole());
+
+        log.debug("Token 验证成功 - 用户: {}, 角色: {}", principal.getUsername(), principal.getRole());
+        return true;
     }
 }
@@ -17,10 +17,17 @@ public interface AnswerLikeMapper {
      */
     void save(AnswerLike answerLike);
 
+    /**
+     * 添加点赞（幂等）：依赖 uk_answer_user 唯一键，已点赞或回答不存在时不插入
+     * @return 插入行数，1 表示本次点赞生效
+     */
+    int insertIgnore(@Param("answerId") Long answerId, @Param("userId") Long userId);
+
     /**
      * 取消点赞
+     * @return 删除行数，1 表示本次取消生效
      */
-    void delete(@Param("answerId") Long answerId, @Param("userId") Long userId);
+    int delete(@Param("answerId") Long answerId, @Param("userId") Long userId);
 
     /**
      * 查询是否已点赞
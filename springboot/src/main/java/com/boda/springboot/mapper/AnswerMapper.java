@@ -4,8 +4,10 @@ import com.boda.springboot.entity.Answer;
 import com.boda.springboot.vo.AnswerVO;
 import org.apache.ibatis.annotations.Mapper;
 import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
 
 import java.util.List;
+import java.util.Map;
 
 /**
  * 回答Mapper
@@ -45,13 +47,25 @@ public interface AnswerMapper {
     List<AnswerVO> selectByTeacherId(@Param("teacherId") Long teacherId);
 
     /**
-     * 增加点赞数
+     * 批量累加点赞数（由 AnswerLikeCounter 定时写回），结果不小于 0
+     * @param deltas 回答ID -> 点赞数增量（可为负）
      */
-    void increaseLikeCount(Long answerId);
+    void batchAddLikeCount(@Param("deltas") Map<Long, Long> deltas);
 
     /**
-     * 减少点赞数
+     * 查询点赞数与点赞记录数不一致的回答
      */
-    void decreaseLikeCount(Long answerId);
+    List<Long> selectDriftedLikeCountIds(@Param("limit") int limit);
+
+    /**
+     * 按点赞记录重新计算点赞数
+     */
+    void recountLikeCount(@Param("answerIds") List<Long> answerIds);
+
+    /**
+     * 统计回答总数
+     */
+    @Select("SELECT COUNT(*) FROM answer WHERE is_deleted = 0")
+    Integer countAnswers();
 }
 
@@ -0,0 +1,89 @@
+package com.boda.springboot.mapper;
+
+import com.boda.springboot.entity.BroadcastNotification;
+import org.apache.ibatis.annotations.Delete;
+import org.apache.ibatis.annotations.Insert;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Options;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+
+/**
+ * 广播通知Mapper
+ * 列表、未读数量与个人通知的合并查询见 NotificationMapper
+ */
+@Mapper
+public interface BroadcastNotificationMapper {
+
+    /**
+     * 保存广播通知
+     */
+    @Insert("INSERT INTO broadcast_notification (notification_type, title, content, related_id, related_type, create_time) " +
+            "VALUES (#{notificationType}, #{title}, #{content}, #{relatedId}, #{relatedType}, NOW())")
+    @Options(useGeneratedKeys = true, keyProperty = "broadcastId")
+    void save(BroadcastNotification broadcast);
+
+    /**
+     * 查询用户可见的广播通知（用户注册之后发布的）
+     */
+    @Select("SELECT b.* FROM broadcast_notification b INNER JOIN user u ON u.user_id = #{userId} " +
+            "WHERE b.broadcast_id = #{broadcastId} AND b.create_time >= u.create_time")
+    BroadcastNotification selectVisibleById(@Param("userId") Long userId, @Param("broadcastId") Long broadcastId);
+
+    /**
+     * 最新的广播通知ID（没有广播通知时返回 0）
+     */
+    @Select("SELECT IFNULL(MAX(broadcast_id), 0) FROM broadcast_notification")
+    Long selectMaxId();
+
+    /**
+     * 统计用户在指定广播ID（含）之前的未读广播通知数量
+     */
+    @Select("SELECT COUNT(*) FROM user u " +
+            "INNER JOIN broadcast_notification b ON b.create_time >= u.create_time " +
+            "LEFT JOIN broadcast_read_state s ON s.user_id = u.user_id " +
+            "LEFT JOIN broadcast_receipt r ON r.user_id = u.user_id AND r.broadcast_id = b.broadcast_id " +
+            "WHERE u.user_id = #{userId} AND b.broadcast_id <= #{maxBroadcastId} " +
+            "AND b.broadcast_id > IFNULL(s.read_watermark, 0) " +
+            "AND (r.user_id IS NULL OR (r.is_read = 0 AND r.is_dismissed = 0))")
+    int countUnread(@Param("userId") Long userId, @Param("maxBroadcastId") Long maxBroadcastId);
+
+    /**
+     * 单条广播通知对用户是否未读（已读水位之后、没有已读或删除回执）
+     */
+    @Select("SELECT COUNT(*) FROM broadcast_notification b " +
+            "LEFT JOIN broadcast_read_state s ON s.user_id = #{userId} " +
+            "LEFT JOIN broadcast_receipt r ON r.user_id = #{userId} AND r.broadcast_id = b.broadcast_id " +
+            "WHERE b.broadcast_id = #{broadcastId} AND b.broadcast_id > IFNULL(s.read_watermark, 0) " +
+            "AND (r.user_id IS NULL OR (r.is_read = 0 AND r.is_dismissed = 0))")
+    int countUnreadById(@Param("userId") Long userId, @Param("broadcastId") Long broadcastId);
+
+    /**
+     * 标记单条广播通知已读
+     */
+    @Insert("INSERT INTO broadcast_receipt (user_id, broadcast_id, is_read, read_time) " +
+            "VALUES (#{userId}, #{broadcastId}, 1, NOW()) " +
+            "ON DUPLICATE KEY UPDATE read_time = IF(is_read = 1, read_time, NOW()), is_read = 1")
+    void markAsRead(@Param("userId") Long userId, @Param("broadcastId") Long broadcastId);
+
+    /**
+     * 删除（不再显示）单条广播通知
+     */
+    @Insert("INSERT INTO broadcast_receipt (user_id, broadcast_id, is_dismissed) " +
+            "VALUES (#{userId}, #{broadcastId}, 1) " +
+            "ON DUPLICATE KEY UPDATE is_dismissed = 1")
+    void dismiss(@Param("userId") Long userId, @Param("broadcastId") Long broadcastId);
+
+    /**
+     * 推进用户的已读水位（只增不减）
+     */
+    @Insert("INSERT INTO broadcast_read_state (user_id, read_watermark) VALUES (#{userId}, #{watermark}) " +
+            "ON DUPLICATE KEY UPDATE read_watermark = GREATEST(read_watermark, VALUES(read_watermark))")
+    void advanceWatermark(@Param("userId") Long userId, @Param("watermark") Long watermark);
+
+    /**
+     * 清理已读水位以下仅记录已读的回执（删除回执保留）
+     */
+    @Delete("DELETE FROM broadcast_receipt WHERE user_id = #{userId} AND is_dismissed = 0 AND broadcast_id <= #{watermark}")
+    int deleteReadReceipts(@Param("userId") Long userId, @Param("watermark") Long watermark);
+}
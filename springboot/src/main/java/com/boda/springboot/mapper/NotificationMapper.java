@@ -1,7 +1,9 @@
 package com.boda.springboot.mapper;
 
+import com.boda.springboot.common.PageCursor;
 import com.boda.springboot.entity.Notification;
 import com.boda.springboot.vo.NotificationVO;
+import com.boda.springboot.vo.UnreadCountVO;
 import org.apache.ibatis.annotations.Mapper;
 import org.apache.ibatis.annotations.Param;
 
@@ -24,26 +26,47 @@ public interface NotificationMapper {
     Notification selectById(Long notificationId);
 
     /**
-     * 分页查询通知列表
+     * 分页查询通知列表（合并个人通知与用户可见的广播通知，广播通知的 notificationId 为 -broadcastId）
      */
     List<NotificationVO> selectPageList(@Param("userId") Long userId,
                                         @Param("isRead") Integer isRead,
-                                        @Param("notificationType") String notificationType);
+                                        @Param("notificationType") String notificationType,
+                                        @Param("cursor") PageCursor cursor,
+                                        @Param("limit") Integer limit);
 
     /**
-     * 查询未读通知数量
+     * 按ID顺序查询用户在指定ID之后的个人通知（WebSocket 重连补发）
+     */
+    List<NotificationVO> selectAfterId(@Param("userId") Long userId,
+                                       @Param("afterId") Long afterId,
+                                       @Param("limit") Integer limit);
+
+    /**
+     * 查询未读通知数量（个人通知 + 广播通知）
      */
     Integer countUnread(@Param("userId") Long userId);
 
     /**
-     * 标记通知已读
+     * 批量查询未读通知数量（个人通知 + 广播通知，不存在的用户不在结果中）
+     */
+    List<UnreadCountVO> countUnreadByUserIds(@Param("userIds") List<Long> userIds);
+
+    /**
+     * 标记个人通知已读（广播通知见 BroadcastNotificationMapper）
+     * @return 由未读变为已读的条数（已读过的返回 0）
+     */
+    int markAsRead(@Param("notificationId") Long notificationId);
+
+    /**
+     * 标记所有个人通知已读（广播通知由服务层推进已读水位）
+     * @return 由未读变为已读的条数
      */
-    void markAsRead(@Param("notificationId") Long notificationId);
+    int markAllAsRead(@Param("userId") Long userId);
 
     /**
-     * 标记所有通知已读
+     * 删除个人通知
      */
-    void markAllAsRead(@Param("userId") Long userId);
+    void deleteById(@Param("notificationId") Long notificationId);
 
     /**
      * 删除过期通知
@@ -51,7 +74,7 @@ public interface NotificationMapper {
     void deleteExpired(@Param("days") Integer days);
 
     /**
-     * 批量插入通知
+     * 批量插入通知（回填生成的通知ID）
      */
     void batchInsert(@Param("notifications") List<Notification> notifications);
 }
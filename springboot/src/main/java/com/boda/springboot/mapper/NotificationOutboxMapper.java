@@ -0,0 +1,35 @@
+package com.boda.springboot.mapper;
+
+import com.boda.springboot.entity.NotificationOutboxEvent;
+import org.apache.ibatis.annotations.Insert;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Options;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+
+import java.util.List;
+
+/**
+ * 通知事件发件箱Mapper
+ */
+@Mapper
+public interface NotificationOutboxMapper {
+
+    /**
+     * 写入事件（与业务数据在同一事务中）
+     */
+    @Insert("INSERT INTO notification_outbox (event_type, payload, create_time) VALUES (#{eventType}, #{payload}, NOW())")
+    @Options(useGeneratedKeys = true, keyProperty = "outboxId")
+    void save(NotificationOutboxEvent event);
+
+    /**
+     * 按ID顺序领取待处理事件并加锁，已被其他实例锁定的跳过
+     */
+    @Select("SELECT * FROM notification_outbox ORDER BY outbox_id LIMIT #{limit} FOR UPDATE SKIP LOCKED")
+    List<NotificationOutboxEvent> selectPendingForUpdate(@Param("limit") int limit);
+
+    /**
+     * 删除已处理的事件
+     */
+    int deleteByIds(@Param("outboxIds") List<Long> outboxIds);
+}
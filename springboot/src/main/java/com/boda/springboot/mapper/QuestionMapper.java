@@ -1,12 +1,15 @@
 package com.boda.springboot.mapper;
 
+import com.boda.springboot.common.PageCursor;
 import com.boda.springboot.entity.Question;
 import com.boda.springboot.vo.QuestionDetailVO;
 import com.boda.springboot.vo.QuestionVO;
 import org.apache.ibatis.annotations.Mapper;
 import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
 
 import java.util.List;
+import java.util.Map;
 
 /**
  * 问题Mapper
@@ -36,23 +39,50 @@ public interface QuestionMapper {
 
     /**
      * 分页查询问题列表（带关联信息）
+     * @param fulltext 关键词是否使用全文检索（MATCH ... AGAINST，页码模式下按相关度排序），否则使用 LIKE
+     * @param cursor 游标模式的定位条件（页码模式传 null）
+     * @param limit 游标模式的查询条数（页码模式传 null，由 PageHelper 分页）
      */
     List<QuestionVO> selectPageList(@Param("courseId") Long courseId,
                                     @Param("teacherId") Long teacherId,
                                     @Param("isAnswered") Integer isAnswered,
-                                    @Param("keyword") String keyword);
+                                    @Param("keyword") String keyword,
+                                    @Param("fulltext") boolean fulltext,
+                                    @Param("cursor") PageCursor cursor,
+                                    @Param("limit") Integer limit);
 
     /**
      * 查询我的提问列表
      */
     List<QuestionVO> selectMyQuestions(@Param("studentId") Long studentId,
-                                       @Param("isAnswered") Integer isAnswered);
+                                       @Param("isAnswered") Integer isAnswered,
+                                       @Param("cursor") PageCursor cursor,
+                                       @Param("limit") Integer limit);
 
     /**
-     * 查询教师待回答问题列表
+     * 查询教师待回答问题列表（按提问时间升序）
      */
     List<QuestionVO> selectPendingQuestions(@Param("teacherId") Long teacherId,
-                                            @Param("courseId") Long courseId);
+                                            @Param("courseId") Long courseId,
+                                            @Param("cursor") PageCursor cursor,
+                                            @Param("limit") Integer limit);
+
+    /**
+     * 按ID列表查询待回答问题（带关联信息），顺序不保证，由调用方按ID列表重排
+     */
+    List<QuestionVO> selectPendingByIds(@Param("questionIds") List<Long> questionIds);
+
+    /**
+     * 统计教师待回答问题数量
+     */
+    Integer countPending(@Param("teacherId") Long teacherId, @Param("courseId") Long courseId);
+
+    /**
+     * 查询加载待回答问题队列所需的字段
+     */
+    @Select("SELECT question_id, teacher_id, course_id, create_time FROM question " +
+            "WHERE is_deleted = 0 AND is_answered = 0 AND status = 1 AND teacher_id IS NOT NULL")
+    List<Question> selectPendingQueueEntries();
 
     /**
      * 查询问题详情（包含关联信息）
@@ -60,9 +90,10 @@ public interface QuestionMapper {
     QuestionDetailVO selectDetailById(Long questionId);
 
     /**
-     * 增加浏览次数
+     * 批量累加浏览次数（由 AccessCountBuffer 定时写回）
+     * @param views 问题ID -> 浏览次数增量
      */
-    void increaseViewCount(Long questionId);
+    void batchIncreaseViewCount(@Param("views") Map<Long, Long> views);
 
     /**
      * 增加回答数量
@@ -78,5 +109,11 @@ public interface QuestionMapper {
      * 更新回答状态
      */
     void updateAnsweredStatus(@Param("questionId") Long questionId, @Param("isAnswered") Integer isAnswered);
+
+    /**
+     * 统计问题总数
+     */
+    @Select("SELECT COUNT(*) FROM question WHERE is_deleted = 0")
+    Integer countQuestions();
 }
 
@@ -1,5 +1,6 @@
 package com.boda.springboot.mapper;
 
+import com.boda.springboot.common.PageCursor;
 import com.boda.springboot.entity.ResourceCollection;
 import com.boda.springboot.vo.ResourceVO;
 import org.apache.ibatis.annotations.Mapper;
@@ -32,7 +33,9 @@ public interface ResourceCollectionMapper {
     /**
      * 查询我的收藏列表
      */
-    List<ResourceVO> selectMyCollections(@Param("studentId") Long studentId);
+    List<ResourceVO> selectMyCollections(@Param("studentId") Long studentId,
+                                         @Param("cursor") PageCursor cursor,
+                                         @Param("limit") Integer limit);
 
     /**
      * 批量查询收藏状态
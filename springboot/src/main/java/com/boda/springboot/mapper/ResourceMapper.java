@@ -1,5 +1,6 @@
 package com.boda.springboot.mapper;
 
+import com.boda.springboot.common.PageCursor;
 import com.boda.springboot.dto.ResourcePageQueryDTO;
 import com.boda.springboot.entity.Resource;
 import com.boda.springboot.vo.HotResourceVO;
@@ -9,6 +10,7 @@ import org.apache.ibatis.annotations.Param;
 import org.apache.ibatis.annotations.Select;
 
 import java.util.List;
+import java.util.Map;
 
 /**
  * 资源Mapper
@@ -47,23 +49,35 @@ public interface ResourceMapper {
     List<ResourceVO> selectPageList(ResourcePageQueryDTO queryDTO);
 
     /**
-     * 查询我上传的资源
+     * 按ID列表查询资源（带关联信息，仅已上架且未删除的），顺序不保证，由调用方按ID列表重排
      */
-    List<ResourceVO> selectMyUploads(@Param("uploaderId") Long uploaderId, 
-                                   @Param("resourceTitle") String resourceTitle, 
-                                   @Param("courseId") Long courseId);
+    List<ResourceVO> selectListByIds(@Param("resourceIds") List<Long> resourceIds);
 
     /**
-     * 增加下载次数
+     * 查询构建搜索索引所需的字段（仅已上架且未删除的资源）
      */
-    @Select("UPDATE resource SET download_count = download_count + 1 WHERE resource_id = #{resourceId}")
-    void incrementDownloadCount(Long resourceId);
+    @Select("SELECT resource_id, resource_title, description, tags, course_id, visibility, file_type, " +
+            "is_top, status, create_time FROM resource WHERE is_deleted = 0 AND status = 1")
+    List<Resource> selectSearchDocuments();
+
+    /**
+     * 查询我上传的资源
+     */
+    List<ResourceVO> selectMyUploads(@Param("uploaderId") Long uploaderId, 
+                                   @Param("resourceTitle") String resourceTitle, 
+                                   @Param("courseId") Long courseId,
+                                   @Param("cursor") PageCursor cursor,
+                                   @Param("limit") Integer limit);
 
     /**
-     * 增加浏览次数
+     * 批量累加浏览次数和下载次数（由 AccessCountBuffer 定时写回）
+     * @param resourceIds 涉及的资源ID
+     * @param views 资源ID -> 浏览次数增量
+     * @param downloads 资源ID -> 下载次数增量
      */
-    @Select("UPDATE resource SET view_count = view_count + 1 WHERE resource_id = #{resourceId}")
-    void incrementViewCount(Long resourceId);
+    void batchIncrementCounts(@Param("resourceIds") List<Long> resourceIds,
+                              @Param("views") Map<Long, Long> views,
+                              @Param("downloads") Map<Long, Long> downloads);
 
     /**
      * 更新置顶状态
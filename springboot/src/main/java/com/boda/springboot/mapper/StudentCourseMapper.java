@@ -18,12 +18,17 @@ public interface StudentCourseMapper {
     void save(StudentCourse studentCourse);
 
     /**
-     * 删除学生课程关联
+     * 批量添加学生课程关联（多行 INSERT）
+     */
+    void batchSave(@Param("relations") List<StudentCourse> relations);
+
+    /**
+     * 删除学生课程关联（调用方需同步 EnrollmentCache.onRemoved）
      */
     void delete(@Param("studentId") Long studentId, @Param("courseId") Long courseId);
 
     /**
-     * 根据课程ID删除所有关联
+     * 根据课程ID删除所有关联（调用方需同步 EnrollmentCache.onCourseRemoved）
      */
     void deleteByCourseId(Long courseId);
 
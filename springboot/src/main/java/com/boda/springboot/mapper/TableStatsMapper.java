@@ -0,0 +1,18 @@
+package com.boda.springboot.mapper;
+
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+
+/**
+ * 表统计信息Mapper
+ */
+@Mapper
+public interface TableStatsMapper {
+
+    /**
+     * 查询 InnoDB 统计信息中的表行数估算值（不扫描表，包含逻辑删除的行）
+     */
+    @Select("SELECT TABLE_ROWS FROM information_schema.TABLES WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = #{table}")
+    Long selectEstimatedRows(@Param("table") String table);
+}
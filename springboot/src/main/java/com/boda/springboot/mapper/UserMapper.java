@@ -6,6 +6,7 @@ import org.apache.ibatis.annotations.Param;
 import org.apache.ibatis.annotations.Select;
 import org.apache.ibatis.annotations.Update;
 
+import java.util.Collection;
 import java.util.List;
 
 @Mapper
@@ -71,6 +72,15 @@ public interface UserMapper {
      */
     @Update("UPDATE user SET password = #{newPassword}, update_time = NOW() WHERE user_id = #{userId}")
     void updatePassword(@Param("userId") Long userId, @Param("newPassword") String newPassword);
+
+    /**
+     * 替换密码哈希（登录后按新强度重新哈希时写回）
+     * 只在数据库中仍是 oldPassword 时更新，期间修改或重置过的密码不会被旧密码的哈希覆盖
+     * @return 更新的行数，密码已变化时为 0
+     */
+    @Update("UPDATE user SET password = #{newPassword} WHERE user_id = #{userId} AND password = #{oldPassword}")
+    int replacePasswordHash(@Param("userId") Long userId, @Param("oldPassword") String oldPassword,
+                            @Param("newPassword") String newPassword);
     /**
      * 更新用户信息
      * @param user
@@ -92,10 +102,25 @@ public interface UserMapper {
     Integer countTeachers();
 
     /**
-     * 查询所有用户的ID（用于批量发送通知）
-     * @return 用户ID列表
+     * 批量保存用户（多行 INSERT，回填 userId）
+     * @param users 用户列表
+     */
+    void batchSave(@Param("users") List<User> users);
+
+    /**
+     * 批量查询用户展示信息（只查 user_id、username、real_name、avatar_url、role）
+     * @param userIds 用户ID列表
+     * @return 未删除的用户
+     */
+    List<User> selectProfilesByIds(@Param("userIds") List<Long> userIds);
+
+    /**
+     * 查询与给定用户名/学号/邮箱冲突的用户（包括已删除的，唯一索引不区分删除标记）
+     * 用于批量导入时一次性校验一批数据
+     * @return 冲突用户的 username、student_id、email
      */
-    @Select("SELECT user_id FROM user WHERE is_deleted = 0 AND status = 1")
-    List<Long> selectAllUserIds();
+    List<User> selectConflicts(@Param("usernames") Collection<String> usernames,
+                               @Param("studentIds") Collection<String> studentIds,
+                               @Param("emails") Collection<String> emails);
 
 }
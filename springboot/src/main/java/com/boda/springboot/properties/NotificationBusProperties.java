@@ -0,0 +1,69 @@
+package com.boda.springboot.properties;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * 通知消息总线配置属性
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "notification-bus")
+public class NotificationBusProperties {
+
+    /**
+     * 总线实现: memory-进程内（单实例）, tcp-经中转服务在多个实例间转发
+     */
+    private String backend = "memory";
+
+    /**
+     * 中转服务地址
+     */
+    private String brokerHost = "127.0.0.1";
+
+    /**
+     * 中转服务端口
+     */
+    private int brokerPort = 7400;
+
+    /**
+     * 内嵌中转服务监听的地址，默认只接受本机连接；多台机器部署时改为内网地址
+     */
+    private String brokerBindAddress = "127.0.0.1";
+
+    /**
+     * 实例与中转服务之间的共享密钥，连接后先发送密钥，不一致的连接会被中转服务断开（tcp 总线或内嵌中转服务必须配置）
+     */
+    private String sharedSecret = "";
+
+    /**
+     * 是否在本实例内启动中转服务（只需一个实例开启）
+     */
+    private boolean embeddedBroker = false;
+
+    /**
+     * 内嵌中转服务为每个实例缓存的待发送帧数，实例读得慢导致写满时断开该实例
+     */
+    private int brokerPeerQueueCapacity = 1024;
+
+    /**
+     * 每批最多合并发送的消息数
+     */
+    private int batchSize = 100;
+
+    /**
+     * 凑批最长等待时间（毫秒）
+     */
+    private long flushIntervalMillis = 10;
+
+    /**
+     * 待发送消息队列容量，中转服务不可用时超出部分丢弃
+     */
+    private int queueCapacity = 10000;
+
+    /**
+     * 与中转服务断开后的重连间隔（毫秒）
+     */
+    private long reconnectDelayMillis = 2000;
+}
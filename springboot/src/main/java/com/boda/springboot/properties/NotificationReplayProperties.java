@@ -0,0 +1,39 @@
+package com.boda.springboot.properties;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * WebSocket 重连补发通知配置属性
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "websocket.replay")
+public class NotificationReplayProperties {
+
+    /**
+     * 每批补发的通知数（一批作为一条 WebSocket 消息发送）
+     */
+    private int batchSize = 50;
+
+    /**
+     * 单次重连最多补发的通知数，超出时通知客户端改为重新拉取列表
+     */
+    private int maxNotifications = 500;
+
+    /**
+     * 连接发送队列中未发送的消息超过该数量时暂停补发，等待客户端接收
+     */
+    private int maxQueueDepth = 16;
+
+    /**
+     * 暂停后重试的间隔（毫秒）
+     */
+    private long retryDelayMillis = 200;
+
+    /**
+     * 补发线程数
+     */
+    private int threads = 2;
+}
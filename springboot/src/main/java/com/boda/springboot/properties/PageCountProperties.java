@@ -0,0 +1,38 @@
+package com.boda.springboot.properties;
+
+import com.boda.springboot.common.CountStrategy;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 分页总数统计策略配置属性
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "page-count")
+public class PageCountProperties {
+
+    /**
+     * 未单独配置的接口使用的策略
+     */
+    private CountStrategy defaultStrategy = CountStrategy.EXACT;
+
+    /**
+     * 按接口配置的策略（接口名见 PageEndpoint）
+     */
+    private Map<String, CountStrategy> strategies = new HashMap<>();
+
+    /**
+     * CACHED / ESTIMATED 策略下总数的缓存时间（毫秒）
+     */
+    private long cacheTtlMillis = 30000;
+
+    /**
+     * 最多缓存的总数条目（接口 + 筛选条件）
+     */
+    private int cacheCapacity = 10000;
+}
@@ -0,0 +1,34 @@
+package com.boda.springboot.properties;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * 密码哈希配置属性
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "password-hashing")
+public class PasswordHashingProperties {
+
+    /**
+     * BCrypt 强度（cost），调高后旧密码会在用户下次登录成功时自动重新哈希
+     */
+    private int strength = 10;
+
+    /**
+     * 哈希线程数，0 表示使用 CPU 核数
+     */
+    private int poolSize = 0;
+
+    /**
+     * 等待队列长度，队列满时直接拒绝（返回 429）
+     */
+    private int queueCapacity = 64;
+
+    /**
+     * 请求线程等待哈希结果的最长时间（毫秒），超时返回 429
+     */
+    private long waitTimeoutMillis = 5000;
+}
@@ -0,0 +1,49 @@
+package com.boda.springboot.properties;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Token 作废记录配置属性
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "jwt.revocation")
+public class TokenRevocationProperties {
+
+    /**
+     * 存储方式: memory-进程内存, shared-本机共享文件（多实例共享）
+     */
+    private String backend = "memory";
+
+    /**
+     * 最多保存的作废记录数，达到上限时先清理已过期记录，仍放不下则拒绝新的作废请求
+     */
+    private int maxEntries = 100000;
+
+    /**
+     * 时间轮每格跨度（毫秒），也是过期清理的执行间隔
+     */
+    private long tickMillis = 60000;
+
+    /**
+     * 时间轮格数，默认 1440 格 × 1 分钟 = 24 小时
+     */
+    private int wheelSize = 1440;
+
+    /**
+     * 共享文件路径（backend=shared 时使用）
+     */
+    private String sharedFile = System.getProperty("java.io.tmpdir") + "/web-lab-revoked-tokens.log";
+
+    /**
+     * 从共享文件同步的间隔（毫秒）
+     */
+    private long syncIntervalMillis = 2000;
+
+    /**
+     * 共享文件超过该大小（字节）时压缩，仅保留未过期记录
+     */
+    private long compactThresholdBytes = 4 * 1024 * 1024;
+}
@@ -0,0 +1,37 @@
+package com.boda.springboot.properties;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * WebSocket 发送队列配置属性
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "websocket.outbound")
+public class WebSocketOutboundProperties {
+
+    /**
+     * 每个连接最多排队的消息数
+     */
+    private int queueCapacity = 256;
+
+    /**
+     * 队列满时的处理方式: drop-oldest-丢弃最早的消息, close-关闭连接（客户端重连后重新拉取）
+     */
+    private String overflowPolicy = "drop-oldest";
+
+    /**
+     * 单条消息发送超时（毫秒），超时视为慢客户端并关闭连接
+     */
+    private long sendTimeoutMillis = 10000;
+
+    /**
+     * 可合并的消息类型：队列中尚未发送的同类型消息只保留最新一条
+     */
+    private List<String> coalesceTypes = new ArrayList<>(List.of("unreadCount"));
+}
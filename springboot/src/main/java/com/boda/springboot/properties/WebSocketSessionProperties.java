@@ -0,0 +1,29 @@
+package com.boda.springboot.properties;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * WebSocket 连接管理配置属性
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "websocket.session")
+public class WebSocketSessionProperties {
+
+    /**
+     * 连接空闲超时（毫秒）：超过该时间没有收到客户端消息（含心跳）则关闭，客户端每 30 秒发送一次心跳
+     */
+    private long idleTimeoutMillis = 90000;
+
+    /**
+     * 时间轮每格跨度（毫秒），也是空闲检查的执行间隔
+     */
+    private long reapTickMillis = 5000;
+
+    /**
+     * 每个用户最多保持的连接数，超出时关闭最早的连接
+     */
+    private int maxSessionsPerUser = 8;
+}
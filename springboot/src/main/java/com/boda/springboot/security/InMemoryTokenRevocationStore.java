@@ -0,0 +1,179 @@
+package com.boda.springboot.security;
+
+import com.boda.springboot.exception.ServiceException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 基于进程内存的 Token 作废记录存储
+ * 记录按过期时间挂到时间轮的格子上，每次 tick 只检查当前格，过期记录自动清除；
+ * 记录总数有上限：达到上限时先清理全部已过期记录，仍然放不下则拒绝新的作废请求，
+ * 不会淘汰尚未过期的记录（淘汰会让已退出登录的 Token 重新生效）
+ */
+@Slf4j
+public class InMemoryTokenRevocationStore implements TokenRevocationStore {
+
+    /**
+     * 作废记录：Key 为 jti，Value 为过期时间
+     */
+    private final Map<String, Long> revoked = new ConcurrentHashMap<>();
+
+    /**
+     * 时间轮，每格保存在该格过期（或多圈后过期）的 jti
+     */
+    private final Queue<String>[] wheel;
+
+    private final long tickMillis;
+
+    private final int maxEntries;
+
+    /**
+     * 上次清理到的 tick
+     */
+    private long lastPurgedTick;
+
+    /**
+     * 因超出上限被拒绝的作废请求数
+     */
+    private final AtomicLong rejectedCount = new AtomicLong();
+
+    @SuppressWarnings("unchecked")
+    public InMemoryTokenRevocationStore(int maxEntries, long tickMillis, int wheelSize) {
+        this.maxEntries = maxEntries;
+        this.tickMillis = tickMillis;
+        this.wheel = new Queue[wheelSize];
+        for (int i = 0; i < wheelSize; i++) {
+            wheel[i] = new ConcurrentLinkedQueue<>();
+        }
+        this.lastPurgedTick = System.currentTimeMillis() / tickMillis;
+    }
+
+    @Override
+    public void revoke(String tokenId, long expiresAt) {
+        if (tokenId == null || expiresAt <= System.currentTimeMillis()) {
+            return;
+        }
+        if (!record(tokenId, expiresAt)) {
+            throw new ServiceException("429", "当前退出登录人数过多，请稍后重试");
+        }
+    }
+
+    /**
+     * 保存作废记录
+     *
+     * @return 超出上限被拒绝时返回 false
+     */
+    protected boolean record(String tokenId, long expiresAt) {
+        if (revoked.put(tokenId, expiresAt) == null) {
+            wheel[slotOf(expiresAt / tickMillis)].add(tokenId);
+            if (revoked.size() > maxEntries) {
+                return makeRoom(tokenId, expiresAt);
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public boolean isRevoked(String tokenId) {
+        if (tokenId == null) {
+            return false;
+        }
+        Long expiresAt = revoked.get(tokenId);
+        return expiresAt != null && expiresAt > System.currentTimeMillis();
+    }
+
+    @Override
+    public int size() {
+        return revoked.size();
+    }
+
+    /**
+     * 因超出上限被拒绝的作废请求数
+     */
+    public long getRejectedCount() {
+        return rejectedCount.get();
+    }
+
+    /**
+     * 清理已过期的作废记录，只扫描上次清理之后经过的格子
+     */
+    @Scheduled(fixedDelayString = "${jwt.revocation.tick-millis:60000}")
+    public synchronized void purgeExpired() {
+        long now = System.currentTimeMillis();
+        long currentTick = now / tickMillis;
+        // 停顿超过一整圈时，每格只需扫描一次
+        long fromTick = Math.max(lastPurgedTick, currentTick - wheel.length + 1);
+        int removed = 0;
+        for (long tick = fromTick; tick <= currentTick; tick++) {
+            removed += drainSlot(slotOf(tick), now);
+        }
+        lastPurgedTick = currentTick;
+        if (removed > 0) {
+            log.debug("清理过期作废 Token 记录 {} 条，剩余 {} 条", removed, revoked.size());
+        }
+    }
+
+    /**
+     * 超出容量时扫描全部格子清理已过期记录；仍然超出则撤回本次新增的记录
+     *
+     * @return 本次记录是否保留
+     */
+    private synchronized boolean makeRoom(String tokenId, long expiresAt) {
+        if (revoked.size() <= maxEntries) {
+            return true;
+        }
+        long now = System.currentTimeMillis();
+        int removed = 0;
+        for (int slot = 0; slot < wheel.length; slot++) {
+            removed += drainSlot(slot, now);
+        }
+        if (revoked.size() <= maxEntries) {
+            log.info("作废 Token 记录达到上限 {}，已清理过期记录 {} 条", maxEntries, removed);
+            return true;
+        }
+        // 时间轮中残留的 jti 在 drainSlot 时发现记录不存在会直接丢弃
+        revoked.remove(tokenId, expiresAt);
+        long rejected = rejectedCount.incrementAndGet();
+        log.warn("作废 Token 记录已满 {} 条且均未过期，拒绝本次作废 - jti: {}, 累计拒绝: {}",
+                maxEntries, tokenId, rejected);
+        return false;
+    }
+
+    /**
+     * 处理一个格子：移除过期的记录，其余放回
+     *
+     * @return 移除的记录数
+     */
+    private int drainSlot(int slot, long now) {
+        Queue<String> queue = wheel[slot];
+        int size = queue.size();
+        int removed = 0;
+        for (int i = 0; i < size; i++) {
+            String tokenId = queue.poll();
+            if (tokenId == null) {
+                break;
+            }
+            Long expiresAt = revoked.get(tokenId);
+            if (expiresAt == null) {
+                continue;
+            }
+            if (expiresAt <= now) {
+                revoked.remove(tokenId, expiresAt);
+                removed++;
+            } else {
+                queue.add(tokenId);
+            }
+        }
+        return removed;
+    }
+
+    private int slotOf(long tick) {
+        return (int) Math.floorMod(tick, (long) wheel.length);
+    }
+}
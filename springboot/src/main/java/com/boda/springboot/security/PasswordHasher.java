@@ -0,0 +1,186 @@
+package com.boda.springboot.security;
+
+import com.boda.springboot.exception.ServiceException;
+import com.boda.springboot.properties.PasswordHashingProperties;
+import com.boda.springboot.vo.PasswordHashingMetricsVO;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * 密码哈希执行器
+ * BCrypt 计算放到按 CPU 核数配置的独立线程池中执行，避免登录高峰占满 Tomcat 请求线程；
+ * 队列满或等待超时时快速失败（429），不拖慢其他接口
+ */
+@Slf4j
+@Component
+public class PasswordHasher {
+
+    private final PasswordEncoder passwordEncoder;
+
+    private final PasswordHashingProperties properties;
+
+    private final ThreadPoolExecutor executor;
+
+    private final LongAdder rejectedCount = new LongAdder();
+    private final LongAdder hashCount = new LongAdder();
+    private final LongAdder hashNanos = new LongAdder();
+    private final LongAccumulator maxHashNanos = new LongAccumulator(Math::max, 0);
+    private final LongAdder rehashCount = new LongAdder();
+
+    public PasswordHasher(PasswordEncoder passwordEncoder, PasswordHashingProperties properties) {
+        this.passwordEncoder = passwordEncoder;
+        this.properties = properties;
+        int poolSize = properties.getPoolSize() > 0
+                ? properties.getPoolSize()
+                : Runtime.getRuntime().availableProcessors();
+        AtomicInteger threadIndex = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(
+                poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(properties.getQueueCapacity()),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "password-hash-" + threadIndex.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        log.info("密码哈希线程池已启动 - 线程数: {}, 队列长度: {}, BCrypt 强度: {}",
+                poolSize, properties.getQueueCapacity(), properties.getStrength());
+    }
+
+    /**
+     * 加密密码
+     */
+    public String encode(String rawPassword) {
+        return await(() -> timed(() -> passwordEncoder.encode(rawPassword)));
+    }
+
+    /**
+     * 在当前线程加密密码，不经过哈希线程池，不会因线程池繁忙被拒绝
+     * 仅供已运行在独立后台线程中的任务使用（如批量导入），请求线程请使用 {@link #encode}
+     */
+    public String encodeInBackground(String rawPassword) {
+        return timed(() -> passwordEncoder.encode(rawPassword));
+    }
+
+    /**
+     * 校验密码
+     */
+    public boolean matches(String rawPassword, String encodedPassword) {
+        return await(() -> timed(() -> passwordEncoder.matches(rawPassword, encodedPassword)));
+    }
+
+    /**
+     * 已存哈希的强度低于当前配置时，在后台按新强度重新哈希
+     * 线程池繁忙时直接跳过，等下次登录再处理
+     *
+     * @param rawPassword     已校验通过的明文密码
+     * @param encodedPassword 数据库中的哈希
+     * @param onRehashed      新哈希的回调（用于写回数据库，应只在库中仍为 encodedPassword 时更新）
+     */
+    public void rehashIfNeeded(String rawPassword, String encodedPassword, Consumer<String> onRehashed) {
+        if (!passwordEncoder.upgradeEncoding(encodedPassword)) {
+            return;
+        }
+        try {
+            CompletableFuture
+                    .supplyAsync(() -> timed(() -> passwordEncoder.encode(rawPassword)), executor)
+                    .thenAccept(onRehashed)
+                    .whenComplete((ignored, error) -> {
+                        if (error != null) {
+                            log.warn("密码重新哈希失败", error);
+                        } else {
+                            rehashCount.increment();
+                        }
+                    });
+        } catch (RejectedExecutionException e) {
+            log.debug("密码哈希线程池繁忙，跳过本次重新哈希");
+        }
+    }
+
+    /**
+     * 获取线程池监控数据
+     */
+    public PasswordHashingMetricsVO getMetrics() {
+        PasswordHashingMetricsVO metrics = new PasswordHashingMetricsVO();
+        long count = hashCount.sum();
+        metrics.setStrength(properties.getStrength());
+        metrics.setPoolSize(executor.getMaximumPoolSize());
+        metrics.setActiveCount(executor.getActiveCount());
+        metrics.setQueueDepth(executor.getQueue().size());
+        metrics.setQueueCapacity(properties.getQueueCapacity());
+        metrics.setCompletedCount(count);
+        metrics.setRejectedCount(rejectedCount.sum());
+        metrics.setAvgHashMillis(count == 0 ? 0.0 : hashNanos.sum() / 1_000_000.0 / count);
+        metrics.setMaxHashMillis(maxHashNanos.get() / 1_000_000.0);
+        metrics.setRehashCount(rehashCount.sum());
+        return metrics;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    /**
+     * 提交到哈希线程池并等待结果，繁忙时快速失败
+     */
+    private <T> T await(Callable<T> task) {
+        Future<T> future;
+        try {
+            future = executor.submit(task);
+        } catch (RejectedExecutionException e) {
+            rejectedCount.increment();
+            log.warn("密码哈希线程池已满，拒绝请求 - 排队: {}", executor.getQueue().size());
+            throw new ServiceException("429", "当前登录人数过多，请稍后重试");
+        }
+        try {
+            return future.get(properties.getWaitTimeoutMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            rejectedCount.increment();
+            log.warn("等待密码哈希超时 - 排队: {}", executor.getQueue().size());
+            throw new ServiceException("429", "当前登录人数过多，请稍后重试");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ServiceException("密码校验被中断");
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new ServiceException("密码处理失败: " + cause.getMessage());
+        }
+    }
+
+    /**
+     * 执行并记录哈希耗时
+     */
+    private <T> T timed(Supplier<T> hashing) {
+        long start = System.nanoTime();
+        try {
+            return hashing.get();
+        } finally {
+            long elapsed = System.nanoTime() - start;
+            hashCount.increment();
+            hashNanos.add(elapsed);
+            maxHashNanos.accumulate(elapsed);
+        }
+    }
+}
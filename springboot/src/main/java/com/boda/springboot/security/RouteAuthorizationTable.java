@@ -0,0 +1,117 @@
+package com.boda.springboot.security;
+
+import com.boda.springboot.annotation.RequireRole;
+import com.boda.springboot.common.Constant;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationContext;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerMapping;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 接口权限表
+ * 启动时把所有 @RequireRole 接口编译为 "处理方法 -> 角色位掩码"，
+ * 请求时只需一次查表和一次按位与即可完成权限校验
+ */
+@Slf4j
+@Component
+public class RouteAuthorizationTable implements SmartInitializingSingleton {
+
+    public static final int ROLE_STUDENT = 1;
+    public static final int ROLE_TEACHER = 1 << 1;
+    public static final int ROLE_ADMIN = 1 << 2;
+
+    /**
+     * 不需要角色限制的接口
+     */
+    public static final int ANY_ROLE = 0;
+
+    /**
+     * 处理方法 -> 允许的角色位掩码
+     */
+    private final Map<Method, Integer> requiredMasks = new ConcurrentHashMap<>();
+
+    @Autowired
+    private ApplicationContext applicationContext;
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        RequestMappingHandlerMapping handlerMapping =
+                applicationContext.getBean("requestMappingHandlerMapping", RequestMappingHandlerMapping.class);
+        int restricted = 0;
+        for (HandlerMethod handlerMethod : handlerMapping.getHandlerMethods().values()) {
+            int mask = compile(handlerMethod.getMethod());
+            requiredMasks.put(handlerMethod.getMethod(), mask);
+            if (mask != ANY_ROLE) {
+                restricted++;
+            }
+        }
+        log.info("接口权限表构建完成 - 接口总数: {}, 需要角色的接口: {}", requiredMasks.size(), restricted);
+    }
+
+    /**
+     * 获取处理方法允许的角色位掩码
+     *
+     * @return 角色位掩码，ANY_ROLE 表示登录即可访问
+     */
+    public int requiredMask(HandlerMethod handlerMethod) {
+        Integer mask = requiredMasks.get(handlerMethod.getMethod());
+        if (mask == null) {
+            // 启动后动态注册的接口，首次访问时编译
+            mask = requiredMasks.computeIfAbsent(handlerMethod.getMethod(), RouteAuthorizationTable::compile);
+        }
+        return mask;
+    }
+
+    /**
+     * 判断角色是否满足接口要求
+     */
+    public static boolean isAllowed(int roleMask, int requiredMask) {
+        return requiredMask == ANY_ROLE || (roleMask & requiredMask) != 0;
+    }
+
+    /**
+     * 角色名转换为位掩码，未知角色返回 0（不匹配任何受限接口）
+     */
+    public static int roleBit(String role) {
+        if (role == null) {
+            return 0;
+        }
+        switch (role) {
+            case Constant.ROLE_STUDENT:
+                return ROLE_STUDENT;
+            case Constant.ROLE_TEACHER:
+                return ROLE_TEACHER;
+            case Constant.ROLE_ADMIN:
+                return ROLE_ADMIN;
+            default:
+                return 0;
+        }
+    }
+
+    /**
+     * 把方法上的 @RequireRole 编译为位掩码
+     */
+    private static int compile(Method method) {
+        RequireRole requireRole = AnnotatedElementUtils.findMergedAnnotation(method, RequireRole.class);
+        if (requireRole == null) {
+            return ANY_ROLE;
+        }
+        int mask = 0;
+        for (String role : requireRole.value()) {
+            int bit = roleBit(role);
+            if (bit == 0) {
+                throw new IllegalStateException("@RequireRole 中存在未知角色: " + role + " - " + method);
+            }
+            mask |= bit;
+        }
+        return mask;
+    }
+}
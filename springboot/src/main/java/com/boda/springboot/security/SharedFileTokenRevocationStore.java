@@ -0,0 +1,166 @@
+package com.boda.springboot.security;
+
+import com.boda.springboot.exception.ServiceException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 基于本机共享文件的 Token 作废记录存储（多实例共享的本地替代实现）
+ * 作废时追加写入共享文件，各实例定时增量读取新增记录到本地内存，
+ * 因此每次请求的校验仍然只查内存，不需要访问数据库或文件。
+ *
+ * 文件格式：首行为 "#代数"，其余每行 "jti,过期时间"；
+ * 文件过大时由写入方压缩为只含未过期记录的新文件并增加代数，其他实例发现代数变化后从头重读。
+ */
+@Slf4j
+public class SharedFileTokenRevocationStore extends InMemoryTokenRevocationStore {
+
+    private final Path file;
+
+    private final Path lockFile;
+
+    private final long compactThresholdBytes;
+
+    /**
+     * 已读取到的文件代数与偏移量
+     */
+    private long generation = -1;
+    private long offset;
+
+    public SharedFileTokenRevocationStore(int maxEntries, long tickMillis, int wheelSize,
+                                          String sharedFile, long compactThresholdBytes) {
+        super(maxEntries, tickMillis, wheelSize);
+        this.file = Paths.get(sharedFile);
+        this.lockFile = Paths.get(sharedFile + ".lock");
+        this.compactThresholdBytes = compactThresholdBytes;
+        sync();
+    }
+
+    @Override
+    public synchronized void revoke(String tokenId, long expiresAt) {
+        if (tokenId == null || expiresAt <= System.currentTimeMillis()) {
+            return;
+        }
+        if (!record(tokenId, expiresAt)) {
+            throw new ServiceException("429", "当前退出登录人数过多，请稍后重试");
+        }
+        try (FileChannel lockChannel = openLockChannel(); FileLock ignored = lockChannel.lock()) {
+            try (RandomAccessFile raf = new RandomAccessFile(file.toFile(), "rw")) {
+                if (raf.length() == 0) {
+                    raf.write(header(1).getBytes(StandardCharsets.UTF_8));
+                }
+                raf.seek(raf.length());
+                raf.write((tokenId + "," + expiresAt + "\n").getBytes(StandardCharsets.UTF_8));
+                if (raf.length() > compactThresholdBytes) {
+                    raf.close();
+                    readNewEntries();
+                    compact();
+                }
+            }
+        } catch (IOException e) {
+            // 写共享文件失败不影响本实例的作废效果
+            log.error("写入共享作废记录失败 - 文件: {}", file, e);
+        }
+    }
+
+    /**
+     * 定时从共享文件同步其他实例新增的作废记录
+     */
+    @Scheduled(fixedDelayString = "${jwt.revocation.sync-interval-millis:2000}")
+    public synchronized void sync() {
+        if (!Files.exists(file)) {
+            return;
+        }
+        try (FileChannel lockChannel = openLockChannel(); FileLock ignored = lockChannel.lock()) {
+            readNewEntries();
+        } catch (IOException e) {
+            log.error("同步共享作废记录失败 - 文件: {}", file, e);
+        }
+    }
+
+    /**
+     * 读取上次偏移量之后的新记录，需在持有文件锁时调用
+     */
+    private void readNewEntries() throws IOException {
+        if (!Files.exists(file)) {
+            return;
+        }
+        try (RandomAccessFile raf = new RandomAccessFile(file.toFile(), "r")) {
+            String head = raf.readLine();
+            if (head == null || !head.startsWith("#")) {
+                return;
+            }
+            long fileGeneration = Long.parseLong(head.substring(1).trim());
+            if (fileGeneration != generation || raf.length() < offset) {
+                // 文件被压缩过，从头读取
+                generation = fileGeneration;
+                offset = raf.getFilePointer();
+            }
+            raf.seek(offset);
+            String line;
+            long now = System.currentTimeMillis();
+            while ((line = raf.readLine()) != null) {
+                int comma = line.indexOf(',');
+                if (comma > 0) {
+                    long expiresAt = Long.parseLong(line.substring(comma + 1).trim());
+                    if (expiresAt > now) {
+                        // 超出上限时 record 会记录告警，这里继续读取后续记录
+                        record(line.substring(0, comma), expiresAt);
+                    }
+                }
+                offset = raf.getFilePointer();
+            }
+        }
+    }
+
+    /**
+     * 压缩共享文件：只保留未过期记录，代数加一，需在持有文件锁时调用
+     */
+    private void compact() throws IOException {
+        Map<String, Long> live = new HashMap<>();
+        long now = System.currentTimeMillis();
+        for (String line : Files.readAllLines(file, StandardCharsets.UTF_8)) {
+            int comma = line.indexOf(',');
+            if (line.startsWith("#") || comma <= 0) {
+                continue;
+            }
+            long expiresAt = Long.parseLong(line.substring(comma + 1).trim());
+            if (expiresAt > now) {
+                live.put(line.substring(0, comma), expiresAt);
+            }
+        }
+
+        long nextGeneration = generation + 1;
+        StringBuilder content = new StringBuilder(header(nextGeneration));
+        live.forEach((tokenId, expiresAt) -> content.append(tokenId).append(',').append(expiresAt).append('\n'));
+
+        Path temp = Paths.get(file + ".tmp");
+        Files.writeString(temp, content, StandardCharsets.UTF_8);
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+        generation = nextGeneration;
+        offset = Files.size(file);
+        log.info("共享作废记录文件已压缩 - 保留 {} 条, 代数: {}", live.size(), nextGeneration);
+    }
+
+    private FileChannel openLockChannel() throws IOException {
+        return FileChannel.open(lockFile, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+    }
+
+    private static String header(long generation) {
+        return "#" + generation + "\n";
+    }
+}
@@ -0,0 +1,29 @@
+package com.boda.springboot.security;
+
+/**
+ * Token 作废（退出登录）记录存储
+ * 以 Token 的 jti 为键，记录在 Token 自然过期后即可清除
+ */
+public interface TokenRevocationStore {
+
+    /**
+     * 作废 Token
+     *
+     * @param tokenId   Token ID（jti）
+     * @param expiresAt Token 过期时间（毫秒时间戳），过期后记录自动清除
+     */
+    void revoke(String tokenId, long expiresAt);
+
+    /**
+     * 判断 Token 是否已作废
+     *
+     * @param tokenId Token ID（jti）
+     * @return 已作废且尚未过期返回 true
+     */
+    boolean isRevoked(String tokenId);
+
+    /**
+     * 当前保存的作废记录数量
+     */
+    int size();
+}
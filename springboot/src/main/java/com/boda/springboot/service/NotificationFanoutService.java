@@ -0,0 +1,16 @@
+package com.boda.springboot.service;
+
+import java.util.Map;
+
+/**
+ * 广播通知推送服务
+ */
+public interface NotificationFanoutService {
+
+    /**
+     * 通过通知总线发给所有实例，各实例在后台并行推送给本实例的在线用户，并推送各自最新的未读数量
+     * 在事务中调用时事务提交后开始推送
+     * @param message WebSocket 消息
+     */
+    void pushToOnlineUsers(Map<String, Object> message);
+}
@@ -0,0 +1,24 @@
+package com.boda.springboot.service;
+
+import com.boda.springboot.entity.Question;
+
+/**
+ * 通知事件发件箱服务
+ * 业务方法只在自己的事务中写入一条事件，事务提交后由后台任务确定接收人、批量生成通知并推送，
+ * 请求耗时与接收人数无关，业务回滚时也不会推送
+ */
+public interface NotificationOutboxService {
+
+    /**
+     * 学生提交问题：通知指定教师，未指定时通知课程下的所有教师
+     * @param question 已保存的问题
+     */
+    void recordQuestionSubmitted(Question question);
+
+    /**
+     * 教师回答问题：通知提问学生
+     * @param question 被回答的问题
+     * @param teacherId 回答教师ID
+     */
+    void recordQuestionAnswered(Question question, Long teacherId);
+}
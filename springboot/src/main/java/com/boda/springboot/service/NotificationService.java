@@ -2,6 +2,10 @@ package com.boda.springboot.service;
 
 import com.boda.springboot.common.PageResult;
 import com.boda.springboot.dto.NotificationPageQueryDTO;
+import com.boda.springboot.entity.Notification;
+import com.boda.springboot.vo.NotificationVO;
+
+import java.util.List;
 
 /**
  * 通知Service接口
@@ -11,7 +15,7 @@ public interface NotificationService {
     /**
      * 分页查询通知列表
      */
-    PageResult pageQuery(NotificationPageQueryDTO queryDTO, Long userId);
+    PageResult<NotificationVO> pageQuery(NotificationPageQueryDTO queryDTO, Long userId);
 
     /**
      * 获取未读通知数量
@@ -24,32 +28,25 @@ public interface NotificationService {
     void markAsRead(Long notificationId, Long userId);
 
     /**
-     * 标记所有通知已读
+     * 标记所有通知已读（个人通知 + 广播通知）
      */
     void markAllAsRead(Long userId);
 
     /**
-     * 创建问题被回答的通知
-     * @param studentId 学生ID
-     * @param teacherId 教师ID
-     * @param questionId 问题ID
-     * @param questionTitle 问题标题
+     * 删除通知（广播通知只对当前用户隐藏）
      */
-    void createAnswerNotification(Long studentId, Long teacherId, Long questionId, String questionTitle);
+    void deleteNotification(Long notificationId, Long userId);
 
     /**
-     * 创建系统通知
+     * 批量创建个人通知（一次插入），事务提交后更新未读数量并推送
+     * 提问、回答产生的通知由 NotificationOutboxService 在业务事务提交后调用
      */
-    void createSystemNotification(Long userId, String title, String content);
+    void createNotifications(List<Notification> notifications);
 
     /**
-     * 创建新问题通知（通知教师）
-     * @param teacherId 教师ID
-     * @param studentId 学生ID
-     * @param questionId 问题ID
-     * @param questionTitle 问题标题
-     * @param courseName 课程名称
+     * 创建系统通知
+     * @param userId 接收用户ID，null 表示全体用户（保存为一条广播通知）
      */
-    void createQuestionNotification(Long teacherId, Long studentId, Long questionId, String questionTitle, String courseName);
+    void createSystemNotification(Long userId, String title, String content);
 }
 
@@ -41,12 +41,17 @@ public interface QuestionService {
     /**
      * 查询我的提问列表 (学生)
      */
-    PageResult getMyQuestions(Integer pageNum, Integer pageSize, Integer isAnswered, Long studentId);
+    PageResult getMyQuestions(Integer pageNum, Integer pageSize, Integer isAnswered, Long studentId, String cursor);
 
     /**
      * 查询待回答问题列表 (教师)
      */
-    PageResult getPendingQuestions(Integer pageNum, Integer pageSize, Long courseId, Long teacherId);
+    PageResult getPendingQuestions(Integer pageNum, Integer pageSize, Long courseId, Long teacherId, String cursor);
+
+    /**
+     * 查询待回答问题数量 (教师)
+     */
+    Integer getPendingCount(Long courseId, Long teacherId);
 
     /**
      * 回答问题 (教师)
@@ -56,12 +56,12 @@ public interface ResourceService {
     /**
      * 查询我的收藏列表
      */
-    PageResult getMyCollections(Integer pageNum, Integer pageSize, Long studentId);
+    PageResult getMyCollections(Integer pageNum, Integer pageSize, Long studentId, String cursor);
 
     /**
      * 查询我上传的资源
      */
-    PageResult getMyUploads(Integer pageNum, Integer pageSize, Long uploaderId, String resourceTitle, Long courseId);
+    PageResult getMyUploads(Integer pageNum, Integer pageSize, Long uploaderId, String resourceTitle, Long courseId, String cursor);
 
     /**
      * 置顶资源
@@ -0,0 +1,26 @@
+package com.boda.springboot.service;
+
+import com.boda.springboot.vo.StudentImportTaskVO;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.util.List;
+
+/**
+ * 批量导入学生服务
+ */
+public interface StudentImportService {
+
+    /**
+     * 提交导入任务（CSV/XLS/XLSX），后台异步执行
+     * @param file 导入文件，首行为表头
+     * @param courseIds 为所有学生分配的课程ID（可选，可与文件中的课程ID列合并）
+     * @return 任务初始状态（含 taskId）
+     */
+    StudentImportTaskVO submit(MultipartFile file, List<Long> courseIds);
+
+    /**
+     * 查询导入任务进度
+     * @param taskId 任务ID
+     */
+    StudentImportTaskVO getTask(String taskId);
+}
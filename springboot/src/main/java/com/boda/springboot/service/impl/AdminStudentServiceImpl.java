@@ -1,22 +1,25 @@
 package com.boda.springboot.service.impl;
 
+import com.boda.springboot.cache.CourseCache;
+import com.boda.springboot.cache.EnrollmentCache;
+import com.boda.springboot.cache.PageCounter;
+import com.boda.springboot.cache.StatisticsSnapshot;
+import com.boda.springboot.cache.UserProfileCache;
 import com.boda.springboot.common.Constant;
+import com.boda.springboot.common.PageEndpoint;
 import com.boda.springboot.common.PageResult;
 import com.boda.springboot.dto.StudentPageQueryDTO;
 import com.boda.springboot.entity.Course;
 import com.boda.springboot.entity.StudentCourse;
 import com.boda.springboot.entity.User;
 import com.boda.springboot.mapper.AdminStudentMapper;
-import com.boda.springboot.mapper.CourseMapper;
 import com.boda.springboot.mapper.StudentCourseMapper;
 import com.boda.springboot.mapper.TeacherCourseMapper;
 import com.boda.springboot.mapper.UserMapper;
+import com.boda.springboot.security.PasswordHasher;
 import com.boda.springboot.service.AdminStudentService;
-import com.github.pagehelper.Page;
-import com.github.pagehelper.PageHelper;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -31,13 +34,22 @@ public class AdminStudentServiceImpl implements AdminStudentService {
     @Autowired
     private UserMapper userMapper;
     @Autowired
-    private PasswordEncoder passwordEncoder; // 注入密码加密器
+    private PasswordHasher passwordHasher; // 注入密码加密器
     @Autowired
     private StudentCourseMapper studentCourseMapper;
     @Autowired
-    private CourseMapper courseMapper;
+    private CourseCache courseCache;
     @Autowired
     private TeacherCourseMapper teacherCourseMapper;
+    @Autowired
+    private UserProfileCache userProfileCache;
+    @Autowired
+    private EnrollmentCache enrollmentCache;
+    @Autowired
+    private StatisticsSnapshot statisticsSnapshot;
+
+    @Autowired
+    private PageCounter pageCounter;
 
     /**
      * 保存学生信息（包含课程分配）
@@ -51,15 +63,16 @@ public class AdminStudentServiceImpl implements AdminStudentService {
         }
         // 设置学生角色+默认密码
         student.setRole(Constant.ROLE_STUDENT);
-        student.setPassword(passwordEncoder.encode(Constant.DEFAULT_PASSWORD));
+        student.setPassword(passwordHasher.encode(Constant.DEFAULT_PASSWORD));
         userMapper.save(student); // 复用UserMapper的save方法
+        statisticsSnapshot.onUsersCreated(Constant.ROLE_STUDENT, 1);
         
         // 分配课程
         if (courseIds != null && !courseIds.isEmpty()) {
             Long studentId = student.getUserId();
             for (Long courseId : courseIds) {
                 // 检查课程是否存在
-                Course course = courseMapper.selectById(courseId);
+                Course course = courseCache.getById(courseId);
                 if (course == null) {
                     log.warn("课程不存在，跳过分配 - 课程ID: {}", courseId);
                     continue;
@@ -83,6 +96,7 @@ public class AdminStudentServiceImpl implements AdminStudentService {
                 studentCourse.setTeacherId(teacherId);
                 studentCourse.setJoinMethod("ADMIN_ASSIGN"); // 管理员分配
                 studentCourseMapper.save(studentCourse);
+                enrollmentCache.onEnrolled(studentId, courseId);
                 
                 log.info("学生课程分配成功 - 学生ID: {}, 课程ID: {}, 教师ID: {}", studentId, courseId, teacherId);
             }
@@ -95,9 +109,9 @@ public class AdminStudentServiceImpl implements AdminStudentService {
     @Override
     public PageResult pageQuery(StudentPageQueryDTO studentPageQueryDTO) {
         log.info("分页查询学生，条件：{}", studentPageQueryDTO);
-        PageHelper.startPage(studentPageQueryDTO.getPageNum(), studentPageQueryDTO.getPageSize());
-        Page<User> page = adminStudentMapper.pageQuery(studentPageQueryDTO);
-        return new PageResult(page.getTotal(), page.getResult());
+        return pageCounter.page(PageEndpoint.ADMIN_STUDENT_LIST, studentPageQueryDTO.getPageNum(), studentPageQueryDTO.getPageSize(),
+                () -> adminStudentMapper.pageQuery(studentPageQueryDTO),
+                studentPageQueryDTO.getStatus(), studentPageQueryDTO.getCollege(), studentPageQueryDTO.getKeyword());
     }
 
     /**
@@ -130,6 +144,10 @@ public class AdminStudentServiceImpl implements AdminStudentService {
         student.setRole(Constant.ROLE_STUDENT);
         // 调用Mapper更新
         adminStudentMapper.updateStudent(student);
+        userProfileCache.invalidate(student.getUserId());
+        if (student.getIsDeleted() != null) {
+            statisticsSnapshot.markUsersChanged();
+        }
     }
 
     /**
@@ -143,7 +161,7 @@ public class AdminStudentServiceImpl implements AdminStudentService {
         }
         User student = new User();
         student.setUserId(studentId);
-        student.setPassword(passwordEncoder.encode("123456"));
+        student.setPassword(passwordHasher.encode("123456"));
         adminStudentMapper.updateStudent(student);
     }
 
@@ -1,20 +1,22 @@
 package com.boda.springboot.service.impl;
 
+import com.boda.springboot.cache.CourseCache;
+import com.boda.springboot.cache.PageCounter;
+import com.boda.springboot.cache.StatisticsSnapshot;
+import com.boda.springboot.cache.UserProfileCache;
 import com.boda.springboot.common.Constant;
+import com.boda.springboot.common.PageEndpoint;
 import com.boda.springboot.common.PageResult;
 import com.boda.springboot.dto.TeacherPageQueryDTO;
 import com.boda.springboot.entity.Course;
 import com.boda.springboot.entity.TeacherCourse;
 import com.boda.springboot.entity.User;
 import com.boda.springboot.mapper.AdminTeacherMapper;
-import com.boda.springboot.mapper.CourseMapper;
 import com.boda.springboot.mapper.TeacherCourseMapper;
 import com.boda.springboot.mapper.UserMapper;
+import com.boda.springboot.security.PasswordHasher;
 import com.boda.springboot.service.AdminTeacherService;
-import com.github.pagehelper.Page;
-import com.github.pagehelper.PageHelper;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Component;
 import org.springframework.transaction.annotation.Transactional;
 import lombok.extern.slf4j.Slf4j;
@@ -26,7 +28,7 @@ import java.util.List;
 public class AdminTeacherServiceImpl implements AdminTeacherService {
 
     @Autowired
-    PasswordEncoder passwordEncoder;
+    PasswordHasher passwordHasher;
     @Autowired
     AdminTeacherMapper adminTeacherMapper;
     @Autowired
@@ -34,7 +36,13 @@ public class AdminTeacherServiceImpl implements AdminTeacherService {
     @Autowired
     private TeacherCourseMapper teacherCourseMapper;
     @Autowired
-    private CourseMapper courseMapper;
+    private CourseCache courseCache;
+    @Autowired
+    private UserProfileCache userProfileCache;
+    @Autowired
+    private StatisticsSnapshot statisticsSnapshot;
+    @Autowired
+    private PageCounter pageCounter;
     
     /**
      * 保存教师信息（包含课程分配）
@@ -54,15 +62,16 @@ public class AdminTeacherServiceImpl implements AdminTeacherService {
             teacher.setPhone(null);
         }
         teacher.setRole(Constant.ROLE_TEACHER);
-        teacher.setPassword(passwordEncoder.encode(Constant.DEFAULT_PASSWORD));
+        teacher.setPassword(passwordHasher.encode(Constant.DEFAULT_PASSWORD));
         userMapper.save(teacher);
+        statisticsSnapshot.onUsersCreated(Constant.ROLE_TEACHER, 1);
         
         // 分配课程
         if (courseIds != null && !courseIds.isEmpty()) {
             Long teacherId = teacher.getUserId();
             for (Long courseId : courseIds) {
                 // 检查课程是否存在
-                Course course = courseMapper.selectById(courseId);
+                Course course = courseCache.getById(courseId);
                 if (course == null) {
                     log.warn("课程不存在，跳过分配 - 课程ID: {}", courseId);
                     continue;
@@ -99,6 +108,10 @@ public class AdminTeacherServiceImpl implements AdminTeacherService {
 
         // 调用 Mapper 更新
         adminTeacherMapper.updateTeacher(teacher);
+        userProfileCache.invalidate(teacher.getUserId());
+        if (teacher.getIsDeleted() != null) {
+            statisticsSnapshot.markUsersChanged();
+        }
     }
 
     /**
@@ -109,14 +122,11 @@ public class AdminTeacherServiceImpl implements AdminTeacherService {
      */
     @Override
     public PageResult pageQuery(TeacherPageQueryDTO teacherPageQueryDTO) {
-        // 1. 开启分页（PageHelper 会自动拦截下一条 SQL 查询）
-        PageHelper.startPage(teacherPageQueryDTO.getPageNum(), teacherPageQueryDTO.getPageSize());
-
-        // 2. 执行查询（PageHelper 会自动分页）
-        Page<User> page = adminTeacherMapper.pageQuery(teacherPageQueryDTO);
-
-        // 3. 封装分页结果
-        return new PageResult(page.getTotal(), page.getResult());
+        // 按 admin-teacher-list 接口配置的总数统计策略分页查询
+        return pageCounter.page(PageEndpoint.ADMIN_TEACHER_LIST, teacherPageQueryDTO.getPageNum(), teacherPageQueryDTO.getPageSize(),
+                () -> adminTeacherMapper.pageQuery(teacherPageQueryDTO),
+                teacherPageQueryDTO.getStatus(), teacherPageQueryDTO.getJobTitle(), teacherPageQueryDTO.getRealName(),
+                teacherPageQueryDTO.getCollege());
     }
 
     /**
@@ -130,7 +140,7 @@ public class AdminTeacherServiceImpl implements AdminTeacherService {
         }
         User teacher = new User();
         teacher.setUserId(teacherId);
-        teacher.setPassword(passwordEncoder.encode("123456"));
+        teacher.setPassword(passwordHasher.encode("123456"));
         adminTeacherMapper.updateTeacher(teacher);
     }
 }
@@ -1,14 +1,15 @@
 package com.boda.springboot.service.impl;
 
+import com.boda.springboot.cache.StatisticsSnapshot;
 import com.boda.springboot.common.Constant;
 import com.boda.springboot.dto.LoginRequest;
 import com.boda.springboot.dto.UpdatePassword;
 import com.boda.springboot.entity.User;
 import com.boda.springboot.exception.ServiceException;
 import com.boda.springboot.mapper.UserMapper;
+import com.boda.springboot.security.PasswordHasher;
 import com.boda.springboot.service.AuthService;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
 @Service
@@ -17,7 +18,9 @@ public class AuthServiceImpl implements AuthService {
     @Autowired
     UserMapper userMapper;
     @Autowired
-    PasswordEncoder passwordEncoder;
+    PasswordHasher passwordHasher;
+    @Autowired
+    StatisticsSnapshot statisticsSnapshot;
 
     /**
      * 用户登录
@@ -40,15 +43,20 @@ public class AuthServiceImpl implements AuthService {
         if (userInfo == null) {
             throw new ServiceException("401", "用户不存在");
         }
-        // 使用 BCrypt 校验密码（数据库中存的是加密串）
-
-        if (!passwordEncoder.matches(req.getPassword(), userInfo.getPassword())) {
+        // 使用 BCrypt 校验密码（数据库中存的是加密串），在哈希线程池中执行，繁忙时返回 429
+        if (!passwordHasher.matches(req.getPassword(), userInfo.getPassword())) {
             throw new ServiceException("401", "用户名或密码错误");
         }
         // 可以根据状态等做额外校验
         if (userInfo.getStatus() != null && userInfo.getStatus() == 0) {
             throw new ServiceException("403", "账号已被禁用");
         }
+        // 旧密码哈希强度低于当前配置时，后台按新强度重新哈希；
+        // 写回时以登录时读到的哈希为条件，期间修改或重置的密码不会被覆盖
+        Long userId = userInfo.getUserId();
+        String oldHash = userInfo.getPassword();
+        passwordHasher.rehashIfNeeded(req.getPassword(), oldHash,
+                rehashed -> userMapper.replacePasswordHash(userId, oldHash, rehashed));
         return userInfo;
     }
 
@@ -62,11 +70,12 @@ public class AuthServiceImpl implements AuthService {
             // 如果用户已存在但被逻辑删除，则恢复该用户
             if (existingUser.getIsDeleted() != null && existingUser.getIsDeleted() == 1) {
                 // 恢复用户：更新密码、学号等信息，并恢复删除标记
-                existingUser.setPassword(passwordEncoder.encode(user.getPassword()));
+                existingUser.setPassword(passwordHasher.encode(user.getPassword()));
                 existingUser.setStudentId(user.getStudentId());
                 existingUser.setIsDeleted(0); // 恢复删除标记
                 existingUser.setStatus(1); // 设置为启用状态
                 userMapper.update(existingUser);
+                statisticsSnapshot.markUsersChanged();
                 return;
             } else {
                 // 用户存在且未删除，抛出错误
@@ -76,7 +85,7 @@ public class AuthServiceImpl implements AuthService {
         
         // 新用户注册
         // 加密密码
-        user.setPassword(passwordEncoder.encode(user.getPassword()));
+        user.setPassword(passwordHasher.encode(user.getPassword()));
         // 设置角色为学生
         user.setRole(Constant.ROLE_STUDENT);
         // 设置默认状态
@@ -84,6 +93,7 @@ public class AuthServiceImpl implements AuthService {
         user.setIsDeleted(0);
 
         userMapper.save(user);
+        statisticsSnapshot.onUsersCreated(Constant.ROLE_STUDENT, 1);
     }
 
     @Override
@@ -95,12 +105,12 @@ public class AuthServiceImpl implements AuthService {
         }
 
         // 2. 验证原密码是否正确
-        if (!passwordEncoder.matches(updatePassword.getOldPassword(), user.getPassword())) {
+        if (!passwordHasher.matches(updatePassword.getOldPassword(), user.getPassword())) {
             throw new ServiceException("400", "原密码错误");
         }
 
         // 3. 加密新密码
-        String newEncodedPassword = passwordEncoder.encode(updatePassword.getNewPassword());
+        String newEncodedPassword = passwordHasher.encode(updatePassword.getNewPassword());
 
         // 4. 更新密码
         userMapper.updatePassword(user.getUserId(), newEncodedPassword);
@@ -130,11 +140,11 @@ public class AuthServiceImpl implements AuthService {
             throw new ServiceException("404", "用户不存在");
         }
         // 验证是否和原密码相同
-        if (passwordEncoder.matches(updatePassword.getNewPassword(), user.getPassword())) {
+        if (passwordHasher.matches(updatePassword.getNewPassword(), user.getPassword())) {
             throw new ServiceException("400", "新密码不能与原密码相同");
         }
         // 2. 加密新密码
-        String newEncodedPassword = passwordEncoder.encode(updatePassword.getNewPassword());
+        String newEncodedPassword = passwordHasher.encode(updatePassword.getNewPassword());
 
         // 3. 更新密码
         userMapper.updatePassword(user.getUserId(), newEncodedPassword);
@@ -1,5 +1,10 @@
 package com.boda.springboot.service.impl;
 
+import com.boda.springboot.cache.CourseCache;
+import com.boda.springboot.cache.EnrollmentCache;
+import com.boda.springboot.cache.PageCounter;
+import com.boda.springboot.cache.StatisticsSnapshot;
+import com.boda.springboot.common.PageEndpoint;
 import com.boda.springboot.common.PageResult;
 import com.boda.springboot.dto.CoursePageQueryDTO;
 import com.boda.springboot.entity.Course;
@@ -12,8 +17,6 @@ import com.boda.springboot.mapper.StudentCourseMapper;
 import com.boda.springboot.mapper.TeacherCourseMapper;
 import com.boda.springboot.service.CourseService;
 import com.boda.springboot.vo.CourseVO;
-import com.github.pagehelper.Page;
-import com.github.pagehelper.PageHelper;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
@@ -37,17 +40,32 @@ public class CourseServiceImpl implements CourseService {
     @Autowired
     private StudentCourseMapper studentCourseMapper;
 
+    @Autowired
+    private CourseCache courseCache;
+
+    @Autowired
+    private EnrollmentCache enrollmentCache;
+
+    @Autowired
+    private StatisticsSnapshot statisticsSnapshot;
+
+    @Autowired
+    private PageCounter pageCounter;
+
     /**
      * 保存课程信息
      * @param course 课程信息
      */
     @Override
     public void saveCourse(Course course) {
-        Course existCourse = courseMapper.selectByCourseCode(course.getCourseCode());
+        Course existCourse = courseCache.getByCourseCode(course.getCourseCode());
         if (existCourse != null) {
             throw new ServiceException("400", "课程编号已存在");
         }
         courseMapper.save(course);
+        // 清除该编号"不存在"的缓存
+        courseCache.invalidate(course.getCourseId(), course.getCourseCode());
+        statisticsSnapshot.onCourseCreated();
     }
 
     /**
@@ -57,14 +75,11 @@ public class CourseServiceImpl implements CourseService {
      */
     @Override
     public PageResult pageQuery(CoursePageQueryDTO coursePageQueryDTO) {
-        // 1. 开启分页（PageHelper 会自动拦截下一条 SQL 查询）
-        PageHelper.startPage(coursePageQueryDTO.getPageNum(), coursePageQueryDTO.getPageSize());
-
-        // 2. 执行查询（PageHelper 会自动分页）
-        Page<Course> page = courseMapper.pageQuery(coursePageQueryDTO);
-
-        // 3. 封装分页结果
-        return new PageResult(page.getTotal(), page.getResult());
+        // 按 course-list 接口配置的总数统计策略分页查询
+        return pageCounter.page(PageEndpoint.COURSE_LIST, coursePageQueryDTO.getPageNum(), coursePageQueryDTO.getPageSize(),
+                () -> courseMapper.pageQuery(coursePageQueryDTO),
+                coursePageQueryDTO.getStatus(), coursePageQueryDTO.getCourseName(), coursePageQueryDTO.getCourseCode(),
+                coursePageQueryDTO.getCollege(), coursePageQueryDTO.getCreateTime());
     }
     /**
      * 根据课程ID查询课程信息
@@ -77,7 +92,7 @@ public class CourseServiceImpl implements CourseService {
             throw new ServiceException("400", "课程ID不能为空");
         }
 
-        Course course = courseMapper.selectById(courseId);
+        Course course = courseCache.getById(courseId);
         if (course == null) {
             throw new ServiceException("404", "课程不存在");
         }
@@ -97,14 +112,14 @@ public class CourseServiceImpl implements CourseService {
         }
 
         // 2. 检查课程是否存在
-        Course existCourse = courseMapper.selectById(course.getCourseId());
+        Course existCourse = courseCache.getById(course.getCourseId());
         if (existCourse == null) {
             throw new ServiceException("404", "课程不存在");
         }
 
         // 3. 如果要更新课程编号，检查新编号是否已被其他课程使用
         if (course.getCourseCode() != null && !course.getCourseCode().equals(existCourse.getCourseCode())) {
-            Course checkCourse = courseMapper.selectByCourseCode(course.getCourseCode());
+            Course checkCourse = courseCache.getByCourseCode(course.getCourseCode());
             if (checkCourse != null && !checkCourse.getCourseId().equals(course.getCourseId())) {
                 throw new ServiceException("400", "课程编号已被其他课程使用");
             }
@@ -112,6 +127,7 @@ public class CourseServiceImpl implements CourseService {
 
         // 4. 执行动态更新
         courseMapper.update(course);
+        courseCache.invalidate(course.getCourseId(), existCourse.getCourseCode(), course.getCourseCode());
     }
 
     /**
@@ -124,7 +140,7 @@ public class CourseServiceImpl implements CourseService {
         log.info("删除课程 - 课程ID: {}", courseId);
 
         // 1. 校验课程是否存在
-        Course course = courseMapper.selectById(courseId);
+        Course course = courseCache.getById(courseId);
         if (course == null) {
             throw new ServiceException("404", "课程不存在");
         }
@@ -140,6 +156,9 @@ public class CourseServiceImpl implements CourseService {
 
         // 4. 逻辑删除课程
         courseMapper.deleteById(courseId);
+        courseCache.invalidate(courseId, course.getCourseCode());
+        enrollmentCache.onCourseRemoved(courseId);
+        statisticsSnapshot.onCourseDeleted();
 
         log.info("课程删除成功 - 课程ID: {}", courseId);
     }
@@ -155,7 +174,7 @@ public class CourseServiceImpl implements CourseService {
         log.info("为课程分配教师 - 课程ID: {}, 教师ID: {}", courseId, teacherId);
 
         // 1. 校验课程是否存在
-        Course course = courseMapper.selectById(courseId);
+        Course course = courseCache.getById(courseId);
         if (course == null) {
             throw new ServiceException("404", "课程不存在");
         }
@@ -206,10 +225,9 @@ public class CourseServiceImpl implements CourseService {
     public PageResult getMyCourses(Long teacherId, Integer pageNum, Integer pageSize) {
         log.info("查询教师课程列表 - 教师ID: {}", teacherId);
 
-        PageHelper.startPage(pageNum, pageSize);
-        Page<CourseVO> page = (Page<CourseVO>) courseMapper.selectByTeacherId(teacherId);
-
-        return new PageResult(page.getTotal(), page.getResult());
+        return pageCounter.page(PageEndpoint.COURSE_MINE, pageNum, pageSize,
+                () -> courseMapper.selectByTeacherId(teacherId),
+                teacherId);
     }
 
     /**
@@ -276,7 +294,7 @@ public class CourseServiceImpl implements CourseService {
         }
 
         // 2. 获取课程信息并检查状态
-        Course course = courseMapper.selectById(teacherCourse.getCourseId());
+        Course course = courseCache.getById(teacherCourse.getCourseId());
         if (course == null) {
             throw new ServiceException("404", "课程不存在");
         }
@@ -297,6 +315,7 @@ public class CourseServiceImpl implements CourseService {
         studentCourse.setTeacherId(teacherCourse.getTeacherId());
         studentCourse.setJoinMethod("INVITE_CODE");
         studentCourseMapper.save(studentCourse);
+        enrollmentCache.onEnrolled(studentId, course.getCourseId());
 
         log.info("学生加入课程成功 - 课程: {}", course.getCourseName());
     }
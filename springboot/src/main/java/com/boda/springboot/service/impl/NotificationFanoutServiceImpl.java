@@ -0,0 +1,103 @@
+package com.boda.springboot.service.impl;
+
+import com.boda.springboot.cache.UnreadCounter;
+import com.boda.springboot.service.NotificationFanoutService;
+import com.boda.springboot.utils.TransactionHooks;
+import com.boda.springboot.websocket.BusMessage;
+import com.boda.springboot.websocket.NotificationBus;
+import com.boda.springboot.websocket.NotificationWebSocket;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 广播通知推送，同时是本实例的通知总线订阅者
+ * 广播通知在 broadcast_notification 中只存一条（查询时与个人通知合并），发布时只向总线发一条广播消息；
+ * 每个实例收到后各自给已缓存的未读数量加一，再把本实例的在线用户分段，在推送线程池中并行发送，不占用总线线程
+ */
+@Service
+@Slf4j
+public class NotificationFanoutServiceImpl implements NotificationFanoutService {
+
+    @Autowired
+    private UnreadCounter unreadCounter;
+
+    @Autowired
+    private NotificationBus notificationBus;
+
+    @Value("${notification-fanout.push-threads:4}")
+    private int pushThreads;
+
+    @Value("${notification-fanout.slice-size:200}")
+    private int sliceSize;
+
+    private ThreadPoolExecutor pushExecutor;
+
+    @PostConstruct
+    public void init() {
+        AtomicInteger threadIndex = new AtomicInteger();
+        pushExecutor = new ThreadPoolExecutor(pushThreads, pushThreads, 0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "notification-push-" + threadIndex.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        notificationBus.subscribe(this::deliver);
+    }
+
+    @Override
+    public void pushToOnlineUsers(Map<String, Object> message) {
+        TransactionHooks.afterCommit(() -> NotificationWebSocket.broadcastNotification(message));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pushExecutor.shutdown();
+    }
+
+    /**
+     * 投递总线消息到本实例的连接：发给单个用户的直接入队，广播交给推送线程池
+     */
+    private void deliver(BusMessage message) {
+        if (!message.isBroadcast()) {
+            NotificationWebSocket.deliverLocally(message.userId(), message.type(), message.payload());
+            return;
+        }
+        // 收到时记下未读计数的代数，排队期间新加载的计数已包含这条广播，推送任务不再给它们加一；
+        // 推送线程中没有事务，onBroadcast 立即生效，保证随后推送的未读数量已包含这条广播
+        boolean notification = "notification".equals(message.type());
+        long receivedGeneration = notification ? unreadCounter.broadcastReceived() : 0L;
+        pushExecutor.execute(() -> {
+            if (notification) {
+                unreadCounter.onBroadcast(receivedGeneration);
+            }
+            List<Long> online = NotificationWebSocket.getOnlineUserIds();
+            for (int from = 0; from < online.size(); from += sliceSize) {
+                List<Long> slice = online.subList(from, Math.min(from + sliceSize, online.size()));
+                pushExecutor.execute(() -> slice.forEach(userId -> pushTo(userId, message)));
+            }
+            log.info("广播通知开始推送 - 本实例在线用户数: {}", online.size());
+        });
+    }
+
+    private void pushTo(Long userId, BusMessage message) {
+        try {
+            NotificationWebSocket.deliverLocally(userId, message.type(), message.payload());
+            unreadCounter.pushLocally(userId);
+        } catch (Exception e) {
+            // WebSocket 推送失败不影响主业务，通知已入库
+            log.warn("WebSocket 通知推送失败 - 用户ID: {}, 原因: {}", userId, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,280 @@
+package com.boda.springboot.service.impl;
+
+import com.boda.springboot.cache.CourseCache;
+import com.boda.springboot.cache.UserProfile;
+import com.boda.springboot.cache.UserProfileCache;
+import com.boda.springboot.common.Constant;
+import com.boda.springboot.entity.Course;
+import com.boda.springboot.entity.Notification;
+import com.boda.springboot.entity.NotificationOutboxEvent;
+import com.boda.springboot.entity.Question;
+import com.boda.springboot.exception.ServiceException;
+import com.boda.springboot.mapper.NotificationOutboxMapper;
+import com.boda.springboot.mapper.TeacherCourseMapper;
+import com.boda.springboot.service.NotificationOutboxService;
+import com.boda.springboot.service.NotificationService;
+import com.boda.springboot.utils.TransactionHooks;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 通知事件发件箱实现
+ * 事件写入 notification_outbox 后注册事务提交回调唤醒后台线程；后台线程每批在一个事务中
+ * 领取事件（FOR UPDATE SKIP LOCKED，多实例互不重复）、生成全部通知一次插入、删除已处理事件，
+ * 提交后由 NotificationService 更新未读数量并推送。定时扫描补处理进程中断时遗留的事件。
+ */
+@Service
+@Slf4j
+public class NotificationOutboxServiceImpl implements NotificationOutboxService {
+
+    static final String EVENT_QUESTION_SUBMITTED = "QUESTION_SUBMITTED";
+
+    static final String EVENT_QUESTION_ANSWERED = "QUESTION_ANSWERED";
+
+    @Autowired
+    private NotificationOutboxMapper notificationOutboxMapper;
+
+    @Autowired
+    private TeacherCourseMapper teacherCourseMapper;
+
+    @Autowired
+    private NotificationService notificationService;
+
+    @Autowired
+    private UserProfileCache userProfileCache;
+
+    @Autowired
+    private CourseCache courseCache;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${notification-outbox.batch-size:200}")
+    private int batchSize;
+
+    private TransactionTemplate transactionTemplate;
+
+    private ExecutorService worker;
+
+    /**
+     * 已有待执行的处理任务时不再重复提交
+     */
+    private final AtomicBoolean drainScheduled = new AtomicBoolean();
+
+    @PostConstruct
+    public void init() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        worker = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "notification-outbox");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        worker.shutdown();
+    }
+
+    @Override
+    public void recordQuestionSubmitted(Question question) {
+        record(EVENT_QUESTION_SUBMITTED, new QuestionSubmitted(question.getQuestionId(), question.getStudentId(),
+                question.getCourseId(), question.getTeacherId(), question.getQuestionTitle()));
+    }
+
+    @Override
+    public void recordQuestionAnswered(Question question, Long teacherId) {
+        record(EVENT_QUESTION_ANSWERED, new QuestionAnswered(question.getQuestionId(), question.getStudentId(),
+                teacherId, question.getQuestionTitle()));
+    }
+
+    /**
+     * 定时扫描遗留事件（正常情况下事件在提交后立即处理，这里只兜底）
+     */
+    @Scheduled(initialDelayString = "${notification-outbox.sweep-interval-millis:10000}",
+            fixedDelayString = "${notification-outbox.sweep-interval-millis:10000}")
+    public void sweep() {
+        wake();
+    }
+
+    private void record(String eventType, Object payload) {
+        NotificationOutboxEvent event = new NotificationOutboxEvent();
+        event.setEventType(eventType);
+        try {
+            event.setPayload(objectMapper.writeValueAsString(payload));
+        } catch (JsonProcessingException e) {
+            throw new ServiceException("通知事件序列化失败");
+        }
+        notificationOutboxMapper.save(event);
+        TransactionHooks.afterCommit(this::wake);
+    }
+
+    private void wake() {
+        if (drainScheduled.compareAndSet(false, true)) {
+            worker.execute(this::drain);
+        }
+    }
+
+    private void drain() {
+        drainScheduled.set(false);
+        try {
+            while (dispatchBatch() >= batchSize) {
+                log.debug("通知事件积压，继续处理下一批");
+            }
+        } catch (Exception e) {
+            // 事务已回滚，事件仍在发件箱中，下次扫描重试
+            log.error("通知事件处理失败，等待下次扫描重试", e);
+        }
+    }
+
+    /**
+     * 处理一批事件
+     * @return 本批领取的事件数
+     */
+    int dispatchBatch() {
+        Integer claimed = transactionTemplate.execute(status -> {
+            List<NotificationOutboxEvent> events = notificationOutboxMapper.selectPendingForUpdate(batchSize);
+            if (events.isEmpty()) {
+                return 0;
+            }
+            notificationService.createNotifications(toNotifications(events));
+            notificationOutboxMapper.deleteByIds(events.stream().map(NotificationOutboxEvent::getOutboxId).toList());
+            return events.size();
+        });
+        return claimed != null ? claimed : 0;
+    }
+
+    /**
+     * 把一批事件转换为通知：涉及的用户信息一次查询，同一课程的教师只查询一次
+     */
+    private List<Notification> toNotifications(List<NotificationOutboxEvent> events) {
+        List<Object> payloads = new ArrayList<>(events.size());
+        Set<Long> userIds = new HashSet<>();
+        for (NotificationOutboxEvent event : events) {
+            Object payload = parse(event);
+            payloads.add(payload);
+            if (payload instanceof QuestionSubmitted submitted) {
+                userIds.add(submitted.studentId());
+            } else if (payload instanceof QuestionAnswered answered) {
+                userIds.add(answered.studentId());
+                userIds.add(answered.teacherId());
+            }
+        }
+        userIds.remove(null);
+        Map<Long, UserProfile> profiles = userProfileCache.getAll(userIds);
+        Map<Long, List<Long>> courseTeachers = new HashMap<>();
+
+        List<Notification> notifications = new ArrayList<>();
+        for (Object payload : payloads) {
+            if (payload instanceof QuestionSubmitted submitted) {
+                addQuestionNotifications(notifications, submitted, profiles, courseTeachers);
+            } else if (payload instanceof QuestionAnswered answered) {
+                addAnswerNotification(notifications, answered, profiles);
+            }
+        }
+        return notifications;
+    }
+
+    private void addQuestionNotifications(List<Notification> notifications, QuestionSubmitted event,
+                                          Map<Long, UserProfile> profiles, Map<Long, List<Long>> courseTeachers) {
+        Course course = courseCache.getById(event.courseId());
+        if (course == null) {
+            log.warn("课程不存在，无法创建新问题通知 - 课程ID: {}, 问题ID: {}", event.courseId(), event.questionId());
+            return;
+        }
+        // 如果指定了提问教师，只通知该教师，否则通知课程下的所有教师
+        List<Long> teacherIds = event.teacherId() != null
+                ? List.of(event.teacherId())
+                : courseTeachers.computeIfAbsent(event.courseId(), teacherCourseMapper::selectTeacherIdsByCourseId);
+
+        UserProfile student = profiles.get(event.studentId());
+        String studentName = (student != null && student.getRealName() != null) ? student.getRealName() : "学生";
+        String content = "学生 " + studentName + " 在课程《" + course.getCourseName() + "》中提出了新问题：" + event.questionTitle();
+        for (Long teacherId : teacherIds) {
+            Notification notification = new Notification();
+            notification.setUserId(teacherId);
+            notification.setNotificationType(Constant.NOTIFICATION_TYPE_NEW_QUESTION);
+            notification.setTitle("新问题提醒");
+            notification.setContent(content);
+            notification.setRelatedId(event.questionId());
+            notification.setRelatedType("QUESTION");
+            notifications.add(notification);
+        }
+    }
+
+    private void addAnswerNotification(List<Notification> notifications, QuestionAnswered event,
+                                       Map<Long, UserProfile> profiles) {
+        UserProfile student = profiles.get(event.studentId());
+        if (student == null) {
+            log.warn("学生不存在，无法创建通知 - 学生ID: {}", event.studentId());
+            return;
+        }
+        UserProfile teacher = profiles.get(event.teacherId());
+        if (teacher == null) {
+            log.warn("教师不存在，无法创建通知 - 教师ID: {}", event.teacherId());
+            return;
+        }
+
+        // 生成通知内容，格式：同学某某某 你的什么什么问题 被哪个老师回答
+        Notification notification = new Notification();
+        notification.setUserId(event.studentId());
+        notification.setNotificationType(Constant.NOTIFICATION_TYPE_ANSWER_REPLY);
+        notification.setTitle("您的问题有新回答");
+        notification.setContent(String.format("同学%s，你的问题「%s」已被%s回答",
+                student.getDisplayName(), event.questionTitle(), teacher.getDisplayName()));
+        notification.setRelatedId(event.questionId());
+        notification.setRelatedType("QUESTION");
+        notifications.add(notification);
+    }
+
+    /**
+     * 解析事件内容，无法识别的事件记录日志后丢弃（返回 null），避免阻塞后续事件
+     */
+    private Object parse(NotificationOutboxEvent event) {
+        try {
+            return switch (event.getEventType()) {
+                case EVENT_QUESTION_SUBMITTED -> objectMapper.readValue(event.getPayload(), QuestionSubmitted.class);
+                case EVENT_QUESTION_ANSWERED -> objectMapper.readValue(event.getPayload(), QuestionAnswered.class);
+                default -> {
+                    log.error("未知的通知事件类型，已丢弃 - 事件ID: {}, 类型: {}", event.getOutboxId(), event.getEventType());
+                    yield null;
+                }
+            };
+        } catch (JsonProcessingException e) {
+            log.error("通知事件内容无法解析，已丢弃 - 事件ID: {}", event.getOutboxId(), e);
+            return null;
+        }
+    }
+
+    record QuestionSubmitted(Long questionId, Long studentId, Long courseId, Long teacherId, String questionTitle) {
+    }
+
+    record QuestionAnswered(Long questionId, Long studentId, Long teacherId, String questionTitle) {
+    }
+}
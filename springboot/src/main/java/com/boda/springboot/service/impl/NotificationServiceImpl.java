@@ -1,24 +1,27 @@
 package com.boda.springboot.service.impl;
 
+import com.boda.springboot.cache.PageCounter;
+import com.boda.springboot.cache.UnreadCounter;
+import com.boda.springboot.common.PageCursor;
+import com.boda.springboot.common.PageEndpoint;
 import com.boda.springboot.common.PageResult;
 import com.boda.springboot.dto.NotificationPageQueryDTO;
+import com.boda.springboot.entity.BroadcastNotification;
 import com.boda.springboot.entity.Notification;
-import com.boda.springboot.entity.User;
 import com.boda.springboot.exception.ServiceException;
+import com.boda.springboot.mapper.BroadcastNotificationMapper;
 import com.boda.springboot.mapper.NotificationMapper;
-import com.boda.springboot.mapper.UserMapper;
+import com.boda.springboot.service.NotificationFanoutService;
 import com.boda.springboot.service.NotificationService;
+import com.boda.springboot.utils.TransactionHooks;
 import com.boda.springboot.vo.NotificationVO;
 import com.boda.springboot.websocket.NotificationWebSocket;
-import com.github.pagehelper.Page;
-import com.github.pagehelper.PageHelper;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import com.boda.springboot.common.Constant;
 
-import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -34,26 +37,49 @@ public class NotificationServiceImpl implements NotificationService {
     private NotificationMapper notificationMapper;
 
     @Autowired
-    private UserMapper userMapper;
+    private BroadcastNotificationMapper broadcastNotificationMapper;
+
+    @Autowired
+    private NotificationFanoutService notificationFanoutService;
+
+    @Autowired
+    private PageCounter pageCounter;
+
+    @Autowired
+    private UnreadCounter unreadCounter;
 
     @Override
-    public PageResult pageQuery(NotificationPageQueryDTO queryDTO, Long userId) {
+    public PageResult<NotificationVO> pageQuery(NotificationPageQueryDTO queryDTO, Long userId) {
         log.info("分页查询通知列表 - 用户ID: {}, 查询条件: {}", userId, queryDTO);
 
-        PageHelper.startPage(queryDTO.getPageNum(), queryDTO.getPageSize());
-        Page<NotificationVO> page = (Page<NotificationVO>) notificationMapper.selectPageList(
-                userId,
-                queryDTO.getIsRead(),
-                queryDTO.getNotificationType()
-        );
+        // 游标模式：按 (创建时间, 通知ID) 定位，不执行 COUNT
+        if (queryDTO.getCursor() != null) {
+            List<NotificationVO> rows = notificationMapper.selectPageList(
+                    userId,
+                    queryDTO.getIsRead(),
+                    queryDTO.getNotificationType(),
+                    PageCursor.decode(queryDTO.getCursor(), PageCursor.Order.TIME),
+                    queryDTO.getPageSize() + 1
+            );
+            return PageCursor.toPageResult(rows, queryDTO.getPageSize(),
+                    notification -> PageCursor.ofTime(notification.getCreateTime(), notification.getNotificationId()));
+        }
 
-        return new PageResult(page.getTotal(), page.getResult());
+        return pageCounter.page(PageEndpoint.NOTIFICATION_LIST, queryDTO.getPageNum(), queryDTO.getPageSize(),
+                () -> notificationMapper.selectPageList(
+                        userId,
+                        queryDTO.getIsRead(),
+                        queryDTO.getNotificationType(),
+                        null,
+                        null
+                ),
+                userId, queryDTO.getIsRead(), queryDTO.getNotificationType());
     }
 
     @Override
     public Integer getUnreadCount(Long userId) {
         log.info("查询未读通知数量 - 用户ID: {}", userId);
-        return notificationMapper.countUnread(userId);
+        return unreadCounter.get(userId);
     }
 
     @Override
@@ -61,6 +87,18 @@ public class NotificationServiceImpl implements NotificationService {
     public void markAsRead(Long notificationId, Long userId) {
         log.info("标记通知已读 - 通知ID: {}, 用户ID: {}", notificationId, userId);
 
+        // 负数ID为广播通知：写入该用户的已读回执
+        if (notificationId < 0) {
+            Long broadcastId = -notificationId;
+            requireVisibleBroadcast(broadcastId, userId);
+            int unread = broadcastNotificationMapper.countUnreadById(userId, broadcastId);
+            if (unread > 0) {
+                broadcastNotificationMapper.markAsRead(userId, broadcastId);
+                unreadCounter.onRead(userId, unread);
+            }
+            return;
+        }
+
         Notification notification = notificationMapper.selectById(notificationId);
         if (notification == null) {
             throw new ServiceException("通知不存在");
@@ -70,61 +108,66 @@ public class NotificationServiceImpl implements NotificationService {
             throw new ServiceException("无权操作此通知");
         }
 
-        notificationMapper.markAsRead(notificationId);
+        unreadCounter.onRead(userId, notificationMapper.markAsRead(notificationId));
     }
 
     @Override
     @Transactional
     public void markAllAsRead(Long userId) {
         log.info("标记所有通知已读 - 用户ID: {}", userId);
-        notificationMapper.markAllAsRead(userId);
+        int count = notificationMapper.markAllAsRead(userId);
+
+        // 广播通知：已读水位推进到当前最新的广播，清理水位以下的已读回执
+        Long watermark = broadcastNotificationMapper.selectMaxId();
+        if (watermark > 0) {
+            count += broadcastNotificationMapper.countUnread(userId, watermark);
+            broadcastNotificationMapper.advanceWatermark(userId, watermark);
+            broadcastNotificationMapper.deleteReadReceipts(userId, watermark);
+        }
+        unreadCounter.onRead(userId, count);
     }
 
     @Override
     @Transactional
-    public void createAnswerNotification(Long studentId, Long teacherId, Long questionId, String questionTitle) {
-        log.info("创建问题被回答通知 - 学生ID: {}, 教师ID: {}, 问题ID: {}", studentId, teacherId, questionId);
-
-        // 查询学生信息
-        User student = userMapper.selectById(studentId);
-        if (student == null) {
-            log.warn("学生不存在，无法创建通知 - 学生ID: {}", studentId);
+    public void deleteNotification(Long notificationId, Long userId) {
+        log.info("删除通知 - 通知ID: {}, 用户ID: {}", notificationId, userId);
+
+        // 负数ID为广播通知：只对该用户隐藏
+        if (notificationId < 0) {
+            Long broadcastId = -notificationId;
+            requireVisibleBroadcast(broadcastId, userId);
+            int unread = broadcastNotificationMapper.countUnreadById(userId, broadcastId);
+            broadcastNotificationMapper.dismiss(userId, broadcastId);
+            unreadCounter.onRead(userId, unread);
             return;
         }
 
-        // 查询教师信息
-        User teacher = userMapper.selectById(teacherId);
-        if (teacher == null) {
-            log.warn("教师不存在，无法创建通知 - 教师ID: {}", teacherId);
-            return;
+        Notification notification = notificationMapper.selectById(notificationId);
+        if (notification == null) {
+            throw new ServiceException("通知不存在");
         }
+        if (!notification.getUserId().equals(userId)) {
+            throw new ServiceException("无权操作此通知");
+        }
+        notificationMapper.deleteById(notificationId);
+        if (Integer.valueOf(0).equals(notification.getIsRead())) {
+            unreadCounter.onRead(userId, 1);
+        }
+    }
 
-        // 获取学生姓名（优先使用真实姓名，否则使用用户名）
-        String studentName = student.getRealName() != null && !student.getRealName().trim().isEmpty() 
-            ? student.getRealName() 
-            : student.getUsername();
-
-        // 获取教师姓名（优先使用真实姓名，否则使用用户名）
-        String teacherName = teacher.getRealName() != null && !teacher.getRealName().trim().isEmpty() 
-            ? teacher.getRealName() 
-            : teacher.getUsername();
-
-        // 生成通知内容，格式：同学某某某 你的什么什么问题 被哪个老师回答
-        String content = String.format("同学%s，你的问题「%s」已被%s回答", 
-            studentName, questionTitle, teacherName);
-
-        Notification notification = new Notification();
-        notification.setUserId(studentId);
-        notification.setNotificationType(Constant.NOTIFICATION_TYPE_ANSWER_REPLY);
-        notification.setTitle("您的问题有新回答");
-        notification.setContent(content);
-        notification.setRelatedId(questionId);
-        notification.setRelatedType("QUESTION");
-
-        notificationMapper.save(notification);
+    @Override
+    @Transactional
+    public void createNotifications(List<Notification> notifications) {
+        if (notifications.isEmpty()) {
+            return;
+        }
+        notificationMapper.batchInsert(notifications);
+        unreadCounter.onCreated(notifications.stream().map(Notification::getUserId).toList());
 
-        // 🚀 通过 WebSocket 实时推送通知给在线用户
-        pushNotificationViaWebSocket(studentId, notification);
+        // 事务提交后推送，不推送随后回滚的数据
+        TransactionHooks.afterCommit(() -> notifications.forEach(
+                notification -> pushNotificationViaWebSocket(notification.getUserId(), notification)));
+        log.info("批量创建通知 - 数量: {}", notifications.size());
     }
 
     @Override
@@ -132,39 +175,24 @@ public class NotificationServiceImpl implements NotificationService {
     public void createSystemNotification(Long userId, String title, String content) {
         log.info("创建系统通知 - 用户ID: {}, 标题: {}", userId, title);
 
-        // 如果 userId 为 null，表示向全体用户发送通知
+        // 如果 userId 为 null，表示向全体用户发送通知：只写一条广播通知，查询时与个人通知合并
         if (userId == null) {
-            // 查询所有正常状态的用户ID
-            List<Long> userIds = userMapper.selectAllUserIds();
-            log.info("向全体用户发送系统通知，共 {} 个用户", userIds.size());
-
-            if (userIds.isEmpty()) {
-                log.warn("没有找到任何用户，无法发送通知");
-                return;
-            }
-
-            // 为每个用户创建通知
-            List<Notification> notifications = new ArrayList<>();
-            for (Long uid : userIds) {
-                Notification notification = new Notification();
-                notification.setUserId(uid);
-                notification.setNotificationType(Constant.NOTIFICATION_TYPE_SYSTEM);
-                notification.setTitle(title);
-                notification.setContent(content);
-                notifications.add(notification);
-            }
-
-            // 批量插入通知
-            if (!notifications.isEmpty()) {
-                notificationMapper.batchInsert(notifications);
-                log.info("批量创建系统通知成功，共 {} 条", notifications.size());
-
-                // 通过 WebSocket 实时推送通知给所有在线用户
-                Notification templateNotification = notifications.get(0);
-                for (Long uid : userIds) {
-                    pushNotificationViaWebSocket(uid, templateNotification);
-                }
-            }
+            BroadcastNotification broadcast = new BroadcastNotification();
+            broadcast.setNotificationType(Constant.NOTIFICATION_TYPE_SYSTEM);
+            broadcast.setTitle(title);
+            broadcast.setContent(content);
+            broadcastNotificationMapper.save(broadcast);
+
+            // 事务提交后在后台推送给所有在线用户
+            Map<String, Object> message = new HashMap<>();
+            message.put("type", "notification");
+            message.put("notificationType", broadcast.getNotificationType());
+            message.put("title", title);
+            message.put("content", content);
+            message.put("notificationId", -broadcast.getBroadcastId());
+            message.put("timestamp", System.currentTimeMillis());
+            notificationFanoutService.pushToOnlineUsers(message);
+            log.info("广播通知创建成功 - 广播ID: {}", broadcast.getBroadcastId());
         } else {
             // 向指定用户发送通知
             Notification notification = new Notification();
@@ -174,40 +202,18 @@ public class NotificationServiceImpl implements NotificationService {
             notification.setContent(content);
 
             notificationMapper.save(notification);
+            unreadCounter.onCreated(userId);
 
-            // 🚀 通过 WebSocket 实时推送通知给在线用户
-            pushNotificationViaWebSocket(userId, notification);
+            // 🚀 事务提交后通过 WebSocket 实时推送通知给在线用户
+            TransactionHooks.afterCommit(() -> pushNotificationViaWebSocket(userId, notification));
         }
     }
 
-    @Override
-    @Transactional
-    public void createQuestionNotification(Long teacherId, Long studentId, Long questionId, String questionTitle, String courseName) {
-        log.info("创建新问题通知 - 教师ID: {}, 学生ID: {}, 问题ID: {}", teacherId, studentId, questionId);
-
-        // 查询学生信息
-        User student = userMapper.selectById(studentId);
-        String studentName = (student != null && student.getRealName() != null) ? student.getRealName() : "学生";
-
-        Notification notification = new Notification();
-        notification.setUserId(teacherId);
-        notification.setTitle("新问题提醒");
-        notification.setContent("学生 " + studentName + " 在课程《" + courseName + "》中提出了新问题：" + questionTitle);
-        notification.setNotificationType(Constant.NOTIFICATION_TYPE_NEW_QUESTION);
-        notification.setRelatedId(questionId);
-        notification.setIsRead(0);
-
-        notificationMapper.save(notification);
-
-        // 发送WebSocket通知
-        Map<String, Object> wsData = new HashMap<>();
-        wsData.put("type", "notification");
-        wsData.put("title", notification.getTitle());
-        wsData.put("content", notification.getContent());
-        wsData.put("relatedId", questionId);
-        wsData.put("notificationId", notification.getNotificationId());
-
-        NotificationWebSocket.sendNotification(teacherId, wsData);
+    private void requireVisibleBroadcast(Long broadcastId, Long userId) {
+        BroadcastNotification broadcast = broadcastNotificationMapper.selectVisibleById(userId, broadcastId);
+        if (broadcast == null) {
+            throw new ServiceException("通知不存在");
+        }
     }
 
     /**
@@ -215,23 +221,20 @@ public class NotificationServiceImpl implements NotificationService {
      */
     private void pushNotificationViaWebSocket(Long userId, Notification notification) {
         try {
-            // 检查用户是否在线
-            if (NotificationWebSocket.isUserOnline(userId)) {
-                Map<String, Object> message = new HashMap<>();
-                message.put("type", "notification");
-                message.put("notificationType", notification.getNotificationType());
-                message.put("title", notification.getTitle());
-                message.put("content", notification.getContent());
-                message.put("relatedId", notification.getRelatedId());
-                message.put("relatedType", notification.getRelatedType());
-                message.put("timestamp", System.currentTimeMillis());
-
-                // 发送 WebSocket 消息
-                NotificationWebSocket.sendNotification(userId, message);
-                log.info("WebSocket 通知推送成功 - 用户ID: {}", userId);
-            } else {
-                log.debug("用户 {} 不在线，WebSocket 通知未推送", userId);
-            }
+            // 用户可能连在其他实例上，不在本地判断是否在线，由各实例只投递给自己的连接
+            Map<String, Object> message = new HashMap<>();
+            message.put("type", "notification");
+            message.put("notificationId", notification.getNotificationId());
+            message.put("notificationType", notification.getNotificationType());
+            message.put("title", notification.getTitle());
+            message.put("content", notification.getContent());
+            message.put("relatedId", notification.getRelatedId());
+            message.put("relatedType", notification.getRelatedType());
+            message.put("timestamp", System.currentTimeMillis());
+
+            // 发送 WebSocket 消息
+            NotificationWebSocket.sendNotification(userId, message);
+            log.debug("WebSocket 通知已发布 - 用户ID: {}", userId);
         } catch (Exception e) {
             log.error("WebSocket 通知推送失败 - 用户ID: {}", userId, e);
             // WebSocket 推送失败不影响主业务
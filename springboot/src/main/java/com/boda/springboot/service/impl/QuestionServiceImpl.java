@@ -1,37 +1,46 @@
 package com.boda.springboot.service.impl;
 
+import com.boda.springboot.cache.AccessCountBuffer;
+import com.boda.springboot.cache.AnswerLikeCounter;
+import com.boda.springboot.cache.PageCounter;
+import com.boda.springboot.cache.PendingQuestionQueue;
+import com.boda.springboot.cache.QuestionDetailCache;
+import com.boda.springboot.cache.StatisticsSnapshot;
 import com.boda.springboot.common.Constant;
+import com.boda.springboot.common.CountStrategy;
+import com.boda.springboot.common.PageCursor;
+import com.boda.springboot.common.PageEndpoint;
 import com.boda.springboot.common.PageResult;
 import com.boda.springboot.dto.AnswerSubmitDTO;
 import com.boda.springboot.dto.QuestionPageQueryDTO;
 import com.boda.springboot.dto.QuestionSubmitDTO;
 import com.boda.springboot.dto.QuestionUpdateDTO;
 import com.boda.springboot.entity.Answer;
-import com.boda.springboot.entity.AnswerLike;
 import com.boda.springboot.entity.Question;
 import com.boda.springboot.exception.ServiceException;
 import com.boda.springboot.mapper.AnswerLikeMapper;
 import com.boda.springboot.mapper.AnswerMapper;
-import com.boda.springboot.mapper.CourseMapper;
 import com.boda.springboot.mapper.QuestionMapper;
-import com.boda.springboot.mapper.TeacherCourseMapper;
-import com.boda.springboot.service.NotificationService;
+import com.boda.springboot.service.NotificationOutboxService;
 import com.boda.springboot.service.QuestionService;
 import com.boda.springboot.utils.QiNiuUtil;
 import com.boda.springboot.vo.AnswerVO;
 import com.boda.springboot.vo.QuestionDetailVO;
 import com.boda.springboot.vo.QuestionVO;
-import com.github.pagehelper.Page;
-import com.github.pagehelper.PageHelper;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.BeanUtils;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
 
 /**
  * 问答Service实现类
@@ -52,14 +61,38 @@ public class QuestionServiceImpl implements QuestionService {
     @Autowired
     private QiNiuUtil qiNiuUtil;
 
-    @Autowired(required = false)
-    private NotificationService notificationService;
+    @Autowired
+    private NotificationOutboxService notificationOutboxService;
+
+    @Autowired
+    private StatisticsSnapshot statisticsSnapshot;
+
+    @Autowired
+    private AccessCountBuffer accessCountBuffer;
+
+    @Autowired
+    private AnswerLikeCounter answerLikeCounter;
 
     @Autowired
-    private com.boda.springboot.mapper.CourseMapper courseMapper;
+    private QuestionDetailCache questionDetailCache;
+
+    /**
+     * 关键词搜索是否使用全文索引（需要 ft_title_content 为 ngram 索引）
+     */
+    @Value("${question-search.fulltext-enabled:true}")
+    private boolean fulltextSearchEnabled;
+
+    /**
+     * 使用全文检索的最短关键词长度，与 MySQL ngram_token_size 一致；更短的关键词仍使用 LIKE
+     */
+    @Value("${question-search.min-fulltext-length:2}")
+    private int minFulltextLength = 2;
+
+    @Autowired
+    private PageCounter pageCounter;
 
     @Autowired
-    private com.boda.springboot.mapper.TeacherCourseMapper teacherCourseMapper;
+    private PendingQuestionQueue pendingQuestionQueue;
 
     @Override
     @Transactional
@@ -90,75 +123,70 @@ public class QuestionServiceImpl implements QuestionService {
         question.setImageUrls(imageUrls);
 
         questionMapper.save(question);
+        statisticsSnapshot.onQuestionCreated();
+        pendingQuestionQueue.onQuestionOpened(question.getQuestionId());
         log.info("问题提交成功 - 问题ID: {}", question.getQuestionId());
 
-        // 发送通知给课程关联的教师
-        try {
-            if (notificationService != null) {
-                com.boda.springboot.entity.Course course = courseMapper.selectById(submitDTO.getCourseId());
-                if (course != null) {
-                    // 如果指定了提问教师，只通知该教师
-                    if (submitDTO.getTeacherId() != null) {
-                        notificationService.createQuestionNotification(
-                                submitDTO.getTeacherId(),
-                                studentId,
-                                question.getQuestionId(),
-                                question.getQuestionTitle(),
-                                course.getCourseName()
-                        );
-                    } else {
-                        // 否则通知课程下的所有教师
-                        List<Long> teacherIds = teacherCourseMapper.selectTeacherIdsByCourseId(submitDTO.getCourseId());
-                        for (Long teacherId : teacherIds) {
-                            notificationService.createQuestionNotification(
-                                    teacherId,
-                                    studentId,
-                                    question.getQuestionId(),
-                                    question.getQuestionTitle(),
-                                    course.getCourseName()
-                            );
-                        }
-                    }
-                }
-            }
-        } catch (Exception e) {
-            log.error("发送新问题通知失败", e);
-        }
+        // 记录提问事件，事务提交后由后台任务通知课程关联的教师
+        notificationOutboxService.recordQuestionSubmitted(question);
     }
 
     @Override
     public PageResult pageQuery(QuestionPageQueryDTO queryDTO) {
         log.info("分页查询问题列表 - 查询条件: {}", queryDTO);
 
-        PageHelper.startPage(queryDTO.getPageNum(), queryDTO.getPageSize());
-        Page<QuestionVO> page = (Page<QuestionVO>) questionMapper.selectPageList(
-                queryDTO.getCourseId(),
-                queryDTO.getTeacherId(),
-                queryDTO.getIsAnswered(),
-                queryDTO.getKeyword()
-        );
+        String keyword = queryDTO.getKeyword() != null ? queryDTO.getKeyword().trim() : null;
+        boolean fulltext = useFulltext(keyword);
+
+        // 游标模式：按 (创建时间, 问题ID) 定位，多查一条判断是否有下一页，不执行 COUNT
+        if (queryDTO.getCursor() != null) {
+            List<QuestionVO> rows = questionMapper.selectPageList(
+                    queryDTO.getCourseId(),
+                    queryDTO.getTeacherId(),
+                    queryDTO.getIsAnswered(),
+                    keyword,
+                    fulltext,
+                    PageCursor.decode(queryDTO.getCursor(), PageCursor.Order.TIME),
+                    queryDTO.getPageSize() + 1
+            );
+            accessCountBuffer.applyToQuestions(rows);
+            return PageCursor.toPageResult(rows, queryDTO.getPageSize(), QuestionServiceImpl::cursorOf);
+        }
 
-        return new PageResult(page.getTotal(), page.getResult());
+        PageResult<QuestionVO> result = pageCounter.page(PageEndpoint.QUESTION_LIST, queryDTO.getPageNum(), queryDTO.getPageSize(),
+                () -> questionMapper.selectPageList(
+                        queryDTO.getCourseId(),
+                        queryDTO.getTeacherId(),
+                        queryDTO.getIsAnswered(),
+                        keyword,
+                        fulltext,
+                        null,
+                        null
+                ),
+                queryDTO.getCourseId(), queryDTO.getTeacherId(), queryDTO.getIsAnswered(), keyword);
+        accessCountBuffer.applyToQuestions(result.getRecords());
+
+        return result;
     }
 
     @Override
     public QuestionDetailVO getQuestionDetail(Long questionId, Long currentUserId) {
         log.info("查询问题详情 - 问题ID: {}", questionId);
 
-        Question question = questionMapper.selectById(questionId);
-        if (question == null) {
+        // 查询问题详情及所有回答（所有查看者共享缓存）
+        QuestionDetailVO detailVO = questionDetailCache.get(questionId);
+        if (detailVO == null) {
             throw new ServiceException("问题不存在");
         }
 
-        // 增加浏览次数
-        questionMapper.increaseViewCount(questionId);
-
-        // 查询问题详情
-        QuestionDetailVO detailVO = questionMapper.selectDetailById(questionId);
+        // 增加浏览次数（内存累加，定时写库）
+        accessCountBuffer.onQuestionViewed(questionId);
+        detailVO.setViewCount(accessCountBuffer.questionViewCount(questionId, detailVO.getViewCount()));
 
-        // 查询所有回答
-        List<AnswerVO> answers = answerMapper.selectByQuestionId(questionId, currentUserId);
-        detailVO.setAnswers(answers);
+        // 叠加未写库的点赞数和当前用户的点赞状态
+        List<AnswerVO> answers = detailVO.getAnswers();
+        answerLikeCounter.applyToAnswers(answers);
+        fillLikedStatus(answers, currentUserId);
 
         return detailVO;
     }
@@ -190,6 +218,7 @@ public class QuestionServiceImpl implements QuestionService {
         updateQuestion.setTags(updateDTO.getTags());
 
         questionMapper.update(updateQuestion);
+        questionDetailCache.invalidate(questionId);
         log.info("问题更新成功");
     }
 
@@ -209,27 +238,94 @@ public class QuestionServiceImpl implements QuestionService {
         }
 
         questionMapper.deleteById(questionId);
+        questionDetailCache.invalidate(questionId);
+        pendingQuestionQueue.onQuestionClosed(questionId);
+        statisticsSnapshot.onQuestionDeleted();
         log.info("问题删除成功");
     }
 
     @Override
-    public PageResult getMyQuestions(Integer pageNum, Integer pageSize, Integer isAnswered, Long studentId) {
+    public PageResult getMyQuestions(Integer pageNum, Integer pageSize, Integer isAnswered, Long studentId, String cursor) {
         log.info("查询我的提问列表 - 学生ID: {}", studentId);
 
-        PageHelper.startPage(pageNum, pageSize);
-        Page<QuestionVO> page = (Page<QuestionVO>) questionMapper.selectMyQuestions(studentId, isAnswered);
+        if (cursor != null) {
+            List<QuestionVO> rows = questionMapper.selectMyQuestions(studentId, isAnswered,
+                    PageCursor.decode(cursor, PageCursor.Order.TIME), pageSize + 1);
+            accessCountBuffer.applyToQuestions(rows);
+            return PageCursor.toPageResult(rows, pageSize, QuestionServiceImpl::cursorOf);
+        }
+
+        PageResult<QuestionVO> result = pageCounter.page(PageEndpoint.QUESTION_MINE, pageNum, pageSize,
+                () -> questionMapper.selectMyQuestions(studentId, isAnswered, null, null),
+                studentId, isAnswered);
+        accessCountBuffer.applyToQuestions(result.getRecords());
 
-        return new PageResult(page.getTotal(), page.getResult());
+        return result;
     }
 
     @Override
-    public PageResult getPendingQuestions(Integer pageNum, Integer pageSize, Long courseId, Long teacherId) {
+    public PageResult getPendingQuestions(Integer pageNum, Integer pageSize, Long courseId, Long teacherId, String cursor) {
         log.info("查询待回答问题列表 - 教师ID: {}", teacherId);
 
-        PageHelper.startPage(pageNum, pageSize);
-        Page<QuestionVO> page = (Page<QuestionVO>) questionMapper.selectPendingQuestions(teacherId, courseId);
+        // 待回答队列就绪时只按当前页的问题ID回表
+        if (pendingQuestionQueue.isReady()) {
+            return pagePendingFromQueue(pageNum, pageSize, courseId, teacherId, cursor);
+        }
+
+        if (cursor != null) {
+            List<QuestionVO> rows = questionMapper.selectPendingQuestions(teacherId, courseId,
+                    PageCursor.decode(cursor, PageCursor.Order.TIME), pageSize + 1);
+            accessCountBuffer.applyToQuestions(rows);
+            return PageCursor.toPageResult(rows, pageSize, QuestionServiceImpl::cursorOf);
+        }
+
+        PageResult<QuestionVO> result = pageCounter.page(PageEndpoint.QUESTION_PENDING, pageNum, pageSize,
+                () -> questionMapper.selectPendingQuestions(teacherId, courseId, null, null),
+                teacherId, courseId);
+        accessCountBuffer.applyToQuestions(result.getRecords());
+
+        return result;
+    }
+
+    /**
+     * 从待回答队列取当前页的问题ID，再按ID回表
+     */
+    private PageResult<QuestionVO> pagePendingFromQueue(Integer pageNum, Integer pageSize, Long courseId, Long teacherId, String cursor) {
+        if (cursor != null) {
+            List<Long> ids = pendingQuestionQueue.idsAfter(teacherId, courseId,
+                    PageCursor.decode(cursor, PageCursor.Order.TIME), pageSize + 1);
+            return PageCursor.toPageResult(loadPendingByIds(ids), pageSize, QuestionServiceImpl::cursorOf);
+        }
+        int offset = (Math.max(pageNum, 1) - 1) * pageSize;
+        List<Long> ids = pendingQuestionQueue.pageIds(teacherId, courseId, offset, pageSize);
+        PageResult<QuestionVO> result = new PageResult<>(pendingQuestionQueue.pendingCount(teacherId, courseId), loadPendingByIds(ids));
+        result.setCountStrategy(CountStrategy.EXACT);
+        return result;
+    }
+
+    private List<QuestionVO> loadPendingByIds(List<Long> questionIds) {
+        List<QuestionVO> questions = new ArrayList<>();
+        if (questionIds.isEmpty()) {
+            return questions;
+        }
+        Map<Long, QuestionVO> byId = new HashMap<>();
+        questionMapper.selectPendingByIds(questionIds).forEach(question -> byId.put(question.getQuestionId(), question));
+        for (Long questionId : questionIds) {
+            QuestionVO question = byId.get(questionId);
+            if (question != null) {
+                questions.add(question);
+            }
+        }
+        accessCountBuffer.applyToQuestions(questions);
+        return questions;
+    }
 
-        return new PageResult(page.getTotal(), page.getResult());
+    @Override
+    public Integer getPendingCount(Long courseId, Long teacherId) {
+        if (pendingQuestionQueue.isReady()) {
+            return pendingQuestionQueue.pendingCount(teacherId, courseId);
+        }
+        return questionMapper.countPending(teacherId, courseId);
     }
 
     @Override
@@ -263,19 +359,16 @@ public class QuestionServiceImpl implements QuestionService {
         answer.setImageUrls(imageUrls);
 
         answerMapper.save(answer);
+        statisticsSnapshot.onAnswerCreated();
 
         // 更新问题状态
         questionMapper.increaseAnswerCount(questionId);
         questionMapper.updateAnsweredStatus(questionId, 1);
+        questionDetailCache.invalidate(questionId);
+        pendingQuestionQueue.onQuestionClosed(questionId);
 
-        // 发送通知给提问学生
-        if (notificationService != null) {
-            try {
-                notificationService.createAnswerNotification(question.getStudentId(), teacherId, questionId, question.getQuestionTitle());
-            } catch (Exception e) {
-                log.error("发送通知失败", e);
-            }
-        }
+        // 记录回答事件，事务提交后由后台任务通知提问学生
+        notificationOutboxService.recordQuestionAnswered(question, teacherId);
 
         log.info("回答成功 - 回答ID: {}", answer.getAnswerId());
     }
@@ -300,6 +393,7 @@ public class QuestionServiceImpl implements QuestionService {
         updateAnswer.setAnswerContent(answerContent);
 
         answerMapper.update(updateAnswer);
+        questionDetailCache.invalidate(answer.getQuestionId());
         log.info("回答更新成功");
     }
 
@@ -319,6 +413,7 @@ public class QuestionServiceImpl implements QuestionService {
         }
 
         answerMapper.deleteById(answerId);
+        statisticsSnapshot.onAnswerDeleted();
 
         // 更新问题的回答数量
         questionMapper.decreaseAnswerCount(answer.getQuestionId());
@@ -327,7 +422,9 @@ public class QuestionServiceImpl implements QuestionService {
         List<AnswerVO> answers = answerMapper.selectByQuestionId(answer.getQuestionId(), null);
         if (answers.isEmpty()) {
             questionMapper.updateAnsweredStatus(answer.getQuestionId(), 0);
+            pendingQuestionQueue.onQuestionOpened(answer.getQuestionId());
         }
+        questionDetailCache.invalidate(answer.getQuestionId());
 
         log.info("回答删除成功");
     }
@@ -336,49 +433,67 @@ public class QuestionServiceImpl implements QuestionService {
     public PageResult getMyAnswers(Integer pageNum, Integer pageSize, Long teacherId) {
         log.info("查询我的回答列表 - 教师ID: {}", teacherId);
 
-        PageHelper.startPage(pageNum, pageSize);
-        Page<AnswerVO> page = (Page<AnswerVO>) answerMapper.selectByTeacherId(teacherId);
+        PageResult<AnswerVO> result = pageCounter.page(PageEndpoint.ANSWER_MINE, pageNum, pageSize,
+                () -> answerMapper.selectByTeacherId(teacherId),
+                teacherId);
+        answerLikeCounter.applyToAnswers(result.getRecords());
 
-        return new PageResult(page.getTotal(), page.getResult());
+        return result;
     }
 
+    /**
+     * 点赞回答（幂等）：一条 INSERT IGNORE 完成，重复点赞不报错也不重复计数
+     */
     @Override
-    @Transactional
     public void likeAnswer(Long answerId, Long userId) {
         log.info("点赞回答 - 回答ID: {}, 用户ID: {}", answerId, userId);
 
-        Answer answer = answerMapper.selectById(answerId);
-        if (answer == null) {
-            throw new ServiceException("回答不存在");
+        if (answerLikeMapper.insertIgnore(answerId, userId) > 0) {
+            answerLikeCounter.onLiked(answerId);
+            log.info("点赞成功");
+            return;
         }
-
-        // 检查是否已点赞
-        AnswerLike existLike = answerLikeMapper.selectByAnswerAndUser(answerId, userId);
-        if (existLike != null) {
-            throw new ServiceException("已经点赞过此回答");
+        // 未插入：已点赞过（幂等返回）或回答不存在
+        if (answerMapper.selectById(answerId) == null) {
+            throw new ServiceException("回答不存在");
         }
-
-        // 添加点赞
-        AnswerLike answerLike = new AnswerLike();
-        answerLike.setAnswerId(answerId);
-        answerLike.setUserId(userId);
-        answerLikeMapper.save(answerLike);
-
-        // 增加点赞数
-        answerMapper.increaseLikeCount(answerId);
-
-        log.info("点赞成功");
     }
 
+    /**
+     * 取消点赞（幂等）：只有确实删除了点赞记录才减少点赞数
+     */
     @Override
-    @Transactional
     public void unlikeAnswer(Long answerId, Long userId) {
         log.info("取消点赞 - 回答ID: {}, 用户ID: {}", answerId, userId);
 
-        answerLikeMapper.delete(answerId, userId);
-        answerMapper.decreaseLikeCount(answerId);
+        if (answerLikeMapper.delete(answerId, userId) > 0) {
+            answerLikeCounter.onUnliked(answerId);
+            log.info("取消点赞成功");
+        }
+    }
+
+    /**
+     * 填充当前用户对回答的点赞状态
+     */
+    private void fillLikedStatus(List<AnswerVO> answers, Long currentUserId) {
+        if (answers == null || answers.isEmpty()) {
+            return;
+        }
+        List<Long> likedIds = currentUserId == null ? List.of()
+                : answerLikeMapper.selectLikedAnswerIds(currentUserId,
+                        answers.stream().map(AnswerVO::getAnswerId).collect(Collectors.toList()));
+        answers.forEach(answer -> answer.setIsLiked(likedIds.contains(answer.getAnswerId())));
+    }
 
-        log.info("取消点赞成功");
+    /**
+     * 关键词是否走全文检索：全文检索命中 ngram 分词后的标题和内容，按相关度排序；
+     * 单字关键词无法被 ngram 索引命中，仍使用 LIKE
+     */
+    private boolean useFulltext(String keyword) {
+        return fulltextSearchEnabled && keyword != null && keyword.length() >= minFulltextLength;
     }
-}
 
+    private static PageCursor cursorOf(QuestionVO question) {
+        return PageCursor.ofTime(question.getCreateTime(), question.getQuestionId());
+    }
+}
@@ -1,23 +1,28 @@
 package com.boda.springboot.service.impl;
 
+import com.boda.springboot.cache.AccessCountBuffer;
+import com.boda.springboot.cache.EnrollmentCache;
+import com.boda.springboot.cache.PageCounter;
+import com.boda.springboot.cache.ResourceSearchIndex;
+import com.boda.springboot.cache.SearchTokenizer;
+import com.boda.springboot.cache.StatisticsSnapshot;
 import com.boda.springboot.common.Constant;
+import com.boda.springboot.common.PageCursor;
+import com.boda.springboot.common.CountStrategy;
+import com.boda.springboot.common.PageEndpoint;
 import com.boda.springboot.common.PageResult;
 import com.boda.springboot.dto.ResourcePageQueryDTO;
 import com.boda.springboot.dto.ResourceUpdateDTO;
 import com.boda.springboot.dto.ResourceUploadDTO;
 import com.boda.springboot.entity.Resource;
 import com.boda.springboot.entity.ResourceCollection;
-import com.boda.springboot.entity.StudentCourse;
 import com.boda.springboot.exception.ServiceException;
 import com.boda.springboot.mapper.ResourceCollectionMapper;
 import com.boda.springboot.mapper.ResourceMapper;
-import com.boda.springboot.mapper.StudentCourseMapper;
 import com.boda.springboot.service.ResourceService;
 import com.boda.springboot.utils.FileTypeValidator;
 import com.boda.springboot.utils.QiNiuUtil;
 import com.boda.springboot.vo.ResourceVO;
-import com.github.pagehelper.Page;
-import com.github.pagehelper.PageHelper;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.BeanUtils;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -28,7 +33,9 @@ import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 /**
@@ -45,11 +52,23 @@ public class ResourceServiceImpl implements ResourceService {
     private ResourceCollectionMapper collectionMapper;
 
     @Autowired
-    private StudentCourseMapper studentCourseMapper;
+    private EnrollmentCache enrollmentCache;
+
+    @Autowired
+    private StatisticsSnapshot statisticsSnapshot;
+
+    @Autowired
+    private AccessCountBuffer accessCountBuffer;
+
+    @Autowired
+    private ResourceSearchIndex resourceSearchIndex;
 
     @Autowired
     private QiNiuUtil qiNiuUtil;
 
+    @Autowired
+    private PageCounter pageCounter;
+
     /**
      * 允许上传的文件类型（MIME类型）
      */
@@ -62,6 +81,12 @@ public class ResourceServiceImpl implements ResourceService {
     @Value("#{'${upload.allowed-extensions}'.split(',')}")
     private List<String> allowedExtensions;
 
+    /**
+     * 按下载/浏览次数排序的搜索，交给 SQL 排序的命中ID上限
+     */
+    @Value("${resource-search.max-count-order-ids:1000}")
+    private int maxCountOrderIds = 1000;
+
     /**
      * 上传资源
      */
@@ -97,6 +122,8 @@ public class ResourceServiceImpl implements ResourceService {
             resource.setFileType(getFileTypeFromContentType(file.getContentType()));
             //保存资源
             resourceMapper.save(resource);
+            statisticsSnapshot.onResourceCreated();
+            resourceSearchIndex.onResourceChanged(resource.getResourceId());
             log.info("资源上传成功 - 资源ID: {}, 文件URL: {}", resource.getResourceId(), fileUrl);
 
         } catch (IOException e) {
@@ -113,38 +140,123 @@ public class ResourceServiceImpl implements ResourceService {
         if (Constant.ROLE_STUDENT.equals(role)) {
             // 如果查询指定课程的资源
             if (queryDTO.getCourseId() != null) {
-                // 检查学生是否加入该课程
-                StudentCourse studentCourse = studentCourseMapper.selectByStudentAndCourse(currentUserId, queryDTO.getCourseId());
+                // 检查学生是否加入该课程（选课缓存）
                 // 如果未加入课程，直接返回空结果（该课程的所有资源都不可见）
-                if (studentCourse == null) {
+                if (!enrollmentCache.isEnrolled(currentUserId, queryDTO.getCourseId())) {
                     log.info("学生未加入课程，返回空结果 - 学生ID: {}, 课程ID: {}", currentUserId, queryDTO.getCourseId());
-                    return new PageResult(0L, new ArrayList<>());
+                    return new PageResult<>(0L, new ArrayList<>());
                 }
             } else {
                 // 查询所有资源时，只返回：
                 // 1. course_id为NULL的PUBLIC资源（无课程归属的公开资源）
                 // 2. 学生已加入的课程的资源（PUBLIC和COURSE_ONLY都可以）
-                List<Long> enrolledCourseIds = studentCourseMapper.selectCourseIdsByStudentId(currentUserId);
                 // 设置允许的课程ID列表（在SQL中使用IN查询或IS NULL）
-                queryDTO.setEnrolledCourseIds(enrolledCourseIds != null && !enrolledCourseIds.isEmpty() ? enrolledCourseIds : new ArrayList<>());
+                queryDTO.setEnrolledCourseIds(enrollmentCache.getCourseIds(currentUserId));
+            }
+        }
+
+        // 关键词搜索：索引就绪时由内存倒排索引给出命中的资源ID，不再对 resource 表做 LIKE 扫描
+        queryDTO.setResourceIds(null);
+        String keyword = queryDTO.getKeyword() != null ? queryDTO.getKeyword().trim() : "";
+        if (!keyword.isEmpty() && resourceSearchIndex.isReady() && SearchTokenizer.isIndexable(keyword)) {
+            List<Long> resourceIds = resourceSearchIndex.search(keyword, queryDTO.getCourseId(),
+                    queryDTO.getEnrolledCourseIds(), queryDTO.getVisibility(), queryDTO.getFileType());
+            if (resourceIds.isEmpty()) {
+                return queryDTO.getCursor() != null
+                        ? PageResult.ofCursor(new ArrayList<>(), null, false)
+                        : new PageResult<>(0L, new ArrayList<>());
+            }
+            if (!isCountOrder(queryDTO.getOrderBy())) {
+                return pageSearchResult(resourceIds, queryDTO, currentUserId);
+            }
+            // 按下载/浏览次数排序时，以命中ID作为候选集交给 SQL 排序分页；
+            // 命中过多时 IN 列表过长，改用 SQL LIKE 筛选
+            if (resourceIds.size() <= maxCountOrderIds) {
+                queryDTO.setResourceIds(resourceIds);
+            } else {
+                log.debug("资源搜索命中 {} 条，超过按次数排序的候选上限 {}，改用 SQL 搜索", resourceIds.size(), maxCountOrderIds);
+            }
+        }
+
+        // 游标模式：按 (排序键, 资源ID) 定位，多查一条判断是否有下一页，不执行 COUNT
+        if (queryDTO.getCursor() != null) {
+            queryDTO.setSeek(PageCursor.decode(queryDTO.getCursor(), cursorOrder(queryDTO.getOrderBy())));
+            queryDTO.setLimit(queryDTO.getPageSize() + 1);
+            List<ResourceVO> rows = resourceMapper.selectPageList(queryDTO);
+            PageResult<ResourceVO> result = PageCursor.toPageResult(rows, queryDTO.getPageSize(),
+                    resource -> cursorOf(resource, queryDTO.getOrderBy()));
+            fillListStatus(result.getRecords(), currentUserId);
+            return result;
+        }
+
+        // 页码模式（总数按 resource-list 接口配置的策略统计）
+        queryDTO.setSeek(null);
+        queryDTO.setLimit(null);
+        PageResult<ResourceVO> result = pageCounter.page(PageEndpoint.RESOURCE_LIST, queryDTO.getPageNum(), queryDTO.getPageSize(),
+                () -> resourceMapper.selectPageList(queryDTO),
+                queryDTO.getCourseId(), queryDTO.getEnrolledCourseIds(), queryDTO.getVisibility(),
+                queryDTO.getFileType(), queryDTO.getKeyword());
+        fillListStatus(result.getRecords(), currentUserId);
+        return result;
+    }
+
+    /**
+     * 按相关度对索引命中的资源ID分页，只回表查询当前页
+     * 游标模式下游标记录下一页的偏移量
+     */
+    private PageResult<ResourceVO> pageSearchResult(List<Long> resourceIds, ResourcePageQueryDTO queryDTO, Long currentUserId) {
+        int pageSize = queryDTO.getPageSize();
+        int offset;
+        if (queryDTO.getCursor() != null) {
+            PageCursor seek = PageCursor.decode(queryDTO.getCursor(), PageCursor.Order.OFFSET);
+            offset = seek != null ? (int) Math.max(0, seek.getCount()) : 0;
+        } else {
+            offset = (Math.max(queryDTO.getPageNum(), 1) - 1) * pageSize;
+        }
+        int end = Math.min(offset + pageSize, resourceIds.size());
+        List<ResourceVO> records = new ArrayList<>();
+        if (offset < end) {
+            List<Long> pageIds = resourceIds.subList(offset, end);
+            Map<Long, ResourceVO> byId = new HashMap<>();
+            resourceMapper.selectListByIds(pageIds).forEach(resource -> byId.put(resource.getResourceId(), resource));
+            for (Long resourceId : pageIds) {
+                ResourceVO resource = byId.get(resourceId);
+                if (resource != null) {
+                    records.add(resource);
+                }
             }
         }
+        fillListStatus(records, currentUserId);
+
+        if (queryDTO.getCursor() != null) {
+            boolean hasNext = end < resourceIds.size();
+            String nextCursor = hasNext ? new PageCursor(null, (long) end, null, null).encode() : null;
+            return PageResult.ofCursor(records, nextCursor, hasNext);
+        }
+        PageResult<ResourceVO> result = new PageResult<>((long) resourceIds.size(), records);
+        result.setCountStrategy(CountStrategy.EXACT);
+        return result;
+    }
 
-        // 启动分页
-        PageHelper.startPage(queryDTO.getPageNum(), queryDTO.getPageSize());
-        // 查询数据
-        Page<ResourceVO> page = (Page<ResourceVO>) resourceMapper.selectPageList(queryDTO);
+    private static boolean isCountOrder(String orderBy) {
+        return "downloadCount".equals(orderBy) || "viewCount".equals(orderBy);
+    }
+
+    /**
+     * 叠加未写库的计数，并设置资源是否被当前用户收藏
+     */
+    private void fillListStatus(List<ResourceVO> resources, Long currentUserId) {
+        accessCountBuffer.applyToResources(resources);
         // 设置查询的资源是否被当前用户收藏，若被收藏则设置 isCollected 为 true
-        if (currentUserId != null && !page.isEmpty()) {
-            List<Long> resourceIds = page.stream()
+        if (currentUserId != null && !resources.isEmpty()) {
+            List<Long> resourceIds = resources.stream()
                     .map(ResourceVO::getResourceId)
                     .collect(Collectors.toList());
             List<Long> collectedIds = collectionMapper.selectCollectedResourceIds(currentUserId, resourceIds);
-            page.forEach(resource -> {
+            resources.forEach(resource -> {
                 resource.setIsCollected(collectedIds.contains(resource.getResourceId()));
             });
         }
-        return new PageResult(page.getTotal(), page.getResult());
     }
     /**
      * 获取资源详情
@@ -160,14 +272,14 @@ public class ResourceServiceImpl implements ResourceService {
 
         // 权限检查：如果是学生，且资源是课程私有，检查是否加入课程
         if (Constant.ROLE_STUDENT.equals(role) && Constant.RESOURCE_COURSE_ONLY.equals(vo.getVisibility())) {
-            StudentCourse studentCourse = studentCourseMapper.selectByStudentAndCourse(currentUserId, vo.getCourseId());
-            if (studentCourse == null) {
+            if (!enrollmentCache.isEnrolled(currentUserId, vo.getCourseId())) {
                 throw new ServiceException("无权访问该课程的私有资源");
             }
         }
 
-        // 增加浏览次数
-        resourceMapper.incrementViewCount(resourceId);
+        // 增加浏览次数（内存累加，定时写库）
+        accessCountBuffer.onResourceViewed(resourceId);
+        accessCountBuffer.applyToResource(vo);
         // 查询收藏状态
         if (currentUserId != null) {
             ResourceCollection collection = collectionMapper.selectByUserAndResource(currentUserId, resourceId);
@@ -204,6 +316,7 @@ public class ResourceServiceImpl implements ResourceService {
         updateResource.setIsTop(updateDTO.getIsTop());
 
         resourceMapper.update(updateResource);
+        resourceSearchIndex.onResourceChanged(resourceId);
         log.info("资源更新成功 - 资源ID: {}", resourceId);
     }
 
@@ -225,6 +338,10 @@ public class ResourceServiceImpl implements ResourceService {
 
         // 3. 逻辑删除
         resourceMapper.deleteById(resourceId);
+        if (Integer.valueOf(1).equals(resource.getStatus())) {
+            statisticsSnapshot.onResourceDeleted();
+        }
+        resourceSearchIndex.onResourceChanged(resourceId);
         log.info("资源删除成功 - 资源ID: {}", resourceId);
     }
 
@@ -239,14 +356,13 @@ public class ResourceServiceImpl implements ResourceService {
 
         // 权限检查：如果是学生，且资源是课程私有，检查是否加入课程
         if (Constant.ROLE_STUDENT.equals(role) && Constant.RESOURCE_COURSE_ONLY.equals(resource.getVisibility())) {
-            StudentCourse studentCourse = studentCourseMapper.selectByStudentAndCourse(currentUserId, resource.getCourseId());
-            if (studentCourse == null) {
+            if (!enrollmentCache.isEnrolled(currentUserId, resource.getCourseId())) {
                 throw new ServiceException("无权下载该课程的私有资源");
             }
         }
 
-        // 增加下载次数
-        resourceMapper.incrementDownloadCount(resourceId);
+        // 增加下载次数（内存累加，定时写库）
+        accessCountBuffer.onResourceDownloaded(resourceId);
 
         return resource.getFilePath();
     }
@@ -286,26 +402,48 @@ public class ResourceServiceImpl implements ResourceService {
     }
 
     @Override
-    public PageResult getMyCollections(Integer pageNum, Integer pageSize, Long studentId) {
+    public PageResult getMyCollections(Integer pageNum, Integer pageSize, Long studentId, String cursor) {
         log.info("查询我的收藏列表 - 学生ID: {}", studentId);
 
-        PageHelper.startPage(pageNum, pageSize);
-        Page<ResourceVO> page = (Page<ResourceVO>) collectionMapper.selectMyCollections(studentId);
+        if (cursor != null) {
+            List<ResourceVO> rows = collectionMapper.selectMyCollections(studentId,
+                    PageCursor.decode(cursor, PageCursor.Order.TIME), pageSize + 1);
+            accessCountBuffer.applyToResources(rows);
+            rows.forEach(resource -> resource.setIsCollected(true));
+            return PageCursor.toPageResult(rows, pageSize,
+                    resource -> PageCursor.ofTime(resource.getCollectTime(), resource.getResourceId()));
+        }
+
+        PageResult<ResourceVO> result = pageCounter.page(PageEndpoint.RESOURCE_COLLECTIONS, pageNum, pageSize,
+                () -> collectionMapper.selectMyCollections(studentId, null, null),
+                studentId);
+        List<ResourceVO> records = result.getRecords();
+        accessCountBuffer.applyToResources(records);
 
         // 所有收藏的资源都标记为已收藏
-        page.forEach(resource -> resource.setIsCollected(true));
+        records.forEach(resource -> resource.setIsCollected(true));
 
-        return new PageResult(page.getTotal(), page.getResult());
+        return result;
     }
 
     @Override
-    public PageResult getMyUploads(Integer pageNum, Integer pageSize, Long uploaderId, String resourceTitle, Long courseId) {
+    public PageResult getMyUploads(Integer pageNum, Integer pageSize, Long uploaderId, String resourceTitle, Long courseId, String cursor) {
         log.info("查询我上传的资源 - 上传者ID: {}, 标题: {}, 课程ID: {}", uploaderId, resourceTitle, courseId);
 
-        PageHelper.startPage(pageNum, pageSize);
-        Page<ResourceVO> page = (Page<ResourceVO>) resourceMapper.selectMyUploads(uploaderId, resourceTitle, courseId);
+        if (cursor != null) {
+            List<ResourceVO> rows = resourceMapper.selectMyUploads(uploaderId, resourceTitle, courseId,
+                    PageCursor.decode(cursor, PageCursor.Order.TIME), pageSize + 1);
+            accessCountBuffer.applyToResources(rows);
+            return PageCursor.toPageResult(rows, pageSize,
+                    resource -> PageCursor.ofTime(resource.getCreateTime(), resource.getResourceId()));
+        }
+
+        PageResult<ResourceVO> result = pageCounter.page(PageEndpoint.RESOURCE_UPLOADS, pageNum, pageSize,
+                () -> resourceMapper.selectMyUploads(uploaderId, resourceTitle, courseId, null, null),
+                uploaderId, resourceTitle, courseId);
+        accessCountBuffer.applyToResources(result.getRecords());
 
-        return new PageResult(page.getTotal(), page.getResult());
+        return result;
     }
 
     @Override
@@ -323,15 +461,15 @@ public class ResourceServiceImpl implements ResourceService {
 
         // 3. 更新置顶状态
         resourceMapper.updateTopStatus(resourceId, isTop);
+        resourceSearchIndex.onResourceChanged(resourceId);
         log.info("资源置顶设置成功 - 资源ID: {}", resourceId);
     }
 
     @Override
     public PageResult getRecycleBinList(Integer pageNum, Integer pageSize, Long uploaderId) {
-        PageHelper.startPage(pageNum, pageSize);
-        List<ResourceVO> list = resourceMapper.selectRecycleBinList(uploaderId);
-        Page<ResourceVO> page = (Page<ResourceVO>) list;
-        return new PageResult(page.getTotal(), page.getResult());
+        return pageCounter.page(PageEndpoint.RESOURCE_RECYCLE_BIN, pageNum, pageSize,
+                () -> resourceMapper.selectRecycleBinList(uploaderId),
+                uploaderId);
     }
 
     @Override
@@ -346,6 +484,10 @@ public class ResourceServiceImpl implements ResourceService {
              throw new ServiceException("无权操作此资源");
         }
         resourceMapper.restoreById(resourceId);
+        if (Constant.DELETE_IS.equals(resource.getIsDeleted()) && Integer.valueOf(1).equals(resource.getStatus())) {
+            statisticsSnapshot.onResourceCreated();
+        }
+        resourceSearchIndex.onResourceChanged(resourceId);
     }
 
     @Override
@@ -363,6 +505,10 @@ public class ResourceServiceImpl implements ResourceService {
         // TODO: 如果需要，在此处调用七牛云工具类删除云端文件
         
         resourceMapper.deletePermanentlyById(resourceId);
+        if (Constant.DELETE_NO.equals(resource.getIsDeleted()) && Integer.valueOf(1).equals(resource.getStatus())) {
+            statisticsSnapshot.onResourceDeleted();
+        }
+        resourceSearchIndex.onResourceChanged(resourceId);
     }
 
     /**
@@ -400,5 +546,29 @@ public class ResourceServiceImpl implements ResourceService {
         // 使用工具类进行校验（非严格模式，只记录 MIME 警告）
         FileTypeValidator.validateFileType(file, allowedExtensions, allowedTypes, false);
     }
-}
 
+    /**
+     * 资源列表的游标，排序键与 selectPageList 的 ORDER BY 一致
+     * 计数类排序键必须取数据库中的值，因此要在叠加未写库增量之前生成
+     */
+    private static PageCursor cursorOf(ResourceVO resource, String orderBy) {
+        if ("downloadCount".equals(orderBy)) {
+            return new PageCursor(null, toLong(resource.getDownloadCount()), null, resource.getResourceId());
+        }
+        if ("viewCount".equals(orderBy)) {
+            return new PageCursor(null, toLong(resource.getViewCount()), null, resource.getResourceId());
+        }
+        return new PageCursor(resource.getIsTop(), null, resource.getCreateTime(), resource.getResourceId());
+    }
+
+    /**
+     * 资源列表排序方式对应的游标排序键
+     */
+    private static PageCursor.Order cursorOrder(String orderBy) {
+        return isCountOrder(orderBy) ? PageCursor.Order.COUNT : PageCursor.Order.TOP_TIME;
+    }
+
+    private static Long toLong(Integer count) {
+        return count != null ? count.longValue() : 0L;
+    }
+}
@@ -0,0 +1,540 @@
+package com.boda.springboot.service.impl;
+
+import cn.hutool.cache.CacheUtil;
+import cn.hutool.cache.impl.LRUCache;
+import cn.hutool.core.io.FileUtil;
+import cn.hutool.core.io.IoUtil;
+import cn.hutool.core.text.csv.CsvUtil;
+import cn.hutool.core.util.IdUtil;
+import cn.hutool.core.util.NumberUtil;
+import cn.hutool.core.util.StrUtil;
+import cn.hutool.poi.excel.ExcelUtil;
+import com.boda.springboot.cache.CourseCache;
+import com.boda.springboot.cache.StatisticsSnapshot;
+import com.boda.springboot.common.Constant;
+import com.boda.springboot.entity.Course;
+import com.boda.springboot.entity.StudentCourse;
+import com.boda.springboot.entity.User;
+import com.boda.springboot.exception.ServiceException;
+import com.boda.springboot.mapper.StudentCourseMapper;
+import com.boda.springboot.mapper.TeacherCourseMapper;
+import com.boda.springboot.mapper.UserMapper;
+import com.boda.springboot.security.PasswordHasher;
+import com.boda.springboot.service.StudentImportService;
+import com.boda.springboot.vo.StudentImportErrorVO;
+import com.boda.springboot.vo.StudentImportTaskVO;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.file.Files;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 批量导入学生
+ * 文件逐行流式读取（CSV 用 hutool CsvReader，Excel 用 hutool SAX 读取），每攒够一批：
+ * 一次查询校验用户名/学号/邮箱冲突，多行 INSERT 写入用户和选课关联；
+ * 课程与授课教师在同一文件内只查询一次，默认密码只哈希一次（在导入线程中计算，不占用登录的哈希线程池）
+ */
+@Service
+@Slf4j
+public class StudentImportServiceImpl implements StudentImportService {
+
+    private static final String STATUS_RUNNING = "RUNNING";
+    private static final String STATUS_SUCCESS = "SUCCESS";
+    private static final String STATUS_FAILED = "FAILED";
+
+    /**
+     * 表头别名 -> 字段
+     */
+    private static final Map<String, String> HEADER_ALIASES = new HashMap<>();
+
+    static {
+        alias("username", "username", "用户名", "账号");
+        alias("realName", "realname", "real_name", "姓名", "真实姓名");
+        alias("studentId", "studentid", "student_id", "学号");
+        alias("email", "email", "邮箱");
+        alias("phone", "phone", "手机号", "电话");
+        alias("college", "college", "学院", "所属学院");
+        alias("courseIds", "courseids", "course_ids", "课程id", "课程");
+    }
+
+    @Autowired
+    private UserMapper userMapper;
+    @Autowired
+    private StudentCourseMapper studentCourseMapper;
+    @Autowired
+    private CourseCache courseCache;
+    @Autowired
+    private TeacherCourseMapper teacherCourseMapper;
+    @Autowired
+    private PasswordHasher passwordHasher;
+    @Autowired
+    private StatisticsSnapshot statisticsSnapshot;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${student-import.batch-size:500}")
+    private int batchSize;
+
+    @Value("${student-import.max-errors:1000}")
+    private int maxErrors;
+
+    /**
+     * 导入线程池：导入是重操作，同时最多执行 2 个，排队 8 个，再多直接拒绝
+     */
+    private final ThreadPoolExecutor executor;
+
+    /**
+     * 排队和执行中的任务，结束前不会被淘汰（数量受线程池和队列长度限制）
+     */
+    private final Map<String, ImportTask> runningTasks = new ConcurrentHashMap<>();
+
+    /**
+     * 已结束的任务，保留 24 小时供查询，超出容量时淘汰最久未查询的
+     */
+    private final LRUCache<String, ImportTask> finishedTasks = CacheUtil.newLRUCache(200, TimeUnit.HOURS.toMillis(24));
+
+    public StudentImportServiceImpl() {
+        AtomicInteger threadIndex = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(2, 2, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(8),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "student-import-" + threadIndex.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    @Override
+    public StudentImportTaskVO submit(MultipartFile file, List<Long> courseIds) {
+        if (file == null || file.isEmpty()) {
+            throw new ServiceException("400", "导入文件不能为空");
+        }
+        String fileName = file.getOriginalFilename();
+        String ext = StrUtil.blankToDefault(FileUtil.extName(fileName), "").toLowerCase();
+        if (!"csv".equals(ext) && !"xls".equals(ext) && !"xlsx".equals(ext)) {
+            throw new ServiceException("400", "仅支持 CSV、XLS、XLSX 文件");
+        }
+
+        // 请求结束后上传的临时文件会被清理，先转存一份供后台任务读取
+        File temp;
+        try {
+            temp = Files.createTempFile("student-import-", "." + ext).toFile();
+            file.transferTo(temp);
+        } catch (IOException e) {
+            log.error("保存导入文件失败 - 文件名: {}", fileName, e);
+            throw new ServiceException("导入文件保存失败");
+        }
+
+        ImportTask task = new ImportTask(IdUtil.fastSimpleUUID(), fileName);
+        runningTasks.put(task.taskId, task);
+        List<Long> defaultCourseIds = courseIds == null ? Collections.emptyList() : courseIds;
+        try {
+            executor.execute(() -> runImport(task, temp, ext, defaultCourseIds));
+        } catch (RejectedExecutionException e) {
+            runningTasks.remove(task.taskId);
+            FileUtil.del(temp);
+            throw new ServiceException("429", "导入任务过多，请稍后重试");
+        }
+        log.info("提交学生导入任务 - 任务ID: {}, 文件名: {}, 大小: {} bytes", task.taskId, fileName, file.getSize());
+        return task.toVO();
+    }
+
+    @Override
+    public StudentImportTaskVO getTask(String taskId) {
+        ImportTask task = runningTasks.get(taskId);
+        if (task == null) {
+            task = finishedTasks.get(taskId);
+        }
+        if (task == null) {
+            throw new ServiceException("404", "导入任务不存在或已过期");
+        }
+        return task.toVO();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    private void runImport(ImportTask task, File file, String ext, List<Long> defaultCourseIds) {
+        long start = System.currentTimeMillis();
+        try {
+            ImportBatch batch = new ImportBatch(task, defaultCourseIds);
+            if ("csv".equals(ext)) {
+                long[] rowNumber = {0};
+                try (Reader reader = IoUtil.getBomReader(Files.newInputStream(file.toPath()))) {
+                    CsvUtil.getReader().read(reader, row -> batch.accept(++rowNumber[0], row.getRawList()));
+                }
+            } else {
+                // 按 rid 指定工作表在部分文件上读不到数据，这里读全部工作表后只取第一个
+                ExcelUtil.readBySax(file, -1, (sheetIndex, rowIndex, cells) -> {
+                    if (sheetIndex == 0) {
+                        batch.accept(rowIndex + 1, cells);
+                    }
+                });
+            }
+            batch.flush();
+            if (!batch.headerRead) {
+                throw new ServiceException("400", "导入文件没有表头");
+            }
+            task.status = STATUS_SUCCESS;
+            log.info("学生导入完成 - 任务ID: {}, 读取 {} 行, 成功 {}, 失败 {}, 耗时 {} ms",
+                    task.taskId, task.processedRows.get(), task.successCount.get(), task.failedCount.get(),
+                    System.currentTimeMillis() - start);
+        } catch (Exception e) {
+            task.message = e instanceof ServiceException ? e.getMessage() : "导入失败: " + rootMessage(e);
+            task.status = STATUS_FAILED;
+            log.error("学生导入失败 - 任务ID: {}", task.taskId, e);
+        } finally {
+            task.finishTime = LocalDateTime.now();
+            // 先放入已结束任务再移出执行中任务，查询时不会出现找不到的间隙
+            finishedTasks.put(task.taskId, task);
+            runningTasks.remove(task.taskId);
+            FileUtil.del(file);
+        }
+    }
+
+    private static void alias(String field, String... names) {
+        for (String name : names) {
+            HEADER_ALIASES.put(name, field);
+        }
+    }
+
+    private static String rootMessage(Throwable e) {
+        Throwable cause = e;
+        while (cause.getCause() != null) {
+            cause = cause.getCause();
+        }
+        return cause.getMessage();
+    }
+
+    private static String cellText(List<?> cells, Integer index) {
+        if (index == null || index >= cells.size() || cells.get(index) == null) {
+            return null;
+        }
+        Object cell = cells.get(index);
+        // Excel 中的学号、手机号可能被识别为数字
+        String text = cell instanceof Number number ? NumberUtil.toStr(number) : cell.toString();
+        return StrUtil.trimToNull(text);
+    }
+
+    /**
+     * 单个文件的导入过程：解析表头、缓冲数据行、按批写入
+     */
+    private class ImportBatch {
+
+        private final ImportTask task;
+        private final List<Long> defaultCourseIds;
+
+        /**
+         * 表头字段 -> 列下标
+         */
+        private final Map<String, Integer> columns = new HashMap<>();
+        private boolean headerRead;
+
+        private final List<ImportRow> buffer = new ArrayList<>();
+
+        /**
+         * 文件内已出现的用户名、学号、邮箱，用于文件内去重
+         */
+        private final Set<String> seenUsernames = new HashSet<>();
+        private final Set<String> seenStudentIds = new HashSet<>();
+        private final Set<String> seenEmails = new HashSet<>();
+
+        /**
+         * 课程ID -> 授课教师ID（整个文件只查询一次），不存在的课程记入 missingCourses
+         */
+        private final Map<Long, Long> courseTeachers = new HashMap<>();
+        private final Set<Long> missingCourses = new HashSet<>();
+
+        /**
+         * 默认密码的哈希，整个文件共用一次计算
+         * 导入本身运行在后台线程，直接在当前线程计算，登录高峰时不会因哈希线程池繁忙（429）导致整个导入失败
+         */
+        private final String encodedPassword;
+
+        private final TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+
+        ImportBatch(ImportTask task, List<Long> defaultCourseIds) {
+            this.task = task;
+            this.defaultCourseIds = defaultCourseIds;
+            this.encodedPassword = passwordHasher.encodeInBackground(Constant.DEFAULT_PASSWORD);
+        }
+
+        void accept(long rowNumber, List<?> cells) {
+            if (cells == null || cells.stream().allMatch(cell -> cell == null || StrUtil.isBlank(cell.toString()))) {
+                return;
+            }
+            if (!headerRead) {
+                readHeader(cells);
+                return;
+            }
+            task.processedRows.incrementAndGet();
+
+            User student = new User();
+            student.setUsername(cellText(cells, columns.get("username")));
+            student.setRealName(cellText(cells, columns.get("realName")));
+            student.setStudentId(cellText(cells, columns.get("studentId")));
+            student.setEmail(cellText(cells, columns.get("email")));
+            student.setPhone(cellText(cells, columns.get("phone")));
+            student.setCollege(cellText(cells, columns.get("college")));
+
+            String error = validate(student);
+            Set<Long> courseIds = new LinkedHashSet<>(defaultCourseIds);
+            if (error == null) {
+                error = parseCourseIds(cellText(cells, columns.get("courseIds")), courseIds);
+            }
+            if (error != null) {
+                task.addError(rowNumber, student.getUsername(), error, maxErrors);
+                return;
+            }
+
+            student.setPassword(encodedPassword);
+            student.setRole(Constant.ROLE_STUDENT);
+            student.setStatus(Constant.STATUS_ENABLE);
+            student.setIsDeleted(Constant.DELETE_NO);
+            buffer.add(new ImportRow(rowNumber, student, courseIds));
+            if (buffer.size() >= batchSize) {
+                flush();
+            }
+        }
+
+        private void readHeader(List<?> cells) {
+            for (int i = 0; i < cells.size(); i++) {
+                String name = cellText(cells, i);
+                String field = name == null ? null : HEADER_ALIASES.get(name.toLowerCase());
+                if (field != null) {
+                    columns.putIfAbsent(field, i);
+                }
+            }
+            if (!columns.containsKey("username")) {
+                throw new ServiceException("400", "导入文件缺少用户名(username)列");
+            }
+            headerRead = true;
+        }
+
+        private String validate(User student) {
+            if (student.getUsername() == null) {
+                return "用户名不能为空";
+            }
+            if (!seenUsernames.add(student.getUsername())) {
+                return "文件中用户名重复";
+            }
+            if (student.getStudentId() != null && !seenStudentIds.add(student.getStudentId())) {
+                return "文件中学号重复";
+            }
+            if (student.getEmail() != null && !seenEmails.add(student.getEmail())) {
+                return "文件中邮箱重复";
+            }
+            return null;
+        }
+
+        private String parseCourseIds(String text, Set<Long> courseIds) {
+            if (text == null) {
+                return null;
+            }
+            // 支持 "1,2"、"1;2" 以及中文标点分隔
+            String normalized = text.replace('；', ',').replace('，', ',').replace(';', ',');
+            for (String part : StrUtil.splitTrim(normalized, ',')) {
+                if (!NumberUtil.isLong(part)) {
+                    return "课程ID格式错误: " + part;
+                }
+                courseIds.add(Long.parseLong(part));
+            }
+            return null;
+        }
+
+        /**
+         * 写入当前缓冲的一批数据
+         */
+        void flush() {
+            if (buffer.isEmpty()) {
+                return;
+            }
+            List<ImportRow> rows = filterConflicts();
+            if (!rows.isEmpty()) {
+                resolveCourses(rows);
+                try {
+                    transactionTemplate.executeWithoutResult(status -> insert(rows));
+                    task.successCount.addAndGet(rows.size());
+                    statisticsSnapshot.onUsersCreated(Constant.ROLE_STUDENT, rows.size());
+                } catch (RuntimeException e) {
+                    // 整批回滚（如并发导入导致的唯一键冲突），本批全部记为失败
+                    log.warn("学生导入批量写入失败 - 任务ID: {}, 行数: {}", task.taskId, rows.size(), e);
+                    String message = "批量写入失败: " + rootMessage(e);
+                    rows.forEach(row -> task.addError(row.rowNumber, row.student.getUsername(), message, maxErrors));
+                }
+            }
+            buffer.clear();
+        }
+
+        /**
+         * 一次查询过滤掉与库中已有用户冲突的行
+         */
+        private List<ImportRow> filterConflicts() {
+            Set<String> usernames = new HashSet<>();
+            Set<String> studentIds = new HashSet<>();
+            Set<String> emails = new HashSet<>();
+            for (ImportRow row : buffer) {
+                usernames.add(row.student.getUsername());
+                if (row.student.getStudentId() != null) {
+                    studentIds.add(row.student.getStudentId());
+                }
+                if (row.student.getEmail() != null) {
+                    emails.add(row.student.getEmail());
+                }
+            }
+
+            Set<String> takenUsernames = new HashSet<>();
+            Set<String> takenStudentIds = new HashSet<>();
+            Set<String> takenEmails = new HashSet<>();
+            for (User existing : userMapper.selectConflicts(usernames, studentIds, emails)) {
+                takenUsernames.add(existing.getUsername());
+                takenStudentIds.add(existing.getStudentId());
+                takenEmails.add(existing.getEmail());
+            }
+
+            List<ImportRow> rows = new ArrayList<>(buffer.size());
+            for (ImportRow row : buffer) {
+                User student = row.student;
+                String error = null;
+                if (takenUsernames.contains(student.getUsername())) {
+                    error = "用户名已存在";
+                } else if (student.getStudentId() != null && takenStudentIds.contains(student.getStudentId())) {
+                    error = "学号已存在";
+                } else if (student.getEmail() != null && takenEmails.contains(student.getEmail())) {
+                    error = "邮箱已存在";
+                }
+                if (error != null) {
+                    task.addError(row.rowNumber, student.getUsername(), error, maxErrors);
+                } else {
+                    rows.add(row);
+                }
+            }
+            return rows;
+        }
+
+        /**
+         * 查询本批中首次出现的课程及其授课教师
+         */
+        private void resolveCourses(List<ImportRow> rows) {
+            for (ImportRow row : rows) {
+                for (Long courseId : row.courseIds) {
+                    if (courseTeachers.containsKey(courseId) || missingCourses.contains(courseId)) {
+                        continue;
+                    }
+                    Course course = courseCache.getById(courseId);
+                    if (course == null) {
+                        log.warn("课程不存在，导入时跳过分配 - 任务ID: {}, 课程ID: {}", task.taskId, courseId);
+                        missingCourses.add(courseId);
+                        continue;
+                    }
+                    // 取课程的第一个教师ID（如果存在），与单个新增学生保持一致
+                    List<Long> teacherIds = teacherCourseMapper.selectTeacherIdsByCourseId(courseId);
+                    courseTeachers.put(courseId, teacherIds != null && !teacherIds.isEmpty() ? teacherIds.get(0) : null);
+                }
+            }
+        }
+
+        private void insert(List<ImportRow> rows) {
+            List<User> students = new ArrayList<>(rows.size());
+            rows.forEach(row -> students.add(row.student));
+            userMapper.batchSave(students);
+
+            List<StudentCourse> relations = new ArrayList<>();
+            for (ImportRow row : rows) {
+                for (Long courseId : row.courseIds) {
+                    if (!courseTeachers.containsKey(courseId)) {
+                        continue;
+                    }
+                    StudentCourse relation = new StudentCourse();
+                    relation.setStudentId(row.student.getUserId());
+                    relation.setCourseId(courseId);
+                    relation.setTeacherId(courseTeachers.get(courseId));
+                    relation.setJoinMethod("ADMIN_ASSIGN"); // 管理员分配
+                    relations.add(relation);
+                }
+            }
+            for (int from = 0; from < relations.size(); from += batchSize) {
+                studentCourseMapper.batchSave(relations.subList(from, Math.min(from + batchSize, relations.size())));
+            }
+        }
+    }
+
+    private record ImportRow(long rowNumber, User student, Set<Long> courseIds) {
+    }
+
+    /**
+     * 导入任务进度（后台线程写、查询接口读）
+     */
+    private static class ImportTask {
+
+        private final String taskId;
+        private final String fileName;
+        private final LocalDateTime startTime = LocalDateTime.now();
+        private volatile LocalDateTime finishTime;
+        private volatile String status = STATUS_RUNNING;
+        private volatile String message;
+
+        private final AtomicLong processedRows = new AtomicLong();
+        private final AtomicLong successCount = new AtomicLong();
+        private final AtomicLong failedCount = new AtomicLong();
+        private final List<StudentImportErrorVO> errors = Collections.synchronizedList(new ArrayList<>());
+
+        ImportTask(String taskId, String fileName) {
+            this.taskId = taskId;
+            this.fileName = fileName;
+        }
+
+        void addError(long rowNumber, String username, String message, int maxErrors) {
+            failedCount.incrementAndGet();
+            if (errors.size() < maxErrors) {
+                errors.add(new StudentImportErrorVO(rowNumber, username, message));
+            }
+        }
+
+        StudentImportTaskVO toVO() {
+            StudentImportTaskVO vo = new StudentImportTaskVO();
+            vo.setTaskId(taskId);
+            vo.setFileName(fileName);
+            vo.setStatus(status);
+            vo.setMessage(message);
+            vo.setProcessedRows(processedRows.get());
+            vo.setSuccessCount(successCount.get());
+            vo.setFailedCount(failedCount.get());
+            synchronized (errors) {
+                vo.setErrors(new ArrayList<>(errors));
+            }
+            vo.setErrorsTruncated(failedCount.get() > vo.getErrors().size());
+            vo.setStartTime(startTime);
+            vo.setFinishTime(finishTime);
+            return vo;
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package com.boda.springboot.service.impl;
 
+import com.boda.springboot.cache.UserProfileCache;
 import com.boda.springboot.dto.UserInfoUpdateDTO;
 import com.boda.springboot.entity.User;
 import com.boda.springboot.mapper.UserMapper;
@@ -12,6 +13,8 @@ import org.springframework.stereotype.Component;
 public class UserServiceImpl implements UserService {
     @Autowired
     UserMapper userMapper;
+    @Autowired
+    UserProfileCache userProfileCache;
 
     /**
      * 根据用户ID查询用户信息
@@ -59,5 +62,6 @@ public class UserServiceImpl implements UserService {
         user.setUserId(userId);
         BeanUtils.copyProperties(userInfoUpdateDTO, user);
         userMapper.update(user);
+        userProfileCache.invalidate(userId);
     }
 }
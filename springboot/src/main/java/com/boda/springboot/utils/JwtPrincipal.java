@@ -0,0 +1,60 @@
+package com.boda.springboot.utils;
+
+import com.boda.springboot.security.RouteAuthorizationTable;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * JWT 解析结果（不可变）
+ * 一次验签后得到的用户身份信息，供拦截器和缓存复用
+ */
+@Getter
+@ToString
+public final class JwtPrincipal {
+
+    /**
+     * Token ID（jti），用于作废记录
+     */
+    private final String tokenId;
+
+    /**
+     * 用户ID
+     */
+    private final Long userId;
+
+    /**
+     * 用户名
+     */
+    private final String username;
+
+    /**
+     * 用户角色
+     */
+    private final String role;
+
+    /**
+     * 过期时间（毫秒时间戳）
+     */
+    private final long expiresAt;
+
+    /**
+     * 角色位掩码，用于接口权限校验
+     */
+    private final int roleMask;
+
+    public JwtPrincipal(String tokenId, Long userId, String username, String role, long expiresAt) {
+        this.tokenId = tokenId;
+        this.userId = userId;
+        this.username = username;
+        this.role = role;
+        this.expiresAt = expiresAt;
+        this.roleMask = RouteAuthorizationTable.roleBit(role);
+    }
+
+    /**
+     * 是否已过期
+     */
+    public boolean isExpired() {
+        return System.currentTimeMillis() >= expiresAt;
+    }
+}
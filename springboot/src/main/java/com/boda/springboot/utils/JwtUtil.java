@@ -1,14 +1,19 @@
 package com.boda.springboot.utils;
 
+import cn.hutool.cache.CacheUtil;
+import cn.hutool.cache.impl.LRUCache;
+import cn.hutool.crypto.SecureUtil;
 import io.jsonwebtoken.*;
+import com.boda.springboot.security.InMemoryTokenRevocationStore;
+import com.boda.springboot.security.TokenRevocationStore;
 import io.jsonwebtoken.security.Keys;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import javax.crypto.SecretKey;
 import java.nio.charset.StandardCharsets;
 import java.util.*;
-import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * JWT 工具类
@@ -24,9 +29,29 @@ public class JwtUtil {
     private Long expiration;
 
     /**
-     * 已注销 / 作废的 Token 黑名单（只在当前应用进程内生效）
+     * 已验签 Token 缓存容量
      */
-    private final Set<String> tokenBlacklist = Collections.newSetFromMap(new ConcurrentHashMap<>());
+    @Value("${jwt.cache-capacity:10000}")
+    private int cacheCapacity = 10000;
+
+    /**
+     * 签名密钥与解析器（首次使用时构建，之后复用）
+     */
+    private volatile SecretKey signingKey;
+    private volatile JwtParser jwtParser;
+
+    /**
+     * 已验签 Token 缓存：Key 为 Token 的 SHA-256 摘要，Value 为解析结果
+     * 每个条目的存活时间不超过 Token 本身的剩余有效期
+     */
+    private volatile LRUCache<String, JwtPrincipal> principalCache;
+
+    /**
+     * 已注销 / 作废的 Token 记录（按 jti 保存，Token 过期后自动清除）
+     * 未注入存储 Bean 时（如单元测试直接 new）首次使用才创建进程内默认实现
+     */
+    @Autowired(required = false)
+    private volatile TokenRevocationStore revocationStore;
 
     /**
      * 生成 JWT Token
@@ -51,17 +76,64 @@ public class JwtUtil {
         Date now = new Date();
         Date expiryDate = new Date(now.getTime() + expiration);
 
-        SecretKey key = Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
-
         return Jwts.builder()
                 .claims(claims)
+                .id(UUID.randomUUID().toString())
                 .subject(subject)
                 .issuedAt(now)
                 .expiration(expiryDate)
-                .signWith(key)
+                .signWith(getSigningKey())
                 .compact();
     }
 
+    /**
+     * 解析并验证 Token，一次验签得到全部用户信息
+     * 同一 Token 的重复请求直接命中缓存，不再进行签名校验
+     *
+     * @param token JWT Token
+     * @return 解析结果，Token 无效、过期或已作废时返回 null
+     */
+    public JwtPrincipal parseToken(String token) {
+        if (token == null || token.isEmpty()) {
+            return null;
+        }
+
+        String digest = SecureUtil.sha256(token);
+        LRUCache<String, JwtPrincipal> cache = getPrincipalCache();
+        JwtPrincipal principal = cache.get(digest, false);
+        if (principal != null) {
+            if (principal.isExpired()) {
+                cache.remove(digest);
+                return null;
+            }
+            return getRevocationStore().isRevoked(principal.getTokenId()) ? null : principal;
+        }
+
+        try {
+            Claims claims = getClaimsFromToken(token);
+            // 旧 Token 没有 jti 时，用摘要作为 Token ID
+            String tokenId = claims.getId() != null ? claims.getId() : digest;
+            principal = new JwtPrincipal(
+                    tokenId,
+                    claims.get("userId", Long.class),
+                    claims.getSubject(),
+                    claims.get("role", String.class),
+                    claims.getExpiration().getTime());
+        } catch (JwtException | IllegalArgumentException e) {
+            // Token 无效或过期
+            return null;
+        }
+        if (getRevocationStore().isRevoked(principal.getTokenId())) {
+            return null;
+        }
+
+        long ttl = principal.getExpiresAt() - System.currentTimeMillis();
+        if (ttl > 0) {
+            cache.put(digest, principal, ttl);
+        }
+        return principal;
+    }
+
     /**
      * 从 Token 中获取用户名
      */
@@ -89,11 +161,7 @@ public class JwtUtil {
      * 解析 Token 获取 Claims
      */
     private Claims getClaimsFromToken(String token) {
-        SecretKey key = Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
-
-        return Jwts.parser()
-                .verifyWith(key)
-                .build()
+        return getJwtParser()
                 .parseSignedClaims(token)
                 .getPayload();
     }
@@ -102,30 +170,18 @@ public class JwtUtil {
      * 验证 Token 是否有效
      */
     public boolean validateToken(String token) {
-        try {
-            // 如果在黑名单中，视为无效
-            if (tokenBlacklist.contains(token)) {
-                return false;
-            }
-
-            SecretKey key = Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
-            Jwts.parser()
-                    .verifyWith(key)
-                    .build()
-                    .parseSignedClaims(token);
-            return true;
-        } catch (JwtException | IllegalArgumentException e) {
-            // Token 无效或过期
-            return false;
-        }
+        return parseToken(token) != null;
     }
 
     /**
-     * 将 Token 加入黑名单，表示已退出登录 / 作废
+     * 作废 Token，表示已退出登录
+     * 作废记录保存到 Token 原本的过期时间为止
      */
     public void invalidateToken(String token) {
-        if (token != null && !token.isEmpty()) {
-            tokenBlacklist.add(token);
+        JwtPrincipal principal = parseToken(token);
+        if (principal != null) {
+            getRevocationStore().revoke(principal.getTokenId(), principal.getExpiresAt());
+            getPrincipalCache().remove(SecureUtil.sha256(token));
         }
     }
 
@@ -140,4 +196,64 @@ public class JwtUtil {
             return true;
         }
     }
+
+    /**
+     * 获取签名密钥（只构建一次）
+     */
+    private SecretKey getSigningKey() {
+        SecretKey key = signingKey;
+        if (key == null) {
+            key = Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
+            signingKey = key;
+        }
+        return key;
+    }
+
+    /**
+     * 获取 JWT 解析器（线程安全，只构建一次）
+     */
+    private JwtParser getJwtParser() {
+        JwtParser parser = jwtParser;
+        if (parser == null) {
+            parser = Jwts.parser()
+                    .verifyWith(getSigningKey())
+                    .build();
+            jwtParser = parser;
+        }
+        return parser;
+    }
+
+    /**
+     * 获取 Token 作废记录存储
+     */
+    private TokenRevocationStore getRevocationStore() {
+        TokenRevocationStore store = revocationStore;
+        if (store == null) {
+            synchronized (this) {
+                store = revocationStore;
+                if (store == null) {
+                    store = new InMemoryTokenRevocationStore(100000, 60000, 1440);
+                    revocationStore = store;
+                }
+            }
+        }
+        return store;
+    }
+
+    /**
+     * 获取已验签 Token 缓存
+     */
+    private LRUCache<String, JwtPrincipal> getPrincipalCache() {
+        LRUCache<String, JwtPrincipal> cache = principalCache;
+        if (cache == null) {
+            synchronized (this) {
+                cache = principalCache;
+                if (cache == null) {
+                    cache = CacheUtil.newLRUCache(cacheCapacity);
+                    principalCache = cache;
+                }
+            }
+        }
+        return cache;
+    }
 }
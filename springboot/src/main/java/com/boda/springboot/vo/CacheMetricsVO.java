@@ -0,0 +1,39 @@
+package com.boda.springboot.vo;
+
+import lombok.Data;
+
+/**
+ * 进程内缓存监控数据 VO
+ */
+@Data
+public class CacheMetricsVO {
+    /**
+     * 缓存名称
+     */
+    private String name;
+    private Integer size;
+    private Integer capacity;
+    /**
+     * 条目过期时间（毫秒）
+     */
+    private Long ttlMillis;
+    private Long hitCount;
+    private Long missCount;
+    /**
+     * 命中率（0~1）
+     */
+    private Double hitRate;
+
+    public static CacheMetricsVO of(String name, int size, int capacity, long ttlMillis, long hitCount, long missCount) {
+        CacheMetricsVO vo = new CacheMetricsVO();
+        vo.setName(name);
+        vo.setSize(size);
+        vo.setCapacity(capacity);
+        vo.setTtlMillis(ttlMillis);
+        vo.setHitCount(hitCount);
+        vo.setMissCount(missCount);
+        long total = hitCount + missCount;
+        vo.setHitRate(total == 0 ? 0.0 : (double) hitCount / total);
+        return vo;
+    }
+}
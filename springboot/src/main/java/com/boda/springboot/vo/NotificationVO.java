@@ -15,7 +15,7 @@ public class NotificationVO implements Serializable {
     private static final long serialVersionUID = 1L;
 
     /**
-     * 通知ID
+     * 通知ID（广播通知为负数：-广播通知ID）
      */
     private Long notificationId;
 
@@ -0,0 +1,59 @@
+package com.boda.springboot.vo;
+
+import lombok.Data;
+
+/**
+ * 密码哈希线程池监控数据 VO
+ */
+@Data
+public class PasswordHashingMetricsVO {
+    /**
+     * 当前 BCrypt 强度
+     */
+    private Integer strength;
+
+    /**
+     * 哈希线程数
+     */
+    private Integer poolSize;
+
+    /**
+     * 正在执行的哈希任务数
+     */
+    private Integer activeCount;
+
+    /**
+     * 队列中等待的任务数
+     */
+    private Integer queueDepth;
+
+    /**
+     * 队列容量
+     */
+    private Integer queueCapacity;
+
+    /**
+     * 已完成的哈希次数
+     */
+    private Long completedCount;
+
+    /**
+     * 因繁忙被拒绝的次数
+     */
+    private Long rejectedCount;
+
+    /**
+     * 平均哈希耗时（毫秒，不含排队）
+     */
+    private Double avgHashMillis;
+
+    /**
+     * 最大哈希耗时（毫秒，不含排队）
+     */
+    private Double maxHashMillis;
+
+    /**
+     * 登录时自动重新哈希的次数
+     */
+    private Long rehashCount;
+}
@@ -112,6 +112,12 @@ public class ResourceVO implements Serializable {
     @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss", timezone = "GMT+8")
     private LocalDateTime updateTime;
 
+    /**
+     * 收藏时间（仅我的收藏列表）
+     */
+    @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss", timezone = "GMT+8")
+    private LocalDateTime collectTime;
+
     /**
      * 是否已收藏（当前用户）
      */
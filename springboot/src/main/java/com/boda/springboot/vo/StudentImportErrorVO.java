@@ -0,0 +1,20 @@
+package com.boda.springboot.vo;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 批量导入学生 - 单行错误信息 VO
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StudentImportErrorVO {
+    /**
+     * 文件中的行号（从 1 开始，含表头）
+     */
+    private Long rowNumber;
+    private String username;
+    private String message;
+}
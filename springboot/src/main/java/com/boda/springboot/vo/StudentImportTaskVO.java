@@ -0,0 +1,39 @@
+package com.boda.springboot.vo;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 批量导入学生任务进度 VO
+ */
+@Data
+public class StudentImportTaskVO {
+    private String taskId;
+    private String fileName;
+    /**
+     * 任务状态: RUNNING-导入中, SUCCESS-已完成, FAILED-失败（文件无法解析等）
+     */
+    private String status;
+    /**
+     * 已读取的数据行数
+     */
+    private Long processedRows;
+    private Long successCount;
+    private Long failedCount;
+    /**
+     * 行错误明细（最多保留前若干条）
+     */
+    private List<StudentImportErrorVO> errors;
+    /**
+     * 错误明细是否被截断
+     */
+    private Boolean errorsTruncated;
+    private String message;
+    @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss", timezone = "GMT+8")
+    private LocalDateTime startTime;
+    @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss", timezone = "GMT+8")
+    private LocalDateTime finishTime;
+}
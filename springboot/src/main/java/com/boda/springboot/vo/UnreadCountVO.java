@@ -0,0 +1,14 @@
+package com.boda.springboot.vo;
+
+import lombok.Data;
+
+/**
+ * 用户未读通知数量 VO
+ */
+@Data
+public class UnreadCountVO {
+
+    private Long userId;
+
+    private Integer unreadCount;
+}
@@ -0,0 +1,58 @@
+package com.boda.springboot.vo;
+
+import lombok.Data;
+
+/**
+ * WebSocket 连接发送队列监控数据 VO
+ */
+@Data
+public class WebSocketSessionMetricsVO {
+    private Long userId;
+
+    private String sessionId;
+
+    /**
+     * 队列中等待发送的消息数
+     */
+    private Integer queueDepth;
+
+    /**
+     * 是否有消息正在发送
+     */
+    private Boolean sending;
+
+    /**
+     * 已发送的消息数
+     */
+    private Long sentCount;
+
+    /**
+     * 被合并的消息数（同类型未发送的旧消息被新消息替换）
+     */
+    private Long coalescedCount;
+
+    /**
+     * 因队列已满被丢弃的消息数
+     */
+    private Long droppedCount;
+
+    /**
+     * 发送失败的消息数
+     */
+    private Long failedCount;
+
+    /**
+     * 平均发送延迟（毫秒，从入队到发送完成）
+     */
+    private Double avgSendMillis;
+
+    /**
+     * 最大发送延迟（毫秒，从入队到发送完成）
+     */
+    private Double maxSendMillis;
+
+    /**
+     * 距最近一次收到客户端消息（含心跳）的时间（毫秒）
+     */
+    private Long idleMillis;
+}
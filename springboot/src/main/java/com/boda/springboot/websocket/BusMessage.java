@@ -0,0 +1,23 @@
+package com.boda.springboot.websocket;
+
+/**
+ * 通知总线上传递的消息
+ *
+ * @param userId  接收用户ID，为 null 表示发给所有在线用户
+ * @param type    消息类型（用于连接发送队列合并同类型消息）
+ * @param payload 已序列化的 JSON 消息
+ */
+public record BusMessage(Long userId, String type, String payload) {
+
+    public static BusMessage toUser(Long userId, String type, String payload) {
+        return new BusMessage(userId, type, payload);
+    }
+
+    public static BusMessage broadcast(String type, String payload) {
+        return new BusMessage(null, type, payload);
+    }
+
+    public boolean isBroadcast() {
+        return userId == null;
+    }
+}
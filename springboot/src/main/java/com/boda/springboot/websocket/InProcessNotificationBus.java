@@ -0,0 +1,36 @@
+package com.boda.springboot.websocket;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * 进程内通知总线（单实例部署）：发布时直接交给本实例的订阅者
+ */
+@Slf4j
+public class InProcessNotificationBus implements NotificationBus {
+
+    private final List<Consumer<BusMessage>> subscribers = new CopyOnWriteArrayList<>();
+
+    @Override
+    public void publish(BusMessage message) {
+        deliver(subscribers, message);
+    }
+
+    @Override
+    public void subscribe(Consumer<BusMessage> subscriber) {
+        subscribers.add(subscriber);
+    }
+
+    static void deliver(List<Consumer<BusMessage>> subscribers, BusMessage message) {
+        for (Consumer<BusMessage> subscriber : subscribers) {
+            try {
+                subscriber.accept(message);
+            } catch (Exception e) {
+                log.warn("通知总线消息投递失败 - 用户ID: {}, 类型: {}", message.userId(), message.type(), e);
+            }
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package com.boda.springboot.websocket;
+
+import java.util.function.Consumer;
+
+/**
+ * 通知消息总线
+ * 每条消息由发起的实例发布一次，总线把它交给每个实例（包括发起实例）的订阅者，
+ * 订阅者只投递给本实例上的 WebSocket 连接
+ */
+public interface NotificationBus extends AutoCloseable {
+
+    /**
+     * 发布消息，不等待其他实例收到
+     */
+    void publish(BusMessage message);
+
+    /**
+     * 订阅本实例需要投递的消息
+     */
+    void subscribe(Consumer<BusMessage> subscriber);
+
+    @Override
+    default void close() {
+    }
+}
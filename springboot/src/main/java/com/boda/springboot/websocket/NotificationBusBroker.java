@@ -0,0 +1,259 @@
+package com.boda.springboot.websocket;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 通知总线中转服务
+ * 只按帧转发，不解析内容：从某个实例收到的每一帧原样转发给其他所有已连接的实例。
+ * 可由其中一个实例内嵌启动（notification-bus.embedded-broker），测试中也作为本地替身使用。
+ *
+ * 只监听配置的地址（默认本机）。实例连接后的第一帧必须是共享密钥，校验通过后回复一个字节 HANDSHAKE_OK
+ * 才开始收发消息；密钥不一致或超时未发送的连接直接断开，不会收到其他实例的消息。
+ *
+ * 每个实例有自己的待发送队列和写线程，转发线程只入队不写 socket。某个实例读得慢、队列满时断开该实例
+ * （它重连后继续接收），不会阻塞向其他实例的转发。
+ */
+@Slf4j
+public class NotificationBusBroker implements AutoCloseable {
+
+    /**
+     * 单帧大小上限，超出视为协议错误并断开连接
+     */
+    static final int MAX_FRAME_BYTES = 16 * 1024 * 1024;
+
+    /**
+     * 握手成功的应答
+     */
+    static final int HANDSHAKE_OK = 1;
+
+    /**
+     * 密钥帧大小上限，未通过校验的连接不按普通帧分配内存
+     */
+    private static final int MAX_SECRET_BYTES = 1024;
+
+    private static final int HANDSHAKE_TIMEOUT_MILLIS = 5000;
+
+    private final byte[] sharedSecret;
+
+    private final int peerQueueCapacity;
+
+    private final ServerSocket serverSocket;
+
+    private final Set<Peer> peers = ConcurrentHashMap.newKeySet();
+
+    private final AtomicInteger peerIndex = new AtomicInteger();
+
+    private volatile boolean running = true;
+
+    /**
+     * @param bindAddress 监听地址
+     * @param port 监听端口，0 表示随机端口
+     * @param sharedSecret 实例连接时必须发送的共享密钥
+     * @param peerQueueCapacity 每个实例待发送帧队列的容量，写满时断开该实例
+     */
+    public NotificationBusBroker(String bindAddress, int port, String sharedSecret, int peerQueueCapacity) throws IOException {
+        if (peerQueueCapacity <= 0) {
+            throw new IllegalArgumentException("peerQueueCapacity 必须大于 0");
+        }
+        this.sharedSecret = requireSecret(sharedSecret);
+        this.peerQueueCapacity = peerQueueCapacity;
+        this.serverSocket = new ServerSocket(port, 50, InetAddress.getByName(bindAddress));
+        Thread acceptor = new Thread(this::acceptLoop, "notification-bus-broker");
+        acceptor.setDaemon(true);
+        acceptor.start();
+        log.info("通知总线中转服务已启动 - 地址: {}:{}", serverSocket.getInetAddress().getHostAddress(), getPort());
+    }
+
+    public int getPort() {
+        return serverSocket.getLocalPort();
+    }
+
+    /**
+     * 当前连接的实例数
+     */
+    public int getPeerCount() {
+        return peers.size();
+    }
+
+    @Override
+    public void close() {
+        running = false;
+        try {
+            serverSocket.close();
+        } catch (IOException ignored) {
+            // 关闭失败无需处理
+        }
+        peers.forEach(this::remove);
+    }
+
+    static byte[] readFrame(DataInputStream input) throws IOException {
+        int length = input.readInt();
+        if (length < 0 || length > MAX_FRAME_BYTES) {
+            throw new IOException("帧长度非法: " + length);
+        }
+        byte[] frame = new byte[length];
+        input.readFully(frame);
+        return frame;
+    }
+
+    static byte[] requireSecret(String sharedSecret) {
+        if (sharedSecret == null || sharedSecret.isBlank()) {
+            throw new IllegalStateException("未配置通知总线共享密钥(notification-bus.shared-secret)");
+        }
+        return sharedSecret.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private void acceptLoop() {
+        while (running) {
+            try {
+                Socket socket = serverSocket.accept();
+                socket.setTcpNoDelay(true);
+                int index = peerIndex.incrementAndGet();
+                Peer peer = new Peer(socket, index);
+                Thread relay = new Thread(() -> relayLoop(peer), "notification-bus-relay-" + index);
+                relay.setDaemon(true);
+                relay.start();
+            } catch (SocketException e) {
+                if (running) {
+                    log.warn("通知总线中转服务接受连接失败 - 原因: {}", e.getMessage());
+                }
+            } catch (IOException e) {
+                log.warn("通知总线中转服务接受连接失败 - 原因: {}", e.getMessage());
+            }
+        }
+    }
+
+    private void relayLoop(Peer source) {
+        try (DataInputStream input = new DataInputStream(new BufferedInputStream(source.socket.getInputStream()))) {
+            if (!authenticate(source, input)) {
+                log.warn("通知总线拒绝未通过密钥校验的连接 - 地址: {}", source.socket.getRemoteSocketAddress());
+                return;
+            }
+            source.startWriter();
+            peers.add(source);
+            log.info("通知总线实例接入 - 地址: {}, 当前实例数: {}", source.socket.getRemoteSocketAddress(), peers.size());
+            while (running) {
+                byte[] frame = readFrame(input);
+                for (Peer peer : peers) {
+                    if (peer != source && !peer.offer(frame)) {
+                        log.warn("通知总线实例待发送队列已满，断开连接 - 地址: {}, 队列容量: {}",
+                                peer.socket.getRemoteSocketAddress(), peerQueueCapacity);
+                        remove(peer);
+                    }
+                }
+            }
+        } catch (IOException e) {
+            log.debug("通知总线实例断开 - 地址: {}", source.socket.getRemoteSocketAddress());
+        } finally {
+            remove(source);
+        }
+    }
+
+    /**
+     * 校验连接发送的第一帧（共享密钥），通过后回复 HANDSHAKE_OK
+     */
+    private boolean authenticate(Peer peer, DataInputStream input) throws IOException {
+        peer.socket.setSoTimeout(HANDSHAKE_TIMEOUT_MILLIS);
+        int length = input.readInt();
+        if (length < 0 || length > MAX_SECRET_BYTES) {
+            return false;
+        }
+        byte[] secret = new byte[length];
+        input.readFully(secret);
+        if (!MessageDigest.isEqual(secret, sharedSecret)) {
+            return false;
+        }
+        peer.socket.setSoTimeout(0);
+        return peer.acknowledge();
+    }
+
+    private void remove(Peer peer) {
+        if (peers.remove(peer)) {
+            log.info("通知总线实例移除 - 地址: {}, 当前实例数: {}", peer.socket.getRemoteSocketAddress(), peers.size());
+        }
+        try {
+            peer.socket.close();
+        } catch (IOException ignored) {
+            // 关闭失败无需处理
+        }
+        peer.writer.interrupt();
+    }
+
+    private final class Peer {
+
+        private final Socket socket;
+
+        private final DataOutputStream output;
+
+        private final BlockingQueue<byte[]> outbound = new ArrayBlockingQueue<>(peerQueueCapacity);
+
+        private final Thread writer;
+
+        private Peer(Socket socket, int index) throws IOException {
+            this.socket = socket;
+            this.output = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+            this.writer = new Thread(this::writeLoop, "notification-bus-writer-" + index);
+            this.writer.setDaemon(true);
+        }
+
+        /**
+         * 握手应答在写线程启动前由转发线程直接写出
+         */
+        private boolean acknowledge() {
+            try {
+                output.writeByte(HANDSHAKE_OK);
+                output.flush();
+                return true;
+            } catch (IOException e) {
+                return false;
+            }
+        }
+
+        private void startWriter() {
+            writer.start();
+        }
+
+        private boolean offer(byte[] frame) {
+            return outbound.offer(frame);
+        }
+
+        /**
+         * 逐帧写出，队列取空时再 flush，积压时多帧合并成一次写
+         */
+        private void writeLoop() {
+            try {
+                while (running && !socket.isClosed()) {
+                    byte[] frame = outbound.take();
+                    output.writeInt(frame.length);
+                    output.write(frame);
+                    if (outbound.isEmpty()) {
+                        output.flush();
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (IOException e) {
+                log.debug("通知总线向实例写入失败 - 地址: {}", socket.getRemoteSocketAddress());
+            } finally {
+                remove(this);
+            }
+        }
+    }
+}
@@ -0,0 +1,141 @@
+package com.boda.springboot.websocket;
+
+import com.boda.springboot.cache.UnreadCounter;
+import com.boda.springboot.mapper.NotificationMapper;
+import com.boda.springboot.properties.NotificationReplayProperties;
+import com.boda.springboot.utils.JwtPrincipal;
+import com.boda.springboot.utils.JwtUtil;
+import com.boda.springboot.vo.NotificationVO;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * WebSocket 重连补发
+ * 客户端重连后发送 {type: "resume", lastSeenId, token}，校验 Token 属于该连接的用户后，
+ * 按 notification_id 顺序分批查询 id > lastSeenId 的个人通知，每批作为一条 replay 消息发送：
+ * {type: "replay", notifications, lastId, hasMore, truncated}。
+ * 连接发送队列积压时暂停补发，避免挤掉实时消息；补发结束后推送一次未读数量。
+ * 超过 max-notifications 或查询失败时 truncated = true，客户端改为重新拉取列表。
+ * 广播通知不在 notification 表中，不补发，只体现在未读数量中。
+ */
+@Slf4j
+@Component
+public class NotificationReplayer {
+
+    @Autowired
+    private NotificationMapper notificationMapper;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    @Autowired
+    private UnreadCounter unreadCounter;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private final NotificationReplayProperties properties;
+
+    private final ScheduledExecutorService executor;
+
+    public NotificationReplayer(NotificationReplayProperties properties) {
+        this.properties = properties;
+        AtomicInteger threadIndex = new AtomicInteger();
+        this.executor = new ScheduledThreadPoolExecutor(Math.max(1, properties.getThreads()), runnable -> {
+            Thread thread = new Thread(runnable, "notification-replay-" + threadIndex.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * 校验 Token 后在后台开始补发，lastSeenId 为 null（客户端还没有收到过通知）时只推送未读数量
+     *
+     * @return Token 是否属于该连接的用户
+     */
+    public boolean start(SessionOutbox outbox, String token, Long lastSeenId) {
+        Long userId = outbox.getUserId();
+        JwtPrincipal principal;
+        try {
+            principal = jwtUtil.parseToken(token);
+        } catch (Exception e) {
+            principal = null;
+        }
+        if (principal == null || !userId.equals(principal.getUserId())) {
+            log.warn("WebSocket 补发请求身份校验失败 - 连接用户ID: {}", userId);
+            return false;
+        }
+        if (lastSeenId == null || lastSeenId < 0) {
+            executor.execute(() -> unreadCounter.pushLocally(userId));
+        } else {
+            executor.execute(() -> replay(outbox, lastSeenId, 0));
+        }
+        return true;
+    }
+
+    void replay(SessionOutbox outbox, long afterId, int sent) {
+        if (!outbox.isOpen()) {
+            return;
+        }
+        if (outbox.getQueueDepth() > properties.getMaxQueueDepth()) {
+            executor.schedule(() -> replay(outbox, afterId, sent), properties.getRetryDelayMillis(), TimeUnit.MILLISECONDS);
+            return;
+        }
+        Long userId = outbox.getUserId();
+        try {
+            int limit = Math.max(1, Math.min(properties.getBatchSize(), properties.getMaxNotifications() - sent));
+            // 多查一条判断是否还有剩余
+            List<NotificationVO> batch = notificationMapper.selectAfterId(userId, afterId, limit + 1);
+            boolean more = batch.size() > limit;
+            if (more) {
+                batch = batch.subList(0, limit);
+            }
+            long lastId = batch.isEmpty() ? afterId : batch.get(batch.size() - 1).getNotificationId();
+            int total = sent + batch.size();
+            boolean truncated = more && total >= properties.getMaxNotifications();
+
+            outbox.offer("replay", replayMessage(batch, lastId, more && !truncated, truncated));
+            if (more && !truncated) {
+                executor.execute(() -> replay(outbox, lastId, total));
+            } else {
+                log.debug("WebSocket 补发完成 - 用户ID: {}, 补发数量: {}, 是否截断: {}", userId, total, truncated);
+                unreadCounter.pushLocally(userId);
+            }
+        } catch (Exception e) {
+            log.warn("WebSocket 补发失败 - 用户ID: {}, 原因: {}", userId, e.getMessage());
+            try {
+                outbox.offer("replay", replayMessage(List.of(), afterId, false, true));
+            } catch (Exception ignored) {
+                // 连接已不可用
+            }
+        }
+    }
+
+    private String replayMessage(List<NotificationVO> notifications, long lastId, boolean hasMore, boolean truncated)
+            throws Exception {
+        Map<String, Object> message = new LinkedHashMap<>();
+        message.put("type", "replay");
+        message.put("notifications", notifications);
+        message.put("lastId", lastId);
+        message.put("hasMore", hasMore);
+        message.put("truncated", truncated);
+        message.put("timestamp", System.currentTimeMillis());
+        return objectMapper.writeValueAsString(message);
+    }
+}
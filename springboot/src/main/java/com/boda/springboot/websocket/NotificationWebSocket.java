@@ -1,64 +1,153 @@
 package com.boda.springboot.websocket;
 
+import com.boda.springboot.properties.WebSocketOutboundProperties;
+import com.boda.springboot.properties.WebSocketSessionProperties;
+import com.boda.springboot.vo.WebSocketSessionMetricsVO;
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.websocket.*;
 import jakarta.websocket.server.PathParam;
 import jakarta.websocket.server.ServerEndpoint;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
-import java.io.IOException;
+import java.util.List;
 import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * WebSocket 服务端点
- * 用于实时推送通知给前端
+ * 用于实时推送通知给前端；连接由 SessionRegistry 管理（同一用户可有多个连接，空闲连接自动关闭），
+ * 每个连接有独立的发送队列（SessionOutbox），发送方只入队不等待网络写出。
+ * 发送的消息先发布到通知总线（NotificationBus），由各实例的订阅者投递给本实例上的连接，
+ * 因此多实例部署时用户连在任一实例上都能收到。
+ * 客户端重连后发送 resume 消息（最后收到的通知ID + Token），由 NotificationReplayer 补发断线期间的通知
  */
 @ServerEndpoint("/ws/notification/{userId}")
 @Component
 @Slf4j
 public class NotificationWebSocket {
 
-    /**
-     * 存储所有在线用户的 WebSocket 会话
-     * Key: userId, Value: Session
-     */
-    private static final Map<Long, Session> ONLINE_USERS = new ConcurrentHashMap<>();
+    private static final String OUTBOX_KEY = "outbox";
+
+    private static final String RESUMED_KEY = "resumed";
 
     /**
      * JSON 转换工具
      */
     private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
 
+    /**
+     * 发起异步发送的线程（端点实例由容器按连接创建，发送线程、配置和注册表为静态共享）
+     */
+    private static final ExecutorService SEND_EXECUTOR = newSendExecutor();
+
+    private static volatile WebSocketOutboundProperties outboundProperties = new WebSocketOutboundProperties();
+
+    private static volatile SessionRegistry registry = new SessionRegistry(new WebSocketSessionProperties());
+
+    /**
+     * 通知总线，未注入时（如单元测试）直接投递给本实例的连接
+     */
+    private static volatile NotificationBus bus;
+
+    /**
+     * 重连补发，未注入时忽略 resume 消息
+     */
+    private static volatile NotificationReplayer replayer;
+
+    @Autowired
+    public void setOutboundProperties(WebSocketOutboundProperties properties) {
+        NotificationWebSocket.outboundProperties = properties;
+    }
+
+    @Autowired
+    public void setSessionRegistry(SessionRegistry sessionRegistry) {
+        NotificationWebSocket.registry = sessionRegistry;
+    }
+
+    @Autowired
+    public void setNotificationBus(NotificationBus notificationBus) {
+        NotificationWebSocket.bus = notificationBus;
+    }
+
+    @Autowired
+    public void setNotificationReplayer(NotificationReplayer notificationReplayer) {
+        NotificationWebSocket.replayer = notificationReplayer;
+    }
+
     /**
      * 连接建立成功调用的方法
      */
     @OnOpen
     public void onOpen(Session session, @PathParam("userId") Long userId) {
-        ONLINE_USERS.put(userId, session);
-        log.info("WebSocket 连接建立 - 用户ID: {}, 当前在线人数: {}", userId, ONLINE_USERS.size());
+        SessionOutbox outbox = new SessionOutbox(session, userId, outboundProperties, SEND_EXECUTOR);
+        session.getUserProperties().put(OUTBOX_KEY, outbox);
+        registry.register(userId, outbox);
+        log.info("WebSocket 连接建立 - 用户ID: {}, 当前在线人数: {}, 连接数: {}",
+                userId, registry.userCount(), registry.sessionCount());
 
-        // 发送连接成功消息
-        sendMessage(userId, createMessage("connection", "WebSocket 连接成功"));
+        // 发送连接成功消息（只发给本连接）
+        outbox.offer("connection", createMessage("connection", "WebSocket 连接成功"));
     }
 
     /**
      * 连接关闭调用的方法
      */
     @OnClose
-    public void onClose(@PathParam("userId") Long userId) {
-        ONLINE_USERS.remove(userId);
-        log.info("WebSocket 连接关闭 - 用户ID: {}, 当前在线人数: {}", userId, ONLINE_USERS.size());
+    public void onClose(Session session, @PathParam("userId") Long userId) {
+        SessionOutbox outbox = outboxOf(session);
+        if (outbox != null) {
+            registry.unregister(userId, outbox);
+        }
+        log.info("WebSocket 连接关闭 - 用户ID: {}, 当前在线人数: {}, 连接数: {}",
+                userId, registry.userCount(), registry.sessionCount());
     }
 
     /**
      * 收到客户端消息后调用的方法
+     * 任何消息（包括客户端每 30 秒一次的心跳）都会刷新连接的最近活跃时间
      */
     @OnMessage
-    public void onMessage(String message, @PathParam("userId") Long userId) {
+    public void onMessage(String message, Session session, @PathParam("userId") Long userId) {
+        SessionOutbox outbox = outboxOf(session);
+        if (outbox != null) {
+            registry.touch(outbox);
+        }
+        if (message != null && message.contains("\"heartbeat\"")) {
+            log.debug("收到用户 {} 的心跳", userId);
+            return;
+        }
+        if (outbox != null && message != null && message.contains("\"resume\"")) {
+            resume(session, outbox, message);
+            return;
+        }
         log.info("收到用户 {} 的消息: {}", userId, message);
-        // 这里可以处理客户端发来的消息，比如心跳检测
+    }
+
+    /**
+     * 处理重连补发请求 {type: "resume", lastSeenId, token}，每个连接只处理一次
+     */
+    private void resume(Session session, SessionOutbox outbox, String message) {
+        NotificationReplayer current = replayer;
+        if (current == null || session.getUserProperties().putIfAbsent(RESUMED_KEY, Boolean.TRUE) != null) {
+            return;
+        }
+        try {
+            JsonNode request = OBJECT_MAPPER.readTree(message);
+            String token = request.path("token").asText(null);
+            Long lastSeenId = request.hasNonNull("lastSeenId") ? request.get("lastSeenId").asLong() : null;
+            if (!current.start(outbox, token, lastSeenId)) {
+                outbox.offer("resumeRejected", createMessage("resumeRejected", "身份校验失败，请重新拉取通知"));
+            }
+        } catch (Exception e) {
+            log.warn("无法解析用户 {} 的补发请求: {}", outbox.getUserId(), e.getMessage());
+        }
     }
 
     /**
@@ -70,40 +159,75 @@ public class NotificationWebSocket {
     }
 
     /**
-     * 向指定用户发送通知
+     * 向指定用户的所有连接发送通知（用户可能连在其他实例上，因此不在本地判断是否在线）
      *
      * @param userId 用户ID
      * @param notification 通知内容
      */
     public static void sendNotification(Long userId, Map<String, Object> notification) {
-        Session session = ONLINE_USERS.get(userId);
-        if (session != null && session.isOpen()) {
-            try {
-                String message = OBJECT_MAPPER.writeValueAsString(notification);
-                session.getBasicRemote().sendText(message);
-                log.info("向用户 {} 发送通知成功", userId);
-            } catch (IOException e) {
-                log.error("向用户 {} 发送通知失败", userId, e);
-            }
-        } else {
-            log.debug("用户 {} 不在线，无法发送 WebSocket 通知", userId);
+        try {
+            String message = OBJECT_MAPPER.writeValueAsString(notification);
+            Object type = notification.get("type");
+            publish(BusMessage.toUser(userId, type != null ? type.toString() : null, message));
+        } catch (Exception e) {
+            log.error("向用户 {} 发送通知失败", userId, e);
         }
     }
 
     /**
-     * 向指定用户发送消息
+     * 向所有在线用户发送通知，每个实例各自投递给本实例上的连接
+     *
+     * @param notification 通知内容
      */
-    private void sendMessage(Long userId, String message) {
-        Session session = ONLINE_USERS.get(userId);
-        if (session != null && session.isOpen()) {
-            try {
-                session.getBasicRemote().sendText(message);
-            } catch (IOException e) {
-                log.error("发送消息失败", e);
-            }
+    public static void broadcastNotification(Map<String, Object> notification) {
+        try {
+            String message = OBJECT_MAPPER.writeValueAsString(notification);
+            Object type = notification.get("type");
+            publish(BusMessage.broadcast(type != null ? type.toString() : null, message));
+        } catch (Exception e) {
+            log.error("广播通知发送失败", e);
+        }
+    }
+
+    /**
+     * 只向本实例上该用户的连接发送，不经过总线
+     */
+    public static void sendLocally(Long userId, Map<String, Object> notification) {
+        try {
+            String message = OBJECT_MAPPER.writeValueAsString(notification);
+            Object type = notification.get("type");
+            deliverLocally(userId, type != null ? type.toString() : null, message);
+        } catch (Exception e) {
+            log.error("向用户 {} 发送通知失败", userId, e);
+        }
+    }
+
+    /**
+     * 投递给本实例上该用户的所有连接（由总线订阅者调用）
+     *
+     * @return 加入发送队列的连接数
+     */
+    public static int deliverLocally(Long userId, String type, String payload) {
+        int sessions = registry.send(userId, type, payload);
+        log.debug("向用户 {} 的 {} 个连接加入通知", userId, sessions);
+        return sessions;
+    }
+
+    private static void publish(BusMessage message) {
+        NotificationBus current = bus;
+        if (current != null) {
+            current.publish(message);
+        } else if (message.isBroadcast()) {
+            registry.onlineUserIds().forEach(userId -> deliverLocally(userId, message.type(), message.payload()));
+        } else {
+            deliverLocally(message.userId(), message.type(), message.payload());
         }
     }
 
+    private static SessionOutbox outboxOf(Session session) {
+        return (SessionOutbox) session.getUserProperties().get(OUTBOX_KEY);
+    }
+
     /**
      * 创建消息
      */
@@ -122,18 +246,42 @@ public class NotificationWebSocket {
     }
 
     /**
-     * 获取在线用户数量
+     * 获取本实例的在线用户数量
      */
     public static int getOnlineCount() {
-        return ONLINE_USERS.size();
+        return registry.userCount();
+    }
+
+    /**
+     * 获取本实例的在线用户ID（快照）
+     */
+    public static List<Long> getOnlineUserIds() {
+        return registry.onlineUserIds();
     }
 
     /**
-     * 判断用户是否在线
+     * 判断用户是否连在本实例上（至少有一个打开的连接）
      */
     public static boolean isUserOnline(Long userId) {
-        Session session = ONLINE_USERS.get(userId);
-        return session != null && session.isOpen();
+        return registry.isOnline(userId);
+    }
+
+    /**
+     * 获取各连接发送队列的监控数据
+     */
+    public static List<WebSocketSessionMetricsVO> getSessionMetrics() {
+        return registry.getMetrics();
+    }
+
+    private static ExecutorService newSendExecutor() {
+        AtomicInteger threadIndex = new AtomicInteger();
+        return new ThreadPoolExecutor(2, 2, 0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "websocket-send-" + threadIndex.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
     }
 }
 
@@ -0,0 +1,290 @@
+package com.boda.springboot.websocket;
+
+import com.boda.springboot.properties.WebSocketOutboundProperties;
+import com.boda.springboot.vo.WebSocketSessionMetricsVO;
+import jakarta.websocket.CloseReason;
+import jakarta.websocket.SendResult;
+import jakarta.websocket.Session;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executor;
+
+/**
+ * 单个 WebSocket 连接的发送队列
+ * 调用方只负责入队，消息由 sendExecutor 通过异步发送逐条发出（同一连接同时只有一条在发送），
+ * 慢客户端不会阻塞持有数据库连接的业务线程。
+ *
+ * 可合并类型（如未读数量）在队列中只保留最新一条；队列满时按配置丢弃最早的消息或关闭连接；
+ * 单条发送超时同样视为慢客户端，关闭连接，客户端重连后重新拉取
+ */
+@Slf4j
+public class SessionOutbox {
+
+    private final Session session;
+
+    private final Long userId;
+
+    private final Executor sendExecutor;
+
+    private final int capacity;
+
+    private final boolean closeOnOverflow;
+
+    private final Set<String> coalesceTypes;
+
+    private final ArrayDeque<Outgoing> queue = new ArrayDeque<>();
+
+    /**
+     * 可合并类型 -> 队列中尚未发送的消息
+     */
+    private final Map<String, Outgoing> pendingByType = new HashMap<>();
+
+    private boolean sending;
+
+    private boolean closed;
+
+    /**
+     * 最近一次收到客户端消息（含心跳）的时间，用于空闲检查
+     */
+    private volatile long lastSeenMillis = System.currentTimeMillis();
+
+    private long sentCount;
+    private long coalescedCount;
+    private long droppedCount;
+    private long failedCount;
+    private long totalSendNanos;
+    private long maxSendNanos;
+
+    public SessionOutbox(Session session, Long userId, WebSocketOutboundProperties properties, Executor sendExecutor) {
+        this.session = session;
+        this.userId = userId;
+        this.sendExecutor = sendExecutor;
+        this.capacity = Math.max(1, properties.getQueueCapacity());
+        this.closeOnOverflow = "close".equalsIgnoreCase(properties.getOverflowPolicy());
+        this.coalesceTypes = new HashSet<>(properties.getCoalesceTypes());
+        session.getAsyncRemote().setSendTimeout(properties.getSendTimeoutMillis());
+    }
+
+    public Session getSession() {
+        return session;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public long getLastSeenMillis() {
+        return lastSeenMillis;
+    }
+
+    public void touch() {
+        lastSeenMillis = System.currentTimeMillis();
+    }
+
+    public boolean isOpen() {
+        synchronized (this) {
+            if (closed) {
+                return false;
+            }
+        }
+        return session.isOpen();
+    }
+
+    /**
+     * 消息入队
+     * @param type 消息类型（用于合并，可为 null）
+     * @param payload 已序列化的消息
+     * @return 是否已入队（连接已关闭或因队列已满关闭连接时返回 false）
+     */
+    public boolean offer(String type, String payload) {
+        Outgoing next = null;
+        boolean overflowClosed = false;
+        synchronized (this) {
+            if (closed) {
+                return false;
+            }
+            boolean coalescible = type != null && coalesceTypes.contains(type);
+            if (coalescible) {
+                Outgoing pending = pendingByType.get(type);
+                if (pending != null) {
+                    pending.payload = payload;
+                    coalescedCount++;
+                    return true;
+                }
+            }
+            if (queue.size() >= capacity) {
+                if (closeOnOverflow) {
+                    droppedCount += queue.size() + 1;
+                    discard();
+                    overflowClosed = true;
+                } else {
+                    Outgoing dropped = queue.pollFirst();
+                    pendingByType.remove(dropped.type, dropped);
+                    droppedCount++;
+                    next = enqueue(type, payload, coalescible);
+                }
+            } else {
+                next = enqueue(type, payload, coalescible);
+            }
+        }
+        if (overflowClosed) {
+            log.warn("WebSocket 发送队列已满，关闭慢客户端连接 - 用户ID: {}", userId);
+            closeSession(new CloseReason(CloseReason.CloseCodes.TRY_AGAIN_LATER, "send queue full"));
+            return false;
+        }
+        dispatch(next);
+        return true;
+    }
+
+    /**
+     * 连接关闭后丢弃未发送的消息
+     */
+    public void close() {
+        synchronized (this) {
+            discard();
+        }
+    }
+
+    /**
+     * 丢弃未发送的消息并在发送线程中关闭连接（半开连接关闭时可能阻塞到发送超时，不占用调用方线程）
+     */
+    public void closeAsync(CloseReason reason) {
+        close();
+        try {
+            sendExecutor.execute(() -> closeSession(reason));
+        } catch (Exception e) {
+            closeSession(reason);
+        }
+    }
+
+    /**
+     * 未发送的消息数
+     */
+    public synchronized int getQueueDepth() {
+        return queue.size();
+    }
+
+    public synchronized WebSocketSessionMetricsVO getMetrics() {
+        WebSocketSessionMetricsVO vo = new WebSocketSessionMetricsVO();
+        vo.setUserId(userId);
+        vo.setSessionId(session.getId());
+        vo.setQueueDepth(queue.size());
+        vo.setSending(sending);
+        vo.setSentCount(sentCount);
+        vo.setCoalescedCount(coalescedCount);
+        vo.setDroppedCount(droppedCount);
+        vo.setFailedCount(failedCount);
+        vo.setAvgSendMillis(sentCount == 0 ? 0.0 : totalSendNanos / 1_000_000.0 / sentCount);
+        vo.setMaxSendMillis(maxSendNanos / 1_000_000.0);
+        vo.setIdleMillis(System.currentTimeMillis() - lastSeenMillis);
+        return vo;
+    }
+
+    private Outgoing enqueue(String type, String payload, boolean coalescible) {
+        Outgoing outgoing = new Outgoing(type, payload, System.nanoTime());
+        queue.addLast(outgoing);
+        if (coalescible) {
+            pendingByType.put(type, outgoing);
+        }
+        return pollIfIdle();
+    }
+
+    /**
+     * 没有消息在发送时取出下一条（调用方持有锁）
+     */
+    private Outgoing pollIfIdle() {
+        if (sending || closed || queue.isEmpty()) {
+            return null;
+        }
+        Outgoing outgoing = queue.pollFirst();
+        pendingByType.remove(outgoing.type, outgoing);
+        sending = true;
+        return outgoing;
+    }
+
+    private void discard() {
+        closed = true;
+        queue.clear();
+        pendingByType.clear();
+    }
+
+    private void dispatch(Outgoing outgoing) {
+        if (outgoing == null) {
+            return;
+        }
+        try {
+            sendExecutor.execute(() -> send(outgoing));
+        } catch (Exception e) {
+            onComplete(outgoing, new SendResult(e));
+        }
+    }
+
+    private void send(Outgoing outgoing) {
+        String payload;
+        synchronized (this) {
+            payload = outgoing.payload;
+        }
+        try {
+            session.getAsyncRemote().sendText(payload, result -> onComplete(outgoing, result));
+        } catch (Exception e) {
+            onComplete(outgoing, new SendResult(e));
+        }
+    }
+
+    private void onComplete(Outgoing outgoing, SendResult result) {
+        Outgoing next;
+        synchronized (this) {
+            sending = false;
+            if (result.isOK()) {
+                long elapsed = System.nanoTime() - outgoing.enqueueNanos;
+                sentCount++;
+                totalSendNanos += elapsed;
+                maxSendNanos = Math.max(maxSendNanos, elapsed);
+            } else {
+                failedCount++;
+                discard();
+            }
+            next = pollIfIdle();
+        }
+        if (!result.isOK()) {
+            log.warn("WebSocket 消息发送失败，关闭连接 - 用户ID: {}, 原因: {}", userId,
+                    result.getException() != null ? result.getException().getMessage() : null);
+            closeSession(new CloseReason(CloseReason.CloseCodes.UNEXPECTED_CONDITION, "send failed"));
+            return;
+        }
+        dispatch(next);
+    }
+
+    private void closeSession(CloseReason reason) {
+        try {
+            if (session.isOpen()) {
+                session.close(reason);
+            }
+        } catch (Exception e) {
+            log.debug("关闭 WebSocket 连接失败 - 用户ID: {}", userId, e);
+        }
+    }
+
+    private static class Outgoing {
+
+        private final String type;
+
+        /**
+         * 合并时被替换为最新的消息
+         */
+        private String payload;
+
+        private final long enqueueNanos;
+
+        Outgoing(String type, String payload, long enqueueNanos) {
+            this.type = type;
+            this.payload = payload;
+            this.enqueueNanos = enqueueNanos;
+        }
+    }
+}
@@ -0,0 +1,219 @@
+package com.boda.springboot.websocket;
+
+import com.boda.springboot.properties.WebSocketSessionProperties;
+import com.boda.springboot.vo.WebSocketSessionMetricsVO;
+import jakarta.websocket.CloseReason;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * WebSocket 连接注册表
+ * 同一用户可以同时保持多个连接（多个标签页、多台设备），推送时发给该用户的所有连接。
+ *
+ * 每个连接记录最近一次收到客户端消息（含心跳）的时间，按到期时间挂到时间轮的格子上，
+ * 每次 tick 只检查当前格：已超时的连接（包括 TCP 已断开但没有触发 OnClose 的半开连接）立即移出注册表并关闭，
+ * 期间有心跳的连接按新的到期时间重新挂到对应格子
+ */
+@Slf4j
+@Component
+public class SessionRegistry {
+
+    private static final CloseReason IDLE_TIMEOUT =
+            new CloseReason(CloseReason.CloseCodes.GOING_AWAY, "idle timeout");
+
+    private static final CloseReason TOO_MANY_SESSIONS =
+            new CloseReason(CloseReason.CloseCodes.VIOLATED_POLICY, "too many sessions");
+
+    /**
+     * 用户ID -> 该用户的连接（写少读多，推送时无锁遍历）
+     */
+    private final Map<Long, List<SessionOutbox>> sessions = new ConcurrentHashMap<>();
+
+    /**
+     * 时间轮，每格保存在该格到期的连接
+     */
+    private final Queue<SessionOutbox>[] wheel;
+
+    private final long tickMillis;
+
+    private final long idleTimeoutMillis;
+
+    private final int maxSessionsPerUser;
+
+    /**
+     * 上次检查到的 tick
+     */
+    private long lastReapedTick;
+
+    @SuppressWarnings("unchecked")
+    public SessionRegistry(WebSocketSessionProperties properties) {
+        this.tickMillis = Math.max(1, properties.getReapTickMillis());
+        this.idleTimeoutMillis = properties.getIdleTimeoutMillis();
+        this.maxSessionsPerUser = Math.max(1, properties.getMaxSessionsPerUser());
+        // 到期时间最多在一个空闲超时之后，时间轮覆盖该跨度即不会绕圈
+        int wheelSize = (int) (idleTimeoutMillis / tickMillis) + 2;
+        this.wheel = new Queue[wheelSize];
+        for (int i = 0; i < wheelSize; i++) {
+            wheel[i] = new ConcurrentLinkedQueue<>();
+        }
+        this.lastReapedTick = System.currentTimeMillis() / tickMillis;
+    }
+
+    public void register(Long userId, SessionOutbox outbox) {
+        List<SessionOutbox> evicted = new ArrayList<>();
+        sessions.compute(userId, (key, list) -> {
+            List<SessionOutbox> updated = list != null ? list : new CopyOnWriteArrayList<>();
+            updated.add(outbox);
+            while (updated.size() > maxSessionsPerUser) {
+                evicted.add(updated.remove(0));
+            }
+            return updated;
+        });
+        schedule(outbox);
+        for (SessionOutbox old : evicted) {
+            log.info("用户连接数超过上限 {}，关闭最早的连接 - 用户ID: {}", maxSessionsPerUser, userId);
+            old.closeAsync(TOO_MANY_SESSIONS);
+        }
+    }
+
+    public void unregister(Long userId, SessionOutbox outbox) {
+        outbox.close();
+        sessions.computeIfPresent(userId, (key, list) -> {
+            list.remove(outbox);
+            return list.isEmpty() ? null : list;
+        });
+    }
+
+    /**
+     * 收到客户端消息（含心跳）
+     */
+    public void touch(SessionOutbox outbox) {
+        outbox.touch();
+    }
+
+    /**
+     * 发给用户的所有连接
+     * @return 入队成功的连接数
+     */
+    public int send(Long userId, String type, String payload) {
+        List<SessionOutbox> list = sessions.get(userId);
+        if (list == null) {
+            return 0;
+        }
+        int sent = 0;
+        for (SessionOutbox outbox : list) {
+            if (outbox.offer(type, payload)) {
+                sent++;
+            }
+        }
+        return sent;
+    }
+
+    public boolean isOnline(Long userId) {
+        List<SessionOutbox> list = sessions.get(userId);
+        if (list == null) {
+            return false;
+        }
+        for (SessionOutbox outbox : list) {
+            if (outbox.isOpen()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public List<Long> onlineUserIds() {
+        return new ArrayList<>(sessions.keySet());
+    }
+
+    public int userCount() {
+        return sessions.size();
+    }
+
+    public int sessionCount() {
+        int count = 0;
+        for (List<SessionOutbox> list : sessions.values()) {
+            count += list.size();
+        }
+        return count;
+    }
+
+    public List<WebSocketSessionMetricsVO> getMetrics() {
+        List<WebSocketSessionMetricsVO> metrics = new ArrayList<>();
+        for (List<SessionOutbox> list : sessions.values()) {
+            for (SessionOutbox outbox : list) {
+                metrics.add(outbox.getMetrics());
+            }
+        }
+        return metrics;
+    }
+
+    /**
+     * 检查到期的连接，只扫描上次检查之后经过的格子
+     */
+    @Scheduled(fixedDelayString = "${websocket.session.reap-tick-millis:5000}")
+    public void reap() {
+        reap(System.currentTimeMillis());
+    }
+
+    synchronized void reap(long now) {
+        long currentTick = now / tickMillis;
+        // 停顿超过一整圈时，每格只需扫描一次
+        long fromTick = Math.max(lastReapedTick, currentTick - wheel.length + 1);
+        int reaped = 0;
+        for (long tick = fromTick; tick <= currentTick; tick++) {
+            reaped += drainSlot(slotOf(tick), now);
+        }
+        lastReapedTick = currentTick;
+        if (reaped > 0) {
+            log.info("关闭空闲 WebSocket 连接 {} 个，当前在线用户 {} 个", reaped, sessions.size());
+        }
+    }
+
+    /**
+     * 处理一个格子：移除已关闭的连接，关闭已超时的连接，其余按新的到期时间重新挂载
+     *
+     * @return 关闭的连接数
+     */
+    private int drainSlot(int slot, long now) {
+        Queue<SessionOutbox> queue = wheel[slot];
+        int size = queue.size();
+        int reaped = 0;
+        for (int i = 0; i < size; i++) {
+            SessionOutbox outbox = queue.poll();
+            if (outbox == null) {
+                break;
+            }
+            if (!outbox.isOpen()) {
+                unregister(outbox.getUserId(), outbox);
+                continue;
+            }
+            if (now - outbox.getLastSeenMillis() >= idleTimeoutMillis) {
+                unregister(outbox.getUserId(), outbox);
+                outbox.closeAsync(IDLE_TIMEOUT);
+                reaped++;
+            } else {
+                schedule(outbox);
+            }
+        }
+        return reaped;
+    }
+
+    private void schedule(SessionOutbox outbox) {
+        long deadline = outbox.getLastSeenMillis() + idleTimeoutMillis;
+        wheel[slotOf(deadline / tickMillis)].add(outbox);
+    }
+
+    private int slotOf(long tick) {
+        return (int) Math.floorMod(tick, (long) wheel.length);
+    }
+}
@@ -0,0 +1,287 @@
+package com.boda.springboot.websocket;
+
+import com.boda.springboot.properties.NotificationBusProperties;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * 经 TCP 中转服务在多个实例间转发的通知总线（多实例部署）
+ * 发布时先直接投递给本实例的订阅者，再放入发送队列；发送线程把队列中的消息合并成批，
+ * 每批写成一帧发给中转服务，中转服务把帧转发给其他实例（不回发给发起实例），
+ * 接收线程按帧解出消息后交给本实例的订阅者。
+ *
+ * 连接后先发送共享密钥帧（帧长度(int) + 密钥(UTF-8)），收到中转服务的 HANDSHAKE_OK 后才开始收发；
+ * 消息帧格式：帧长度(int) + 消息数(int) + 每条消息 [是否广播(boolean), 用户ID(long), 类型(UTF), 内容长度(int), 内容(UTF-8)]。
+ * 中转服务不可用时只影响其他实例，本实例的投递不受影响；队列满时丢弃消息（通知已入库，客户端可重新拉取）。
+ */
+@Slf4j
+public class TcpNotificationBus implements NotificationBus {
+
+    private static final int CONNECT_TIMEOUT_MILLIS = 3000;
+
+    private final String brokerHost;
+
+    private final int brokerPort;
+
+    private final byte[] sharedSecret;
+
+    private final int batchSize;
+
+    private final long flushIntervalNanos;
+
+    private final long reconnectDelayMillis;
+
+    private final BlockingQueue<BusMessage> outbound;
+
+    private final List<Consumer<BusMessage>> subscribers = new CopyOnWriteArrayList<>();
+
+    private final AtomicLong dropped = new AtomicLong();
+
+    private volatile boolean running;
+
+    private volatile Socket socket;
+
+    private DataOutputStream output;
+
+    private Thread sender;
+
+    /**
+     * 连接失败只在状态变化时记录日志，避免中转服务不可用期间刷屏
+     */
+    private boolean connectFailureLogged;
+
+    public TcpNotificationBus(NotificationBusProperties properties) {
+        this.brokerHost = properties.getBrokerHost();
+        this.brokerPort = properties.getBrokerPort();
+        this.sharedSecret = NotificationBusBroker.requireSecret(properties.getSharedSecret());
+        this.batchSize = Math.max(1, properties.getBatchSize());
+        this.flushIntervalNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(0, properties.getFlushIntervalMillis()));
+        this.reconnectDelayMillis = Math.max(100, properties.getReconnectDelayMillis());
+        this.outbound = new ArrayBlockingQueue<>(Math.max(1, properties.getQueueCapacity()));
+    }
+
+    public synchronized void start() {
+        if (running) {
+            return;
+        }
+        running = true;
+        sender = new Thread(this::sendLoop, "notification-bus-sender");
+        sender.setDaemon(true);
+        sender.start();
+    }
+
+    @Override
+    public void publish(BusMessage message) {
+        InProcessNotificationBus.deliver(subscribers, message);
+        if (!outbound.offer(message) && dropped.incrementAndGet() % 1000 == 1) {
+            log.warn("通知总线发送队列已满，丢弃消息 - 累计丢弃: {}", dropped.get());
+        }
+    }
+
+    @Override
+    public void subscribe(Consumer<BusMessage> subscriber) {
+        subscribers.add(subscriber);
+    }
+
+    /**
+     * 是否已连接中转服务
+     */
+    public boolean isConnected() {
+        Socket current = socket;
+        return current != null && !current.isClosed();
+    }
+
+    /**
+     * 因队列满或发送失败而丢弃的消息数
+     */
+    public long getDroppedCount() {
+        return dropped.get();
+    }
+
+    @Override
+    public void close() {
+        running = false;
+        if (sender != null) {
+            sender.interrupt();
+        }
+        closeSocket(socket);
+    }
+
+    private void sendLoop() {
+        List<BusMessage> batch = new ArrayList<>(batchSize);
+        while (running) {
+            try {
+                if (!ensureConnected()) {
+                    Thread.sleep(reconnectDelayMillis);
+                    continue;
+                }
+                BusMessage first = outbound.poll(1, TimeUnit.SECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                fillBatch(batch);
+                try {
+                    writeFrame(output, batch);
+                } catch (IOException e) {
+                    dropped.addAndGet(batch.size());
+                    log.warn("通知总线发送失败，丢弃本批 {} 条消息 - 原因: {}", batch.size(), e.getMessage());
+                    closeSocket(socket);
+                }
+                batch.clear();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    /**
+     * 在 flushInterval 内继续收集消息，凑满 batchSize 立即发送
+     */
+    private void fillBatch(List<BusMessage> batch) throws InterruptedException {
+        long deadline = System.nanoTime() + flushIntervalNanos;
+        while (batch.size() < batchSize) {
+            outbound.drainTo(batch, batchSize - batch.size());
+            long waitNanos = deadline - System.nanoTime();
+            if (batch.size() >= batchSize || waitNanos <= 0) {
+                return;
+            }
+            BusMessage next = outbound.poll(waitNanos, TimeUnit.NANOSECONDS);
+            if (next == null) {
+                return;
+            }
+            batch.add(next);
+        }
+    }
+
+    private boolean ensureConnected() {
+        if (isConnected()) {
+            return true;
+        }
+        Socket candidate = new Socket();
+        try {
+            candidate.connect(new InetSocketAddress(brokerHost, brokerPort), CONNECT_TIMEOUT_MILLIS);
+            candidate.setTcpNoDelay(true);
+            output = new DataOutputStream(new BufferedOutputStream(candidate.getOutputStream()));
+            handshake(candidate);
+            socket = candidate;
+            connectFailureLogged = false;
+            Thread receiver = new Thread(() -> receiveLoop(candidate), "notification-bus-receiver");
+            receiver.setDaemon(true);
+            receiver.start();
+            log.info("通知总线已连接中转服务 - {}:{}", brokerHost, brokerPort);
+            return true;
+        } catch (IOException e) {
+            closeSocket(candidate);
+            if (!connectFailureLogged) {
+                connectFailureLogged = true;
+                log.warn("通知总线无法连接中转服务 - {}:{}, 原因: {}", brokerHost, brokerPort, e.getMessage());
+            }
+            return false;
+        }
+    }
+
+    /**
+     * 发送共享密钥并等待中转服务确认，密钥不一致时中转服务直接断开
+     */
+    private void handshake(Socket candidate) throws IOException {
+        output.writeInt(sharedSecret.length);
+        output.write(sharedSecret);
+        output.flush();
+        candidate.setSoTimeout(CONNECT_TIMEOUT_MILLIS);
+        if (candidate.getInputStream().read() != NotificationBusBroker.HANDSHAKE_OK) {
+            throw new IOException("中转服务拒绝连接，请检查共享密钥");
+        }
+        candidate.setSoTimeout(0);
+    }
+
+    private void receiveLoop(Socket source) {
+        try (DataInputStream input = new DataInputStream(new BufferedInputStream(source.getInputStream()))) {
+            while (running) {
+                for (BusMessage message : decode(NotificationBusBroker.readFrame(input))) {
+                    InProcessNotificationBus.deliver(subscribers, message);
+                }
+            }
+        } catch (EOFException e) {
+            log.warn("中转服务关闭了通知总线连接");
+        } catch (IOException e) {
+            if (running && !source.isClosed()) {
+                log.warn("通知总线接收失败 - 原因: {}", e.getMessage());
+            }
+        } finally {
+            closeSocket(source);
+        }
+    }
+
+    private static void writeFrame(DataOutputStream out, List<BusMessage> batch) throws IOException {
+        byte[] frame = encode(batch);
+        out.writeInt(frame.length);
+        out.write(frame);
+        out.flush();
+    }
+
+    static byte[] encode(List<BusMessage> batch) throws IOException {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(buffer);
+        out.writeInt(batch.size());
+        for (BusMessage message : batch) {
+            out.writeBoolean(message.isBroadcast());
+            out.writeLong(message.isBroadcast() ? 0L : message.userId());
+            out.writeUTF(message.type() != null ? message.type() : "");
+            byte[] payload = message.payload().getBytes(StandardCharsets.UTF_8);
+            out.writeInt(payload.length);
+            out.write(payload);
+        }
+        return buffer.toByteArray();
+    }
+
+    static List<BusMessage> decode(byte[] frame) throws IOException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(frame));
+        int count = in.readInt();
+        List<BusMessage> messages = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            boolean broadcast = in.readBoolean();
+            long userId = in.readLong();
+            String type = in.readUTF();
+            byte[] payload = new byte[in.readInt()];
+            in.readFully(payload);
+            messages.add(new BusMessage(broadcast ? null : userId, type.isEmpty() ? null : type,
+                    new String(payload, StandardCharsets.UTF_8)));
+        }
+        return messages;
+    }
+
+    private void closeSocket(Socket target) {
+        if (target == null) {
+            return;
+        }
+        try {
+            target.close();
+        } catch (IOException ignored) {
+            // 关闭失败无需处理
+        }
+        if (socket == target) {
+            socket = null;
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package com.boda.springboot.cache;
+
+import com.boda.springboot.mapper.QuestionMapper;
+import com.boda.springboot.mapper.ResourceMapper;
+import com.boda.springboot.vo.ResourceVO;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mockito;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * AccessCountBuffer 单元测试
+ */
+public class AccessCountBufferTests {
+
+    @Test
+    void testCounterBufferDrain() {
+        CounterBuffer buffer = new CounterBuffer();
+        buffer.increment(1L);
+        buffer.increment(1L);
+        buffer.add(2L, 5);
+        Assertions.assertEquals(2L, buffer.pending(1L));
+        Assertions.assertEquals(Map.of(1L, 2L, 2L, 5L), buffer.drain());
+        Assertions.assertEquals(0L, buffer.pending(1L));
+        // 空闲条目在下一轮 drain 时移出
+        Assertions.assertTrue(buffer.drain().isEmpty());
+        Assertions.assertEquals(0, buffer.size());
+    }
+
+    @Test
+    void testFlushBatchesAndOverlaysPending() {
+        QuestionMapper questionMapper = Mockito.mock(QuestionMapper.class);
+        ResourceMapper resourceMapper = Mockito.mock(ResourceMapper.class);
+        AccessCountBuffer buffer = new AccessCountBuffer();
+        ReflectionTestUtils.setField(buffer, "questionMapper", questionMapper);
+        ReflectionTestUtils.setField(buffer, "resourceMapper", resourceMapper);
+        ReflectionTestUtils.setField(buffer, "questionDetailCache", Mockito.mock(QuestionDetailCache.class));
+
+        buffer.onQuestionViewed(1L);
+        buffer.onQuestionViewed(1L);
+        buffer.onResourceViewed(7L);
+        buffer.onResourceDownloaded(8L);
+        Assertions.assertEquals(12, buffer.questionViewCount(1L, 10));
+
+        ResourceVO resource = new ResourceVO();
+        resource.setResourceId(7L);
+        resource.setViewCount(3);
+        buffer.applyToResource(resource);
+        Assertions.assertEquals(4, resource.getViewCount());
+        Assertions.assertEquals(0, resource.getDownloadCount());
+
+        buffer.flush();
+        Mockito.verify(questionMapper).batchIncreaseViewCount(Map.of(1L, 2L));
+        Mockito.verify(resourceMapper).batchIncrementCounts(List.of(7L, 8L), Map.of(7L, 1L), Map.of(8L, 1L));
+        Assertions.assertEquals(10, buffer.questionViewCount(1L, 10));
+    }
+
+    @Test
+    void testFailedFlushKeepsDeltas() {
+        QuestionMapper questionMapper = Mockito.mock(QuestionMapper.class);
+        Mockito.doThrow(new RuntimeException("db down"))
+                .when(questionMapper).batchIncreaseViewCount(ArgumentMatchers.anyMap());
+        AccessCountBuffer buffer = new AccessCountBuffer();
+        ReflectionTestUtils.setField(buffer, "questionMapper", questionMapper);
+        ReflectionTestUtils.setField(buffer, "resourceMapper", Mockito.mock(ResourceMapper.class));
+
+        buffer.onQuestionViewed(1L);
+        buffer.flush();
+        Assertions.assertEquals(1, buffer.questionViewCount(1L, 0));
+    }
+}
@@ -0,0 +1,55 @@
+package com.boda.springboot.cache;
+
+import com.boda.springboot.mapper.AnswerMapper;
+import com.boda.springboot.vo.AnswerVO;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * AnswerLikeCounter 单元测试
+ */
+public class AnswerLikeCounterTests {
+
+    @Test
+    void testDeltasAggregatedAndFlushed() {
+        AnswerMapper mapper = Mockito.mock(AnswerMapper.class);
+        AnswerLikeCounter counter = new AnswerLikeCounter();
+        ReflectionTestUtils.setField(counter, "answerMapper", mapper);
+        ReflectionTestUtils.setField(counter, "questionDetailCache", Mockito.mock(QuestionDetailCache.class));
+
+        counter.onLiked(1L);
+        counter.onLiked(1L);
+        counter.onUnliked(1L);
+        counter.onLiked(2L);
+        counter.onUnliked(2L);
+
+        AnswerVO answer = new AnswerVO();
+        answer.setAnswerId(1L);
+        answer.setLikeCount(3);
+        counter.applyToAnswers(List.of(answer));
+        Assertions.assertEquals(4, answer.getLikeCount());
+
+        // 相互抵消的增量不写库（drain 不返回为 0 的条目）
+        counter.flush();
+        Mockito.verify(mapper).batchAddLikeCount(Map.of(1L, 1L));
+    }
+
+    @Test
+    void testReconcileSkipsAnswersWithPendingDeltas() {
+        AnswerMapper mapper = Mockito.mock(AnswerMapper.class);
+        Mockito.doThrow(new RuntimeException("db down")).when(mapper).batchAddLikeCount(Mockito.anyMap());
+        Mockito.when(mapper.selectDriftedLikeCountIds(500)).thenReturn(List.of(1L, 2L));
+        AnswerLikeCounter counter = new AnswerLikeCounter();
+        ReflectionTestUtils.setField(counter, "answerMapper", mapper);
+        ReflectionTestUtils.setField(counter, "questionDetailCache", Mockito.mock(QuestionDetailCache.class));
+
+        counter.onLiked(1L);
+        counter.reconcile();
+        Mockito.verify(mapper).recountLikeCount(List.of(2L));
+    }
+}
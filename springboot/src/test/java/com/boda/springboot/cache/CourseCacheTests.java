@@ -0,0 +1,66 @@
+package com.boda.springboot.cache;
+
+import com.boda.springboot.entity.Course;
+import com.boda.springboot.mapper.CourseMapper;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.test.util.ReflectionTestUtils;
+
+/**
+ * CourseCache 单元测试
+ */
+public class CourseCacheTests {
+
+    private CourseMapper courseMapper;
+
+    private CourseCache courseCache;
+
+    @BeforeEach
+    void setUp() {
+        courseMapper = Mockito.mock(CourseMapper.class);
+        courseCache = new CourseCache(100, 60_000);
+        ReflectionTestUtils.setField(courseCache, "courseMapper", courseMapper);
+    }
+
+    @Test
+    void testReadThroughAndInvalidate() {
+        Course course = new Course();
+        course.setCourseId(1L);
+        course.setCourseCode("CS101");
+        course.setCourseName("数据结构");
+        Mockito.when(courseMapper.selectById(1L)).thenReturn(course);
+
+        Assertions.assertEquals("数据结构", courseCache.getById(1L).getCourseName());
+        Assertions.assertEquals("数据结构", courseCache.getById(1L).getCourseName());
+        Mockito.verify(courseMapper, Mockito.times(1)).selectById(1L);
+
+        // 返回的是副本，修改不影响缓存
+        courseCache.getById(1L).setInviteCode("123456");
+        Assertions.assertNull(courseCache.getById(1L).getInviteCode());
+
+        courseCache.invalidate(1L, "CS101");
+        courseCache.getById(1L);
+        Mockito.verify(courseMapper, Mockito.times(2)).selectById(1L);
+        Assertions.assertTrue(courseCache.getMetrics().getHitCount() >= 3);
+    }
+
+    @Test
+    void testMissingCourseCodeIsCachedUntilInvalidated() {
+        Assertions.assertNull(courseCache.getByCourseCode("CS102"));
+        Assertions.assertNull(courseCache.getByCourseCode("CS102"));
+        Mockito.verify(courseMapper, Mockito.times(1)).selectByCourseCode("CS102");
+
+        Course course = new Course();
+        course.setCourseId(2L);
+        course.setCourseCode("CS102");
+        Mockito.when(courseMapper.selectByCourseCode("CS102")).thenReturn(course);
+        courseCache.invalidate(2L, "CS102");
+
+        Assertions.assertEquals(2L, courseCache.getByCourseCode("CS102").getCourseId());
+        // 按编号加载时已顺带缓存了按ID的查询
+        Assertions.assertEquals("CS102", courseCache.getById(2L).getCourseCode());
+        Mockito.verify(courseMapper, Mockito.never()).selectById(2L);
+    }
+}
@@ -0,0 +1,111 @@
+package com.boda.springboot.cache;
+
+import com.boda.springboot.mapper.StudentCourseMapper;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * EnrollmentCache 单元测试
+ */
+public class EnrollmentCacheTests {
+
+    @Test
+    void testEnrolledCourseSet() {
+        EnrolledCourseSet courses = EnrolledCourseSet.of(List.of(5L, 1L, 3L, 3L));
+        Assertions.assertEquals(List.of(1L, 3L, 5L), courses.toList());
+        Assertions.assertTrue(courses.contains(3L));
+        Assertions.assertFalse(courses.contains(2L));
+        Assertions.assertEquals(List.of(1L, 2L, 3L, 5L), courses.with(2L).toList());
+        Assertions.assertEquals(List.of(1L, 5L), courses.without(3L).toList());
+        Assertions.assertSame(courses, courses.with(5L));
+    }
+
+    @Test
+    void testLoadOnceAndMaintainOnChange() {
+        StudentCourseMapper mapper = Mockito.mock(StudentCourseMapper.class);
+        Mockito.when(mapper.selectCourseIdsByStudentId(1L)).thenReturn(List.of(10L, 20L));
+        EnrollmentCache cache = new EnrollmentCache(100, 60_000);
+        ReflectionTestUtils.setField(cache, "studentCourseMapper", mapper);
+
+        Assertions.assertTrue(cache.isEnrolled(1L, 10L));
+        Assertions.assertFalse(cache.isEnrolled(1L, 30L));
+
+        cache.onEnrolled(1L, 30L);
+        Assertions.assertTrue(cache.isEnrolled(1L, 30L));
+
+        cache.onCourseRemoved(10L);
+        Assertions.assertEquals(List.of(20L, 30L), cache.getCourseIds(1L));
+        Mockito.verify(mapper, Mockito.times(1)).selectCourseIdsByStudentId(1L);
+    }
+
+    @Test
+    void testEnrollmentChangeOnlyDiscardsLoadOfSameStudent() {
+        StudentCourseMapper mapper = Mockito.mock(StudentCourseMapper.class);
+        EnrollmentCache cache = new EnrollmentCache(100, 60_000);
+        ReflectionTestUtils.setField(cache, "studentCourseMapper", mapper);
+        Mockito.when(mapper.selectCourseIdsByStudentId(1L)).thenAnswer(invocation -> {
+            // 加载学生 1 期间学生 2 加入课程，学生 1 的结果仍然有效
+            cache.onEnrolled(2L, 30L);
+            return List.of(10L);
+        });
+        Mockito.when(mapper.selectCourseIdsByStudentId(2L)).thenAnswer(invocation -> {
+            // 加载学生 2 期间学生 2 自己加入课程，查询结果可能已过期
+            cache.onEnrolled(2L, 40L);
+            return List.of(30L);
+        });
+
+        Assertions.assertEquals(List.of(10L), cache.getCourseIds(1L));
+        Assertions.assertEquals(List.of(10L), cache.getCourseIds(1L));
+        Mockito.verify(mapper, Mockito.times(1)).selectCourseIdsByStudentId(1L);
+
+        cache.getCourseIds(2L);
+        Mockito.when(mapper.selectCourseIdsByStudentId(2L)).thenReturn(List.of(30L, 40L));
+        Assertions.assertEquals(List.of(30L, 40L), cache.getCourseIds(2L));
+        Mockito.verify(mapper, Mockito.times(2)).selectCourseIdsByStudentId(2L);
+    }
+
+    @Test
+    void testCourseRemovedWhileOtherThreadsReadAndLoad() throws InterruptedException {
+        StudentCourseMapper mapper = Mockito.mock(StudentCourseMapper.class);
+        Mockito.when(mapper.selectCourseIdsByStudentId(Mockito.anyLong())).thenReturn(List.of(10L, 20L));
+        EnrollmentCache cache = new EnrollmentCache(10_000, 60_000);
+        ReflectionTestUtils.setField(cache, "studentCourseMapper", mapper);
+        for (long studentId = 1; studentId <= 2000; studentId++) {
+            cache.isEnrolled(studentId, 10L);
+        }
+
+        // 其他线程持续读取和加载，改变 LRU 顺序
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        AtomicBoolean running = new AtomicBoolean(true);
+        Thread reader = new Thread(() -> {
+            long studentId = 1;
+            try {
+                while (running.get()) {
+                    cache.isEnrolled(studentId++ % 2000 + 1, 20L);
+                }
+            } catch (Throwable e) {
+                failure.set(e);
+            }
+        });
+        reader.start();
+        try {
+            for (int i = 0; i < 200; i++) {
+                cache.onCourseRemoved(10L);
+            }
+        } finally {
+            running.set(false);
+            reader.join();
+        }
+
+        Assertions.assertNull(failure.get());
+        for (long studentId = 1; studentId <= 2000; studentId++) {
+            Assertions.assertFalse(cache.isEnrolled(studentId, 10L), "所有已缓存学生都应移除该课程");
+        }
+    }
+}
@@ -0,0 +1,148 @@
+package com.boda.springboot.cache;
+
+import com.boda.springboot.common.CountStrategy;
+import com.boda.springboot.common.PageEndpoint;
+import com.boda.springboot.common.PageResult;
+import com.boda.springboot.mapper.TableStatsMapper;
+import com.boda.springboot.properties.PageCountProperties;
+import com.github.pagehelper.Page;
+import com.github.pagehelper.PageHelper;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * PageCounter 单元测试
+ * 用内存数据模拟 PageHelper 拦截后的查询：读取线程上的分页参数，按需"执行 COUNT"
+ */
+public class PageCounterTests {
+
+    private PageCountProperties properties;
+
+    private PageCounter pageCounter;
+
+    private TableStatsMapper tableStatsMapper;
+
+    private AtomicInteger countQueries;
+
+    @BeforeEach
+    void setUp() {
+        properties = new PageCountProperties();
+        pageCounter = new PageCounter(properties);
+        tableStatsMapper = Mockito.mock(TableStatsMapper.class);
+        ReflectionTestUtils.setField(pageCounter, "tableStatsMapper", tableStatsMapper);
+        countQueries = new AtomicInteger();
+    }
+
+    @Test
+    void testExactCountsEveryPage() {
+        PageResult<Integer> first = pageCounter.page(PageEndpoint.COURSE_LIST, 1, 10, () -> query(25));
+        PageResult<Integer> second = pageCounter.page(PageEndpoint.COURSE_LIST, 2, 10, () -> query(25));
+
+        Assertions.assertEquals(25, first.getTotal());
+        Assertions.assertEquals(25, second.getTotal());
+        Assertions.assertEquals(CountStrategy.EXACT, second.getCountStrategy());
+        Assertions.assertEquals(2, countQueries.get());
+    }
+
+    @Test
+    void testCachedCountsOncePerFilter() {
+        properties.getStrategies().put("course-list", CountStrategy.CACHED);
+
+        Assertions.assertEquals(25, pageCounter.page(PageEndpoint.COURSE_LIST, 1, 10, () -> query(25), "a").getTotal());
+        PageResult<Integer> second = pageCounter.page(PageEndpoint.COURSE_LIST, 2, 10, () -> query(25), "a");
+        Assertions.assertEquals(25, second.getTotal());
+        Assertions.assertEquals(List.of(10, 11, 12, 13, 14, 15, 16, 17, 18, 19), second.getRecords());
+        Assertions.assertEquals(CountStrategy.CACHED, second.getCountStrategy());
+        Assertions.assertEquals(1, countQueries.get());
+
+        // 不同筛选条件单独统计
+        pageCounter.page(PageEndpoint.COURSE_LIST, 1, 10, () -> query(25), "b");
+        Assertions.assertEquals(2, countQueries.get());
+
+        // 数据减少后，取到不满一页时修正缓存的总数
+        Assertions.assertEquals(21, pageCounter.page(PageEndpoint.COURSE_LIST, 3, 10, () -> query(21), "a").getTotal());
+        Assertions.assertEquals(21, pageCounter.page(PageEndpoint.COURSE_LIST, 1, 10, () -> query(21), "a").getTotal());
+        Assertions.assertEquals(2, countQueries.get());
+    }
+
+    @Test
+    void testEstimatedUsesTableStatsOnlyWithoutFilters() {
+        properties.getStrategies().put("resource-list", CountStrategy.ESTIMATED);
+        Mockito.when(tableStatsMapper.selectEstimatedRows("resource")).thenReturn(1000L);
+
+        PageResult<Integer> result = pageCounter.page(PageEndpoint.RESOURCE_LIST, 1, 10, () -> query(990), null, "");
+        Assertions.assertEquals(1000, result.getTotal());
+        Assertions.assertEquals(CountStrategy.ESTIMATED, result.getCountStrategy());
+        Assertions.assertEquals(0, countQueries.get());
+
+        // 有筛选条件时按 CACHED 处理
+        result = pageCounter.page(PageEndpoint.RESOURCE_LIST, 1, 10, () -> query(30), 5L, "");
+        Assertions.assertEquals(30, result.getTotal());
+        Assertions.assertEquals(CountStrategy.CACHED, result.getCountStrategy());
+        Assertions.assertEquals(1, countQueries.get());
+    }
+
+    @Test
+    void testEstimatedFallsBackToCachedWithoutTable() {
+        properties.getStrategies().put("resource-recycle-bin", CountStrategy.ESTIMATED);
+        properties.getStrategies().put("admin-student-list", CountStrategy.ESTIMATED);
+
+        // 回收站、学生列表只是主表的一部分行，不能用整表的估算行数
+        PageResult<Integer> recycled = pageCounter.page(PageEndpoint.RESOURCE_RECYCLE_BIN, 1, 10, () -> query(30), (Object) null);
+        Assertions.assertEquals(30, recycled.getTotal());
+        Assertions.assertEquals(CountStrategy.CACHED, recycled.getCountStrategy());
+        PageResult<Integer> students = pageCounter.page(PageEndpoint.ADMIN_STUDENT_LIST, 1, 10, () -> query(12), null, null, null);
+        Assertions.assertEquals(12, students.getTotal());
+        Assertions.assertEquals(CountStrategy.CACHED, students.getCountStrategy());
+        Assertions.assertEquals(2, countQueries.get());
+        Mockito.verifyNoInteractions(tableStatsMapper);
+    }
+
+    @Test
+    void testNoneReturnsHasNext() {
+        properties.setDefaultStrategy(CountStrategy.NONE);
+
+        PageResult<Integer> first = pageCounter.page(PageEndpoint.NOTIFICATION_LIST, 1, 10, () -> query(20));
+        Assertions.assertEquals(-1, first.getTotal());
+        Assertions.assertEquals(10, first.getRecords().size());
+        Assertions.assertTrue(first.getHasNext());
+
+        PageResult<Integer> last = pageCounter.page(PageEndpoint.NOTIFICATION_LIST, 2, 10, () -> query(20));
+        Assertions.assertEquals(10, last.getRecords().size());
+        Assertions.assertFalse(last.getHasNext());
+        Assertions.assertEquals(CountStrategy.NONE, last.getCountStrategy());
+        Assertions.assertEquals(0, countQueries.get());
+    }
+
+    @Test
+    void testPageParamsClearedWhenQuerySkipped() {
+        pageCounter.page(PageEndpoint.COURSE_LIST, 1, 10, List::of);
+        Assertions.assertNull(PageHelper.getLocalPage());
+    }
+
+    /**
+     * 模拟被 PageHelper 拦截的查询
+     */
+    private Page<Integer> query(int rows) {
+        Page<Integer> page = PageHelper.getLocalPage();
+        PageHelper.clearPage();
+        List<Integer> all = IntStream.range(0, rows).boxed().collect(Collectors.toList());
+        Page<Integer> result = new Page<>(page.getPageNum(), page.getPageSize(), page.isCount());
+        if (page.isCount()) {
+            countQueries.incrementAndGet();
+            result.setTotal(rows);
+        }
+        int from = (int) Math.min(page.getStartRow(), rows);
+        int to = (int) Math.min(page.getStartRow() + page.getPageSize(), rows);
+        result.addAll(all.subList(from, to));
+        return result;
+    }
+}
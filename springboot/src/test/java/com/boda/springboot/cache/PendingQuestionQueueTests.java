@@ -0,0 +1,86 @@
+package com.boda.springboot.cache;
+
+import com.boda.springboot.common.PageCursor;
+import com.boda.springboot.entity.Question;
+import com.boda.springboot.mapper.QuestionMapper;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * PendingQuestionQueue 单元测试
+ */
+public class PendingQuestionQueueTests {
+
+    private QuestionMapper questionMapper;
+
+    private PendingQuestionQueue queue;
+
+    @BeforeEach
+    void setUp() {
+        questionMapper = Mockito.mock(QuestionMapper.class);
+        queue = new PendingQuestionQueue();
+        ReflectionTestUtils.setField(queue, "questionMapper", questionMapper);
+        ReflectionTestUtils.setField(queue, "enabled", true);
+
+        Mockito.when(questionMapper.selectPendingQueueEntries()).thenReturn(List.of(
+                question(3L, 100L, 10L, 3, 0),
+                question(1L, 100L, 10L, 1, 0),
+                question(2L, 100L, 20L, 2, 0),
+                question(4L, 200L, 10L, 1, 0)));
+        queue.rebuild();
+    }
+
+    @Test
+    void testCountsAndOrdering() {
+        Assertions.assertTrue(queue.isReady());
+        Assertions.assertEquals(3, queue.pendingCount(100L, null));
+        Assertions.assertEquals(2, queue.pendingCount(100L, 10L));
+        Assertions.assertEquals(0, queue.pendingCount(300L, null));
+
+        Assertions.assertEquals(List.of(1L, 2L, 3L), queue.pageIds(100L, null, 0, 10));
+        Assertions.assertEquals(List.of(3L), queue.pageIds(100L, 10L, 1, 10));
+
+        PageCursor cursor = PageCursor.ofTime(time(1), 1L);
+        Assertions.assertEquals(List.of(2L), queue.idsAfter(100L, null, cursor, 1));
+        Assertions.assertEquals(List.of(1L, 2L), queue.idsAfter(100L, null, null, 2));
+    }
+
+    @Test
+    void testAnswerAndReopen() {
+        queue.remove(1L);
+        Assertions.assertEquals(2, queue.pendingCount(100L, null));
+        Assertions.assertEquals(List.of(3L), queue.pageIds(100L, 10L, 0, 10));
+
+        // 回答被删光后问题重新变为未回答
+        Mockito.when(questionMapper.selectById(1L)).thenReturn(question(1L, 100L, 10L, 1, 0));
+        queue.refresh(1L);
+        Assertions.assertEquals(List.of(1L, 3L), queue.pageIds(100L, 10L, 0, 10));
+
+        // 已回答的问题刷新后出队
+        Mockito.when(questionMapper.selectById(2L)).thenReturn(question(2L, 100L, 20L, 2, 1));
+        queue.refresh(2L);
+        Assertions.assertEquals(0, queue.pendingCount(100L, 20L));
+        Assertions.assertEquals(3, queue.size());
+    }
+
+    private static Question question(Long id, Long teacherId, Long courseId, int day, int isAnswered) {
+        Question question = new Question();
+        question.setQuestionId(id);
+        question.setTeacherId(teacherId);
+        question.setCourseId(courseId);
+        question.setCreateTime(time(day));
+        question.setIsAnswered(isAnswered);
+        question.setStatus(1);
+        return question;
+    }
+
+    private static LocalDateTime time(int day) {
+        return LocalDateTime.of(2024, 1, day, 0, 0);
+    }
+}
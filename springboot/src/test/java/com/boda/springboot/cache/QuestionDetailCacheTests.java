@@ -0,0 +1,128 @@
+package com.boda.springboot.cache;
+
+import com.boda.springboot.mapper.AnswerMapper;
+import com.boda.springboot.mapper.QuestionMapper;
+import com.boda.springboot.vo.AnswerVO;
+import com.boda.springboot.vo.QuestionDetailVO;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * QuestionDetailCache 单元测试
+ */
+public class QuestionDetailCacheTests {
+
+    private QuestionMapper questionMapper;
+
+    private AnswerMapper answerMapper;
+
+    private QuestionDetailCache newCache() {
+        questionMapper = Mockito.mock(QuestionMapper.class);
+        answerMapper = Mockito.mock(AnswerMapper.class);
+        QuestionDetailVO detail = new QuestionDetailVO();
+        detail.setQuestionId(1L);
+        detail.setViewCount(10);
+        AnswerVO answer = new AnswerVO();
+        answer.setAnswerId(100L);
+        answer.setLikeCount(2);
+        Mockito.when(questionMapper.selectDetailById(1L)).thenReturn(detail);
+        Mockito.when(answerMapper.selectByQuestionId(1L, null)).thenReturn(new ArrayList<>(List.of(answer)));
+        QuestionDetailCache cache = new QuestionDetailCache(100, 60_000);
+        ReflectionTestUtils.setField(cache, "questionMapper", questionMapper);
+        ReflectionTestUtils.setField(cache, "answerMapper", answerMapper);
+        return cache;
+    }
+
+    @Test
+    void testSharedLoadAndCopies() {
+        QuestionDetailCache cache = newCache();
+        QuestionDetailVO first = cache.get(1L);
+        first.getAnswers().get(0).setIsLiked(true);
+        first.setViewCount(99);
+
+        QuestionDetailVO second = cache.get(1L);
+        Assertions.assertEquals(10, second.getViewCount());
+        Assertions.assertNull(second.getAnswers().get(0).getIsLiked());
+        Mockito.verify(questionMapper, Mockito.times(1)).selectDetailById(1L);
+
+        Assertions.assertNull(cache.get(2L));
+        Assertions.assertNull(cache.get(2L));
+        Mockito.verify(questionMapper, Mockito.times(1)).selectDetailById(2L);
+    }
+
+    @Test
+    void testFlushedCountsAndInvalidation() {
+        QuestionDetailCache cache = newCache();
+        cache.get(1L);
+        cache.onViewCountsFlushed(Map.of(1L, 3L));
+        cache.onLikeCountsFlushed(Map.of(100L, -1L));
+        QuestionDetailVO detail = cache.get(1L);
+        Assertions.assertEquals(13, detail.getViewCount());
+        Assertions.assertEquals(1, detail.getAnswers().get(0).getLikeCount());
+
+        cache.invalidate(1L);
+        cache.get(1L);
+        Mockito.verify(questionMapper, Mockito.times(2)).selectDetailById(1L);
+
+        cache.evictAnswers(List.of(100L));
+        cache.get(1L);
+        Mockito.verify(questionMapper, Mockito.times(3)).selectDetailById(1L);
+    }
+
+    @Test
+    void testLikeFlushWhileOtherThreadsReadAndLoad() throws InterruptedException {
+        QuestionMapper mapper = Mockito.mock(QuestionMapper.class);
+        AnswerMapper answers = Mockito.mock(AnswerMapper.class);
+        Mockito.when(mapper.selectDetailById(Mockito.anyLong())).thenAnswer(invocation -> {
+            QuestionDetailVO detail = new QuestionDetailVO();
+            detail.setQuestionId(invocation.getArgument(0));
+            return detail;
+        });
+        Mockito.when(answers.selectByQuestionId(Mockito.anyLong(), Mockito.isNull())).thenAnswer(invocation -> {
+            AnswerVO answer = new AnswerVO();
+            answer.setAnswerId((Long) invocation.getArgument(0) * 10);
+            answer.setLikeCount(0);
+            return new ArrayList<>(List.of(answer));
+        });
+        QuestionDetailCache cache = new QuestionDetailCache(10_000, 60_000);
+        ReflectionTestUtils.setField(cache, "questionMapper", mapper);
+        ReflectionTestUtils.setField(cache, "answerMapper", answers);
+        for (long questionId = 1; questionId <= 2000; questionId++) {
+            cache.get(questionId);
+        }
+
+        // 其他线程持续读取和加载，改变 LRU 顺序
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        AtomicBoolean running = new AtomicBoolean(true);
+        Thread reader = new Thread(() -> {
+            long questionId = 1;
+            try {
+                while (running.get()) {
+                    cache.get(questionId++ % 2000 + 1);
+                }
+            } catch (Throwable e) {
+                failure.set(e);
+            }
+        });
+        reader.start();
+        try {
+            for (int i = 0; i < 200; i++) {
+                cache.onLikeCountsFlushed(Map.of(10L, 1L));
+            }
+        } finally {
+            running.set(false);
+            reader.join();
+        }
+
+        Assertions.assertNull(failure.get());
+        Assertions.assertEquals(200, cache.get(1L).getAnswers().get(0).getLikeCount());
+    }
+}
@@ -0,0 +1,153 @@
+package com.boda.springboot.cache;
+
+import com.boda.springboot.entity.Resource;
+import com.boda.springboot.mapper.ResourceMapper;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * ResourceSearchIndex 单元测试
+ */
+public class ResourceSearchIndexTests {
+
+    private ResourceMapper resourceMapper;
+
+    private ResourceSearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        resourceMapper = Mockito.mock(ResourceMapper.class);
+        index = new ResourceSearchIndex();
+        ReflectionTestUtils.setField(index, "resourceMapper", resourceMapper);
+        ReflectionTestUtils.setField(index, "enabled", true);
+
+        Mockito.when(resourceMapper.selectSearchDocuments()).thenReturn(List.of(
+                resource(1L, "数据结构课件", "链表 栈 队列", null, 10L, "PUBLIC", "PPT"),
+                resource(2L, "操作系统习题", "包含数据结构相关题目", null, 10L, "COURSE_ONLY", "PDF"),
+                resource(3L, "Java 入门", "面向对象基础", "java", null, "PUBLIC", "PDF"),
+                resource(4L, "算法导论笔记", "数据结构与算法", null, 20L, "PUBLIC", "WORD")));
+        index.rebuild();
+    }
+
+    @Test
+    void testTokenizer() {
+        Assertions.assertEquals(List.of("数据", "据结", "结构"), SearchTokenizer.queryTokens("数据结构"));
+        Assertions.assertEquals(List.of("java", "入门"), SearchTokenizer.queryTokens("Java, 入门"));
+        Assertions.assertEquals(List.of("栈"), SearchTokenizer.queryTokens("栈"));
+        Assertions.assertTrue(SearchTokenizer.queryTokens(" ，").isEmpty());
+
+        // 过长的字母数字查询词截断到最长前缀
+        String longWord = "a".repeat(SearchTokenizer.MAX_PREFIX_LENGTH + 5);
+        Assertions.assertEquals(List.of("a".repeat(SearchTokenizer.MAX_PREFIX_LENGTH)), SearchTokenizer.queryTokens(longWord));
+
+        // 不含中文且带符号的关键词回退到 SQL LIKE
+        Assertions.assertFalse(SearchTokenizer.isIndexable("C++"));
+        Assertions.assertFalse(SearchTokenizer.isIndexable("C#"));
+        Assertions.assertTrue(SearchTokenizer.isIndexable("spring boot"));
+        Assertions.assertTrue(SearchTokenizer.isIndexable("C++ 入门"));
+    }
+
+    @Test
+    void testLatinWordsMatchByPrefix() {
+        Mockito.when(resourceMapper.selectById(5L)).thenReturn(
+                resource(5L, "SpringBoot 实战", "REST 接口开发", null, null, "PUBLIC", "PDF"));
+        index.refresh(5L);
+
+        Assertions.assertEquals(List.of(5L), index.search("spring", null, null, null, null));
+        Assertions.assertEquals(List.of(5L), index.search("springboot", null, null, null, null));
+        Assertions.assertEquals(List.of(5L), index.search("Spring 实战", null, null, null, null));
+        // 只按前缀匹配，不做任意子串匹配
+        Assertions.assertTrue(index.search("boot", null, null, null, null).isEmpty());
+        Assertions.assertEquals(List.of(3L), index.search("jav", null, null, null, null));
+    }
+
+    @Test
+    void testResourceIdBeyondIntRangeIsSearchable() {
+        long largeId = Integer.MAX_VALUE + 10L;
+        Resource large = resource(1L, "数据结构期末复习", null, null, 10L, "PUBLIC", "PDF");
+        large.setResourceId(largeId);
+        Mockito.when(resourceMapper.selectById(largeId)).thenReturn(large);
+        index.refresh(largeId);
+
+        Assertions.assertTrue(index.search("期末复习", null, null, null, null).contains(largeId));
+        // 过滤条件对位图之外的资源同样生效
+        Assertions.assertEquals(List.of(largeId), index.search("期末复习", 10L, null, "PUBLIC", "PDF"));
+        Assertions.assertEquals(List.of(largeId), index.search("期末复习", null, List.of(10L), null, null));
+        Assertions.assertTrue(index.search("期末复习", 20L, null, null, null).isEmpty());
+        Assertions.assertTrue(index.search("期末复习", null, List.of(), null, null).isEmpty());
+        Assertions.assertTrue(index.search("期末复习", null, null, null, "PPT").isEmpty());
+
+        Mockito.when(resourceMapper.selectById(largeId)).thenReturn(null);
+        index.refresh(largeId);
+        Assertions.assertTrue(index.search("期末复习", null, null, null, null).isEmpty());
+    }
+
+    @Test
+    void testSearchRanksTitleMatchesFirst() {
+        Assertions.assertTrue(index.isReady());
+        Assertions.assertEquals(4, index.size());
+
+        List<Long> ids = index.search("数据结构", null, null, null, null);
+        Assertions.assertEquals(1L, ids.get(0));
+        Assertions.assertEquals(3, ids.size());
+
+        // 所有查询词都须命中
+        Assertions.assertEquals(List.of(3L), index.search("java 面向对象", null, null, null, null));
+        Assertions.assertTrue(index.search("数据结构 java", null, null, null, null).isEmpty());
+        Assertions.assertEquals(List.of(1L), index.search("栈", null, null, null, null));
+    }
+
+    @Test
+    void testFilters() {
+        Assertions.assertEquals(List.of(1L, 2L), sorted(index.search("数据结构", 10L, null, null, null)));
+        Assertions.assertEquals(List.of(3L), index.search("java", -1L, null, null, null));
+        Assertions.assertEquals(List.of(2L), index.search("数据结构", null, null, null, "PDF"));
+        Assertions.assertEquals(List.of(1L, 4L), sorted(index.search("数据结构", null, null, "PUBLIC", null)));
+
+        // 学生只能看到无课程归属的资源和已加入课程的资源
+        Assertions.assertEquals(List.of(4L), index.search("数据结构", null, List.of(20L), null, null));
+        Assertions.assertEquals(List.of(3L), index.search("java", null, List.of(), null, null));
+        Assertions.assertTrue(index.search("数据结构", null, List.of(), null, null).isEmpty());
+    }
+
+    @Test
+    void testRefreshUpdatesAndRemoves() {
+        Resource updated = resource(3L, "Python 入门", "面向对象基础", null, null, "PUBLIC", "PDF");
+        Mockito.when(resourceMapper.selectById(3L)).thenReturn(updated);
+        index.refresh(3L);
+        Assertions.assertTrue(index.search("java", null, null, null, null).isEmpty());
+        Assertions.assertEquals(List.of(3L), index.search("python", null, null, null, null));
+
+        // 已删除或下架的资源从索引移除
+        Mockito.when(resourceMapper.selectById(1L)).thenReturn(null);
+        index.refresh(1L);
+        Assertions.assertEquals(List.of(2L), index.search("数据结构", 10L, null, null, null));
+        Assertions.assertEquals(3, index.size());
+    }
+
+    private static List<Long> sorted(List<Long> ids) {
+        return ids.stream().sorted().toList();
+    }
+
+    private static Resource resource(Long id, String title, String description, String tags,
+                                     Long courseId, String visibility, String fileType) {
+        Resource resource = new Resource();
+        resource.setResourceId(id);
+        resource.setResourceTitle(title);
+        resource.setDescription(description);
+        resource.setTags(tags);
+        resource.setCourseId(courseId);
+        resource.setVisibility(visibility);
+        resource.setFileType(fileType);
+        resource.setIsTop(0);
+        resource.setStatus(1);
+        resource.setCreateTime(LocalDateTime.of(2024, 1, id.intValue(), 0, 0));
+        return resource;
+    }
+}
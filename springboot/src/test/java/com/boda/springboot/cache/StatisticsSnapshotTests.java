@@ -0,0 +1,60 @@
+package com.boda.springboot.cache;
+
+import com.boda.springboot.common.Constant;
+import com.boda.springboot.mapper.AnswerMapper;
+import com.boda.springboot.mapper.CourseMapper;
+import com.boda.springboot.mapper.QuestionMapper;
+import com.boda.springboot.mapper.ResourceMapper;
+import com.boda.springboot.mapper.UserMapper;
+import com.boda.springboot.vo.StatisticsOverviewVO;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.test.util.ReflectionTestUtils;
+
+/**
+ * StatisticsSnapshot 单元测试
+ */
+public class StatisticsSnapshotTests {
+
+    @Test
+    void testLoadOnceThenApplyDeltas() {
+        UserMapper userMapper = Mockito.mock(UserMapper.class);
+        CourseMapper courseMapper = Mockito.mock(CourseMapper.class);
+        ResourceMapper resourceMapper = Mockito.mock(ResourceMapper.class);
+        QuestionMapper questionMapper = Mockito.mock(QuestionMapper.class);
+        AnswerMapper answerMapper = Mockito.mock(AnswerMapper.class);
+        Mockito.when(userMapper.countStudents()).thenReturn(10, 7);
+        Mockito.when(userMapper.countTeachers()).thenReturn(2);
+        Mockito.when(courseMapper.countCourses()).thenReturn(3);
+        Mockito.when(resourceMapper.countResources()).thenReturn(4);
+        Mockito.when(questionMapper.countQuestions()).thenReturn(5);
+        Mockito.when(answerMapper.countAnswers()).thenReturn(6);
+
+        StatisticsSnapshot snapshot = new StatisticsSnapshot();
+        ReflectionTestUtils.setField(snapshot, "userMapper", userMapper);
+        ReflectionTestUtils.setField(snapshot, "courseMapper", courseMapper);
+        ReflectionTestUtils.setField(snapshot, "resourceMapper", resourceMapper);
+        ReflectionTestUtils.setField(snapshot, "questionMapper", questionMapper);
+        ReflectionTestUtils.setField(snapshot, "answerMapper", answerMapper);
+
+        StatisticsOverviewVO overview = snapshot.getOverview();
+        Assertions.assertEquals(12L, overview.getTotalUsers());
+        Assertions.assertEquals(6L, overview.getTotalAnswers());
+
+        snapshot.onUsersCreated(Constant.ROLE_STUDENT, 3);
+        snapshot.onCourseDeleted();
+        snapshot.onQuestionCreated();
+        overview = snapshot.getOverview();
+        Assertions.assertEquals(13L, overview.getTotalStudents());
+        Assertions.assertEquals(2L, overview.getTotalCourses());
+        Assertions.assertEquals(6L, overview.getTotalQuestions());
+        Mockito.verify(courseMapper, Mockito.times(1)).countCourses();
+
+        // 标记待重算后只重新统计用户数
+        snapshot.markUsersChanged();
+        snapshot.reconcileDirtyUsers();
+        Assertions.assertEquals(7L, snapshot.getOverview().getTotalStudents());
+        Mockito.verify(courseMapper, Mockito.times(1)).countCourses();
+    }
+}
@@ -0,0 +1,191 @@
+package com.boda.springboot.cache;
+
+import com.boda.springboot.mapper.NotificationMapper;
+import com.boda.springboot.vo.UnreadCountVO;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * UnreadCounter 单元测试
+ */
+public class UnreadCounterTests {
+
+    private NotificationMapper notificationMapper;
+
+    private UnreadCounter unreadCounter;
+
+    @BeforeEach
+    void setUp() {
+        notificationMapper = Mockito.mock(NotificationMapper.class);
+        unreadCounter = new UnreadCounter(100, 60_000);
+        ReflectionTestUtils.setField(unreadCounter, "notificationMapper", notificationMapper);
+    }
+
+    @Test
+    void testLazyLoadAndDeltas() {
+        // 未缓存的用户不记录增量，首次查询时从数据库加载
+        unreadCounter.onCreated(1L);
+        Mockito.when(notificationMapper.countUnread(1L)).thenReturn(3);
+        Assertions.assertEquals(3, unreadCounter.get(1L));
+
+        unreadCounter.onCreated(List.of(1L, 2L));
+        unreadCounter.onRead(1L, 2);
+        Assertions.assertEquals(2, unreadCounter.get(1L));
+
+        // 已读条数为 0（重复标记）不变，数量不会减为负数
+        unreadCounter.onRead(1L, 0);
+        unreadCounter.onRead(1L, 5);
+        Assertions.assertEquals(0, unreadCounter.get(1L));
+        Mockito.verify(notificationMapper, Mockito.times(1)).countUnread(1L);
+    }
+
+    @Test
+    void testUpdateForOtherUserKeepsLoad() {
+        Mockito.when(notificationMapper.countUnread(1L)).thenAnswer(invocation -> {
+            // 加载用户 1 期间用户 2 收到新通知
+            unreadCounter.onCreated(2L);
+            return 3;
+        });
+        Assertions.assertEquals(3, unreadCounter.get(1L));
+        Assertions.assertEquals(3, unreadCounter.get(1L));
+        Mockito.verify(notificationMapper, Mockito.times(1)).countUnread(1L);
+    }
+
+    @Test
+    void testUpdateForSameUserDiscardsLoad() {
+        Mockito.when(notificationMapper.countUnread(1L)).thenAnswer(invocation -> {
+            // 加载期间该用户收到新通知，不能确定查询结果是否包含它
+            unreadCounter.onCreated(1L);
+            return 3;
+        });
+        Assertions.assertEquals(3, unreadCounter.get(1L));
+
+        Mockito.when(notificationMapper.countUnread(1L)).thenReturn(4);
+        Assertions.assertEquals(4, unreadCounter.get(1L));
+        Assertions.assertEquals(4, unreadCounter.get(1L));
+        Mockito.verify(notificationMapper, Mockito.times(2)).countUnread(1L);
+    }
+
+    @Test
+    void testReconcileSkipsTouchedUsers() {
+        Mockito.when(notificationMapper.countUnread(Mockito.anyLong())).thenReturn(1);
+        unreadCounter.get(1L);
+        unreadCounter.get(2L);
+
+        Mockito.when(notificationMapper.countUnreadByUserIds(Mockito.anyList())).thenAnswer(invocation -> {
+            // 重新统计期间用户 2 收到新通知
+            unreadCounter.onCreated(2L);
+            return List.of(count(1L, 4), count(2L, 7));
+        });
+        unreadCounter.reconcile();
+
+        Assertions.assertEquals(4, unreadCounter.get(1L));
+        Assertions.assertEquals(2, unreadCounter.get(2L));
+    }
+
+    @Test
+    void testBroadcastIncrementsCachedUsersOnly() {
+        Mockito.when(notificationMapper.countUnread(1L)).thenReturn(2);
+        unreadCounter.get(1L);
+
+        unreadCounter.onBroadcast(unreadCounter.broadcastReceived());
+        Assertions.assertEquals(3, unreadCounter.get(1L));
+
+        // 未缓存的用户首次查询时从数据库加载（合并查询已包含广播通知）
+        Mockito.when(notificationMapper.countUnread(2L)).thenReturn(1);
+        Assertions.assertEquals(1, unreadCounter.get(2L));
+    }
+
+    @Test
+    void testBroadcastSkipsCountersLoadedAfterReceived() {
+        Mockito.when(notificationMapper.countUnread(1L)).thenReturn(2);
+        unreadCounter.get(1L);
+        long received = unreadCounter.broadcastReceived();
+
+        // 收到广播后、推送任务执行前加载的用户：数据库统计已包含这条广播
+        Mockito.when(notificationMapper.countUnread(2L)).thenReturn(5);
+        unreadCounter.get(2L);
+        unreadCounter.onBroadcast(received);
+
+        Assertions.assertEquals(3, unreadCounter.get(1L));
+        Assertions.assertEquals(5, unreadCounter.get(2L));
+    }
+
+    @Test
+    void testLoadSpanningBroadcastIsNotCached() {
+        Mockito.when(notificationMapper.countUnread(1L)).thenAnswer(invocation -> {
+            // 查询期间收到广播，不能确定查询结果是否包含它
+            unreadCounter.broadcastReceived();
+            return 2;
+        });
+        Assertions.assertEquals(2, unreadCounter.get(1L));
+
+        Mockito.when(notificationMapper.countUnread(1L)).thenReturn(3);
+        Assertions.assertEquals(3, unreadCounter.get(1L));
+        Mockito.verify(notificationMapper, Mockito.times(2)).countUnread(1L);
+    }
+
+    @Test
+    void testTcpBackendDoesNotCache() {
+        // 多实例部署时其他实例的变更不会通知到本实例，每次都查询数据库
+        ReflectionTestUtils.setField(unreadCounter, "busBackend", "tcp");
+        Mockito.when(notificationMapper.countUnread(1L)).thenReturn(2, 5);
+
+        Assertions.assertEquals(2, unreadCounter.get(1L));
+        Assertions.assertEquals(5, unreadCounter.get(1L));
+        Mockito.verify(notificationMapper, Mockito.times(2)).countUnread(1L);
+        Assertions.assertEquals(0, unreadCounter.getMetrics().getSize());
+    }
+
+    @Test
+    void testBroadcastAndReconcileWhileOtherThreadsReadAndLoad() throws InterruptedException {
+        UnreadCounter counter = new UnreadCounter(10_000, 60_000);
+        ReflectionTestUtils.setField(counter, "notificationMapper", notificationMapper);
+        ReflectionTestUtils.setField(counter, "pushEnabled", false);
+        Mockito.when(notificationMapper.countUnread(Mockito.anyLong())).thenReturn(0);
+        Mockito.when(notificationMapper.countUnreadByUserIds(Mockito.anyList())).thenReturn(List.of());
+        for (long userId = 1; userId <= 2000; userId++) {
+            counter.get(userId);
+        }
+
+        // 其他线程持续读取和加载，改变 LRU 顺序
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        AtomicBoolean running = new AtomicBoolean(true);
+        Thread reader = new Thread(() -> {
+            long userId = 1;
+            try {
+                while (running.get()) {
+                    counter.get(userId++ % 4000 + 1);
+                }
+            } catch (Throwable e) {
+                failure.set(e);
+            }
+        });
+        reader.start();
+        try {
+            for (int i = 0; i < 100; i++) {
+                counter.onBroadcast(counter.broadcastReceived());
+                counter.reconcile();
+            }
+        } finally {
+            running.set(false);
+            reader.join();
+        }
+
+        Assertions.assertNull(failure.get());
+    }
+
+    private static UnreadCountVO count(Long userId, int unread) {
+        UnreadCountVO vo = new UnreadCountVO();
+        vo.setUserId(userId);
+        vo.setUnreadCount(unread);
+        return vo;
+    }
+}
@@ -0,0 +1,49 @@
+package com.boda.springboot.cache;
+
+import com.boda.springboot.entity.User;
+import com.boda.springboot.mapper.UserMapper;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * UserProfileCache 单元测试
+ */
+public class UserProfileCacheTests {
+
+    @Test
+    void testBatchLoadOnlyMissingUsers() {
+        UserMapper userMapper = Mockito.mock(UserMapper.class);
+        UserProfileCache cache = new UserProfileCache(100, 60_000);
+        ReflectionTestUtils.setField(cache, "userMapper", userMapper);
+
+        Mockito.when(userMapper.selectProfilesByIds(List.of(1L, 2L)))
+                .thenReturn(List.of(user(1L, "alice", "张三"), user(2L, "bob", null)));
+        Map<Long, UserProfile> profiles = cache.getAll(List.of(1L, 2L));
+        Assertions.assertEquals("张三", profiles.get(1L).getDisplayName());
+        Assertions.assertEquals("bob", profiles.get(2L).getDisplayName());
+
+        // 只加载未命中的用户
+        Mockito.when(userMapper.selectProfilesByIds(List.of(3L))).thenReturn(List.of(user(3L, "carol", "王五")));
+        Assertions.assertEquals(3, cache.getAll(List.of(1L, 2L, 3L)).size());
+        Mockito.verify(userMapper).selectProfilesByIds(List.of(3L));
+
+        // 失效后重新加载
+        Mockito.when(userMapper.selectProfilesByIds(List.of(1L))).thenReturn(List.of(user(1L, "alice", "张三丰")));
+        cache.invalidate(1L);
+        Assertions.assertEquals("张三丰", cache.get(1L).getDisplayName());
+    }
+
+    private static User user(Long userId, String username, String realName) {
+        User user = new User();
+        user.setUserId(userId);
+        user.setUsername(username);
+        user.setRealName(realName);
+        user.setRole("STUDENT");
+        return user;
+    }
+}
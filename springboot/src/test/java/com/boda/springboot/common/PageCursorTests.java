@@ -0,0 +1,57 @@
+package com.boda.springboot.common;
+
+import com.boda.springboot.exception.ServiceException;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * PageCursor 单元测试
+ */
+public class PageCursorTests {
+
+    @Test
+    void testEncodeDecodeRoundTrip() {
+        PageCursor cursor = new PageCursor(1, null, LocalDateTime.of(2026, 3, 1, 8, 30, 15), 42L);
+        Assertions.assertEquals(cursor, PageCursor.decode(cursor.encode(), PageCursor.Order.TOP_TIME));
+
+        PageCursor countCursor = new PageCursor(null, 17L, null, 5L);
+        Assertions.assertEquals(countCursor, PageCursor.decode(countCursor.encode(), PageCursor.Order.COUNT));
+
+        PageCursor offsetCursor = new PageCursor(null, 40L, null, null);
+        Assertions.assertEquals(offsetCursor, PageCursor.decode(offsetCursor.encode(), PageCursor.Order.OFFSET));
+
+        Assertions.assertNull(PageCursor.decode("", PageCursor.Order.TIME));
+        Assertions.assertThrows(ServiceException.class, () -> PageCursor.decode("not-a-cursor", PageCursor.Order.TIME));
+    }
+
+    @Test
+    void testCursorFromOtherOrderIsRejected() {
+        String timeCursor = PageCursor.ofTime(LocalDateTime.of(2026, 3, 1, 8, 30, 15), 42L).encode();
+        String countCursor = new PageCursor(null, 17L, null, 5L).encode();
+        String topTimeCursor = new PageCursor(0, null, LocalDateTime.of(2026, 3, 1, 8, 30, 15), 42L).encode();
+
+        // 例如把收藏列表（时间）的游标用于资源默认排序（置顶 + 时间），或按下载次数的游标用于时间排序
+        ServiceException e = Assertions.assertThrows(ServiceException.class,
+                () -> PageCursor.decode(timeCursor, PageCursor.Order.TOP_TIME));
+        Assertions.assertEquals("400", e.getCode());
+        Assertions.assertThrows(ServiceException.class, () -> PageCursor.decode(countCursor, PageCursor.Order.TIME));
+        Assertions.assertThrows(ServiceException.class, () -> PageCursor.decode(topTimeCursor, PageCursor.Order.COUNT));
+        Assertions.assertThrows(ServiceException.class, () -> PageCursor.decode(countCursor, PageCursor.Order.OFFSET));
+    }
+
+    @Test
+    void testToPageResult() {
+        PageResult<Long> hasMore = PageCursor.toPageResult(List.of(3L, 2L, 1L), 2, id -> PageCursor.ofTime(LocalDateTime.now(), id));
+        Assertions.assertEquals(List.of(3L, 2L), hasMore.getRecords());
+        Assertions.assertTrue(hasMore.getHasNext());
+        Assertions.assertEquals(2L, PageCursor.decode(hasMore.getNextCursor(), PageCursor.Order.TIME).getId());
+        Assertions.assertEquals(-1L, hasMore.getTotal());
+
+        PageResult<Long> last = PageCursor.toPageResult(List.of(1L), 2, id -> PageCursor.ofTime(null, id));
+        Assertions.assertFalse(last.getHasNext());
+        Assertions.assertNull(last.getNextCursor());
+    }
+}
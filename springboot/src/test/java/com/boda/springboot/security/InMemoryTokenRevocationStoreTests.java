@@ -0,0 +1,72 @@
+package com.boda.springboot.security;
+
+import com.boda.springboot.exception.ServiceException;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * InMemoryTokenRevocationStore 单元测试
+ */
+public class InMemoryTokenRevocationStoreTests {
+
+    @Test
+    void testRevokeAndExpire() throws InterruptedException {
+        InMemoryTokenRevocationStore store = new InMemoryTokenRevocationStore(100, 10, 8);
+        long now = System.currentTimeMillis();
+        store.revoke("short", now + 20);
+        store.revoke("long", now + 60_000);
+
+        Assertions.assertTrue(store.isRevoked("short"));
+        Assertions.assertTrue(store.isRevoked("long"));
+        Assertions.assertFalse(store.isRevoked("unknown"));
+
+        Thread.sleep(50);
+        store.purgeExpired();
+
+        Assertions.assertFalse(store.isRevoked("short"), "过期的作废记录应被清除");
+        Assertions.assertTrue(store.isRevoked("long"), "未过期的作废记录应保留");
+        Assertions.assertEquals(1, store.size());
+    }
+
+    @Test
+    void testAlreadyExpiredTokenIsIgnored() {
+        InMemoryTokenRevocationStore store = new InMemoryTokenRevocationStore(100, 10, 8);
+        store.revoke("expired", System.currentTimeMillis() - 1);
+        Assertions.assertEquals(0, store.size());
+    }
+
+    @Test
+    void testMaxEntriesPurgesExpiredBeforeAccepting() throws InterruptedException {
+        InMemoryTokenRevocationStore store = new InMemoryTokenRevocationStore(3, 10, 8);
+        long now = System.currentTimeMillis();
+        store.revoke("t1", now + 20);
+        store.revoke("t2", now + 60_000);
+        store.revoke("t3", now + 60_000);
+
+        Thread.sleep(50);
+        store.revoke("t4", now + 60_000);
+
+        Assertions.assertEquals(3, store.size(), "记录数不应超过上限");
+        Assertions.assertFalse(store.isRevoked("t1"));
+        Assertions.assertTrue(store.isRevoked("t4"), "清理过期记录后新记录应被接受");
+        Assertions.assertEquals(0, store.getRejectedCount());
+    }
+
+    @Test
+    void testMaxEntriesRejectsWhenAllUnexpired() {
+        InMemoryTokenRevocationStore store = new InMemoryTokenRevocationStore(3, 1000, 60);
+        long now = System.currentTimeMillis();
+        store.revoke("t1", now + 1_000);
+        store.revoke("t2", now + 20_000);
+        store.revoke("t3", now + 30_000);
+
+        ServiceException e = Assertions.assertThrows(ServiceException.class,
+                () -> store.revoke("t4", now + 40_000));
+
+        Assertions.assertEquals("429", e.getCode());
+        Assertions.assertEquals(3, store.size(), "记录数不应超过上限");
+        Assertions.assertTrue(store.isRevoked("t1"), "未过期的作废记录不能被淘汰");
+        Assertions.assertFalse(store.isRevoked("t4"));
+        Assertions.assertEquals(1, store.getRejectedCount());
+    }
+}
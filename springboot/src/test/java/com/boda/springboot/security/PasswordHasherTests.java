@@ -0,0 +1,89 @@
+package com.boda.springboot.security;
+
+import com.boda.springboot.exception.ServiceException;
+import com.boda.springboot.properties.PasswordHashingProperties;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * PasswordHasher 单元测试
+ */
+public class PasswordHasherTests {
+
+    @Test
+    void testEncodeAndMatches() {
+        PasswordHasher hasher = new PasswordHasher(new BCryptPasswordEncoder(4), properties(4, 2, 4, 5000));
+        String encoded = hasher.encode("123456");
+
+        Assertions.assertTrue(hasher.matches("123456", encoded));
+        Assertions.assertFalse(hasher.matches("654321", encoded));
+        Assertions.assertEquals(3, hasher.getMetrics().getCompletedCount());
+        hasher.shutdown();
+    }
+
+    @Test
+    void testRejectWhenQueueFull() throws InterruptedException {
+        CountDownLatch release = new CountDownLatch(1);
+        PasswordEncoder blocking = new BCryptPasswordEncoder(4) {
+            @Override
+            public boolean matches(CharSequence rawPassword, String encodedPassword) {
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return true;
+            }
+        };
+        PasswordHasher hasher = new PasswordHasher(blocking, properties(4, 1, 1, 5000));
+
+        // 一个占住线程，一个占住队列
+        new Thread(() -> hasher.matches("a", "x")).start();
+        new Thread(() -> hasher.matches("b", "x")).start();
+        Thread.sleep(200);
+
+        ServiceException e = Assertions.assertThrows(ServiceException.class, () -> hasher.matches("c", "x"));
+        Assertions.assertEquals("429", e.getCode());
+        Assertions.assertEquals(1, hasher.getMetrics().getRejectedCount());
+
+        // 后台任务在自己的线程中计算，不受线程池繁忙影响
+        String encoded = hasher.encodeInBackground("123456");
+        Assertions.assertTrue(new BCryptPasswordEncoder(4).matches("123456", encoded));
+
+        release.countDown();
+        hasher.shutdown();
+    }
+
+    @Test
+    void testRehashWhenStrengthRaised() throws InterruptedException {
+        String weak = new BCryptPasswordEncoder(4).encode("123456");
+        PasswordHasher hasher = new PasswordHasher(new BCryptPasswordEncoder(5), properties(5, 1, 4, 5000));
+
+        CountDownLatch done = new CountDownLatch(1);
+        AtomicReference<String> rehashed = new AtomicReference<>();
+        hasher.rehashIfNeeded("123456", weak, encoded -> {
+            rehashed.set(encoded);
+            done.countDown();
+        });
+
+        Assertions.assertTrue(done.await(5, TimeUnit.SECONDS));
+        Assertions.assertTrue(rehashed.get().startsWith("$2a$05$"), "应按新强度重新哈希");
+        Assertions.assertTrue(hasher.matches("123456", rehashed.get()));
+        hasher.shutdown();
+    }
+
+    private static PasswordHashingProperties properties(int strength, int poolSize, int queueCapacity, long waitTimeoutMillis) {
+        PasswordHashingProperties properties = new PasswordHashingProperties();
+        properties.setStrength(strength);
+        properties.setPoolSize(poolSize);
+        properties.setQueueCapacity(queueCapacity);
+        properties.setWaitTimeoutMillis(waitTimeoutMillis);
+        return properties;
+    }
+}
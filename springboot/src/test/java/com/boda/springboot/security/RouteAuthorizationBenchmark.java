@@ -0,0 +1,167 @@
+package com.boda.springboot.security;
+
+import com.boda.springboot.annotation.RequireRole;
+import com.boda.springboot.common.Constant;
+import com.boda.springboot.exception.NotLoginException;
+import com.boda.springboot.exception.PermissionException;
+import com.boda.springboot.interceptor.JwtInterceptor;
+import com.boda.springboot.utils.JwtUtil;
+import jakarta.servlet.http.HttpServletRequest;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.method.HandlerMethod;
+
+import java.util.Arrays;
+
+/**
+ * 接口权限校验每次请求的开销对比（基准测试，默认不运行）
+ * 运行: mvn test -Dtest=RouteAuthorizationBenchmark -Dbenchmark=true
+ *
+ * 两条路径都包含 JwtInterceptor.preHandle（Token 已在验签缓存中）和一次接口方法调用：
+ * before: 拦截器只校验 Token，接口方法经原 RoleCheckAspect 的 AOP 代理调用（代理 + 切面）
+ * after : 拦截器校验 Token 并查 RouteAuthorizationTable，接口方法直接调用
+ */
+@Tag("benchmark")
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+public class RouteAuthorizationBenchmark {
+
+    private static final int WARMUP_ITERATIONS = 1_000_000;
+    private static final int ITERATIONS = 2_000_000;
+    private static final int ROUNDS = 5;
+
+    public static class DemoController {
+
+        private long calls;
+
+        @RequireRole({Constant.ROLE_TEACHER, Constant.ROLE_ADMIN})
+        public long update() {
+            return ++calls;
+        }
+    }
+
+    /**
+     * 原 RoleCheckAspect（已删除）的实现，作为对比基线
+     */
+    @Aspect
+    public static class BaselineRoleCheckAspect {
+
+        @Around("@annotation(com.boda.springboot.annotation.RequireRole)")
+        public Object checkRole(ProceedingJoinPoint joinPoint) throws Throwable {
+            ServletRequestAttributes attributes = (ServletRequestAttributes) RequestContextHolder.getRequestAttributes();
+            if (attributes == null) {
+                throw new RuntimeException("无法获取请求信息");
+            }
+            HttpServletRequest request = attributes.getRequest();
+            String userRole = (String) request.getAttribute("role");
+            if (userRole == null) {
+                throw new NotLoginException("未登录或登录已过期");
+            }
+            MethodSignature signature = (MethodSignature) joinPoint.getSignature();
+            RequireRole requireRole = signature.getMethod().getAnnotation(RequireRole.class);
+            if (!Arrays.asList(requireRole.value()).contains(userRole)) {
+                throw new PermissionException("无访问权限");
+            }
+            return joinPoint.proceed();
+        }
+    }
+
+    private JwtInterceptor interceptor;
+
+    private MockHttpServletRequest request;
+
+    private final MockHttpServletResponse response = new MockHttpServletResponse();
+
+    private DemoController controller;
+
+    private DemoController proxied;
+
+    private HandlerMethod handlerMethod;
+
+    /**
+     * 原拦截器不校验角色：非 HandlerMethod 的处理器跳过查表
+     */
+    private final Object uncheckedHandler = new Object();
+
+    private volatile long sink;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        JwtUtil jwtUtil = new JwtUtil();
+        ReflectionTestUtils.setField(jwtUtil, "secret", "benchmark-secret-key-benchmark-secret-key-0123456789");
+        ReflectionTestUtils.setField(jwtUtil, "expiration", 3_600_000L);
+        interceptor = new JwtInterceptor();
+        ReflectionTestUtils.setField(interceptor, "jwtUtil", jwtUtil);
+        ReflectionTestUtils.setField(interceptor, "routeAuthorizationTable", new RouteAuthorizationTable());
+
+        request = new MockHttpServletRequest("GET", "/api/demo");
+        request.addHeader("Authorization", "Bearer " + jwtUtil.generateToken(1L, "admin", Constant.ROLE_ADMIN));
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+
+        controller = new DemoController();
+        handlerMethod = new HandlerMethod(controller, DemoController.class.getMethod("update"));
+        AspectJProxyFactory factory = new AspectJProxyFactory(new DemoController());
+        factory.setProxyTargetClass(true);
+        factory.addAspect(new BaselineRoleCheckAspect());
+        proxied = factory.getProxy();
+    }
+
+    @AfterEach
+    void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    void compareRoleCheckOverhead() throws Exception {
+        // 两条路径都能通过校验并调用到接口方法
+        Assertions.assertTrue(interceptor.preHandle(request, response, uncheckedHandler));
+        Assertions.assertEquals(1, proxied.update());
+        Assertions.assertTrue(interceptor.preHandle(request, response, handlerMethod));
+        Assertions.assertEquals(1, controller.update());
+
+        run(WARMUP_ITERATIONS, this::before);
+        run(WARMUP_ITERATIONS, this::after);
+        for (int round = 1; round <= ROUNDS; round++) {
+            long before = run(ITERATIONS, this::before);
+            long after = run(ITERATIONS, this::after);
+            System.out.printf("round %d: before %.1f ns/op, after %.1f ns/op%n",
+                    round, (double) before / ITERATIONS, (double) after / ITERATIONS);
+        }
+    }
+
+    private void before() throws Exception {
+        interceptor.preHandle(request, response, uncheckedHandler);
+        sink = proxied.update();
+    }
+
+    private void after() throws Exception {
+        interceptor.preHandle(request, response, handlerMethod);
+        sink = controller.update();
+    }
+
+    private static long run(int iterations, Step step) throws Exception {
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            step.run();
+        }
+        return System.nanoTime() - start;
+    }
+
+    @FunctionalInterface
+    private interface Step {
+        void run() throws Exception;
+    }
+}
@@ -0,0 +1,76 @@
+package com.boda.springboot.security;
+
+import com.boda.springboot.annotation.RequireRole;
+import com.boda.springboot.common.Constant;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.method.HandlerMethod;
+
+/**
+ * RouteAuthorizationTable 单元测试
+ */
+public class RouteAuthorizationTableTests {
+
+    static class DemoController {
+        @RequireRole({Constant.ROLE_TEACHER, Constant.ROLE_ADMIN})
+        public void update() {
+        }
+
+        @RequireRole(Constant.ROLE_STUDENT)
+        public void enroll() {
+        }
+
+        public void list() {
+        }
+
+        @RequireRole("GUEST")
+        public void unknown() {
+        }
+    }
+
+    private final DemoController controller = new DemoController();
+
+    private HandlerMethod handler(String name) throws NoSuchMethodException {
+        return new HandlerMethod(controller, DemoController.class.getMethod(name));
+    }
+
+    @Test
+    void testRequiredMaskMatchesRoles() throws Exception {
+        RouteAuthorizationTable table = new RouteAuthorizationTable();
+        int updateMask = table.requiredMask(handler("update"));
+
+        Assertions.assertEquals(RouteAuthorizationTable.ROLE_TEACHER | RouteAuthorizationTable.ROLE_ADMIN, updateMask);
+        Assertions.assertTrue(RouteAuthorizationTable.isAllowed(RouteAuthorizationTable.roleBit(Constant.ROLE_ADMIN), updateMask));
+        Assertions.assertTrue(RouteAuthorizationTable.isAllowed(RouteAuthorizationTable.roleBit(Constant.ROLE_TEACHER), updateMask));
+        Assertions.assertFalse(RouteAuthorizationTable.isAllowed(RouteAuthorizationTable.roleBit(Constant.ROLE_STUDENT), updateMask));
+
+        int enrollMask = table.requiredMask(handler("enroll"));
+        Assertions.assertTrue(RouteAuthorizationTable.isAllowed(RouteAuthorizationTable.roleBit(Constant.ROLE_STUDENT), enrollMask));
+        Assertions.assertFalse(RouteAuthorizationTable.isAllowed(RouteAuthorizationTable.roleBit(Constant.ROLE_ADMIN), enrollMask));
+    }
+
+    @Test
+    void testUnannotatedRouteAllowsAnyRole() throws Exception {
+        RouteAuthorizationTable table = new RouteAuthorizationTable();
+        int mask = table.requiredMask(handler("list"));
+
+        Assertions.assertEquals(RouteAuthorizationTable.ANY_ROLE, mask);
+        Assertions.assertTrue(RouteAuthorizationTable.isAllowed(RouteAuthorizationTable.roleBit(Constant.ROLE_STUDENT), mask));
+    }
+
+    @Test
+    void testUnknownOrMissingRoleNeverMatchesRestrictedRoute() throws Exception {
+        RouteAuthorizationTable table = new RouteAuthorizationTable();
+        int mask = table.requiredMask(handler("update"));
+
+        Assertions.assertEquals(0, RouteAuthorizationTable.roleBit(null));
+        Assertions.assertFalse(RouteAuthorizationTable.isAllowed(RouteAuthorizationTable.roleBit(null), mask));
+        Assertions.assertFalse(RouteAuthorizationTable.isAllowed(RouteAuthorizationTable.roleBit("GUEST"), mask));
+    }
+
+    @Test
+    void testUnknownRoleInAnnotationFailsFast() {
+        RouteAuthorizationTable table = new RouteAuthorizationTable();
+        Assertions.assertThrows(IllegalStateException.class, () -> table.requiredMask(handler("unknown")));
+    }
+}
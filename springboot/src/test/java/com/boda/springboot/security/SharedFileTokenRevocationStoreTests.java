@@ -0,0 +1,78 @@
+package com.boda.springboot.security;
+
+import com.boda.springboot.exception.ServiceException;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * SharedFileTokenRevocationStore 单元测试
+ */
+public class SharedFileTokenRevocationStoreTests {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void testRevocationIsSharedBetweenInstances() {
+        String file = dir.resolve("revoked.txt").toString();
+        SharedFileTokenRevocationStore a = new SharedFileTokenRevocationStore(100, 1000, 60, file, 1 << 20);
+        SharedFileTokenRevocationStore b = new SharedFileTokenRevocationStore(100, 1000, 60, file, 1 << 20);
+        long expiresAt = System.currentTimeMillis() + 60_000;
+
+        a.revoke("jti-1", expiresAt);
+        Assertions.assertTrue(a.isRevoked("jti-1"));
+        Assertions.assertFalse(b.isRevoked("jti-1"), "同步前另一实例只查本地内存");
+
+        b.sync();
+        Assertions.assertTrue(b.isRevoked("jti-1"));
+
+        // 新启动的实例构造时读取已有记录
+        SharedFileTokenRevocationStore c = new SharedFileTokenRevocationStore(100, 1000, 60, file, 1 << 20);
+        Assertions.assertTrue(c.isRevoked("jti-1"));
+    }
+
+    @Test
+    void testCompactionKeepsLiveEntriesAndOtherInstancesRereads() throws Exception {
+        Path path = dir.resolve("revoked.txt");
+        String file = path.toString();
+        // 阈值很小，每次写入都会触发压缩
+        SharedFileTokenRevocationStore a = new SharedFileTokenRevocationStore(100, 10, 8, file, 1);
+        SharedFileTokenRevocationStore b = new SharedFileTokenRevocationStore(100, 10, 8, file, 1);
+        long now = System.currentTimeMillis();
+
+        a.revoke("short", now + 20);
+        Thread.sleep(50);
+        a.revoke("long-1", now + 60_000);
+        a.revoke("long-2", now + 60_000);
+
+        List<String> lines = Files.readAllLines(path, StandardCharsets.UTF_8);
+        Assertions.assertTrue(lines.get(0).startsWith("#"));
+        Assertions.assertNotEquals("#1", lines.get(0), "压缩后代数应增加");
+        Assertions.assertTrue(lines.stream().noneMatch(line -> line.startsWith("short,")), "过期记录应在压缩时移除");
+
+        b.sync();
+        Assertions.assertTrue(b.isRevoked("long-1"));
+        Assertions.assertTrue(b.isRevoked("long-2"));
+    }
+
+    @Test
+    void testRejectedRevocationIsNotShared() throws Exception {
+        Path path = dir.resolve("revoked.txt");
+        SharedFileTokenRevocationStore store = new SharedFileTokenRevocationStore(1, 1000, 60, path.toString(), 1 << 20);
+        long expiresAt = System.currentTimeMillis() + 60_000;
+
+        store.revoke("jti-1", expiresAt);
+        Assertions.assertThrows(ServiceException.class, () -> store.revoke("jti-2", expiresAt));
+
+        Assertions.assertTrue(store.isRevoked("jti-1"));
+        Assertions.assertFalse(store.isRevoked("jti-2"));
+        Assertions.assertFalse(Files.readString(path, StandardCharsets.UTF_8).contains("jti-2"),
+                "被拒绝的作废记录不应写入共享文件");
+    }
+}
@@ -0,0 +1,117 @@
+package com.boda.springboot.service.impl;
+
+import com.boda.springboot.dto.LoginRequest;
+import com.boda.springboot.entity.User;
+import com.boda.springboot.mapper.UserMapper;
+import com.boda.springboot.properties.PasswordHashingProperties;
+import com.boda.springboot.security.PasswordHasher;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mockito;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * AuthServiceImpl 单元测试
+ * 用内存中的密码哈希模拟 user 表，replacePasswordHash 按 SQL 的条件更新
+ */
+public class AuthServiceImplTests {
+
+    private static final String WEAK_HASH = new BCryptPasswordEncoder(4).encode("123456");
+
+    private final AtomicReference<String> storedHash = new AtomicReference<>(WEAK_HASH);
+
+    /**
+     * 放行后台重新哈希
+     */
+    private final CountDownLatch releaseRehash = new CountDownLatch(1);
+
+    private UserMapper userMapper;
+
+    private PasswordHasher passwordHasher;
+
+    private AuthServiceImpl authService;
+
+    @BeforeEach
+    void setUp() {
+        BCryptPasswordEncoder encoder = new BCryptPasswordEncoder(5) {
+            @Override
+            public String encode(CharSequence rawPassword) {
+                if (Thread.currentThread().getName().startsWith("password-hash-")) {
+                    try {
+                        releaseRehash.await(5, TimeUnit.SECONDS);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+                return super.encode(rawPassword);
+            }
+        };
+        PasswordHashingProperties properties = new PasswordHashingProperties();
+        properties.setStrength(5);
+        properties.setPoolSize(1);
+        passwordHasher = new PasswordHasher(encoder, properties);
+
+        userMapper = Mockito.mock(UserMapper.class);
+        Mockito.when(userMapper.selectByUsername("alice")).thenAnswer(invocation -> {
+            User user = new User();
+            user.setUserId(1L);
+            user.setUsername("alice");
+            user.setPassword(storedHash.get());
+            user.setStatus(1);
+            return user;
+        });
+        Mockito.when(userMapper.replacePasswordHash(ArgumentMatchers.eq(1L), ArgumentMatchers.anyString(),
+                ArgumentMatchers.anyString())).thenAnswer(invocation ->
+                storedHash.compareAndSet(invocation.getArgument(1), invocation.getArgument(2)) ? 1 : 0);
+
+        authService = new AuthServiceImpl();
+        ReflectionTestUtils.setField(authService, "userMapper", userMapper);
+        ReflectionTestUtils.setField(authService, "passwordHasher", passwordHasher);
+    }
+
+    @AfterEach
+    void tearDown() {
+        passwordHasher.shutdown();
+    }
+
+    @Test
+    void testLoginUpgradesWeakHash() {
+        authService.login(login("123456"));
+        releaseRehash.countDown();
+
+        Mockito.verify(userMapper, Mockito.timeout(5000)).replacePasswordHash(ArgumentMatchers.eq(1L),
+                ArgumentMatchers.eq(WEAK_HASH), ArgumentMatchers.anyString());
+        Assertions.assertTrue(storedHash.get().startsWith("$2a$05$"), "应按新强度写回");
+        Assertions.assertTrue(new BCryptPasswordEncoder().matches("123456", storedHash.get()));
+    }
+
+    @Test
+    void testRehashDoesNotOverwritePasswordChangedMeanwhile() {
+        authService.login(login("123456"));
+
+        // 重新哈希完成前用户重置了密码
+        String resetHash = new BCryptPasswordEncoder(4).encode("new-password");
+        storedHash.set(resetHash);
+        releaseRehash.countDown();
+
+        Mockito.verify(userMapper, Mockito.timeout(5000)).replacePasswordHash(ArgumentMatchers.eq(1L),
+                ArgumentMatchers.eq(WEAK_HASH), ArgumentMatchers.anyString());
+        Assertions.assertEquals(resetHash, storedHash.get(), "旧密码的哈希不能覆盖重置后的密码");
+        Mockito.verify(userMapper, Mockito.never()).updatePassword(ArgumentMatchers.any(), ArgumentMatchers.any());
+    }
+
+    private static LoginRequest login(String password) {
+        LoginRequest request = new LoginRequest();
+        request.setUsername("alice");
+        request.setPassword(password);
+        return request;
+    }
+}
@@ -0,0 +1,145 @@
+package com.boda.springboot.service.impl;
+
+import com.boda.springboot.cache.CourseCache;
+import com.boda.springboot.cache.UserProfile;
+import com.boda.springboot.cache.UserProfileCache;
+import com.boda.springboot.common.Constant;
+import com.boda.springboot.entity.Course;
+import com.boda.springboot.entity.Notification;
+import com.boda.springboot.entity.NotificationOutboxEvent;
+import com.boda.springboot.entity.Question;
+import com.boda.springboot.mapper.NotificationOutboxMapper;
+import com.boda.springboot.mapper.TeacherCourseMapper;
+import com.boda.springboot.service.NotificationService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mockito;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * NotificationOutboxServiceImpl 单元测试
+ */
+public class NotificationOutboxServiceImplTests {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private NotificationOutboxMapper outboxMapper;
+
+    private TeacherCourseMapper teacherCourseMapper;
+
+    private NotificationService notificationService;
+
+    private UserProfileCache userProfileCache;
+
+    private NotificationOutboxServiceImpl outboxService;
+
+    @BeforeEach
+    void setUp() {
+        outboxMapper = Mockito.mock(NotificationOutboxMapper.class);
+        teacherCourseMapper = Mockito.mock(TeacherCourseMapper.class);
+        notificationService = Mockito.mock(NotificationService.class);
+        userProfileCache = Mockito.mock(UserProfileCache.class);
+        CourseCache courseCache = Mockito.mock(CourseCache.class);
+        Course course = new Course();
+        course.setCourseName("高等数学");
+        Mockito.when(courseCache.getById(10L)).thenReturn(course);
+
+        outboxService = new NotificationOutboxServiceImpl();
+        ReflectionTestUtils.setField(outboxService, "notificationOutboxMapper", outboxMapper);
+        ReflectionTestUtils.setField(outboxService, "teacherCourseMapper", teacherCourseMapper);
+        ReflectionTestUtils.setField(outboxService, "notificationService", notificationService);
+        ReflectionTestUtils.setField(outboxService, "userProfileCache", userProfileCache);
+        ReflectionTestUtils.setField(outboxService, "courseCache", courseCache);
+        ReflectionTestUtils.setField(outboxService, "transactionManager", Mockito.mock(PlatformTransactionManager.class));
+        ReflectionTestUtils.setField(outboxService, "objectMapper", objectMapper);
+        ReflectionTestUtils.setField(outboxService, "batchSize", 100);
+        outboxService.init();
+    }
+
+    @AfterEach
+    void tearDown() {
+        outboxService.shutdown();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testBatchBecomesOneInsert() throws Exception {
+        Mockito.when(outboxMapper.selectPendingForUpdate(100)).thenReturn(List.of(
+                event(1L, NotificationOutboxServiceImpl.EVENT_QUESTION_SUBMITTED,
+                        new NotificationOutboxServiceImpl.QuestionSubmitted(100L, 1L, 10L, null, "极限")),
+                event(2L, NotificationOutboxServiceImpl.EVENT_QUESTION_SUBMITTED,
+                        new NotificationOutboxServiceImpl.QuestionSubmitted(101L, 1L, 10L, null, "导数")),
+                event(3L, NotificationOutboxServiceImpl.EVENT_QUESTION_ANSWERED,
+                        new NotificationOutboxServiceImpl.QuestionAnswered(99L, 1L, 2L, "积分")),
+                event(4L, "UNKNOWN", Map.of())));
+        Mockito.when(teacherCourseMapper.selectTeacherIdsByCourseId(10L)).thenReturn(List.of(2L, 3L));
+        Mockito.when(userProfileCache.getAll(ArgumentMatchers.anyCollection())).thenReturn(Map.of(
+                1L, new UserProfile(1L, "s1", "张三", null, "STUDENT"),
+                2L, new UserProfile(2L, "t2", "李老师", null, "TEACHER")));
+
+        Assertions.assertEquals(4, outboxService.dispatchBatch());
+
+        ArgumentCaptor<List<Notification>> captor = ArgumentCaptor.forClass(List.class);
+        Mockito.verify(notificationService).createNotifications(captor.capture());
+        List<Notification> notifications = captor.getValue();
+        Assertions.assertEquals(List.of(2L, 3L, 2L, 3L, 1L), notifications.stream().map(Notification::getUserId).toList());
+        Assertions.assertEquals("学生 张三 在课程《高等数学》中提出了新问题：极限", notifications.get(0).getContent());
+        Assertions.assertEquals(Constant.NOTIFICATION_TYPE_ANSWER_REPLY, notifications.get(4).getNotificationType());
+        Assertions.assertEquals("同学张三，你的问题「积分」已被李老师回答", notifications.get(4).getContent());
+
+        // 同一课程的教师只查询一次，用户信息一次查询，无法识别的事件也被删除
+        Mockito.verify(teacherCourseMapper, Mockito.times(1)).selectTeacherIdsByCourseId(10L);
+        Mockito.verify(userProfileCache, Mockito.times(1)).getAll(ArgumentMatchers.anyCollection());
+        Mockito.verify(outboxMapper).deleteByIds(List.of(1L, 2L, 3L, 4L));
+    }
+
+    @Test
+    void testDesignatedTeacherOnly() throws Exception {
+        Mockito.when(outboxMapper.selectPendingForUpdate(100)).thenReturn(List.of(
+                event(1L, NotificationOutboxServiceImpl.EVENT_QUESTION_SUBMITTED,
+                        new NotificationOutboxServiceImpl.QuestionSubmitted(100L, 1L, 10L, 5L, "极限"))));
+        Mockito.when(userProfileCache.getAll(ArgumentMatchers.anyCollection())).thenReturn(Map.of());
+
+        outboxService.dispatchBatch();
+
+        Mockito.verify(notificationService).createNotifications(ArgumentMatchers.argThat(notifications ->
+                notifications.size() == 1 && notifications.get(0).getUserId().equals(5L)
+                        && notifications.get(0).getContent().startsWith("学生 学生 ")));
+        Mockito.verifyNoInteractions(teacherCourseMapper);
+    }
+
+    @Test
+    void testRecordOnlyWritesEvent() throws Exception {
+        Question question = new Question();
+        question.setQuestionId(100L);
+        question.setStudentId(1L);
+        question.setCourseId(10L);
+        question.setQuestionTitle("极限");
+
+        outboxService.recordQuestionSubmitted(question);
+
+        ArgumentCaptor<NotificationOutboxEvent> captor = ArgumentCaptor.forClass(NotificationOutboxEvent.class);
+        Mockito.verify(outboxMapper).save(captor.capture());
+        Assertions.assertEquals(NotificationOutboxServiceImpl.EVENT_QUESTION_SUBMITTED, captor.getValue().getEventType());
+        Assertions.assertEquals(new NotificationOutboxServiceImpl.QuestionSubmitted(100L, 1L, 10L, null, "极限"),
+                objectMapper.readValue(captor.getValue().getPayload(), NotificationOutboxServiceImpl.QuestionSubmitted.class));
+        Mockito.verifyNoInteractions(teacherCourseMapper, notificationService);
+    }
+
+    private NotificationOutboxEvent event(Long outboxId, String eventType, Object payload) throws Exception {
+        NotificationOutboxEvent event = new NotificationOutboxEvent();
+        event.setOutboxId(outboxId);
+        event.setEventType(eventType);
+        event.setPayload(objectMapper.writeValueAsString(payload));
+        return event;
+    }
+}
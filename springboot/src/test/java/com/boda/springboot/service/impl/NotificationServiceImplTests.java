@@ -0,0 +1,188 @@
+package com.boda.springboot.service.impl;
+
+import com.boda.springboot.cache.PageCounter;
+import com.boda.springboot.cache.UnreadCounter;
+import com.boda.springboot.common.PageCursor;
+import com.boda.springboot.common.PageResult;
+import com.boda.springboot.dto.NotificationPageQueryDTO;
+import com.boda.springboot.entity.BroadcastNotification;
+import com.boda.springboot.entity.Notification;
+import com.boda.springboot.exception.ServiceException;
+import com.boda.springboot.mapper.BroadcastNotificationMapper;
+import com.boda.springboot.mapper.NotificationMapper;
+import com.boda.springboot.service.NotificationFanoutService;
+import com.boda.springboot.vo.NotificationVO;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.ArgumentMatchers;
+import org.mockito.InOrder;
+import org.mockito.Mockito;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * NotificationServiceImpl 单元测试
+ * 广播通知与个人通知由 selectPageList 合并，广播通知的ID为 -broadcast_id
+ */
+public class NotificationServiceImplTests {
+
+    private static final Long USER_ID = 1L;
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2024, 5, 1, 12, 0);
+
+    private NotificationMapper notificationMapper;
+
+    private BroadcastNotificationMapper broadcastNotificationMapper;
+
+    private UnreadCounter unreadCounter;
+
+    private NotificationServiceImpl notificationService;
+
+    @BeforeEach
+    void setUp() {
+        notificationMapper = Mockito.mock(NotificationMapper.class);
+        broadcastNotificationMapper = Mockito.mock(BroadcastNotificationMapper.class);
+        unreadCounter = new UnreadCounter(100, 60_000);
+        ReflectionTestUtils.setField(unreadCounter, "notificationMapper", notificationMapper);
+        ReflectionTestUtils.setField(unreadCounter, "pushEnabled", false);
+
+        notificationService = new NotificationServiceImpl();
+        ReflectionTestUtils.setField(notificationService, "notificationMapper", notificationMapper);
+        ReflectionTestUtils.setField(notificationService, "broadcastNotificationMapper", broadcastNotificationMapper);
+        ReflectionTestUtils.setField(notificationService, "notificationFanoutService", Mockito.mock(NotificationFanoutService.class));
+        ReflectionTestUtils.setField(notificationService, "pageCounter", Mockito.mock(PageCounter.class));
+        ReflectionTestUtils.setField(notificationService, "unreadCounter", unreadCounter);
+    }
+
+    @Test
+    void testCursorPagesThroughMergedList() {
+        // 合并后按 (创建时间, 通知ID) 倒序：同一时间的广播通知（负数ID）排在个人通知之后
+        Mockito.when(notificationMapper.selectPageList(ArgumentMatchers.eq(USER_ID), ArgumentMatchers.isNull(),
+                        ArgumentMatchers.isNull(), ArgumentMatchers.isNull(), ArgumentMatchers.eq(3)))
+                .thenReturn(List.of(row(10L, NOW), row(-3L, NOW), row(9L, NOW.minusMinutes(1))));
+        NotificationPageQueryDTO queryDTO = new NotificationPageQueryDTO();
+        queryDTO.setPageSize(2);
+        queryDTO.setCursor("");
+
+        PageResult<NotificationVO> first = notificationService.pageQuery(queryDTO, USER_ID);
+        Assertions.assertEquals(List.of(10L, -3L), ids(first));
+        Assertions.assertTrue(first.getHasNext());
+
+        // 下一页的游标停在广播通知上，负数ID原样传给两个分支
+        Mockito.when(notificationMapper.selectPageList(ArgumentMatchers.eq(USER_ID), ArgumentMatchers.isNull(),
+                        ArgumentMatchers.isNull(), ArgumentMatchers.notNull(), ArgumentMatchers.eq(3)))
+                .thenReturn(List.of(row(9L, NOW.minusMinutes(1))));
+        queryDTO.setCursor(first.getNextCursor());
+        PageResult<NotificationVO> second = notificationService.pageQuery(queryDTO, USER_ID);
+
+        ArgumentCaptor<PageCursor> cursor = ArgumentCaptor.forClass(PageCursor.class);
+        Mockito.verify(notificationMapper, Mockito.times(2)).selectPageList(ArgumentMatchers.eq(USER_ID), ArgumentMatchers.isNull(),
+                ArgumentMatchers.isNull(), cursor.capture(), ArgumentMatchers.eq(3));
+        Assertions.assertNull(cursor.getAllValues().get(0));
+        Assertions.assertEquals(NOW, cursor.getValue().getTime());
+        Assertions.assertEquals(-3L, cursor.getValue().getId());
+        Assertions.assertEquals(List.of(9L), ids(second));
+        Assertions.assertFalse(second.getHasNext());
+        Assertions.assertNull(second.getNextCursor());
+    }
+
+    @Test
+    void testUnreadCountLoadsOnceAndFollowsReads() {
+        Mockito.when(notificationMapper.countUnread(USER_ID)).thenReturn(4);
+        Assertions.assertEquals(4, notificationService.getUnreadCount(USER_ID));
+
+        Notification notification = new Notification();
+        notification.setUserId(USER_ID);
+        Mockito.when(notificationMapper.selectById(10L)).thenReturn(notification);
+        Mockito.when(notificationMapper.markAsRead(10L)).thenReturn(1);
+        notificationService.markAsRead(10L, USER_ID);
+
+        Assertions.assertEquals(3, notificationService.getUnreadCount(USER_ID));
+        Mockito.verify(notificationMapper, Mockito.times(1)).countUnread(USER_ID);
+    }
+
+    @Test
+    void testMarkAllAsReadAdvancesWatermarkAndPrunesReceipts() {
+        Mockito.when(notificationMapper.countUnread(USER_ID)).thenReturn(6);
+        notificationService.getUnreadCount(USER_ID);
+        Mockito.when(notificationMapper.markAllAsRead(USER_ID)).thenReturn(2);
+        Mockito.when(broadcastNotificationMapper.selectMaxId()).thenReturn(7L);
+        Mockito.when(broadcastNotificationMapper.countUnread(USER_ID, 7L)).thenReturn(3);
+
+        notificationService.markAllAsRead(USER_ID);
+
+        // 先统计水位以下的未读广播，再推进水位、清理回执
+        InOrder order = Mockito.inOrder(broadcastNotificationMapper);
+        order.verify(broadcastNotificationMapper).countUnread(USER_ID, 7L);
+        order.verify(broadcastNotificationMapper).advanceWatermark(USER_ID, 7L);
+        order.verify(broadcastNotificationMapper).deleteReadReceipts(USER_ID, 7L);
+        Assertions.assertEquals(1, notificationService.getUnreadCount(USER_ID));
+    }
+
+    @Test
+    void testMarkAllAsReadWithoutBroadcasts() {
+        Mockito.when(broadcastNotificationMapper.selectMaxId()).thenReturn(0L);
+
+        notificationService.markAllAsRead(USER_ID);
+
+        Mockito.verify(notificationMapper).markAllAsRead(USER_ID);
+        Mockito.verify(broadcastNotificationMapper, Mockito.never()).advanceWatermark(ArgumentMatchers.any(), ArgumentMatchers.any());
+        Mockito.verify(broadcastNotificationMapper, Mockito.never()).deleteReadReceipts(ArgumentMatchers.any(), ArgumentMatchers.any());
+    }
+
+    @Test
+    void testMarkBroadcastAsRead() {
+        Mockito.when(notificationMapper.countUnread(USER_ID)).thenReturn(2);
+        notificationService.getUnreadCount(USER_ID);
+        Mockito.when(broadcastNotificationMapper.selectVisibleById(USER_ID, 3L)).thenReturn(new BroadcastNotification());
+        Mockito.when(broadcastNotificationMapper.countUnreadById(USER_ID, 3L)).thenReturn(1, 0);
+
+        notificationService.markAsRead(-3L, USER_ID);
+        // 已读的广播重复标记不再写回执，数量不变
+        notificationService.markAsRead(-3L, USER_ID);
+
+        Mockito.verify(broadcastNotificationMapper, Mockito.times(1)).markAsRead(USER_ID, 3L);
+        Mockito.verify(notificationMapper, Mockito.never()).selectById(ArgumentMatchers.any());
+        Assertions.assertEquals(1, notificationService.getUnreadCount(USER_ID));
+    }
+
+    @Test
+    void testInvisibleBroadcastIsRejected() {
+        // 用户注册之前发布的广播不可见
+        Assertions.assertThrows(ServiceException.class, () -> notificationService.markAsRead(-3L, USER_ID));
+        Assertions.assertThrows(ServiceException.class, () -> notificationService.deleteNotification(-3L, USER_ID));
+
+        Mockito.verify(broadcastNotificationMapper, Mockito.never()).markAsRead(ArgumentMatchers.any(), ArgumentMatchers.any());
+        Mockito.verify(broadcastNotificationMapper, Mockito.never()).dismiss(ArgumentMatchers.any(), ArgumentMatchers.any());
+    }
+
+    @Test
+    void testDeleteBroadcastOnlyDismissesForUser() {
+        Mockito.when(notificationMapper.countUnread(USER_ID)).thenReturn(2);
+        notificationService.getUnreadCount(USER_ID);
+        Mockito.when(broadcastNotificationMapper.selectVisibleById(USER_ID, 3L)).thenReturn(new BroadcastNotification());
+        Mockito.when(broadcastNotificationMapper.countUnreadById(USER_ID, 3L)).thenReturn(1);
+
+        notificationService.deleteNotification(-3L, USER_ID);
+
+        Mockito.verify(broadcastNotificationMapper).dismiss(USER_ID, 3L);
+        Mockito.verify(notificationMapper, Mockito.never()).deleteById(ArgumentMatchers.any());
+        Assertions.assertEquals(1, notificationService.getUnreadCount(USER_ID));
+    }
+
+    private static NotificationVO row(Long notificationId, LocalDateTime createTime) {
+        NotificationVO vo = new NotificationVO();
+        vo.setNotificationId(notificationId);
+        vo.setUserId(USER_ID);
+        vo.setCreateTime(createTime);
+        return vo;
+    }
+
+    private static List<Long> ids(PageResult<NotificationVO> result) {
+        return result.getRecords().stream().map(NotificationVO::getNotificationId).toList();
+    }
+}
@@ -0,0 +1,255 @@
+package com.boda.springboot.service.impl;
+
+import cn.hutool.cache.CacheUtil;
+import com.boda.springboot.cache.CourseCache;
+import com.boda.springboot.cache.StatisticsSnapshot;
+import com.boda.springboot.common.Constant;
+import com.boda.springboot.entity.Course;
+import com.boda.springboot.entity.StudentCourse;
+import com.boda.springboot.entity.User;
+import com.boda.springboot.exception.ServiceException;
+import com.boda.springboot.mapper.StudentCourseMapper;
+import com.boda.springboot.mapper.TeacherCourseMapper;
+import com.boda.springboot.mapper.UserMapper;
+import com.boda.springboot.security.PasswordHasher;
+import com.boda.springboot.vo.StudentImportErrorVO;
+import com.boda.springboot.vo.StudentImportTaskVO;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mockito;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+
+/**
+ * StudentImportServiceImpl 单元测试
+ */
+public class StudentImportServiceImplTests {
+
+    private UserMapper userMapper;
+
+    private StudentCourseMapper studentCourseMapper;
+
+    private PasswordHasher passwordHasher;
+
+    private StatisticsSnapshot statisticsSnapshot;
+
+    private StudentImportServiceImpl importService;
+
+    /**
+     * 每批写入的用户（batchSave 的参数会被复用，这里保存副本）
+     */
+    private final List<List<User>> savedBatches = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        userMapper = Mockito.mock(UserMapper.class);
+        studentCourseMapper = Mockito.mock(StudentCourseMapper.class);
+        passwordHasher = Mockito.mock(PasswordHasher.class);
+        statisticsSnapshot = Mockito.mock(StatisticsSnapshot.class);
+        CourseCache courseCache = Mockito.mock(CourseCache.class);
+        TeacherCourseMapper teacherCourseMapper = Mockito.mock(TeacherCourseMapper.class);
+
+        Mockito.when(courseCache.getById(10L)).thenReturn(new Course());
+        Mockito.when(teacherCourseMapper.selectTeacherIdsByCourseId(10L)).thenReturn(List.of(7L));
+        Mockito.when(passwordHasher.encodeInBackground(Constant.DEFAULT_PASSWORD)).thenReturn("{bcrypt}hash");
+        // 登录高峰：哈希线程池拒绝请求
+        Mockito.when(passwordHasher.encode(ArgumentMatchers.anyString()))
+                .thenThrow(new ServiceException("429", "当前登录人数过多，请稍后重试"));
+        AtomicLong nextUserId = new AtomicLong(1000);
+        Mockito.doAnswer(invocation -> {
+            List<User> users = invocation.getArgument(0);
+            users.forEach(user -> user.setUserId(nextUserId.incrementAndGet()));
+            synchronized (savedBatches) {
+                savedBatches.add(new ArrayList<>(users));
+            }
+            return null;
+        }).when(userMapper).batchSave(ArgumentMatchers.anyList());
+
+        importService = new StudentImportServiceImpl();
+        ReflectionTestUtils.setField(importService, "userMapper", userMapper);
+        ReflectionTestUtils.setField(importService, "studentCourseMapper", studentCourseMapper);
+        ReflectionTestUtils.setField(importService, "courseCache", courseCache);
+        ReflectionTestUtils.setField(importService, "teacherCourseMapper", teacherCourseMapper);
+        ReflectionTestUtils.setField(importService, "passwordHasher", passwordHasher);
+        ReflectionTestUtils.setField(importService, "statisticsSnapshot", statisticsSnapshot);
+        ReflectionTestUtils.setField(importService, "transactionManager", Mockito.mock(PlatformTransactionManager.class));
+        ReflectionTestUtils.setField(importService, "batchSize", 2);
+        ReflectionTestUtils.setField(importService, "maxErrors", 100);
+    }
+
+    @AfterEach
+    void tearDown() {
+        importService.shutdown();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testRowsAreInsertedInBatches() throws Exception {
+        StudentImportTaskVO task = importService.submit(csv(
+                "用户名,姓名,学号,课程ID",
+                "s1,张一,2024001,10",
+                "s2,张二,2024002,",
+                "s3,张三,2024003,10",
+                "s4,张四,2024004,",
+                "s5,张五,2024005,10"), null);
+
+        StudentImportTaskVO result = awaitTask(task.getTaskId(), vo -> !"RUNNING".equals(vo.getStatus()));
+
+        Assertions.assertEquals("SUCCESS", result.getStatus());
+        Assertions.assertEquals(5L, result.getProcessedRows());
+        Assertions.assertEquals(5L, result.getSuccessCount());
+        Assertions.assertEquals(0L, result.getFailedCount());
+        Assertions.assertNotNull(result.getFinishTime());
+
+        // batch-size = 2：多行 INSERT 分 3 批写入
+        Assertions.assertEquals(List.of(2, 2, 1), savedBatches.stream().map(List::size).toList());
+        savedBatches.forEach(batch -> batch.forEach(user -> {
+            Assertions.assertEquals("{bcrypt}hash", user.getPassword());
+            Assertions.assertEquals(Constant.ROLE_STUDENT, user.getRole());
+        }));
+        // 默认密码只哈希一次，且不经过哈希线程池（线程池拒绝时导入仍然成功）
+        Mockito.verify(passwordHasher).encodeInBackground(Constant.DEFAULT_PASSWORD);
+        Mockito.verify(passwordHasher, Mockito.never()).encode(ArgumentMatchers.anyString());
+
+        ArgumentCaptor<List<StudentCourse>> relations = ArgumentCaptor.forClass(List.class);
+        Mockito.verify(studentCourseMapper, Mockito.times(3)).batchSave(relations.capture());
+        List<StudentCourse> all = relations.getAllValues().stream().flatMap(List::stream).toList();
+        Assertions.assertEquals(3, all.size());
+        all.forEach(relation -> {
+            Assertions.assertEquals(10L, relation.getCourseId());
+            Assertions.assertEquals(7L, relation.getTeacherId());
+        });
+        Mockito.verify(statisticsSnapshot, Mockito.times(3))
+                .onUsersCreated(ArgumentMatchers.eq(Constant.ROLE_STUDENT), ArgumentMatchers.anyLong());
+    }
+
+    @Test
+    void testDuplicateAndInvalidRowsAreReported() throws Exception {
+        User existing = new User();
+        existing.setUsername("taken");
+        Mockito.when(userMapper.selectConflicts(ArgumentMatchers.anyCollection(),
+                        ArgumentMatchers.anyCollection(), ArgumentMatchers.anyCollection()))
+                .thenReturn(List.of(existing));
+
+        StudentImportTaskVO task = importService.submit(csv(
+                "username,email,courseIds",
+                "ok1,a@x.com,",
+                "ok1,b@x.com,",
+                ",c@x.com,",
+                "ok2,a@x.com,",
+                "ok3,d@x.com,abc",
+                "taken,e@x.com,",
+                "ok4,f@x.com,"), null);
+
+        StudentImportTaskVO result = awaitTask(task.getTaskId(), vo -> !"RUNNING".equals(vo.getStatus()));
+
+        Assertions.assertEquals("SUCCESS", result.getStatus());
+        Assertions.assertEquals(7L, result.getProcessedRows());
+        Assertions.assertEquals(2L, result.getSuccessCount());
+        Assertions.assertEquals(5L, result.getFailedCount());
+        Assertions.assertFalse(result.getErrorsTruncated());
+        List<String> messages = result.getErrors().stream()
+                .map(error -> error.getRowNumber() + ":" + error.getMessage())
+                .sorted()
+                .toList();
+        Assertions.assertEquals(List.of(
+                "3:文件中用户名重复",
+                "4:用户名不能为空",
+                "5:文件中邮箱重复",
+                "6:课程ID格式错误: abc",
+                "7:用户名已存在"), messages);
+        Assertions.assertEquals(List.of("ok1", "ok4"),
+                savedBatches.stream().flatMap(List::stream).map(User::getUsername).toList());
+    }
+
+    @Test
+    void testMissingHeaderFailsTask() throws Exception {
+        StudentImportTaskVO task = importService.submit(csv("姓名,学号", "张一,2024001"), null);
+
+        StudentImportTaskVO result = awaitTask(task.getTaskId(), vo -> !"RUNNING".equals(vo.getStatus()));
+
+        Assertions.assertEquals("FAILED", result.getStatus());
+        Assertions.assertEquals("导入文件缺少用户名(username)列", result.getMessage());
+        Mockito.verify(userMapper, Mockito.never()).batchSave(ArgumentMatchers.anyList());
+    }
+
+    @Test
+    void testProgressIsVisibleWhileRunningAndTaskIsNotEvicted() throws Exception {
+        // 已结束任务只保留 1 个，验证执行中的任务不会因此被淘汰
+        ReflectionTestUtils.setField(importService, "finishedTasks", CacheUtil.newLRUCache(1));
+        CountDownLatch firstBatchStarted = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Mockito.doAnswer(invocation -> {
+            List<User> users = invocation.getArgument(0);
+            if ("slow1".equals(users.get(0).getUsername())) {
+                firstBatchStarted.countDown();
+                Assertions.assertTrue(release.await(10, TimeUnit.SECONDS));
+            }
+            synchronized (savedBatches) {
+                savedBatches.add(new ArrayList<>(users));
+            }
+            return null;
+        }).when(userMapper).batchSave(ArgumentMatchers.anyList());
+
+        StudentImportTaskVO slow = importService.submit(csv("username", "slow1", "slow2", "slow3"), null);
+        Assertions.assertTrue(firstBatchStarted.await(10, TimeUnit.SECONDS));
+
+        StudentImportTaskVO running = importService.getTask(slow.getTaskId());
+        Assertions.assertEquals("RUNNING", running.getStatus());
+        Assertions.assertEquals(2L, running.getProcessedRows());
+        Assertions.assertEquals(0L, running.getSuccessCount());
+        Assertions.assertNull(running.getFinishTime());
+
+        // 另外两个任务先结束，已结束任务缓存只能保留后一个
+        StudentImportTaskVO first = importService.submit(csv("username", "a1"), null);
+        awaitTask(first.getTaskId(), vo -> "SUCCESS".equals(vo.getStatus()));
+        StudentImportTaskVO second = importService.submit(csv("username", "b1"), null);
+        awaitTask(second.getTaskId(), vo -> "SUCCESS".equals(vo.getStatus()));
+        ServiceException evicted = Assertions.assertThrows(ServiceException.class,
+                () -> importService.getTask(first.getTaskId()));
+        Assertions.assertEquals("404", evicted.getCode());
+        Assertions.assertEquals("RUNNING", importService.getTask(slow.getTaskId()).getStatus());
+
+        release.countDown();
+        StudentImportTaskVO done = awaitTask(slow.getTaskId(), vo -> "SUCCESS".equals(vo.getStatus()));
+        Assertions.assertEquals(3L, done.getProcessedRows());
+        Assertions.assertEquals(3L, done.getSuccessCount());
+    }
+
+    @Test
+    void testUnknownTaskIsNotFound() {
+        ServiceException e = Assertions.assertThrows(ServiceException.class, () -> importService.getTask("missing"));
+        Assertions.assertEquals("404", e.getCode());
+    }
+
+    private static MockMultipartFile csv(String... lines) {
+        byte[] content = (String.join("\n", lines) + "\n").getBytes(StandardCharsets.UTF_8);
+        return new MockMultipartFile("file", "students.csv", "text/csv", content);
+    }
+
+    private StudentImportTaskVO awaitTask(String taskId, Predicate<StudentImportTaskVO> condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (System.currentTimeMillis() < deadline) {
+            StudentImportTaskVO vo = importService.getTask(taskId);
+            if (condition.test(vo)) {
+                return vo;
+            }
+            Thread.sleep(10);
+        }
+        Assertions.fail("导入任务未在预期时间内完成: " + taskId);
+        return null;
+    }
+}
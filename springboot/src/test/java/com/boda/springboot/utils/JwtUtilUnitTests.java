@@ -59,11 +59,43 @@ public class JwtUtilUnitTests {
         injectField(jwtUtil, "expiration", 3600_000L);
 
         String token = jwtUtil.generateToken(3003L, "carol", "GUEST");
-        // 简单篡改：改变最后一个字符
-        String tampered = token.substring(0, token.length() - 1) +
-                (token.charAt(token.length() - 1) == 'a' ? 'b' : 'a');
+        // 简单篡改：改变签名中间的一个字符（最后一个字符可能只含填充位，改了解码结果不变）
+        int index = token.length() - 10;
+        String tampered = token.substring(0, index) +
+                (token.charAt(index) == 'a' ? 'b' : 'a') + token.substring(index + 1);
 
         Assertions.assertFalse(jwtUtil.validateToken(tampered), "篡改后的 token 应无效");
     }
-}
 
+    @Test
+    void testParseTokenReturnsCachedPrincipal() {
+        JwtUtil jwtUtil = new JwtUtil();
+        injectField(jwtUtil, "secret", "0123456789abcdef0123456789abcdef");
+        injectField(jwtUtil, "expiration", 3600_000L);
+
+        String token = jwtUtil.generateToken(4004L, "dave", "STUDENT");
+        JwtPrincipal principal = jwtUtil.parseToken(token);
+        Assertions.assertNotNull(principal, "有效 token 应解析出用户信息");
+        Assertions.assertEquals(4004L, principal.getUserId());
+        Assertions.assertEquals("dave", principal.getUsername());
+        Assertions.assertEquals("STUDENT", principal.getRole());
+        Assertions.assertFalse(principal.isExpired());
+
+        // 同一 token 再次解析应直接命中缓存
+        Assertions.assertSame(principal, jwtUtil.parseToken(token), "重复解析应返回缓存结果");
+    }
+
+    @Test
+    void testInvalidatedTokenIsNotServedFromCache() {
+        JwtUtil jwtUtil = new JwtUtil();
+        injectField(jwtUtil, "secret", "0123456789abcdef0123456789abcdef");
+        injectField(jwtUtil, "expiration", 3600_000L);
+
+        String token = jwtUtil.generateToken(5005L, "erin", "TEACHER");
+        Assertions.assertNotNull(jwtUtil.parseToken(token));
+
+        jwtUtil.invalidateToken(token);
+        Assertions.assertNull(jwtUtil.parseToken(token), "作废后的 token 不应再通过校验");
+        Assertions.assertFalse(jwtUtil.validateToken(token));
+    }
+}
@@ -0,0 +1,154 @@
+package com.boda.springboot.websocket;
+
+import com.boda.springboot.cache.UnreadCounter;
+import com.boda.springboot.mapper.NotificationMapper;
+import com.boda.springboot.properties.NotificationReplayProperties;
+import com.boda.springboot.utils.JwtPrincipal;
+import com.boda.springboot.utils.JwtUtil;
+import com.boda.springboot.vo.NotificationVO;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mockito;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.LongStream;
+
+/**
+ * NotificationReplayer 单元测试
+ */
+public class NotificationReplayerTests {
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
+    private NotificationMapper notificationMapper;
+
+    private JwtUtil jwtUtil;
+
+    private UnreadCounter unreadCounter;
+
+    private SessionOutbox outbox;
+
+    private NotificationReplayer replayer;
+
+    @BeforeEach
+    void setUp() {
+        NotificationReplayProperties properties = new NotificationReplayProperties();
+        properties.setBatchSize(2);
+        properties.setMaxNotifications(5);
+        properties.setRetryDelayMillis(20);
+        replayer = new NotificationReplayer(properties);
+
+        notificationMapper = Mockito.mock(NotificationMapper.class);
+        jwtUtil = Mockito.mock(JwtUtil.class);
+        unreadCounter = Mockito.mock(UnreadCounter.class);
+        ReflectionTestUtils.setField(replayer, "notificationMapper", notificationMapper);
+        ReflectionTestUtils.setField(replayer, "jwtUtil", jwtUtil);
+        ReflectionTestUtils.setField(replayer, "unreadCounter", unreadCounter);
+        ReflectionTestUtils.setField(replayer, "objectMapper", objectMapper);
+
+        outbox = Mockito.mock(SessionOutbox.class);
+        Mockito.when(outbox.getUserId()).thenReturn(1L);
+        Mockito.when(outbox.isOpen()).thenReturn(true);
+
+        // 用户 1 的通知ID为 11..17
+        Mockito.when(notificationMapper.selectAfterId(ArgumentMatchers.eq(1L), ArgumentMatchers.anyLong(), ArgumentMatchers.anyInt()))
+                .thenAnswer(invocation -> {
+                    long afterId = invocation.getArgument(1);
+                    int limit = invocation.getArgument(2);
+                    return LongStream.rangeClosed(11, 17).filter(id -> id > afterId).limit(limit)
+                            .mapToObj(NotificationReplayerTests::notification).toList();
+                });
+    }
+
+    @AfterEach
+    void tearDown() {
+        replayer.shutdown();
+    }
+
+    @Test
+    void testStreamsInBoundedBatches() throws Exception {
+        Mockito.when(jwtUtil.parseToken("t1")).thenReturn(principal(1L));
+
+        Assertions.assertTrue(replayer.start(outbox, "t1", 10L));
+
+        List<JsonNode> messages = awaitReplayMessages(3);
+        Assertions.assertEquals(List.of(11L, 12L), ids(messages.get(0)));
+        Assertions.assertTrue(messages.get(0).get("hasMore").asBoolean());
+        Assertions.assertEquals(List.of(13L, 14L), ids(messages.get(1)));
+        Assertions.assertEquals(List.of(15L), ids(messages.get(2)));
+        // 达到 max-notifications 后截断，客户端改为重新拉取
+        Assertions.assertFalse(messages.get(2).get("hasMore").asBoolean());
+        Assertions.assertTrue(messages.get(2).get("truncated").asBoolean());
+        Assertions.assertEquals(15L, messages.get(2).get("lastId").asLong());
+        Mockito.verify(unreadCounter, Mockito.timeout(1000)).pushLocally(1L);
+    }
+
+    @Test
+    void testCaughtUpClientGetsEmptyReplay() throws Exception {
+        Mockito.when(jwtUtil.parseToken("t1")).thenReturn(principal(1L));
+
+        replayer.start(outbox, "t1", 17L);
+
+        JsonNode message = awaitReplayMessages(1).get(0);
+        Assertions.assertEquals(List.of(), ids(message));
+        Assertions.assertFalse(message.get("truncated").asBoolean());
+        Assertions.assertEquals(17L, message.get("lastId").asLong());
+    }
+
+    @Test
+    void testRejectsTokenOfAnotherUser() {
+        Mockito.when(jwtUtil.parseToken("t2")).thenReturn(principal(2L));
+
+        Assertions.assertFalse(replayer.start(outbox, "t2", 0L));
+        Assertions.assertFalse(replayer.start(outbox, null, 0L));
+
+        Mockito.verifyNoInteractions(notificationMapper, unreadCounter);
+    }
+
+    @Test
+    void testWaitsWhileQueueBacklogged() throws Exception {
+        Mockito.when(outbox.getQueueDepth()).thenReturn(100, 100, 0);
+
+        replayer.replay(outbox, 16L, 0);
+
+        Mockito.verifyNoInteractions(notificationMapper);
+        Assertions.assertEquals(List.of(17L), ids(awaitReplayMessages(1).get(0)));
+        Mockito.verify(outbox, Mockito.atLeast(3)).getQueueDepth();
+    }
+
+    private List<JsonNode> awaitReplayMessages(int count) throws Exception {
+        ArgumentCaptor<String> captor = ArgumentCaptor.forClass(String.class);
+        Mockito.verify(outbox, Mockito.timeout(2000).times(count)).offer(ArgumentMatchers.eq("replay"), captor.capture());
+        List<JsonNode> messages = new ArrayList<>();
+        for (String payload : captor.getAllValues()) {
+            messages.add(objectMapper.readTree(payload));
+        }
+        return messages;
+    }
+
+    private static List<Long> ids(JsonNode message) {
+        List<Long> ids = new ArrayList<>();
+        message.get("notifications").forEach(node -> ids.add(node.get("notificationId").asLong()));
+        return ids;
+    }
+
+    private static NotificationVO notification(long id) {
+        NotificationVO vo = new NotificationVO();
+        vo.setNotificationId(id);
+        vo.setUserId(1L);
+        vo.setTitle("通知" + id);
+        return vo;
+    }
+
+    private static JwtPrincipal principal(Long userId) {
+        return new JwtPrincipal("jti-" + userId, userId, "u" + userId, "STUDENT", System.currentTimeMillis() + 60_000);
+    }
+}
@@ -0,0 +1,114 @@
+package com.boda.springboot.websocket;
+
+import com.boda.springboot.properties.WebSocketOutboundProperties;
+import jakarta.websocket.CloseReason;
+import jakarta.websocket.RemoteEndpoint;
+import jakarta.websocket.SendHandler;
+import jakarta.websocket.SendResult;
+import jakarta.websocket.Session;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mockito;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * SessionOutbox 单元测试
+ */
+public class SessionOutboxTests {
+
+    private Session session;
+
+    /**
+     * 已发出但未完成的消息及其回调
+     */
+    private final List<String> inFlight = new ArrayList<>();
+    private final List<SendHandler> handlers = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        session = Mockito.mock(Session.class);
+        RemoteEndpoint.Async async = Mockito.mock(RemoteEndpoint.Async.class);
+        Mockito.when(session.getAsyncRemote()).thenReturn(async);
+        Mockito.when(session.isOpen()).thenReturn(true);
+        Mockito.when(session.getId()).thenReturn("s1");
+        Mockito.doAnswer(invocation -> {
+            inFlight.add(invocation.getArgument(0));
+            handlers.add(invocation.getArgument(1));
+            return null;
+        }).when(async).sendText(ArgumentMatchers.anyString(), ArgumentMatchers.any(SendHandler.class));
+    }
+
+    @Test
+    void testSendsOneAtATimeAndCoalesces() {
+        SessionOutbox outbox = outbox(10, "drop-oldest");
+        outbox.offer("notification", "n1");
+        outbox.offer("unreadCount", "c1");
+        outbox.offer("unreadCount", "c2");
+        outbox.offer("unreadCount", "c3");
+
+        // 同一连接同时只有一条在发送，未发送的未读数量只保留最新一条
+        Assertions.assertEquals(List.of("n1"), inFlight);
+        Assertions.assertEquals(1, outbox.getMetrics().getQueueDepth());
+        Assertions.assertEquals(2L, outbox.getMetrics().getCoalescedCount());
+
+        complete(0);
+        Assertions.assertEquals(List.of("n1", "c3"), inFlight);
+        complete(1);
+        Assertions.assertEquals(2L, outbox.getMetrics().getSentCount());
+        Assertions.assertEquals(0, outbox.getMetrics().getQueueDepth());
+    }
+
+    @Test
+    void testDropOldestWhenFull() {
+        SessionOutbox outbox = outbox(2, "drop-oldest");
+        outbox.offer("notification", "n1");
+        outbox.offer("notification", "n2");
+        outbox.offer("notification", "n3");
+        outbox.offer("notification", "n4");
+
+        Assertions.assertEquals(1L, outbox.getMetrics().getDroppedCount());
+        complete(0);
+        complete(1);
+        Assertions.assertEquals(List.of("n1", "n3", "n4"), inFlight);
+    }
+
+    @Test
+    void testCloseWhenFull() throws IOException {
+        SessionOutbox outbox = outbox(1, "close");
+        outbox.offer("notification", "n1");
+        outbox.offer("notification", "n2");
+
+        Assertions.assertFalse(outbox.offer("notification", "n3"));
+        Mockito.verify(session).close(ArgumentMatchers.any(CloseReason.class));
+        Assertions.assertFalse(outbox.offer("notification", "n4"));
+        Assertions.assertFalse(outbox.isOpen());
+    }
+
+    @Test
+    void testFailedSendClosesSession() throws IOException {
+        SessionOutbox outbox = outbox(10, "drop-oldest");
+        outbox.offer("notification", "n1");
+        outbox.offer("notification", "n2");
+
+        handlers.get(0).onResult(new SendResult(new IOException("timeout")));
+        Mockito.verify(session).close(ArgumentMatchers.any(CloseReason.class));
+        Assertions.assertEquals(1L, outbox.getMetrics().getFailedCount());
+        Assertions.assertEquals(List.of("n1"), inFlight);
+    }
+
+    private SessionOutbox outbox(int capacity, String policy) {
+        WebSocketOutboundProperties properties = new WebSocketOutboundProperties();
+        properties.setQueueCapacity(capacity);
+        properties.setOverflowPolicy(policy);
+        return new SessionOutbox(session, 1L, properties, Runnable::run);
+    }
+
+    private void complete(int index) {
+        handlers.get(index).onResult(new SendResult());
+    }
+}
@@ -0,0 +1,100 @@
+package com.boda.springboot.websocket;
+
+import com.boda.springboot.properties.WebSocketOutboundProperties;
+import com.boda.springboot.properties.WebSocketSessionProperties;
+import jakarta.websocket.CloseReason;
+import jakarta.websocket.RemoteEndpoint;
+import jakarta.websocket.SendHandler;
+import jakarta.websocket.SendResult;
+import jakarta.websocket.Session;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mockito;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * SessionRegistry 单元测试
+ */
+public class SessionRegistryTests {
+
+    private SessionRegistry registry;
+
+    @BeforeEach
+    void setUp() {
+        WebSocketSessionProperties properties = new WebSocketSessionProperties();
+        properties.setIdleTimeoutMillis(1000);
+        properties.setReapTickMillis(100);
+        properties.setMaxSessionsPerUser(2);
+        registry = new SessionRegistry(properties);
+    }
+
+    @Test
+    void testFansOutToEverySessionOfUser() {
+        Session first = session("a");
+        Session second = session("b");
+        registry.register(1L, outbox(first, 1L));
+        registry.register(1L, outbox(second, 1L));
+
+        Assertions.assertEquals(2, registry.send(1L, "notification", "n1"));
+        Assertions.assertEquals(0, registry.send(2L, "notification", "n1"));
+        Assertions.assertEquals(1, registry.userCount());
+        Assertions.assertEquals(2, registry.sessionCount());
+    }
+
+    @Test
+    void testEvictsOldestWhenTooManySessions() throws IOException {
+        Session first = session("a");
+        registry.register(1L, outbox(first, 1L));
+        registry.register(1L, outbox(session("b"), 1L));
+        registry.register(1L, outbox(session("c"), 1L));
+
+        Assertions.assertEquals(2, registry.sessionCount());
+        Mockito.verify(first).close(ArgumentMatchers.any(CloseReason.class));
+    }
+
+    @Test
+    void testReapsIdleSessionsAndKeepsActiveOnes() throws IOException {
+        Session idle = session("a");
+        Session active = session("b");
+        SessionOutbox idleOutbox = outbox(idle, 1L);
+        SessionOutbox activeOutbox = outbox(active, 2L);
+        registry.register(1L, idleOutbox);
+        registry.register(2L, activeOutbox);
+
+        long now = System.currentTimeMillis();
+        ReflectionTestUtils.setField(activeOutbox, "lastSeenMillis", now + 800);
+        registry.reap(now + 1200);
+
+        Assertions.assertFalse(registry.isOnline(1L));
+        Assertions.assertTrue(registry.isOnline(2L));
+        Assertions.assertEquals(List.of(2L), registry.onlineUserIds());
+        Mockito.verify(idle).close(ArgumentMatchers.any(CloseReason.class));
+
+        // 有心跳的连接按新的到期时间重新挂载，之后超时同样关闭
+        registry.reap(now + 2000);
+        Assertions.assertFalse(registry.isOnline(2L));
+        Mockito.verify(active).close(ArgumentMatchers.any(CloseReason.class));
+    }
+
+    private static SessionOutbox outbox(Session session, Long userId) {
+        return new SessionOutbox(session, userId, new WebSocketOutboundProperties(), Runnable::run);
+    }
+
+    private static Session session(String id) {
+        Session session = Mockito.mock(Session.class);
+        RemoteEndpoint.Async async = Mockito.mock(RemoteEndpoint.Async.class);
+        Mockito.when(session.getAsyncRemote()).thenReturn(async);
+        Mockito.when(session.isOpen()).thenReturn(true);
+        Mockito.when(session.getId()).thenReturn(id);
+        Mockito.doAnswer(invocation -> {
+            invocation.<SendHandler>getArgument(1).onResult(new SendResult());
+            return null;
+        }).when(async).sendText(ArgumentMatchers.anyString(), ArgumentMatchers.any(SendHandler.class));
+        return session;
+    }
+}
@@ -0,0 +1,181 @@
+package com.boda.springboot.websocket;
+
+import com.boda.springboot.properties.NotificationBusProperties;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * TCP 通知总线测试，使用本地启动的中转服务作为替身
+ */
+public class TcpNotificationBusTests {
+
+    private static final String SECRET = "test-secret";
+
+    private static final int PEER_QUEUE_CAPACITY = 8;
+
+    private NotificationBusBroker broker;
+
+    private TcpNotificationBus nodeA;
+
+    private TcpNotificationBus nodeB;
+
+    private final List<BusMessage> receivedA = new CopyOnWriteArrayList<>();
+
+    private final List<BusMessage> receivedB = new CopyOnWriteArrayList<>();
+
+    @BeforeEach
+    void setUp() throws Exception {
+        broker = new NotificationBusBroker("127.0.0.1", 0, SECRET, PEER_QUEUE_CAPACITY);
+        nodeA = newNode(receivedA, SECRET);
+        nodeB = newNode(receivedB, SECRET);
+        await(() -> nodeA.isConnected() && nodeB.isConnected() && broker.getPeerCount() == 2);
+    }
+
+    @AfterEach
+    void tearDown() {
+        nodeA.close();
+        nodeB.close();
+        broker.close();
+    }
+
+    @Test
+    void testMessageDeliveredOncePerNode() throws Exception {
+        nodeA.publish(BusMessage.toUser(1L, "notification", "{\"title\":\"新回答\"}"));
+        nodeA.publish(BusMessage.broadcast("notification", "{\"title\":\"系统维护\"}"));
+
+        await(() -> receivedB.size() == 2);
+        // 发起实例直接投递，中转服务不回发
+        TimeUnit.MILLISECONDS.sleep(100);
+        assertEquals(2, receivedA.size());
+        assertEquals(2, receivedB.size());
+
+        BusMessage toUser = receivedB.get(0);
+        assertEquals(1L, toUser.userId());
+        assertEquals("notification", toUser.type());
+        assertEquals("{\"title\":\"新回答\"}", toUser.payload());
+        assertTrue(receivedB.get(1).isBroadcast());
+        assertEquals("{\"title\":\"系统维护\"}", receivedB.get(1).payload());
+    }
+
+    @Test
+    void testBurstIsDeliveredInOrder() throws Exception {
+        for (long i = 0; i < 500; i++) {
+            nodeB.publish(BusMessage.toUser(i, "unreadCount", "{\"count\":" + i + "}"));
+        }
+        await(() -> receivedA.size() == 500);
+        for (int i = 0; i < 500; i++) {
+            assertEquals((long) i, receivedA.get(i).userId());
+        }
+        assertEquals(0, nodeB.getDroppedCount());
+    }
+
+    @Test
+    void testPublishWithoutBrokerStillDeliversLocally() throws Exception {
+        broker.close();
+        await(() -> !nodeA.isConnected());
+
+        nodeA.publish(BusMessage.toUser(2L, null, "{}"));
+
+        assertEquals(1, receivedA.size());
+        assertNull(receivedA.get(0).type());
+    }
+
+    @Test
+    void testWrongSecretIsRejected() throws Exception {
+        List<BusMessage> receivedC = new CopyOnWriteArrayList<>();
+        TcpNotificationBus intruder = newNode(receivedC, "wrong-secret");
+        try {
+            intruder.publish(BusMessage.toUser(3L, "notification", "{}"));
+            nodeA.publish(BusMessage.toUser(4L, "notification", "{}"));
+
+            await(() -> receivedB.size() == 1);
+            TimeUnit.MILLISECONDS.sleep(300);
+            // 未通过校验的实例收不到其他实例的消息，发出的消息也不会被转发
+            assertFalse(intruder.isConnected());
+            assertEquals(2, broker.getPeerCount());
+            assertEquals(4L, receivedB.get(0).userId());
+            assertEquals(1, receivedC.size());
+        } finally {
+            intruder.close();
+        }
+    }
+
+    @Test
+    void testPeerThatNeverReadsIsDisconnected() throws Exception {
+        try (Socket stalled = new Socket()) {
+            // 握手后不再读取，接收缓冲区写满后中转服务对它的写入会一直阻塞
+            stalled.setReceiveBufferSize(4096);
+            stalled.connect(new InetSocketAddress("127.0.0.1", broker.getPort()));
+            DataOutputStream output = new DataOutputStream(stalled.getOutputStream());
+            byte[] secret = SECRET.getBytes(StandardCharsets.UTF_8);
+            output.writeInt(secret.length);
+            output.write(secret);
+            output.flush();
+            assertEquals(NotificationBusBroker.HANDSHAKE_OK, new DataInputStream(stalled.getInputStream()).readByte());
+            await(() -> broker.getPeerCount() == 3);
+
+            String payload = "x".repeat(16 * 1024);
+            for (long i = 0; i < 2000; i++) {
+                nodeA.publish(BusMessage.toUser(i, "notification", payload));
+            }
+
+            // 其他实例照常收到全部消息，读得慢的实例被断开
+            await(() -> receivedB.size() == 2000);
+            await(() -> broker.getPeerCount() == 2);
+            assertEquals(1999L, receivedB.get(1999).userId());
+            assertEquals(0, nodeA.getDroppedCount());
+        }
+    }
+
+    @Test
+    void testSecretIsRequired() {
+        assertThrows(IllegalStateException.class, () -> new NotificationBusBroker("127.0.0.1", 0, " ", PEER_QUEUE_CAPACITY));
+        assertThrows(IllegalStateException.class, () -> newNode(receivedA, ""));
+    }
+
+    @Test
+    void testEncodeDecodeRoundTrip() throws Exception {
+        List<BusMessage> batch = List.of(
+                BusMessage.toUser(7L, "notification", "{\"content\":\"你好\"}"),
+                BusMessage.broadcast(null, "{}"));
+
+        assertEquals(batch, TcpNotificationBus.decode(TcpNotificationBus.encode(batch)));
+    }
+
+    private TcpNotificationBus newNode(List<BusMessage> received, String secret) {
+        NotificationBusProperties properties = new NotificationBusProperties();
+        properties.setBackend("tcp");
+        properties.setBrokerPort(broker.getPort());
+        properties.setSharedSecret(secret);
+        properties.setBatchSize(50);
+        properties.setFlushIntervalMillis(5);
+        properties.setReconnectDelayMillis(100);
+        TcpNotificationBus bus = new TcpNotificationBus(properties);
+        bus.subscribe(received::add);
+        bus.start();
+        return bus;
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!condition.getAsBoolean()) {
+            if (System.currentTimeMillis() > deadline) {
+                fail("等待超时");
+            }
+            TimeUnit.MILLISECONDS.sleep(10);
+        }
+    }
+}
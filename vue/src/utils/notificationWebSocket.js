@@ -8,6 +8,8 @@ class NotificationWebSocket {
     this.reconnectAttempts = 0
     this.maxReconnectAttempts = 5
     this.listeners = []
+    // 最后收到的通知ID，重连后发给服务端补发断线期间的通知
+    this.lastSeenId = null
   }
 
   /**
@@ -20,6 +22,9 @@ class NotificationWebSocket {
       return
     }
 
+    if (this.userId !== userId) {
+      this.lastSeenId = null
+    }
     this.userId = userId
 
     // WebSocket 服务器地址 (注意添加 context-path /api/v1)
@@ -33,6 +38,7 @@ class NotificationWebSocket {
         console.log('✅ WebSocket 连接成功')
         this.reconnectAttempts = 0
         this.startHeartbeat()
+        this.resume()
       }
 
       // 接收消息
@@ -46,7 +52,10 @@ class NotificationWebSocket {
 
           // 处理不同类型的消息
           if (data.type === 'notification') {
+            this.updateLastSeenId(data.notificationId)
             this.handleNotification(data)
+          } else if (data.type === 'replay') {
+            this.updateLastSeenId(data.lastId)
           }
         } catch (error) {
           console.error('解析 WebSocket 消息失败:', error)
@@ -82,6 +91,26 @@ class NotificationWebSocket {
     this.clearReconnectTimer()
   }
 
+  /**
+   * 请求补发断线期间的通知（服务端分批返回 replay 消息，随后推送未读数量）
+   */
+  resume() {
+    const token = localStorage.getItem('token')
+    if (!token || !this.ws || this.ws.readyState !== WebSocket.OPEN) {
+      return
+    }
+    this.ws.send(JSON.stringify({ type: 'resume', lastSeenId: this.lastSeenId, token }))
+  }
+
+  /**
+   * 记录最后收到的通知ID（广播通知ID为负数，不参与补发）
+   */
+  updateLastSeenId(id) {
+    if (typeof id === 'number' && id > 0 && (this.lastSeenId === null || id > this.lastSeenId)) {
+      this.lastSeenId = id
+    }
+  }
+
   /**
    * 重新连接
    */